@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import server.database.entities.question.Activity;
+import server.database.entities.question.EstimateQuestion;
+import server.database.entities.question.MCQuestion;
+import server.services.answer.AnswerCollection;
+
+/**
+ * Checking the answers of all the players to a question.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckAnswerBenchmark {
+    /**
+     * Number of players who answered the question.
+     */
+    @Param({"6", "100", "1000"})
+    private int players;
+
+    private MCQuestion mcQuestion;
+    private AnswerCollection mcAnswers;
+    private EstimateQuestion estimateQuestion;
+    private AnswerCollection estimateAnswers;
+
+    /**
+     * Create the questions and the answers of the players.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Activity> options = Fixtures.activities(4, random);
+        List<Activity> estimates = Fixtures.activities(players, random);
+
+        mcQuestion = Fixtures.mcQuestion(0, options);
+        mcAnswers = Fixtures.answers(Fixtures.game(players), options, random);
+        estimateQuestion = Fixtures.estimateQuestion(1, options.get(0));
+        estimateAnswers = Fixtures.answers(Fixtures.game(players), estimates, random);
+    }
+
+    /**
+     * Check the answers to a multiple choice question.
+     *
+     * @return the scores of the players.
+     */
+    @Benchmark
+    public Map<UUID, Double> mcCheckAnswer() {
+        return mcQuestion.checkAnswer(mcAnswers);
+    }
+
+    /**
+     * Check the answers to an estimate question.
+     *
+     * @return the scores of the players.
+     */
+    @Benchmark
+    public Map<UUID, Double> estimateCheckAnswer() {
+        return estimateQuestion.checkAnswer(estimateAnswers);
+    }
+}
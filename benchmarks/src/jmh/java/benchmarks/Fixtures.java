@@ -0,0 +1,115 @@
+package benchmarks;
+
+import commons.entities.AnswerDTO;
+import commons.entities.questions.MCType;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import server.database.entities.User;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.game.NormalGame;
+import server.database.entities.game.configuration.NormalGameConfiguration;
+import server.database.entities.question.Activity;
+import server.database.entities.question.EstimateQuestion;
+import server.database.entities.question.MCQuestion;
+import server.services.answer.AnswerCollection;
+
+/**
+ * Builders for the entities used by the benchmarks.
+ * All the data is derived from a fixed seed, so that the runs can be compared with each other.
+ */
+public final class Fixtures {
+    private Fixtures() {
+    }
+
+    /**
+     * Create a pool of activities whose costs span several orders of magnitude.
+     *
+     * @param count  the number of activities to create.
+     * @param random the source of randomness.
+     * @return the activities.
+     */
+    public static List<Activity> activities(int count, Random random) {
+        List<Activity> activities = new ArrayList<>(count);
+        for (int idx = 0; idx < count; idx++) {
+            Activity activity = new Activity();
+            activity.setId(new UUID(0, idx));
+            activity.setDescription("Doing activity " + idx + " for a while");
+            activity.setCost((long) Math.pow(10, random.nextInt(7)) * (1 + random.nextInt(9)));
+            activity.setIconId(new UUID(1, idx));
+            activity.setSource("https://example.com/activities/" + idx);
+            activities.add(activity);
+        }
+        return activities;
+    }
+
+    /**
+     * Create a multiple choice question.
+     *
+     * @param id      the index of the question.
+     * @param options the options of the question, the first one being the correct answer.
+     * @return the question.
+     */
+    public static MCQuestion mcQuestion(int id, List<Activity> options) {
+        return new MCQuestion(new UUID(2, id), Set.copyOf(options), "Question " + id, options.get(0),
+                MCType.GUESS_COST);
+    }
+
+    /**
+     * Create an estimate question.
+     *
+     * @param id     the index of the question.
+     * @param answer the activity whose cost is to be estimated.
+     * @return the question.
+     */
+    public static EstimateQuestion estimateQuestion(int id, Activity answer) {
+        return new EstimateQuestion(new UUID(3, id), Set.of(answer), "Question " + id);
+    }
+
+    /**
+     * Create an ongoing game with the given number of players.
+     *
+     * @param players the number of players.
+     * @return the game.
+     */
+    public static NormalGame game(int players) {
+        NormalGame game = new NormalGame();
+        game.setId(new UUID(4, 0));
+        game.setGameId("BENCH");
+        game.setConfiguration(new NormalGameConfiguration(20, Duration.ofSeconds(20), players, 3, 1.5f,
+                100, 0, 75));
+        for (int idx = 0; idx < players; idx++) {
+            User user = new User("player" + idx, "player" + idx + "@example.com", "password");
+            user.setId(new UUID(5, idx));
+            GamePlayer player = new GamePlayer(user);
+            player.setId(new UUID(6, idx));
+            player.setJoinDate(LocalDateTime.parse("2022-03-03T00:00:00"));
+            game.add(player);
+        }
+        return game;
+    }
+
+    /**
+     * Create the answers of all the players of a game, each choosing one of the given activities at random.
+     *
+     * @param game    the game whose players answer.
+     * @param choices the activities the players can choose from.
+     * @param random  the source of randomness.
+     * @return the answers mapped by player.
+     */
+    public static AnswerCollection answers(NormalGame game, List<Activity> choices, Random random) {
+        AnswerCollection answers = new AnswerCollection();
+        LocalDateTime now = LocalDateTime.now();
+        for (GamePlayer player : game.getPlayers().values()) {
+            Activity choice = choices.get(random.nextInt(choices.size()));
+            AnswerDTO answer = new AnswerDTO(null, List.of(choice.getDTO()));
+            answer.setAnswerTime(now.minusNanos(random.nextInt(1_000_000_000)));
+            answers.addAnswer(player.getId(), answer);
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,155 @@
+package benchmarks;
+
+import commons.entities.ActivityDTO;
+import commons.entities.auth.UserDTO;
+import commons.entities.game.GameDTO;
+import commons.entities.game.GamePlayerDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import server.database.entities.User;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.game.NormalGame;
+import server.database.entities.question.Activity;
+
+/**
+ * Conversion of the entities sent to the clients into their DTOs.
+ * The reflective benchmarks map the same entities through ModelMapper, which the entities used before,
+ * as a baseline for the hand-written conversions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+    /**
+     * Number of players in the game.
+     */
+    @Param({"6", "100"})
+    private int players;
+
+    /**
+     * Number of lobbies in the lobby list.
+     */
+    @Param({"50"})
+    private int lobbies;
+
+    private NormalGame game;
+    private List<NormalGame> lobbyList;
+    private GamePlayer player;
+    private User user;
+    private Activity activity;
+
+    /**
+     * Create a game in the middle of a question.
+     */
+    @Setup
+    public void setUp() {
+        List<Activity> options = Fixtures.activities(4, new Random(42));
+        game = Fixtures.game(players);
+        game.addQuestions(List.of(Fixtures.mcQuestion(0, options)));
+        game.setCurrentQuestionNumber(0);
+        player = game.getPlayers().values().iterator().next();
+        user = player.getUser();
+        lobbyList = new ArrayList<>(lobbies);
+        for (int idx = 0; idx < lobbies; idx++) {
+            lobbyList.add(Fixtures.game(players));
+        }
+        activity = options.get(0);
+    }
+
+    /**
+     * Convert a game, including its configuration, current question and players.
+     *
+     * @return the DTO.
+     */
+    @Benchmark
+    public GameDTO gameDTO() {
+        return game.getDTO();
+    }
+
+    /**
+     * Convert a player.
+     *
+     * @return the DTO.
+     */
+    @Benchmark
+    public GamePlayerDTO gamePlayerDTO() {
+        return player.getDTO();
+    }
+
+    /**
+     * Convert an activity.
+     *
+     * @return the DTO.
+     */
+    @Benchmark
+    public ActivityDTO activityDTO() {
+        return activity.getDTO();
+    }
+
+    /**
+     * Convert a user.
+     *
+     * @return the DTO.
+     */
+    @Benchmark
+    public UserDTO userDTO() {
+        return user.getDTO();
+    }
+
+    /**
+     * Convert the lobby list, as returned by the available lobbies endpoint.
+     *
+     * @return the DTOs.
+     */
+    @Benchmark
+    public List<GameDTO> lobbyList() {
+        return lobbyList.stream().<GameDTO>map(NormalGame::getDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Convert a player through ModelMapper.
+     *
+     * @return the DTO.
+     */
+    @Benchmark
+    public GamePlayerDTO gamePlayerDTOReflective() {
+        GamePlayerDTO dto = new ModelMapper().map(player, GamePlayerDTO.class);
+        dto.setNickname(player.getUser().getUsername());
+        dto.setProfilePic(player.getUser().getProfilePic());
+        return dto;
+    }
+
+    /**
+     * Convert a user through ModelMapper.
+     *
+     * @return the DTO.
+     */
+    @Benchmark
+    public UserDTO userDTOReflective() {
+        return new ModelMapper().map(user, UserDTO.class);
+    }
+
+    /**
+     * Convert an activity through ModelMapper.
+     *
+     * @return the DTO.
+     */
+    @Benchmark
+    public ActivityDTO activityDTOReflective() {
+        ActivityDTO dto = new ModelMapper().map(activity, ActivityDTO.class);
+        dto.setIcon(null);
+        return dto;
+    }
+}
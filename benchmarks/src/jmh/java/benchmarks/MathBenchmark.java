@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import server.utils.MathHelpers;
+
+/**
+ * Numerical helpers used to score estimate questions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MathBenchmark {
+    private static final int SIZE = 1024;
+
+    private final double[] values = new double[SIZE];
+    private final double[] centers = new double[SIZE];
+
+    /**
+     * Generate the inputs, spanning the range of the costs of the activities.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int idx = 0; idx < SIZE; idx++) {
+            centers[idx] = Math.pow(10, random.nextInt(7)) * (1 + random.nextInt(9));
+            values[idx] = centers[idx] * (0.5 + random.nextDouble());
+        }
+    }
+
+    /**
+     * Compute the percentage of points of an estimate.
+     *
+     * @param blackhole consumes the results.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void calculatePercentage(Blackhole blackhole) {
+        for (int idx = 0; idx < SIZE; idx++) {
+            blackhole.consume(MathHelpers.calculatePercentage(values[idx], centers[idx]));
+        }
+    }
+
+    /**
+     * Compute the error function.
+     *
+     * @param blackhole consumes the results.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void erf(Blackhole blackhole) {
+        for (int idx = 0; idx < SIZE; idx++) {
+            blackhole.consume(MathHelpers.erf(values[idx] / centers[idx] - 1));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.mockito.AdditionalAnswers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+import server.configuration.QuestionGenerationConfiguration;
+import server.database.entities.question.Activity;
+import server.database.entities.question.Question;
+import server.database.repositories.question.ActivityRepository;
+import server.database.repositories.question.QuestionRepository;
+import server.services.GameMetrics;
+import server.services.QuestionService;
+import server.services.question.ActivityIndex;
+
+/**
+ * Generation of the questions of a game from the pool of activities.
+ * The repositories are stubbed, so only the generation itself is measured.
+ * The activities are indexed once, when the first questions are generated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionGenerationBenchmark {
+    /**
+     * Number of activities to generate the questions from.
+     */
+    @Param({"100", "1000", "10000"})
+    private int activities;
+
+    /**
+     * Number of questions of a game.
+     */
+    @Param({"20"})
+    private int questions;
+
+    private QuestionService questionService;
+
+    /**
+     * Create the question service over a pool of activities.
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        List<Activity> pool = Fixtures.activities(activities, new Random(42));
+
+        // Stub-only mocks do not record their invocations, which would otherwise pile up during the run
+        ActivityRepository activityRepository = mock(ActivityRepository.class, withSettings().stubOnly());
+        when(activityRepository.findQuestionAcceptable()).thenReturn(pool);
+        QuestionRepository questionRepository = mock(QuestionRepository.class, withSettings().stubOnly());
+        when(questionRepository.saveAll(anyList())).then(AdditionalAnswers.returnsFirstArg());
+
+        questionService = new QuestionService();
+        ReflectionTestUtils.setField(questionService, "config", new QuestionGenerationConfiguration());
+        ReflectionTestUtils.setField(questionService, "activityIndex", new ActivityIndex(activityRepository));
+        ReflectionTestUtils.setField(questionService, "questionRepository", questionRepository);
+        ReflectionTestUtils.setField(questionService, "metrics", new GameMetrics(new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Provide the questions of a game.
+     *
+     * @return the generated questions.
+     */
+    @Benchmark
+    public List<Question> provideQuestions() {
+        return questionService.provideQuestions(questions);
+    }
+}
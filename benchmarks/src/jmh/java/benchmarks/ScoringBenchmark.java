@@ -0,0 +1,116 @@
+package benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.game.NormalGame;
+import server.database.entities.question.Activity;
+import server.database.entities.question.MCQuestion;
+import server.services.FSMManager;
+import server.services.GameMetrics;
+import server.services.GameService;
+import server.services.answer.AnswerCollection;
+
+/**
+ * Scoring of a question at the end of its answering stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoringBenchmark {
+    /**
+     * Number of players in the game.
+     */
+    @Param({"6", "100", "1000"})
+    private int players;
+
+    private GameService gameService;
+    private NormalGame game;
+    private MCQuestion question;
+    private AnswerCollection answers;
+    private LocalDateTime questionEndTime;
+
+    /**
+     * Create a game whose players all answered its current question.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Activity> options = Fixtures.activities(4, random);
+
+        gameService = new GameService();
+        ReflectionTestUtils.setField(gameService, "metrics", new GameMetrics(new SimpleMeterRegistry()));
+
+        // The game is not run by a state machine, so there is no live leaderboard to publish
+        FSMManager fsmManager = mock(FSMManager.class, withSettings().stubOnly());
+        when(fsmManager.getLiveGame(any())).thenReturn(Optional.empty());
+        ReflectionTestUtils.setField(gameService, "fsmManager", fsmManager);
+        game = Fixtures.game(players);
+        question = Fixtures.mcQuestion(0, options);
+        game.addQuestions(List.of(question));
+        game.setCurrentQuestionNumber(0);
+
+        answers = Fixtures.answers(game, options, random);
+        for (Map.Entry<UUID, ?> answer : answers.getAnswers()) {
+            GamePlayer player = game.getPlayers().values().stream()
+                    .filter(p -> p.getId().equals(answer.getKey())).findFirst().orElseThrow();
+            gameService.addAnswer(game, player, answers.getAnswer(answer.getKey()));
+        }
+        questionEndTime = LocalDateTime.now();
+    }
+
+    /**
+     * Reset the scores, so that they do not grow across iterations.
+     */
+    @Setup(Level.Iteration)
+    public void resetScores() {
+        for (GamePlayer player : game.getPlayers().values()) {
+            player.setScore(0);
+            player.setStreak(0);
+        }
+    }
+
+    /**
+     * Score the current question of the game.
+     */
+    @Benchmark
+    public void updateScores() {
+        gameService.updateScores(game, question, questionEndTime);
+    }
+
+    /**
+     * Resolve the player of every answer by a linear search over the players, as {@link GameService#updateScores}
+     * did before the players were assigned answer slots. Kept as a baseline for the slot-based scoring.
+     *
+     * @param blackhole consumes the players.
+     */
+    @Benchmark
+    public void lookupPlayers(Blackhole blackhole) {
+        for (Map.Entry<UUID, ?> answer : answers.getAnswers()) {
+            blackhole.consume(game.getPlayers().values().stream()
+                    .filter(p -> p.getId().equals(answer.getKey())).findFirst());
+        }
+    }
+}
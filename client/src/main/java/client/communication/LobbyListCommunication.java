@@ -6,10 +6,10 @@ import client.utils.ClientState;
 import client.utils.communication.ServerUtils;
 import commons.entities.auth.UserDTO;
 import commons.entities.game.GameDTO;
+import commons.entities.game.LobbyPageDTO;
 import commons.entities.game.NormalGameDTO;
 import commons.entities.game.configuration.GameConfigurationDTO;
 import commons.entities.utils.ApiError;
-import java.util.List;
 import java.util.UUID;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
@@ -83,37 +83,44 @@ public class LobbyListCommunication {
     }
 
     /**
-     * Handler for when getting all lobbies succeeds.
+     * Handler for when getting the lobbies succeeds.
      */
     public interface GetLobbiesHandlerSuccess {
-        void handle(List<GameDTO> games);
+        void handle(LobbyPageDTO page);
     }
 
     /**
-     * Handler for when getting all lobbies fails.
+     * Handler for when getting the lobbies fails.
      */
     public interface GetLobbiesHandlerFail {
         void handle();
     }
 
     /**
-     * Function that gets all the lobbies in the database.
+     * Function that gets a page of the public lobbies from the lobby directory.
      *
+     * @param page The number of the page, starting from 0.
+     * @param size The maximum number of lobbies on the page.
+     * @param open Whether to only get the lobbies which have room for another player.
      * @param getLobbiesHandlerSuccess The function that will be called if the request is successful.
      * @param getLobbiesHandlerFail The function that will be called if the request is unsuccessful.
      */
-    public void getLobbies(GetLobbiesHandlerSuccess getLobbiesHandlerSuccess,
+    public void getLobbies(int page, int size, boolean open,
+                           GetLobbiesHandlerSuccess getLobbiesHandlerSuccess,
                            GetLobbiesHandlerFail getLobbiesHandlerFail) {
         Invocation invocation = ServerUtils.getRequestTarget()
-                .path("/api/lobby/available")
+                .path("/api/lobby/directory")
+                .queryParam("page", page)
+                .queryParam("size", size)
+                .queryParam("open", open)
                 .request(APPLICATION_JSON)
                 .accept(APPLICATION_JSON)
                 .buildGet();
 
-        invocation.submit(new InvocationCallback<List<GameDTO>>() {
+        invocation.submit(new InvocationCallback<LobbyPageDTO>() {
 
             @Override
-            public void completed(List<GameDTO> o) {
+            public void completed(LobbyPageDTO o) {
                 getLobbiesHandlerSuccess.handle(o);
             }
 
@@ -125,6 +132,36 @@ public class LobbyListCommunication {
         });
     }
 
+    /**
+     * Subscribes to the changes of the public lobbies, which are pushed over the SSE connection.
+     *
+     * @param subscribe Whether to subscribe or unsubscribe.
+     */
+    public void subscribeToLobbies(boolean subscribe) {
+        Invocation.Builder request = ServerUtils.getRequestTarget()
+                .path("/api/lobby/directory/subscription")
+                .request(APPLICATION_JSON);
+        Invocation invocation = subscribe
+                ? request.buildPut(Entity.entity("", APPLICATION_JSON))
+                : request.buildDelete();
+
+        invocation.submit(new InvocationCallback<Response>() {
+
+            @Override
+            public void completed(Response response) {
+                if (response.getStatus() != 200) {
+                    log.warn("Could not change the subscription to the lobbies: {}", response.getStatus());
+                }
+                response.close();
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                throwable.printStackTrace();
+            }
+        });
+    }
+
     /**
      * Handler for when joining a lobby succeeds.
      */
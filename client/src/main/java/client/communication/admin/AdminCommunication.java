@@ -6,6 +6,7 @@ import client.utils.communication.ServerUtils;
 import commons.entities.ActivityDTO;
 import commons.entities.utils.ApiError;
 import java.io.*;
+import java.time.Duration;
 import java.util.*;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
@@ -25,6 +26,10 @@ import org.apache.cxf.jaxrs.ext.multipart.MultipartBody;
  */
 @Slf4j
 public class AdminCommunication {
+    /**
+     * Timeout of the activity image uploads.
+     */
+    private static final Duration UPLOAD_TIMEOUT = Duration.ofMinutes(2);
 
     /**
      * The get all activities handler success.
@@ -128,7 +133,8 @@ public class AdminCommunication {
         var multiPartBody = new MultipartBody(attachments);
 
         // Build the query invocation
-        Invocation request = ServerUtils.getRequestTarget()
+        // Uploading the image can take longer than the usual requests
+        Invocation request = ServerUtils.getRequestTarget(UPLOAD_TIMEOUT)
                 .register(new org.apache.cxf.jaxrs.provider.MultipartProvider())
                 .path("/api/activity/save/image")
                 .request(APPLICATION_JSON)
@@ -7,6 +7,7 @@ import client.utils.communication.ServerUtils;
 import commons.entities.ActivityDTO;
 import commons.entities.AnswerDTO;
 import commons.entities.game.GamePlayerDTO;
+import commons.entities.game.GameSnapshotDTO;
 import commons.entities.game.PowerUp;
 import commons.entities.game.ReactionDTO;
 import commons.entities.questions.QuestionDTO;
@@ -143,6 +144,46 @@ public class GameCommunication {
         });
     }
 
+    /**
+     * Requests the state of the current stage of the game from the server, in a single request.
+     *
+     * @param gameId         the id of the game
+     * @param handlerSuccess the handler for when the request succeeds
+     * @param handlerFail    the handler for when the request fails
+     */
+    public static void getSnapshot(UUID gameId,
+                                   GetSnapshotHandlerSuccess handlerSuccess,
+                                   GetSnapshotHandlerFail handlerFail) {
+        // Build the query invocation
+        Invocation invocation = ServerUtils.getRequestTarget()
+                .path("/api/game/" + gameId + "/snapshot")
+                .request(APPLICATION_JSON)
+                .buildGet();
+
+        // Perform the query asynchronously
+        invocation.submit(new InvocationCallback<Response>() {
+            @Override
+            public void completed(Response response) {
+                if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+                    GameSnapshotDTO snapshot = response.readEntity(GameSnapshotDTO.class);
+                    if (snapshot.getQuestion() != null) {
+                        ClientState.game.setCurrentQuestion(snapshot.getQuestion());
+                    }
+                    handlerSuccess.handle(snapshot);
+                } else {
+                    log.error("Failed to get the game snapshot: {}", response.getStatus());
+                    handlerFail.handle();
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                log.error("Failed to get the game snapshot", throwable);
+                handlerFail.handle();
+            }
+        });
+    }
+
     /**
      * Sends the answer to the current question to the server.
      *
@@ -368,6 +409,20 @@ public class GameCommunication {
         void handle();
     }
 
+    /**
+     * Handler for when getting the game snapshot succeeds.
+     */
+    public interface GetSnapshotHandlerSuccess {
+        void handle(GameSnapshotDTO snapshot);
+    }
+
+    /**
+     * Handler for when getting the game snapshot fails.
+     */
+    public interface GetSnapshotHandlerFail {
+        void handle();
+    }
+
     /**
      * Handler for when getting the answer succeeds.
      */
@@ -22,7 +22,6 @@ import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -134,7 +133,14 @@ public class ActivityListScreenCtrl implements Initializable {
                     } else {
                         imageView.setFitHeight(50);
                         imageView.setFitWidth(50);
-                        imageView.setImage(new Image(ServerUtils.getImagePathFromId(activityId), true));
+                        imageView.setImage(null);
+                        ServerUtils.imageCache.withImage(ServerUtils.getImagePathFromId(activityId, 64), 50, 50,
+                                image -> {
+                                    // The cell may have been reused while the image was loading
+                                    if (activityId.equals(getItem())) {
+                                        imageView.setImage(image);
+                                    }
+                                });
                         setGraphic(imageView);
                     }
                 }
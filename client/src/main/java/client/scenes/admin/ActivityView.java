@@ -58,7 +58,10 @@ public class ActivityView {
         this.source = activityDTO.getSource();
         this.icon = activityDTO.getIconId();
         if (this.icon != null) {
-            this.image = new Image(ServerUtils.getImagePathFromId(this.icon), true);
+            // Reuse the image if it was already downloaded, otherwise load it in the background
+            String url = ServerUtils.getImagePathFromId(this.icon);
+            Image cached = ServerUtils.imageCache.getIfPresent(url, 0, 0);
+            this.image = cached != null ? cached : new Image(url, true);
         } else {
             this.image = null;
         }
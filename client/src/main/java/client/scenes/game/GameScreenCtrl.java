@@ -11,6 +11,7 @@ import client.scenes.questions.QuestionPane;
 import client.scenes.questions.StartGamePane;
 import client.utils.ClientState;
 import client.utils.FileUtils;
+import client.utils.LiveLeaderboard;
 import client.utils.SoundEffect;
 import client.utils.SoundManager;
 import client.utils.communication.SSEEventHandler;
@@ -24,6 +25,8 @@ import com.jfoenix.controls.JFXToggleButton;
 import commons.entities.ActivityDTO;
 import commons.entities.AnswerDTO;
 import commons.entities.game.GamePlayerDTO;
+import commons.entities.game.GameSnapshotDTO;
+import commons.entities.game.LeaderboardDeltaDTO;
 import commons.entities.game.PowerUp;
 import commons.entities.game.ReactionDTO;
 import commons.entities.game.configuration.NormalGameConfigurationDTO;
@@ -36,6 +39,7 @@ import java.net.URI;
 import java.net.URL;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
@@ -108,6 +112,8 @@ public class GameScreenCtrl implements Initializable, SSESource {
     private final Map<UUID, Circle> userCircles = new HashMap<>();
     // Allows us to restore pictures back to original state
     private final Map<UUID, String> userProfilePictures = new HashMap<>();
+    // Kept up to date by the leaderboard updates pushed by the server
+    private final LiveLeaderboard liveLeaderboard = new LiveLeaderboard();
 
 
     /**
@@ -168,27 +174,18 @@ public class GameScreenCtrl implements Initializable, SSESource {
         SoundManager.playMusic(SoundEffect.QUESTION_START, getClass());
         log.debug("Question stage handler triggered. Delay: {}", delay);
 
-        communication.getQuestionNumber(ClientState.game.getId(), questionNumber -> runLater(() -> {
-            // Sets the question number
-            Integer qnum = questionNumber + 1;
-            if (ClientState.game.getConfiguration() instanceof NormalGameConfigurationDTO) {
-                questionNumberLabel.setText(
-                        qnum
-                                + " of "
-                                + ((NormalGameConfigurationDTO) ClientState.game.getConfiguration()).getNumQuestions());
-            } else {
-                questionNumberLabel.setText(qnum.toString());
-            }
-        }), error -> runLater(() -> log.error("error occurred: " + error.getDescription())));
-
-
-        // Set the current question
-        GameCommunication.updateCurrentQuestion(
+        // Set the current question and its number
+        GameCommunication.getSnapshot(
                 ClientState.game.getId(),
                 // Success
-                (question) -> runLater(() -> {
-                    log.debug("Received a question: {}", question.getId());
-                    setQuestion(question);
+                (snapshot) -> runLater(() -> {
+                    if (snapshot.getQuestion() == null) {
+                        mainCtrl.showErrorSnackBar("Unable to retrieve the current question");
+                        return;
+                    }
+                    log.debug("Received a question: {}", snapshot.getQuestion().getId());
+                    showQuestionNumber(snapshot.getQuestionNumber());
+                    setQuestion(snapshot.getQuestion());
                     // Start the timer
                     startTimer(Duration.ofMillis(delay));
                 }),
@@ -197,18 +194,45 @@ public class GameScreenCtrl implements Initializable, SSESource {
                         () -> mainCtrl.showErrorSnackBar("Unable to retrieve the current question")));
     }
 
+    /**
+     * Shows the number of the current question.
+     *
+     * @param questionNumber the number of the question, starting from 0.
+     */
+    private void showQuestionNumber(Integer questionNumber) {
+        Integer qnum = questionNumber + 1;
+        if (ClientState.game.getConfiguration() instanceof NormalGameConfigurationDTO) {
+            questionNumberLabel.setText(
+                    qnum
+                            + " of "
+                            + ((NormalGameConfigurationDTO) ClientState.game.getConfiguration()).getNumQuestions());
+        } else {
+            questionNumberLabel.setText(qnum.toString());
+        }
+    }
+
     /**
      * Transits the client to the answer stage.
      */
     @SSEEventHandler(SSEMessageType.STOP_QUESTION)
     public void toAnswerStage(Integer delay) {
         log.debug("The answer stage has been reached. Delay: {}", delay);
-        GameCommunication.updateCurrentAnswer(
+        // The answer, the leaderboard and the player's score come in a single snapshot
+        GameCommunication.getSnapshot(
                 ClientState.game.getId(),
                 // Success
-                (answer) -> runLater(() -> {
-                    log.debug("Received answer for question {}", answer.getQuestionId());
-                    setAnswer(answer);
+                (snapshot) -> runLater(() -> {
+                    this.showLeaderboard(syncLeaderboard(snapshot));
+                    // Show player's updated score
+                    showScore(snapshot.getPlayer());
+
+                    if (snapshot.getAnswer() == null) {
+                        log.error("Unable to retrieve the current answer.");
+                        mainCtrl.showErrorSnackBar("Unable to retrieve the current answer");
+                        return;
+                    }
+                    log.debug("Received answer for question {}", snapshot.getAnswer().getQuestionId());
+                    setAnswer(snapshot.getAnswer());
                     // Start the timer
                     startTimer(Duration.ofMillis(delay));
                 }),
@@ -220,19 +244,44 @@ public class GameScreenCtrl implements Initializable, SSESource {
                     );
                 }
         );
+    }
 
-        GameCommunication.updateScoreLeaderboard(
-                ClientState.game.getId(),
-                // Success
-                (leaderboard) -> runLater(() -> {
-                    log.debug("Received leaderboard: {}", leaderboard);
-                    this.showLeaderboard(leaderboard);
+    /**
+     * Applies the changes to the leaderboard pushed by the server.
+     *
+     * @param delta the changes to the leaderboard.
+     */
+    @SSEEventHandler(SSEMessageType.LEADERBOARD_UPDATE)
+    public void leaderboardUpdate(LeaderboardDeltaDTO delta) {
+        log.debug("Leaderboard update {} with {} changes", delta.getVersion(), delta.getEntries().size());
+        boolean applied = liveLeaderboard.apply(ClientState.game, delta);
 
-                    // Show player's updated score
-                    Optional<GamePlayerDTO> myPlayer = leaderboard.stream()
-                            .filter(player -> player.getUserId().equals(ClientState.user.getId()))
-                            .findFirst();
-                    myPlayer.ifPresent(this::showScore);
+        // Players leaving are only shown once the leaderboard knows about them
+        if (applied && delta.getEntries().stream().anyMatch(entry -> entry.getRank() == 0)) {
+            updateInGame();
+        }
+    }
+
+    /**
+     * Passes the current leaderboard to a handler on the UI thread.
+     * The local leaderboard is used when it is up to date, otherwise it is fetched from the server.
+     *
+     * @param handler the handler of the players, in rank order.
+     */
+    private void withLeaderboard(Consumer<List<GamePlayerDTO>> handler) {
+        UUID gameId = ClientState.game.getId();
+        if (liveLeaderboard.isInSync(gameId)) {
+            List<GamePlayerDTO> leaderboard = liveLeaderboard.getStandings();
+            runLater(() -> handler.accept(leaderboard));
+            return;
+        }
+
+        GameCommunication.getSnapshot(
+                gameId,
+                // Success
+                (snapshot) -> runLater(() -> {
+                    log.debug("Received leaderboard version {}", snapshot.getLeaderboardVersion());
+                    handler.accept(syncLeaderboard(snapshot));
                 }),
                 // Failure
                 () -> runLater(
@@ -241,6 +290,21 @@ public class GameScreenCtrl implements Initializable, SSESource {
         );
     }
 
+    /**
+     * Brings the local leaderboard up to date with a snapshot of the game, unless it already is.
+     * The snapshot is versioned, so the updates pushed after it keep being applied locally.
+     *
+     * @param snapshot the snapshot, listing all the players.
+     * @return the players, in rank order.
+     */
+    private List<GamePlayerDTO> syncLeaderboard(GameSnapshotDTO snapshot) {
+        UUID gameId = ClientState.game.getId();
+        if (!liveLeaderboard.isInSync(gameId)) {
+            liveLeaderboard.reset(gameId, snapshot.getLeaderboard(), snapshot.getLeaderboardVersion());
+        }
+        return liveLeaderboard.getStandings();
+    }
+
     /**
      * Handles the "player left" notification.
      *
@@ -253,7 +317,10 @@ public class GameScreenCtrl implements Initializable, SSESource {
                 .map(GamePlayerDTO::getNickname)
                 .findFirst().orElse("<Unknown>");
         mainCtrl.showInformationalSnackBar("Player " + username + " has left the game.");
-        updateInGame();
+        // Otherwise the leaderboard update that follows removes the player
+        if (!liveLeaderboard.isInSync(ClientState.game.getId())) {
+            updateInGame();
+        }
     }
 
     /**
@@ -262,6 +329,7 @@ public class GameScreenCtrl implements Initializable, SSESource {
     @SSEEventHandler(SSEMessageType.PLAYER_REJOINED)
     public void playerRejoinedReact() {
         mainCtrl.showInformationalSnackBar("A player has rejoined the game.");
+        liveLeaderboard.invalidate();
         updateInGame();
     }
 
@@ -271,18 +339,7 @@ public class GameScreenCtrl implements Initializable, SSESource {
     public void updateInGame() {
         log.debug("An update in the game has occurred");
         // Update Leaderboard to show changes
-        GameCommunication.updateScoreLeaderboard(
-                ClientState.game.getId(),
-                // Success
-                (leaderboard) -> runLater(() -> {
-                    log.debug("Received leaderboard: {}", leaderboard);
-                    this.showLeaderboard(leaderboard);
-                }),
-                // Failure
-                () -> runLater(
-                        () -> mainCtrl.showErrorSnackBar("Unable to retrieve the leaderboard")
-                )
-        );
+        withLeaderboard(this::showLeaderboard);
     }
 
     /**
@@ -301,24 +358,15 @@ public class GameScreenCtrl implements Initializable, SSESource {
      */
     @SSEEventHandler(SSEMessageType.SHOW_LEADERBOARD)
     public void toLeaderboardStage(Integer delay) {
-        GameCommunication.updateScoreLeaderboard(
-                ClientState.game.getId(),
-                // Success
-                (leaderboard) -> runLater(() -> {
-                    log.debug("Received leaderboard: {}", leaderboard);
-                    var leaderboardNode = new LeaderboardPane();
-                    leaderboardNode.setViewOrder(Integer.MAX_VALUE);
-                    leaderboardNode.resetInGame(leaderboard);
-                    this.mainBorderPane.setCenter(leaderboardNode);
-                    if (delay != null) {
-                        startTimer(Duration.ofMillis(delay));
-                    }
-                }),
-                // Failure
-                () -> runLater(
-                        () -> mainCtrl.showErrorSnackBar("Unable to retrieve the leaderboard")
-                )
-        );
+        withLeaderboard((leaderboard) -> {
+            var leaderboardNode = new LeaderboardPane();
+            leaderboardNode.setViewOrder(Integer.MAX_VALUE);
+            leaderboardNode.resetInGame(leaderboard);
+            this.mainBorderPane.setCenter(leaderboardNode);
+            if (delay != null) {
+                startTimer(Duration.ofMillis(delay));
+            }
+        });
     }
 
     private void showLeaderboard(List<GamePlayerDTO> players) {
@@ -346,15 +394,13 @@ public class GameScreenCtrl implements Initializable, SSESource {
                 // Fill of the circle to the image pattern
                 String imageUrl = FileUtils.defaultUserPic;
                 if (player.getProfilePic() != null) {
-                    imageUrl = ServerUtils.getImagePathFromId(player.getProfilePic());
+                    imageUrl = ServerUtils.getImagePathFromId(player.getProfilePic(), 40);
                 }
 
-                circle = new Circle(19);
-                circle.setFill(new ImagePattern(new Image(imageUrl,
-                        40,
-                        40,
-                        false,
-                        true)));
+                Circle newCircle = new Circle(19);
+                ServerUtils.imageCache.withImage(imageUrl, 40, 40,
+                        image -> newCircle.setFill(new ImagePattern(image)));
+                circle = newCircle;
 
                 this.userCircles.put(player.getUserId(), circle);
                 this.userProfilePictures.put(player.getUserId(), imageUrl);
@@ -468,28 +514,14 @@ public class GameScreenCtrl implements Initializable, SSESource {
 
         final KeyFrame kf1 = new KeyFrame(javafx.util.Duration.seconds(0), e -> {
             log.debug("Setting the reaction image to {}", reactionUrl);
-            try {
-                userImageCircle.setFill(new ImagePattern(new Image(reactionUrl.toString(),
-                        40,
-                        40,
-                        false,
-                        true)));
-            } catch (Exception ex) {
-                log.error("Failed to set reaction image", ex);
-            }
+            ServerUtils.imageCache.withImage(ServerUtils.getSizedImagePath(reactionUrl.toString(), 40), 40, 40,
+                    image -> userImageCircle.setFill(new ImagePattern(image)));
         });
 
         final KeyFrame kf2 = new KeyFrame(javafx.util.Duration.seconds(5), e -> {
             log.debug("Restoring the user image to {}", userImageUrl);
-            try {
-                userImageCircle.setFill(new ImagePattern(new Image(userImageUrl,
-                        40,
-                        40,
-                        false,
-                        true)));
-            } catch (Exception ex) {
-                log.error("Failed to restore user image", ex);
-            }
+            ServerUtils.imageCache.withImage(userImageUrl, 40, 40,
+                    image -> userImageCircle.setFill(new ImagePattern(image)));
         });
 
         final Timeline timeline = new Timeline(kf1, kf2);
@@ -633,6 +665,30 @@ public class GameScreenCtrl implements Initializable, SSESource {
         SoundManager.everyoneMuted.bindBidirectional(muteEveryoneToggleButton.selectedProperty());
     }
 
+    /**
+     * Loads the avatars of the players and the reaction images in the background,
+     * so that they are ready to be shown when the game screen needs them.
+     */
+    public void prefetchImages() {
+        if (ClientState.game != null) {
+            ServerUtils.imageCache.prefetch(ClientState.game.getPlayers().stream()
+                    .map(GamePlayerDTO::getProfilePic)
+                    .filter(Objects::nonNull)
+                    .map(id -> ServerUtils.getImagePathFromId(id, 40))
+                    .collect(Collectors.toList()), 40, 40);
+        }
+
+        communication.getReactions((reactions) -> {
+            List<URI> urls = new ArrayList<>(reactions.values());
+            ServerUtils.imageCache.prefetch(urls.stream()
+                    .map(url -> ServerUtils.getSizedImagePath(url.toString(), 40))
+                    .collect(Collectors.toList()), 40, 40);
+            ServerUtils.imageCache.prefetch(urls.stream()
+                    .map(url -> ServerUtils.getSizedImagePath(url.toString(), 35))
+                    .collect(Collectors.toList()), 35, 35);
+        }, () -> log.warn("Unable to prefetch the reactions"));
+    }
+
     /**
      * Sets up the emoji bar.
      */
@@ -652,7 +708,8 @@ public class GameScreenCtrl implements Initializable, SSESource {
 
                 // Set reaction image
                 ImageView image = new ImageView();
-                image.setImage(new Image(entry.getValue().toString(), 35, 35, false, true));
+                ServerUtils.imageCache.withImage(ServerUtils.getSizedImagePath(entry.getValue().toString(), 35),
+                        35, 35, image::setImage);
                 jfxButton.setGraphic(image);
 
                 jfxButton.setOnMouseClicked((event) -> {
@@ -171,6 +171,7 @@ public class LobbyCreationScreenCtrl implements Initializable, SSESource {
      */
     @SSEEventHandler(SSEMessageType.GAME_START)
     public void startGame(Integer preparationDuration) {
+        mainCtrl.getGameScreenCtrl().prefetchImages();
         mainCtrl.showGameScreen(null);
         mainCtrl.getGameScreenCtrl().startTimer(Duration.ofMillis(preparationDuration));
         ClientState.previousScore = Optional.of(0);
@@ -9,12 +9,17 @@ import client.scenes.UserInfoPane;
 import client.utils.AlgorithmicUtils;
 import client.utils.SoundEffect;
 import client.utils.SoundManager;
+import client.utils.communication.SSEEventHandler;
+import client.utils.communication.SSEHandler;
+import client.utils.communication.SSESource;
 import client.utils.communication.ServerUtils;
 import com.google.inject.Inject;
 import com.jfoenix.controls.JFXButton;
 import com.jfoenix.controls.JFXSlider;
 import com.jfoenix.controls.JFXToggleButton;
-import commons.entities.game.GameDTO;
+import commons.entities.game.LobbyListDeltaDTO;
+import commons.entities.game.LobbySummaryDTO;
+import commons.entities.messages.SSEMessageType;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
 import java.net.URL;
@@ -27,12 +32,20 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
 import lombok.Generated;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Lobby list controller. Controls the lobby list.
+ * The lobbies are fetched once when the screen is shown, and kept up to date with the changes pushed over SSE.
  */
+@Slf4j
 @Generated
-public class LobbyListCtrl implements Initializable {
+public class LobbyListCtrl implements SSESource, Initializable {
+    /**
+     * The maximum number of lobbies fetched at once.
+     */
+    private static final int PAGE_SIZE = 50;
+
     private final MainCtrl mainCtrl;
     private final LobbyListCommunication communication;
 
@@ -58,6 +71,16 @@ public class LobbyListCtrl implements Initializable {
     private List<FontAwesomeIcon> volumeIconList;
     private UserInfoPane userInfo;
 
+    /**
+     * The public lobbies, oldest first.
+     */
+    private final Map<UUID, LobbySummaryDTO> lobbies = new LinkedHashMap<>();
+
+    /**
+     * The version of the lobby directory the lobbies are up to date with.
+     */
+    private long version = -1;
+
     /**
      * Initialize a new controller using dependency injection.
      *
@@ -71,6 +94,11 @@ public class LobbyListCtrl implements Initializable {
     }
 
 
+    @Override
+    public void bindHandler(SSEHandler handler) {
+        handler.initialize(this);
+    }
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Enables/ Disables the button according to the string size inside the textfield.
@@ -159,14 +187,19 @@ public class LobbyListCtrl implements Initializable {
     @FXML
     private void searchButtonClick() {
         SoundManager.playMusic(SoundEffect.BUTTON_CLICK, getClass());
-        updateLobbyList(searchField.getText());
+        showLobbies(searchField.getText());
     }
 
     /**
      * This function resets the control to a default state.
      */
     public void reset() {
-        updateLobbyList("");
+        // Listen to the changes of the lobbies before fetching them, so that none is missed
+        ServerUtils.sseHandler.subscribe();
+        bindHandler(ServerUtils.sseHandler);
+        communication.subscribeToLobbies(true);
+        fetchLobbies();
+
         if (userInfo != null) {
             userInfo.setVisible(false);
         }
@@ -174,31 +207,62 @@ public class LobbyListCtrl implements Initializable {
         setUpVolume();
     }
 
-    private void updateLobbyList(String filter) {
-        communication.getLobbies(
-                games -> runLater(() -> {
-                    lobbyListVbox.getChildren().clear();
-
-                    Comparator<GameDTO> comparator = Comparator.comparing(gameDTO ->
-                            AlgorithmicUtils.levenshteinDistance(filter, gameDTO.getGameName()));
-
-                    var sortedLobbies = games.stream().sorted(comparator);
+    /**
+     * Applies the changes of the lobbies pushed by the server.
+     * If a change was missed, the lobbies are fetched again.
+     *
+     * @param delta the lobbies that changed and were removed.
+     */
+    @SSEEventHandler(SSEMessageType.LOBBY_LIST_UPDATE)
+    public void lobbyListUpdated(LobbyListDeltaDTO delta) {
+        if (delta.getVersion() <= version) {
+            // Already part of the fetched lobbies
+            return;
+        }
+        if (delta.getVersion() != version + 1) {
+            log.debug("Missed lobby list changes {}-{}, fetching the lobbies", version + 1, delta.getVersion() - 1);
+            fetchLobbies();
+            return;
+        }
 
-                    var generatedLobbies =
-                            sortedLobbies.map(gameDTO ->
-                                    new LobbyListItemPane(gameDTO, (id) ->
-                                            communication.joinLobby(id,
-                                                    gameDTO1 -> runLater(mainCtrl::showLobbyScreen),
-                                                    () -> runLater(() ->
-                                                            mainCtrl.showErrorSnackBar(
-                                                                    "Something went wrong while joining the lobby."
-                                                            ))))).collect(Collectors.toList());
+        version = delta.getVersion();
+        delta.getRemoved().forEach(lobbies::remove);
+        delta.getUpdated().forEach(lobby -> lobbies.put(lobby.getId(), lobby));
+        showLobbies(searchField.getText());
+    }
 
-                    lobbyListVbox.getChildren().addAll(generatedLobbies);
+    private void fetchLobbies() {
+        communication.getLobbies(0, PAGE_SIZE, false,
+                page -> runLater(() -> {
+                    lobbies.clear();
+                    page.getLobbies().forEach(lobby -> lobbies.put(lobby.getId(), lobby));
+                    version = page.getVersion();
+                    showLobbies(searchField.getText());
                 }),
                 () -> runLater(() -> mainCtrl.showErrorSnackBar("Something went wrong while fetching the lobbies.")));
     }
 
+    private void showLobbies(String filter) {
+        lobbyListVbox.getChildren().clear();
+
+        Comparator<LobbySummaryDTO> comparator = Comparator.comparing(lobby ->
+                AlgorithmicUtils.levenshteinDistance(filter, lobby.getGameName()));
+
+        var sortedLobbies = lobbies.values().stream().sorted(comparator);
+
+        var generatedLobbies =
+                sortedLobbies.map(lobby ->
+                        new LobbyListItemPane(lobby, (id) ->
+                                communication.joinLobby(id,
+                                        gameDTO -> runLater(mainCtrl::showLobbyScreen),
+                                        () -> runLater(() ->
+                                                mainCtrl.showErrorSnackBar(
+                                                        "Something went wrong while joining the lobby."
+                                                ))))).collect(Collectors.toList());
+
+        lobbyListVbox.getChildren().addAll(generatedLobbies);
+    }
+
     /**
      * Function that lets the user join a random lobby.
      */
@@ -206,10 +270,10 @@ public class LobbyListCtrl implements Initializable {
     private void joinRandomLobby() {
         settingsPanel.setVisible(false);
         SoundManager.playMusic(SoundEffect.BUTTON_CLICK, getClass());
-        communication.getLobbies(
-                games -> runLater(() -> {
-                    // Gets a random available lobby and joins it
-                    games.removeIf(game -> (game.getConfiguration().getCapacity() <= game.getPlayers().size()));
+        communication.getLobbies(0, PAGE_SIZE, true,
+                page -> runLater(() -> {
+                    // Gets a random lobby with room for the user and joins it
+                    var games = page.getLobbies();
                     if (games.isEmpty()) {
                         this.createLobby();
                     } else {
@@ -232,7 +296,7 @@ public class LobbyListCtrl implements Initializable {
     @FXML
     private void fetchButtonClick() {
         SoundManager.playMusic(SoundEffect.BUTTON_CLICK, getClass());
-        updateLobbyList(searchField.getText());
+        fetchLobbies();
     }
 
     @FXML
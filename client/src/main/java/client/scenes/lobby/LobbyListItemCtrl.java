@@ -4,7 +4,7 @@ import client.scenes.lobby.configuration.ConfigurationScreenPane;
 import client.utils.SoundEffect;
 import client.utils.SoundManager;
 import com.jfoenix.controls.JFXButton;
-import commons.entities.game.GameDTO;
+import commons.entities.game.LobbySummaryDTO;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
 import java.net.URL;
 import java.util.ResourceBundle;
@@ -28,7 +28,7 @@ public class LobbyListItemCtrl implements Initializable {
     @FXML private JFXButton joinLobbyButton;
     @FXML private AnchorPane topLevelAnchorPane;
     @FXML private FontAwesomeIconView expandIcon;
-    private GameDTO game;
+    private LobbySummaryDTO game;
     private JoinHandler joinHandler;
 
     /**
@@ -46,7 +46,7 @@ public class LobbyListItemCtrl implements Initializable {
     }
 
 
-    public LobbyListItemCtrl(GameDTO game, JoinHandler joinHandler) {
+    public LobbyListItemCtrl(LobbySummaryDTO game, JoinHandler joinHandler) {
         this.game = game;
         this.joinHandler = joinHandler;
     }
@@ -74,12 +74,12 @@ public class LobbyListItemCtrl implements Initializable {
         AnchorPane.setRightAnchor(extraInfoScreen, 0d);
 
         // a boolean that depicts if the lobby is full
-        var lobbyFull = game.getPlayers().size() == game.getConfiguration().getCapacity();
+        var lobbyFull = !game.hasRoom();
 
         // If the lobby is full the button is disabled and the text says FULL
         // Otherwise the text is Join and the button is enabled.
         this.joinLobbyButton.setText((lobbyFull ? "FULL " : "JOIN ")
-                        + game.getPlayers().size() + "/" + game.getConfiguration().getCapacity());
+                        + game.getPlayerCount() + "/" + game.getConfiguration().getCapacity());
         this.joinLobbyButton.setDisable(lobbyFull);
     }
 
@@ -1,6 +1,6 @@
 package client.scenes.lobby;
 
-import commons.entities.game.GameDTO;
+import commons.entities.game.LobbySummaryDTO;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -24,7 +24,7 @@ public class LobbyListItemPane extends StackPane {
      * The constructor of the class. Initializes the view and adds it to the
      * stackpane and it creates a controller.
      */
-    public LobbyListItemPane(GameDTO gameDTO, LobbyListItemCtrl.JoinHandler joinHandler) {
+    public LobbyListItemPane(LobbySummaryDTO lobby, LobbyListItemCtrl.JoinHandler joinHandler) {
 
         // We create the loader for the fxml of the lobby list item
         FXMLLoader fxmlLoader =
@@ -32,7 +32,7 @@ public class LobbyListItemPane extends StackPane {
 
         // We set the controller of the fxml to our newly created controller and add the two required arguments.
         fxmlLoader.setControllerFactory(param ->
-                controller = new LobbyListItemCtrl(gameDTO, joinHandler));
+                controller = new LobbyListItemCtrl(lobby, joinHandler));
 
         // This loads the fxml
         try {
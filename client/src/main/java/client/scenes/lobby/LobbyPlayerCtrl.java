@@ -13,7 +13,6 @@ import java.util.ResourceBundle;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import lombok.Generated;
 import lombok.extern.slf4j.Slf4j;
@@ -70,9 +69,9 @@ public class LobbyPlayerCtrl implements Initializable {
 
         String imageUrl = FileUtils.defaultUserPic;
         if (playerDTO.getProfilePic() != null) {
-            imageUrl = ServerUtils.getImagePathFromId(playerDTO.getProfilePic());
+            imageUrl = ServerUtils.getImagePathFromId(playerDTO.getProfilePic(), 40);
         }
-        this.playerImageView.setImage(new Image(imageUrl, true));
+        ServerUtils.imageCache.withImage(imageUrl, 0, 0, this.playerImageView::setImage);
 
         setPlayerHost(false);
         showRemovePlayerBtn(false);
@@ -133,6 +133,7 @@ public class LobbyScreenCtrl implements SSESource, Initializable {
     public void gameStarted(Integer preparationDuration) {
         settingsPanel.setVisible(false);
         SoundManager.playMusic(SoundEffect.GAME_START, getClass());
+        mainCtrl.getGameScreenCtrl().prefetchImages();
         mainCtrl.showGameScreen(ClientState.game.getCurrentQuestion());
         mainCtrl.getGameScreenCtrl().startTimer(Duration.ofMillis(preparationDuration));
         ClientState.previousScore = Optional.of(0);
@@ -2,27 +2,38 @@ package client.utils;
 
 import javax.ws.rs.client.ClientRequestContext;
 import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedMap;
 
 /**
  * Class that handles authentication additional information.
+ * It is registered once on the shared client, and the token is swapped as the user logs in and out.
  */
 public class Authenticator implements ClientRequestFilter {
 
-    private final String token;
+    private volatile String token;
 
-    public Authenticator(String token) {
+    /**
+     * Set the token sent with every request.
+     *
+     * @param token the token, or null to send requests unauthenticated.
+     */
+    public void setToken(String token) {
         this.token = token;
     }
 
     /**
      * Function that acts as a middleware in order to
      * keep track of the token on every request we make.
+     * Requests that already carry credentials are left untouched.
      *
      * @param requestContext context holder for request.
      */
     public void filter(ClientRequestContext requestContext) {
+        String token = this.token;
         MultivaluedMap<String, Object> headers = requestContext.getHeaders();
-        headers.add("Authorization", "Bearer " + token);
+        if (token != null && !headers.containsKey(HttpHeaders.AUTHORIZATION)) {
+            headers.add(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
     }
-}
\ No newline at end of file
+}
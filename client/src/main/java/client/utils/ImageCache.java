@@ -0,0 +1,194 @@
+package client.utils;
+
+import static javafx.application.Platform.runLater;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javafx.scene.image.Image;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory cache of decoded images, backed by the on-disk resource cache.
+ * Images are keyed by URL and decoded size, so each one is downloaded and decoded once
+ * however many times it is displayed.
+ */
+@Slf4j
+public class ImageCache {
+    /**
+     * The resources the images are read from.
+     */
+    private final ResourceCache resourceCache;
+
+    /**
+     * Maximum number of decoded images kept in memory.
+     */
+    private final int capacity;
+
+    /**
+     * The decoded images, least recently used first.
+     */
+    private final Map<String, Image> images;
+
+    /**
+     * The images being loaded, so that concurrent requests share a single download.
+     */
+    private final Map<String, CompletableFuture<Image>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The threads downloading and decoding the images.
+     */
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "image-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Create an image cache.
+     *
+     * @param resourceCache the resources the images are read from.
+     * @param capacity      maximum number of decoded images kept in memory.
+     */
+    public ImageCache(ResourceCache resourceCache, int capacity) {
+        this.resourceCache = resourceCache;
+        this.capacity = capacity;
+        this.images = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+                return size() > ImageCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get an image if it is already decoded.
+     *
+     * @param url    the URL of the image.
+     * @param width  the width to decode the image at, or 0 for its own width.
+     * @param height the height to decode the image at, or 0 for its own height.
+     * @return the image, or null if it is not in memory.
+     */
+    public Image getIfPresent(String url, double width, double height) {
+        synchronized (images) {
+            return images.get(key(url, width, height));
+        }
+    }
+
+    /**
+     * Load an image, from memory if possible and otherwise from the disk cache or the server.
+     *
+     * @param url    the URL of the image.
+     * @param width  the width to decode the image at, or 0 for its own width.
+     * @param height the height to decode the image at, or 0 for its own height.
+     * @return the future image.
+     */
+    public CompletableFuture<Image> load(String url, double width, double height) {
+        String key = key(url, width, height);
+        Image image = getIfPresent(url, width, height);
+        if (image != null) {
+            return CompletableFuture.completedFuture(image);
+        }
+
+        CompletableFuture<Image> future = pending.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+            try {
+                // Only images from the server go through the disk cache, bundled ones are read directly
+                Image decoded = url.startsWith("http")
+                        ? decode(resourceCache.get(url), width, height)
+                        : check(new Image(url, width, height, false, true), url);
+                synchronized (images) {
+                    images.put(key, decoded);
+                }
+                return decoded;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor));
+        future.whenComplete((loaded, error) -> pending.remove(key, future));
+        return future;
+    }
+
+    /**
+     * Show an image, immediately if it is in memory and otherwise once it is loaded.
+     * Must be called from the JavaFX thread, on which the consumer is run.
+     *
+     * @param url      the URL of the image.
+     * @param width    the width to decode the image at, or 0 for its own width.
+     * @param height   the height to decode the image at, or 0 for its own height.
+     * @param consumer the consumer of the image.
+     */
+    public void withImage(String url, double width, double height, Consumer<Image> consumer) {
+        Image image = getIfPresent(url, width, height);
+        if (image != null) {
+            consumer.accept(image);
+            return;
+        }
+        load(url, width, height).whenComplete((loaded, error) -> {
+            if (error != null) {
+                log.error("Failed to load image {}", url, error);
+                return;
+            }
+            runLater(() -> consumer.accept(loaded));
+        });
+    }
+
+    /**
+     * Load images in the background, so that they are in memory when they are shown.
+     *
+     * @param urls   the URLs of the images.
+     * @param width  the width to decode the images at, or 0 for their own width.
+     * @param height the height to decode the images at, or 0 for their own height.
+     */
+    public void prefetch(Collection<String> urls, double width, double height) {
+        for (String url : urls) {
+            load(url, width, height).exceptionally(error -> {
+                log.warn("Failed to prefetch image {}", url, error);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Decode an image from a file.
+     *
+     * @param file   the file.
+     * @param width  the width to decode the image at, or 0 for its own width.
+     * @param height the height to decode the image at, or 0 for its own height.
+     * @return the image.
+     * @throws IOException if the file could not be read.
+     */
+    private static Image decode(Path file, double width, double height) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return check(new Image(in, width, height, false, true), file);
+        }
+    }
+
+    /**
+     * Check that an image was decoded.
+     *
+     * @param image  the image.
+     * @param source where the image was read from.
+     * @return the image.
+     * @throws IOException if the image could not be decoded.
+     */
+    private static Image check(Image image, Object source) throws IOException {
+        if (image.isError()) {
+            throw new IOException("Could not decode image " + source, image.getException());
+        }
+        return image;
+    }
+
+    private static String key(String url, double width, double height) {
+        return url + "#" + width + "x" + height;
+    }
+}
@@ -0,0 +1,171 @@
+package client.utils;
+
+import commons.entities.game.GameDTO;
+import commons.entities.game.GamePlayerDTO;
+import commons.entities.game.LeaderboardDeltaDTO;
+import commons.entities.game.LeaderboardEntryDTO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Local copy of the leaderboard of the current game, kept up to date by the updates pushed by the server.
+ * When an update is missed, the leaderboard is out of sync until it is reset from the server.
+ */
+public class LiveLeaderboard {
+    /**
+     * The ID of the game, or null if no game was seen yet.
+     */
+    private UUID gameId;
+
+    /**
+     * Version of the last update seen, or -1 if unknown.
+     */
+    private long version = -1;
+
+    /**
+     * Whether the leaderboard reflects all updates so far.
+     */
+    private boolean inSync;
+
+    /**
+     * The players in the leaderboard and their ranks, by player ID.
+     */
+    private final Map<UUID, GamePlayerDTO> players = new HashMap<>();
+    private final Map<UUID, Integer> ranks = new HashMap<>();
+
+    /**
+     * Replace the leaderboard by the standings fetched from the server.
+     *
+     * @param gameId    the ID of the game.
+     * @param standings the players, in rank order.
+     */
+    public synchronized void reset(UUID gameId, Collection<GamePlayerDTO> standings) {
+        reset(gameId, standings, -1);
+    }
+
+    /**
+     * Replace the leaderboard by the standings fetched from the server, as of a known version.
+     * The updates that follow the version are then applied on top of the standings.
+     *
+     * @param gameId    the ID of the game.
+     * @param standings the players, in rank order.
+     * @param version   the version of the standings, or -1 if unknown.
+     */
+    public synchronized void reset(UUID gameId, Collection<GamePlayerDTO> standings, long version) {
+        this.gameId = gameId;
+        this.version = version;
+        this.inSync = true;
+        players.clear();
+        ranks.clear();
+        int rank = 0;
+        for (GamePlayerDTO player : standings) {
+            players.put(player.getId(), copy(player));
+            ranks.put(player.getId(), ++rank);
+        }
+    }
+
+    /**
+     * Apply an update pushed by the server.
+     *
+     * @param game  the current game.
+     * @param delta the changes to the leaderboard.
+     * @return whether the update was applied.
+     */
+    public synchronized boolean apply(GameDTO game, LeaderboardDeltaDTO delta) {
+        // A new game starts from scratch, its first update lists all the players
+        if (!game.getId().equals(gameId)) {
+            gameId = game.getId();
+            version = -1;
+            inSync = false;
+            players.clear();
+            ranks.clear();
+        }
+
+        // Ignore replayed updates
+        if (version >= 0 && delta.getVersion() <= version) {
+            return false;
+        }
+        boolean contiguous = version < 0
+                ? inSync || delta.getVersion() == 1
+                : inSync && delta.getVersion() == version + 1;
+        version = delta.getVersion();
+        inSync = contiguous;
+        if (!inSync) {
+            return false;
+        }
+
+        for (LeaderboardEntryDTO entry : delta.getEntries()) {
+            // Players who left the game are dropped
+            if (entry.getRank() == 0) {
+                players.remove(entry.getPlayerId());
+                ranks.remove(entry.getPlayerId());
+                continue;
+            }
+
+            GamePlayerDTO player = players.get(entry.getPlayerId());
+            if (player == null) {
+                player = game.getPlayers().stream()
+                        .filter(p -> p.getId().equals(entry.getPlayerId()))
+                        .findFirst().map(LiveLeaderboard::copy).orElse(null);
+                if (player == null) {
+                    // Unknown player, the game is stale
+                    inSync = false;
+                    return false;
+                }
+                players.put(player.getId(), player);
+            }
+            player.setScore(entry.getScore());
+            player.setStreak(entry.getStreak());
+            ranks.put(player.getId(), entry.getRank());
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the leaderboard of a game is up to date.
+     *
+     * @param gameId the ID of the game.
+     * @return true if the standings can be used without asking the server.
+     */
+    public synchronized boolean isInSync(UUID gameId) {
+        return inSync && gameId != null && gameId.equals(this.gameId);
+    }
+
+    /**
+     * Force the leaderboard to be fetched from the server again.
+     */
+    public synchronized void invalidate() {
+        inSync = false;
+    }
+
+    /**
+     * Get the players in rank order.
+     *
+     * @return copies of the players.
+     */
+    public synchronized List<GamePlayerDTO> getStandings() {
+        List<GamePlayerDTO> standings = new ArrayList<>(players.size());
+        players.values().stream()
+                .sorted(Comparator.comparing(player -> ranks.get(player.getId())))
+                .map(LiveLeaderboard::copy)
+                .forEach(standings::add);
+        return standings;
+    }
+
+    private static GamePlayerDTO copy(GamePlayerDTO player) {
+        GamePlayerDTO copy = new GamePlayerDTO();
+        copy.setId(player.getId());
+        copy.setUserId(player.getUserId());
+        copy.setScore(player.getScore());
+        copy.setStreak(player.getStreak());
+        copy.setNickname(player.getNickname());
+        copy.setProfilePic(player.getProfilePic());
+        copy.setJoinDate(player.getJoinDate());
+        return copy;
+    }
+}
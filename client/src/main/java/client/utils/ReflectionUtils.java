@@ -56,8 +56,22 @@ public class ReflectionUtils {
      */
     public static List<Method> getAnnotatedMethods(@NonNull Object obj,
                                                  Class<? extends Annotation> annotation) {
+        return getAnnotatedMethods(obj.getClass(), annotation);
+    }
+
+    /**
+     * Helper method to extract all methods
+     * of a class and its superclasses that have the specified
+     * annotation class.
+     *
+     * @param type The class the filtering will be done upon.
+     * @param annotation The annotation type we want the methods to have.
+     * @return A list of all the methods that have the specified annotation, subclass methods first.
+     */
+    public static List<Method> getAnnotatedMethods(@NonNull Class<?> type,
+                                                 Class<? extends Annotation> annotation) {
         var fields = new ArrayList<Method>();
-        Class currentClass = obj.getClass();
+        Class currentClass = type;
         while (currentClass != Object.class) {
             fields.addAll(Arrays.asList(currentClass.getDeclaredMethods()));
             currentClass = currentClass.getSuperclass();
@@ -0,0 +1,125 @@
+package client.utils;
+
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.function.Supplier;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-disk cache of the resources downloaded from the server.
+ * Each resource is kept with its entity tag. Resources the server marked as immutable are used as they are,
+ * the other ones are revalidated with If-None-Match so that unchanged content is not downloaded again.
+ */
+@Slf4j
+public class ResourceCache {
+    private static final String ETAG_KEY = "etag";
+    private static final String IMMUTABLE_KEY = "immutable";
+
+    /**
+     * The directory the resources are stored in.
+     */
+    private final Path directory;
+
+    /**
+     * Provider of the HTTP client.
+     */
+    private final Supplier<Client> client;
+
+    /**
+     * Create a resource cache.
+     *
+     * @param directory the directory to store the resources in.
+     * @param client    provider of the HTTP client.
+     */
+    public ResourceCache(Path directory, Supplier<Client> client) {
+        this.directory = directory;
+        this.client = client;
+    }
+
+    /**
+     * Get the default location of the cache, in the home directory of the user.
+     *
+     * @return the path of the cache directory.
+     */
+    public static Path getDefaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".quizzz", "cache");
+    }
+
+    /**
+     * Get a resource, downloading it only if the cached copy is missing or outdated.
+     * This blocks on the network, and must not be called from the JavaFX thread.
+     *
+     * @param url the URL of the resource.
+     * @return the path of the cached copy.
+     * @throws IOException if the resource could not be downloaded or stored.
+     */
+    public Path get(String url) throws IOException {
+        String key = Hashing.sha256().hashString(url, StandardCharsets.UTF_8).toString();
+        Path file = directory.resolve(key);
+        Path metadataFile = directory.resolve(key + ".properties");
+
+        // Read what we know about the cached copy
+        Properties metadata = new Properties();
+        if (Files.exists(file) && Files.exists(metadataFile)) {
+            try (InputStream in = Files.newInputStream(metadataFile)) {
+                metadata.load(in);
+            }
+            if (Boolean.parseBoolean(metadata.getProperty(IMMUTABLE_KEY))) {
+                return file;
+            }
+        }
+
+        // Ask the server, letting it answer that our copy is still good
+        Invocation.Builder request = client.get().target(url).request();
+        String etag = metadata.getProperty(ETAG_KEY);
+        if (etag != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        Response response = request.get();
+        try {
+            if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+                log.trace("Cached copy of {} is up to date", url);
+                return file;
+            }
+            if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                throw new IOException("Failed to download " + url + ": status code " + response.getStatus());
+            }
+
+            // Store the new copy, replacing the previous one atomically
+            Files.createDirectories(directory);
+            Path tmpFile = Files.createTempFile(directory, key, ".tmp");
+            try (InputStream in = response.readEntity(InputStream.class)) {
+                Files.copy(in, tmpFile, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+
+            metadata.clear();
+            String cacheControl = response.getHeaderString(HttpHeaders.CACHE_CONTROL);
+            metadata.setProperty(IMMUTABLE_KEY, Boolean.toString(cacheControl != null
+                    && cacheControl.contains("immutable")));
+            if (response.getHeaderString(HttpHeaders.ETAG) != null) {
+                metadata.setProperty(ETAG_KEY, response.getHeaderString(HttpHeaders.ETAG));
+            }
+            try (OutputStream out = Files.newOutputStream(metadataFile)) {
+                metadata.store(out, url);
+            }
+            log.trace("Downloaded {} to the cache", url);
+            return file;
+        } finally {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package client.utils.communication;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the latency of the requests made to the server, per endpoint.
+ * Endpoints are identified by method and path, with the IDs in the path replaced by a placeholder,
+ * so that the requests for different games or users are aggregated together.
+ */
+@Slf4j
+public class RequestMetrics implements ClientRequestFilter, ClientResponseFilter {
+    private static final String START_PROPERTY = RequestMetrics.class.getName() + ".start";
+
+    /**
+     * Path segments that identify an entity rather than an endpoint.
+     */
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+)(?=/|$)");
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        if (start instanceof Long) {
+            record(requestContext.getMethod() + " " + getEndpoint(requestContext.getUri().getPath()),
+                    System.nanoTime() - (Long) start);
+        }
+    }
+
+    /**
+     * Record the latency of a request.
+     *
+     * @param endpoint the endpoint the request was made to.
+     * @param nanos    the time until the response headers were received, in nanoseconds.
+     */
+    public void record(String endpoint, long nanos) {
+        histograms.computeIfAbsent(endpoint, e -> new Histogram()).record(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Get the latency histogram of an endpoint.
+     *
+     * @param endpoint the endpoint.
+     * @return the histogram, or null if no request was made to the endpoint.
+     */
+    public Histogram getHistogram(String endpoint) {
+        return histograms.get(endpoint);
+    }
+
+    /**
+     * Log the latency of every endpoint requested so far.
+     */
+    public void logSummary() {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        log.info("Request latencies:");
+        new TreeMap<>(histograms).forEach((endpoint, histogram) -> log.info("  {}: {}", endpoint, histogram));
+    }
+
+    /**
+     * Get the endpoint a path belongs to.
+     *
+     * @param path the path of the request.
+     * @return the path, with the IDs replaced by a placeholder.
+     */
+    static String getEndpoint(String path) {
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    /**
+     * Latency histogram with exponentially growing buckets.
+     */
+    public static class Histogram {
+        /**
+         * The upper bounds of the buckets in milliseconds, the last bucket being unbounded.
+         */
+        static final long[] BOUNDS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Record a latency.
+         *
+         * @param millis the latency in milliseconds.
+         */
+        public void record(long millis) {
+            int bucket = 0;
+            while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            sum.add(millis);
+            max.accumulate(millis);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Get the mean latency.
+         *
+         * @return the mean latency in milliseconds, or 0 if nothing was recorded.
+         */
+        public double getMean() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) sum.sum() / count;
+        }
+
+        /**
+         * Get an upper bound of a percentile of the latency.
+         *
+         * @param quantile the quantile, between 0 and 1.
+         * @return the upper bound of the bucket the quantile falls in, or the maximum for the last bucket.
+         */
+        public long getPercentile(double quantile) {
+            long rank = (long) Math.ceil(quantile * getCount());
+            long seen = 0;
+            for (int bucket = 0; bucket < BOUNDS.length; bucket++) {
+                seen += buckets.get(bucket);
+                if (seen >= rank) {
+                    return Math.min(BOUNDS[bucket], getMax());
+                }
+            }
+            return getMax();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.1fms p50<=%dms p95<=%dms p99<=%dms max=%dms", getCount(), getMean(),
+                    getPercentile(0.5), getPercentile(0.95), getPercentile(0.99), getMax());
+        }
+    }
+}
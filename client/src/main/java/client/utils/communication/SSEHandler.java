@@ -3,14 +3,17 @@ package client.utils.communication;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static javafx.application.Platform.runLater;
 
-import client.utils.ReflectionUtils;
 import commons.entities.messages.SSEMessageType;
-import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.List;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.sse.InboundSseEvent;
 import javax.ws.rs.sse.SseEventSource;
@@ -39,15 +42,31 @@ public class SSEHandler {
         void handle(InboundSseEvent inboundSseEvent);
     }
 
+    /**
+     * The event types, by name.
+     */
+    private static final Map<String, SSEMessageType> EVENT_TYPES = Arrays.stream(SSEMessageType.values())
+            .collect(Collectors.toMap(SSEMessageType::name, Function.identity()));
+
     Object handlerSource = null;
     SseEventSource sseEventSource;
     Map<SSEMessageType, SSEEventHandler> eventHandlers;
 
+    /**
+     * The queue running the handlers on the JavaFX thread.
+     */
+    UIEventQueue uiQueue = new UIEventQueue(runnable -> runLater(runnable));
+
+    /**
+     * The ID of the last event received, sent back to the server on reconnection so that it replays missed events.
+     */
+    volatile String lastEventId;
+
     /**
      * No-args constructor.
      */
     public SSEHandler() {
-        eventHandlers = new HashMap<>();
+        eventHandlers = new EnumMap<>(SSEMessageType.class);
         eventHandlers.put(SSEMessageType.INIT, inboundSseEvent -> log.info("--[SSE]-- SSE handler initialized"));
     }
 
@@ -67,18 +86,24 @@ public class SSEHandler {
     /**
      * This function subscribes to the SSE event source.
      * It calls the SSE open endpoint and handles the events.
+     * The connection is kept if it is already open, e.g. when joining a lobby from the lobby list.
      */
-    public void subscribe() {
-        if (sseEventSource != null) {
-            log.warn("--[SSE]-- SSEHandler already subscribed!");
+    public synchronized void subscribe() {
+        if (sseEventSource != null && sseEventSource.isOpen()) {
+            log.debug("--[SSE]-- SSEHandler already subscribed");
+            return;
         }
 
+        // The stream stays open for the whole session, so it must not time out between events
+        WebTarget target = ServerUtils
+            .getRequestTarget(Duration.ZERO)
+            .path("/api/sse/open");
+
+        // Asks the server for the events missed since the previous connection, on every (re)connection
+        target = target.register((ClientRequestFilter) this::addLastEventId);
+
         // Builds the event source with the target.
-        SseEventSource eventSource = SseEventSource
-            .target(
-                ServerUtils
-                    .getRequestTarget()
-                    .path("/api/sse/open")).build();
+        SseEventSource eventSource = SseEventSource.target(target).build();
 
         // Registers the handling of events, exceptions and completion.
         eventSource.register(
@@ -91,13 +116,32 @@ public class SSEHandler {
         setSseEventSource(eventSource);
     }
 
+    /**
+     * Adds the ID of the last event received to a request, so that the server replays the events missed since.
+     * The ID is read when the request is made, so that automatic reconnections do not resend a stale one.
+     *
+     * @param requestContext the request to the SSE endpoint.
+     */
+    void addLastEventId(ClientRequestContext requestContext) {
+        String eventId = lastEventId;
+        if (eventId != null) {
+            requestContext.getHeaders().putSingle(HttpHeaders.LAST_EVENT_ID_HEADER, eventId);
+        }
+    }
+
     /**
      * Asynchronously kills the current SSE connection.
      */
-    public void kill() {
+    public synchronized void kill() {
+        // Detaches the source right away, so that a following subscribe opens a new connection
+        SseEventSource eventSource = this.sseEventSource;
+        this.sseEventSource = null;
+        if (eventSource == null) {
+            return;
+        }
         new Thread(() -> {
             log.info("--[SSE]-- Killing the SSE connection...");
-            this.sseEventSource.close();
+            eventSource.close();
             log.info("--[SSE]-- Killed the SSE connection");
         }).start();
     }
@@ -118,60 +162,25 @@ public class SSEHandler {
             throw new IllegalArgumentException("The source class must extend from SSESource");
         }
 
-        // Gets all the methods that have the Name decoration. These are the event handlers.
-        List<Method> handlers = ReflectionUtils.getAnnotatedMethods(handlerSource,
-                client.utils.communication.SSEEventHandler.class);
-
-        // We get the names of all the event handlers
-        List<SSEMessageType> names = handlers.stream()
-                .map(ReflectionUtils::getSSEEventName).collect(Collectors.toList());
-
-        // We generate the runnables for each event.
-        List<SSEEventHandler> runnables = handlers.stream().map(method -> {
-            // This gets the types of the parameters of the method.
-            Class<?>[] types = method.getParameterTypes();
-
-            // throws exception if the length is different from 1
-            if (types.length > 1) {
-                throw new IllegalStateException("The class " + method.getName() + " doesn't have the required number"
-                        + "of parameters.");
-            }
-
-            // This creates the SSEEvent handler for the event.
-            return (SSEEventHandler) inboundSseEvent -> {
-
-                // Calls the method directly if there are no parameters.
-                if (types.length == 0) {
-                    runLater(() -> {
+        // Gets the event handlers of the class, which are only looked up the first time
+        Map<SSEMessageType, SSEEventHandler> handlers = new EnumMap<>(SSEMessageType.class);
+        SSEInvokers.of(handlerSource.getClass()).forEach((event, invoker) ->
+                handlers.put(event, inboundSseEvent -> {
+                    // Reads the payload on the SSE thread, and calls the handler on the JavaFX thread
+                    // so that javafx components can have their state changed.
+                    Object payload = invoker.getPayloadType() == null
+                            ? null
+                            : inboundSseEvent.readData(invoker.getPayloadType(), MediaType.APPLICATION_JSON_TYPE);
+                    uiQueue.post(() -> {
                         try {
-                            method.invoke(handlerSource);
-                        } catch (Exception e) {
-                            e.printStackTrace();
+                            invoker.invoke(handlerSource, payload);
+                        } catch (Throwable e) {
+                            log.error("--[SSE]-- Handler of {} failed", event, e);
                         }
                     });
-                } else {
-                    // Reads the object with the extracted type.
-                    Object obj = inboundSseEvent.readData(types[0], MediaType.APPLICATION_JSON_TYPE);
-
-                    // This invokes the function with the object and the source inside a run later so
-                    // javafx components can have their state changed.
-                    runLater(() -> {
-                        try {
-                            method.invoke(handlerSource, obj);
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    });
-                }
-
-            };
-        }).collect(Collectors.toList());
-
-        // This zips the names and runnables together into the map.
-        eventHandlers = IntStream.range(0, names.size()).boxed()
-                .collect(Collectors.toMap(names::get, runnables::get));
-
-        eventHandlers.put(SSEMessageType.INIT, inboundSseEvent -> log.info("--[SSE]-- SSE handler initialized"));
+                }));
+        handlers.put(SSEMessageType.INIT, inboundSseEvent -> log.info("--[SSE]-- SSE handler initialized"));
+        eventHandlers = handlers;
     }
 
     /**
@@ -191,7 +200,7 @@ public class SSEHandler {
      * @return a boolean that tells if the connection is open or not.
      */
     public boolean isConnectionOpen() {
-        return sseEventSource.isOpen();
+        return sseEventSource != null && sseEventSource.isOpen();
     }
 
     /**
@@ -201,10 +210,15 @@ public class SSEHandler {
      * @param inboundSseEvent the sse event.
      */
     public void handleEvent(InboundSseEvent inboundSseEvent) {
-        log.info("--[SSE]-- Handle event " + inboundSseEvent.getName());
+        log.debug("--[SSE]-- Handle event {}", inboundSseEvent.getName());
+        if (inboundSseEvent.getId() != null) {
+            lastEventId = inboundSseEvent.getId();
+        }
         try {
-            if (eventHandlers.containsKey(SSEMessageType.valueOf(inboundSseEvent.getName()))) {
-                eventHandlers.get(SSEMessageType.valueOf(inboundSseEvent.getName())).handle(inboundSseEvent);
+            SSEMessageType type = EVENT_TYPES.get(inboundSseEvent.getName());
+            SSEEventHandler handler = type == null ? null : eventHandlers.get(type);
+            if (handler != null) {
+                handler.handle(inboundSseEvent);
             } else {
                 log.error("--[SSE]-- No handler for event " + inboundSseEvent.getName());
                 log.error("--[SSE]-- Source class:"
@@ -0,0 +1,107 @@
+package client.utils.communication;
+
+import client.utils.ReflectionUtils;
+import commons.entities.messages.SSEMessageType;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Precompiled invokers of the SSE event handlers of the controller classes.
+ * The annotated methods of a class are looked up once, and turned into method handles
+ * which are called without the access checks and argument arrays of reflection.
+ */
+final class SSEInvokers {
+    /**
+     * Invoker of an event handler method.
+     */
+    @Value
+    static class Invoker {
+        /**
+         * The type of the event payload, or null if the method takes none.
+         */
+        Class<?> payloadType;
+
+        /**
+         * The method, taking the source object and the payload if any, as objects.
+         */
+        MethodHandle handle;
+
+        /**
+         * Call the method.
+         *
+         * @param source  the object to call the method on.
+         * @param payload the payload of the event, ignored if the method takes none.
+         * @throws Throwable any exception thrown by the method.
+         */
+        void invoke(Object source, Object payload) throws Throwable {
+            if (payloadType == null) {
+                handle.invokeExact(source);
+            } else {
+                handle.invokeExact(source, payload);
+            }
+        }
+    }
+
+    /**
+     * The invokers of each class, computed on first use.
+     */
+    private static final ClassValue<Map<SSEMessageType, Invoker>> INVOKERS = new ClassValue<>() {
+        @Override
+        protected Map<SSEMessageType, Invoker> computeValue(Class<?> type) {
+            return build(type);
+        }
+    };
+
+    private SSEInvokers() {
+    }
+
+    /**
+     * Get the invokers of the event handlers of a class.
+     *
+     * @param type the class.
+     * @return the invokers, by event type.
+     * @throws IllegalStateException if a handler takes more than one parameter.
+     */
+    static Map<SSEMessageType, Invoker> of(Class<?> type) {
+        return INVOKERS.get(type);
+    }
+
+    private static Map<SSEMessageType, Invoker> build(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<SSEMessageType, Invoker> invokers = new EnumMap<>(SSEMessageType.class);
+        for (Method method : ReflectionUtils.getAnnotatedMethods(type, SSEEventHandler.class)) {
+            Class<?>[] types = method.getParameterTypes();
+            if (types.length > 1) {
+                throw new IllegalStateException("The class " + method.getName() + " doesn't have the required number"
+                        + "of parameters.");
+            }
+
+            // Methods of subclasses come first, and override the ones of their superclasses
+            SSEMessageType event = ReflectionUtils.getSSEEventName(method);
+            if (invokers.containsKey(event)) {
+                continue;
+            }
+
+            try {
+                method.setAccessible(true);
+                MethodHandle handle = lookup.unreflect(method);
+                if (types.length == 0) {
+                    handle = handle.asType(MethodType.methodType(void.class, Object.class));
+                    invokers.put(event, new Invoker(null, handle));
+                } else {
+                    handle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                    invokers.put(event, new Invoker(types[0], handle));
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot access the event handler " + method.getName(), e);
+            }
+        }
+        return Collections.unmodifiableMap(invokers);
+    }
+}
@@ -23,18 +23,22 @@ import client.communication.admin.AdminCommunication;
 import client.utils.Authenticator;
 import client.utils.ClientState;
 import client.utils.EncryptionUtils;
+import client.utils.ImageCache;
 import client.utils.PreferencesManager;
+import client.utils.ResourceCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 import commons.entities.ActivityDTO;
 import commons.entities.auth.LoginDTO;
+import commons.entities.auth.RankedUserDTO;
 import commons.entities.auth.UserDTO;
 import commons.entities.utils.ApiError;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.net.URL;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -51,18 +55,80 @@ import org.apache.cxf.jaxrs.ext.multipart.MultipartBody;
 
 /**
  * Utilities for communicating with the server.
+ * All the requests go through a single long-lived client, so that connections to the server are kept alive
+ * and reused rather than opened for every request or dropped when the user logs in.
  */
 @Slf4j
 public class ServerUtils {
+    /**
+     * Client properties of the timeouts, in milliseconds.
+     */
+    static final String CONNECTION_TIMEOUT_PROPERTY = "http.connection.timeout";
+    static final String RECEIVE_TIMEOUT_PROPERTY = "http.receive.timeout";
+
+    /**
+     * Timeouts of the requests, unless an endpoint asks for its own.
+     */
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RECEIVE_TIMEOUT = Duration.ofSeconds(15);
+
+    /**
+     * Timeout of the requests that check whether a server is reachable.
+     */
+    private static final Duration PING_TIMEOUT = Duration.ofSeconds(3);
+
+    /**
+     * Number of idle connections kept alive to the server.
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+
+    /**
+     * The JSON mapper shared by all requests.
+     */
+    public static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /**
+     * Adds the token of the logged-in user to the requests.
+     */
+    private static final Authenticator authenticator = new Authenticator();
+
+    /**
+     * Latency of the requests, per endpoint.
+     */
+    public static final RequestMetrics metrics = new RequestMetrics();
 
     private static String SERVER = "http://localhost:8080/";
     public static SSEHandler sseHandler = new SSEHandler();
-    public static Client client = newClient();
+    public static final Client client = newClient();
+    public static ImageCache imageCache = new ImageCache(
+            new ResourceCache(ResourceCache.getDefaultDirectory(), () -> client), 256);
 
     public static String getImagePathFromId(UUID id) {
         return SERVER + "api/resource/" + id.toString();
     }
 
+    /**
+     * Get the URL of an image scaled down by the server to fit in a square.
+     *
+     * @param id   the ID of the image.
+     * @param size the side of the square, in pixels.
+     * @return the URL of the scaled image.
+     */
+    public static String getImagePathFromId(UUID id, int size) {
+        return getSizedImagePath(getImagePathFromId(id), size);
+    }
+
+    /**
+     * Get the URL of a resource image scaled down by the server to fit in a square.
+     *
+     * @param url  the URL of the image.
+     * @param size the side of the square, in pixels.
+     * @return the URL of the scaled image.
+     */
+    public static String getSizedImagePath(String url, int size) {
+        return url + (url.contains("?") ? "&" : "?") + "size=" + size;
+    }
+
     /**
      * Provides a request target for the server that can be used to build and invoke a query.
      *
@@ -73,26 +139,34 @@ public class ServerUtils {
     }
 
     /**
-     * This function creates a new client with the mandatory
-     * JacksonJsonProvider and the JavaTimeModule.
+     * Provides a request target for an endpoint that needs its own timeout.
      *
-     * @return the new client.
+     * @param receiveTimeout how long to wait for the response, or zero to wait indefinitely.
+     * @return the request target.
      */
-    private static Client newClient() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        JacksonJsonProvider provider = new JacksonJsonProvider(mapper);
-        return ClientBuilder.newClient().register(provider);
+    public static WebTarget getRequestTarget(Duration receiveTimeout) {
+        return getRequestTarget().property(RECEIVE_TIMEOUT_PROPERTY, receiveTimeout.toMillis());
     }
 
     /**
-     * Resets the client.
+     * This function creates the client with the mandatory
+     * JacksonJsonProvider and the JavaTimeModule.
+     *
+     * @return the new client.
      */
-    private void resetClient() {
-        if (client != null) {
-            client.close();
+    private static Client newClient() {
+        // The JDK keeps 5 idle connections per server by default, which the concurrent game requests exceed
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", Integer.toString(MAX_IDLE_CONNECTIONS));
         }
-        client = newClient();
+        Runtime.getRuntime().addShutdownHook(new Thread(metrics::logSummary, "request-metrics"));
+
+        return ClientBuilder.newClient()
+                .property(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT.toMillis())
+                .property(RECEIVE_TIMEOUT_PROPERTY, RECEIVE_TIMEOUT.toMillis())
+                .register(new JacksonJsonProvider(MAPPER))
+                .register(authenticator)
+                .register(metrics);
     }
 
     /**
@@ -132,7 +206,7 @@ public class ServerUtils {
      */
     public void register(String username, String email, String password,
                            File image, RegisterHandler registerHandler) {
-        resetClient();
+        authenticator.setToken(null);
 
         // The list of attachments
         List<Attachment> attachments = new ArrayList<>();
@@ -175,7 +249,7 @@ public class ServerUtils {
             public void completed(Response o) {
                 if (o.getStatus() == 201) {
                     LoginDTO loginDTO = o.readEntity(LoginDTO.class);
-                    client = client.register(new Authenticator(loginDTO.getToken()));
+                    authenticator.setToken(loginDTO.getToken());
                     ClientState.user = loginDTO.getUser();
                     registerHandler.handle(o, loginDTO, new ApiError());
                 } else if (o.getStatus() == 400) {
@@ -221,7 +295,6 @@ public class ServerUtils {
      */
     public void checkTokenValid(String token, LoginValidHandler handler) {
         log.debug("Checking token validity");
-        client = newClient();
         Invocation invocation = client.target(SERVER).path("/api/user").request(APPLICATION_JSON)
                 .header("Authorization", "Bearer " + token).buildGet();
         invocation.submit(new InvocationCallback<Response>() {
@@ -231,7 +304,7 @@ public class ServerUtils {
                     LoginDTO data = o.readEntity(LoginDTO.class);
                     log.info("Token is valid: {}", data.getUser());
 
-                    client = client.register(new Authenticator(token));
+                    authenticator.setToken(token);
                     ClientState.user = data.getUser();
                     ClientState.game = data.getGame();
 
@@ -257,7 +330,7 @@ public class ServerUtils {
     public void logIn(String email, String password,
                       LogInHandlerSuccess logInHandlerSuccess, LogInHandlerFail logInHandlerFail) {
 
-        resetClient();
+        authenticator.setToken(null);
         UserDTO user = new UserDTO("", email, password);
         Invocation invocation = client
                 .target(SERVER).path("/api/auth/login")
@@ -269,7 +342,7 @@ public class ServerUtils {
             @Override
             public void completed(LoginDTO loginDTO) {
                 log.info("Logged in: " + loginDTO.getUser());
-                client = client.register(new Authenticator(loginDTO.getToken()));
+                authenticator.setToken(loginDTO.getToken());
                 ClientState.user = loginDTO.getUser();
                 logInHandlerSuccess.handle(loginDTO);
             }
@@ -290,7 +363,9 @@ public class ServerUtils {
      */
     public boolean connect(String serverPath) {
         try {
-            Response r = client.target(serverPath).path("/api/misc/ping").request().get();
+            Response r = client.target(serverPath).path("/api/misc/ping")
+                    .property(RECEIVE_TIMEOUT_PROPERTY, PING_TIMEOUT.toMillis())
+                    .request().get();
             if (r.getStatus() == Response.Status.OK.getStatusCode()) {
                 SERVER = serverPath;
                 return true;
@@ -303,18 +378,17 @@ public class ServerUtils {
     }
 
     /**
-     * Gets the global leaderboard from the database(mock function for now).
+     * Gets the first page of the global leaderboard.
      *
      * @return the list of users that make up the global leaderboard.
      */
     public List<UserDTO> getGlobalLeaderboard() {
-        var r = client.target(SERVER).path("/api/leaderboard/score")
+        var r = client.target(SERVER).path("/api/leaderboard/score/top")
                 .request(APPLICATION_JSON)
                 .accept(APPLICATION_JSON)
                 .get();
         if (r.getStatus() == Response.Status.OK.getStatusCode()) {
-            return r.readEntity(new GenericType<>() {
-            });
+            return new ArrayList<>(r.readEntity(new GenericType<List<RankedUserDTO>>() {}));
         }
         return new ArrayList<>();
     }
@@ -370,7 +444,11 @@ public class ServerUtils {
         });
     }
 
+    /**
+     * Signs the user out, sending the following requests unauthenticated.
+     */
     public void signOut() {
-        resetClient();
+        authenticator.setToken(null);
+        metrics.logSummary();
     }
 }
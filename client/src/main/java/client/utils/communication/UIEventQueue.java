@@ -0,0 +1,64 @@
+package client.utils.communication;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Queue of tasks to run on the JavaFX thread.
+ * Tasks posted while a pulse is pending are run by that same pulse, so a burst of events
+ * costs a single trip to the JavaFX thread instead of one per event.
+ */
+@Slf4j
+public class UIEventQueue {
+    /**
+     * Schedules a pulse on the UI thread.
+     */
+    private final Consumer<Runnable> scheduler;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether a pulse is scheduled and has not started draining the queue yet.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Create a queue.
+     *
+     * @param scheduler runs a task on the UI thread, such as Platform::runLater.
+     */
+    public UIEventQueue(Consumer<Runnable> scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Run a task on the UI thread, after the tasks posted before it.
+     *
+     * @param task the task.
+     */
+    public void post(Runnable task) {
+        tasks.add(task);
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.accept(this::drain);
+        }
+    }
+
+    /**
+     * Run all the queued tasks.
+     */
+    private void drain() {
+        // Tasks posted from now on need another pulse, unless this one gets to them
+        scheduled.set(false);
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("--[SSE]-- Event handler failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package client.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import commons.entities.game.GameDTO;
+import commons.entities.game.GamePlayerDTO;
+import commons.entities.game.LeaderboardDeltaDTO;
+import commons.entities.game.LeaderboardEntryDTO;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for the live leaderboard.
+ */
+class LiveLeaderboardTest {
+    private final UUID joe = UUID.randomUUID();
+    private final UUID susanne = UUID.randomUUID();
+
+    private GameDTO game;
+    private LiveLeaderboard leaderboard;
+
+    @BeforeEach
+    void init() {
+        game = new GameDTO();
+        game.setId(UUID.randomUUID());
+        game.setPlayers(Set.of(player(joe, "joe"), player(susanne, "susanne")));
+        leaderboard = new LiveLeaderboard();
+    }
+
+    private GamePlayerDTO player(UUID id, String nickname) {
+        GamePlayerDTO player = new GamePlayerDTO();
+        player.setId(id);
+        player.setNickname(nickname);
+        player.setScore(0);
+        player.setStreak(0);
+        return player;
+    }
+
+    private LeaderboardDeltaDTO delta(long version, LeaderboardEntryDTO... entries) {
+        return new LeaderboardDeltaDTO(version, List.of(entries));
+    }
+
+    private List<UUID> order() {
+        return leaderboard.getStandings().stream().map(GamePlayerDTO::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void applyConsecutiveUpdates() {
+        assertTrue(leaderboard.apply(game, delta(1,
+                new LeaderboardEntryDTO(joe, 1, 0, 0),
+                new LeaderboardEntryDTO(susanne, 2, 0, 0))));
+        assertTrue(leaderboard.apply(game, delta(2,
+                new LeaderboardEntryDTO(susanne, 1, 100, 1),
+                new LeaderboardEntryDTO(joe, 2, 0, 0))));
+
+        assertTrue(leaderboard.isInSync(game.getId()));
+        assertEquals(List.of(susanne, joe), order());
+        assertEquals(100, leaderboard.getStandings().get(0).getScore());
+        assertEquals("susanne", leaderboard.getStandings().get(0).getNickname());
+    }
+
+    @Test
+    void replayedUpdateIgnored() {
+        leaderboard.apply(game, delta(1,
+                new LeaderboardEntryDTO(joe, 1, 0, 0),
+                new LeaderboardEntryDTO(susanne, 2, 0, 0)));
+
+        assertFalse(leaderboard.apply(game, delta(1, new LeaderboardEntryDTO(susanne, 1, 100, 1))));
+        assertTrue(leaderboard.isInSync(game.getId()));
+        assertEquals(List.of(joe, susanne), order());
+    }
+
+    @Test
+    void missedUpdateNeedsReset() {
+        leaderboard.apply(game, delta(1,
+                new LeaderboardEntryDTO(joe, 1, 0, 0),
+                new LeaderboardEntryDTO(susanne, 2, 0, 0)));
+        assertFalse(leaderboard.apply(game, delta(3, new LeaderboardEntryDTO(susanne, 1, 200, 2))));
+        assertFalse(leaderboard.isInSync(game.getId()));
+
+        // Reloading the leaderboard accepts the next update
+        GamePlayerDTO reloaded = player(susanne, "susanne");
+        reloaded.setScore(200);
+        leaderboard.reset(game.getId(), List.of(reloaded, player(joe, "joe")));
+        assertTrue(leaderboard.apply(game, delta(4, new LeaderboardEntryDTO(joe, 0, 0, 0))));
+
+        assertTrue(leaderboard.isInSync(game.getId()));
+        assertEquals(List.of(susanne), order());
+    }
+
+    @Test
+    void joinedMidGame() {
+        assertFalse(leaderboard.apply(game, delta(5, new LeaderboardEntryDTO(joe, 1, 100, 1))));
+        assertFalse(leaderboard.isInSync(game.getId()));
+    }
+
+    @Test
+    void resetAtVersion() {
+        GamePlayerDTO reloaded = player(susanne, "susanne");
+        reloaded.setScore(200);
+        leaderboard.reset(game.getId(), List.of(reloaded, player(joe, "joe")), 3);
+
+        // Updates the snapshot already includes are skipped, the next one is applied
+        assertFalse(leaderboard.apply(game, delta(3, new LeaderboardEntryDTO(susanne, 2, 0, 0))));
+        assertTrue(leaderboard.apply(game, delta(4,
+                new LeaderboardEntryDTO(joe, 1, 300, 1),
+                new LeaderboardEntryDTO(susanne, 2, 200, 1))));
+
+        assertTrue(leaderboard.isInSync(game.getId()));
+        assertEquals(List.of(joe, susanne), order());
+    }
+}
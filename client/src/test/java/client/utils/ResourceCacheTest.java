@@ -0,0 +1,118 @@
+package client.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResourceCacheTest {
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private Client client;
+    private ResourceCache cache;
+
+    /**
+     * The If-None-Match header of each request received, or null if absent.
+     */
+    private final List<String> requests = new ArrayList<>();
+
+    private String content = "Hello World";
+    private String cacheControl = "no-cache";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/resource/", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            requests.add(ifNoneMatch);
+
+            String etag = "\"" + content.hashCode() + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = content.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        client = ClientBuilder.newClient();
+        cache = new ResourceCache(cacheDir, () -> client);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/resource/1";
+    }
+
+    @Test
+    void getDownloads() throws IOException {
+        Path file = cache.get(url());
+        assertEquals("Hello World", Files.readString(file));
+        assertEquals(1, requests.size());
+        assertNull(requests.get(0));
+    }
+
+    @Test
+    void getRevalidates() throws IOException {
+        cache.get(url());
+        Path file = cache.get(url());
+
+        // Verify that the cached copy is revalidated with its entity tag
+        assertEquals(2, requests.size());
+        assertEquals("\"" + "Hello World".hashCode() + "\"", requests.get(1));
+        assertEquals("Hello World", Files.readString(file));
+    }
+
+    @Test
+    void getRefreshesChanged() throws IOException {
+        cache.get(url());
+        content = "Goodbye World";
+
+        // Verify that a changed resource is downloaded again
+        assertEquals("Goodbye World", Files.readString(cache.get(url())));
+    }
+
+    @Test
+    void getImmutable() throws IOException {
+        cacheControl = "public, max-age=31536000, immutable";
+        cache.get(url());
+        Path file = cache.get(url());
+
+        // Verify that immutable resources are not requested again
+        assertEquals(1, requests.size());
+        assertEquals("Hello World", Files.readString(file));
+    }
+
+    @Test
+    void getNotFound() {
+        server.removeContext("/api/resource/");
+        assertThrows(IOException.class, () -> cache.get(url()));
+    }
+}
@@ -0,0 +1,93 @@
+package client.utils.communication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestMetricsTest {
+    RequestMetrics metrics;
+
+    @BeforeEach
+    void init() {
+        metrics = new RequestMetrics();
+    }
+
+    @Test
+    void getEndpoint() {
+        assertEquals("/api/game/{id}/question/{id}",
+                RequestMetrics.getEndpoint("/api/game/8f3a3f0e-2b6d-4a64-8d4f-0d0a4f6b1c2e/question/3"));
+        assertEquals("/api/lobby/available", RequestMetrics.getEndpoint("/api/lobby/available"));
+        assertEquals("/api/v2/leaderboard", RequestMetrics.getEndpoint("/api/v2/leaderboard"));
+    }
+
+    @Test
+    void histogram() {
+        RequestMetrics.Histogram histogram = new RequestMetrics.Histogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(3);
+        }
+        histogram.record(40);
+        histogram.record(20000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(20000, histogram.getMax());
+        assertEquals((98 * 3 + 40 + 20000) / 100.0, histogram.getMean());
+        assertEquals(5, histogram.getPercentile(0.5));
+        assertEquals(50, histogram.getPercentile(0.99));
+        assertEquals(20000, histogram.getPercentile(1));
+    }
+
+    @Test
+    void emptyHistogram() {
+        RequestMetrics.Histogram histogram = new RequestMetrics.Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(0.5));
+    }
+
+    @Test
+    void filter() {
+        Map<String, Object> properties = new HashMap<>();
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getUri()).thenReturn(URI.create("http://localhost:8080/api/user/42"));
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(request).setProperty(anyString(), any());
+        when(request.getProperty(anyString()))
+                .thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+
+        metrics.filter(request);
+        metrics.filter(request, mock(ClientResponseContext.class));
+
+        RequestMetrics.Histogram histogram = metrics.getHistogram("GET /api/user/{id}");
+        assertNotNull(histogram);
+        assertEquals(1, histogram.getCount());
+    }
+
+    @Test
+    void filterWithoutStart() {
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        metrics.filter(request, mock(ClientResponseContext.class));
+        assertNull(metrics.getHistogram("GET /api/user/{id}"));
+    }
+
+    @Test
+    void record() {
+        metrics.record("GET /api/misc/ping", TimeUnit.MILLISECONDS.toNanos(7));
+        metrics.record("GET /api/misc/ping", TimeUnit.MILLISECONDS.toNanos(12));
+        assertEquals(2, metrics.getHistogram("GET /api/misc/ping").getCount());
+        assertEquals(12, metrics.getHistogram("GET /api/misc/ping").getMax());
+    }
+}
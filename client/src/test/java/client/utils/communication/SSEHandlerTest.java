@@ -0,0 +1,189 @@
+package client.utils.communication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import commons.entities.messages.SSEMessageType;
+import java.util.ArrayList;
+import java.util.List;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.sse.InboundSseEvent;
+import javax.ws.rs.sse.SseEventSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SSEHandlerTest {
+    static class Controller implements SSESource {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void bindHandler(SSEHandler handler) {
+            handler.initialize(this);
+        }
+
+        @SSEEventHandler(SSEMessageType.GAME_START)
+        public void gameStart(Integer duration) {
+            calls.add("start " + duration);
+        }
+
+        @SSEEventHandler(SSEMessageType.GAME_END)
+        private void gameEnd() {
+            calls.add("end");
+        }
+
+        @SSEEventHandler(SSEMessageType.PLAYER_LEFT)
+        public void playerLeft(String name) {
+            throw new IllegalStateException("Handler failure");
+        }
+    }
+
+    static class SubController extends Controller {
+        @Override
+        @SSEEventHandler(SSEMessageType.GAME_START)
+        public void gameStart(Integer duration) {
+            calls.add("sub start " + duration);
+        }
+    }
+
+    private SSEHandler handler;
+
+    /**
+     * The pulses scheduled on the UI thread, run manually by the tests.
+     */
+    private final List<Runnable> pulses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        handler = new SSEHandler();
+        handler.uiQueue = new UIEventQueue(pulses::add);
+    }
+
+    private InboundSseEvent event(String name, Object payload) {
+        InboundSseEvent event = mock(InboundSseEvent.class);
+        when(event.getName()).thenReturn(name);
+        if (payload != null) {
+            when(event.readData(payload.getClass(), MediaType.APPLICATION_JSON_TYPE)).thenAnswer(i -> payload);
+        }
+        return event;
+    }
+
+    private void runPulses() {
+        List<Runnable> pending = new ArrayList<>(pulses);
+        pulses.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    void dispatch() {
+        Controller controller = new Controller();
+        controller.bindHandler(handler);
+
+        handler.handleEvent(event("GAME_START", 5));
+        handler.handleEvent(event("GAME_END", null));
+        runPulses();
+
+        // Verify that the handlers are called in order, including private ones
+        assertEquals(List.of("start 5", "end"), controller.calls);
+    }
+
+    @Test
+    void dispatchCoalesces() {
+        Controller controller = new Controller();
+        controller.bindHandler(handler);
+
+        for (int i = 0; i < 10; i++) {
+            handler.handleEvent(event("GAME_START", i));
+        }
+
+        // Verify that a burst of events is handled in a single pulse
+        assertEquals(1, pulses.size());
+        runPulses();
+        assertEquals(10, controller.calls.size());
+
+        handler.handleEvent(event("GAME_END", null));
+        assertEquals(1, pulses.size());
+    }
+
+    @Test
+    void dispatchOverride() {
+        SubController controller = new SubController();
+        controller.bindHandler(handler);
+
+        handler.handleEvent(event("GAME_START", 1));
+        handler.handleEvent(event("GAME_END", null));
+        runPulses();
+
+        // Verify that overriding handlers replace the ones of the superclass
+        assertEquals(List.of("sub start 1", "end"), controller.calls);
+    }
+
+    @Test
+    void dispatchFailingHandler() {
+        Controller controller = new Controller();
+        controller.bindHandler(handler);
+
+        handler.handleEvent(event("PLAYER_LEFT", "John"));
+        handler.handleEvent(event("GAME_END", null));
+        runPulses();
+
+        // Verify that a failing handler does not prevent the next ones from running
+        assertEquals(List.of("end"), controller.calls);
+    }
+
+    @Test
+    void dispatchUnknownEvent() {
+        Controller controller = new Controller();
+        controller.bindHandler(handler);
+
+        handler.handleEvent(event("NOT_AN_EVENT", null));
+        handler.handleEvent(event("LOBBY_DELETED", null));
+
+        // Verify that unknown and unhandled events are ignored
+        assertTrue(pulses.isEmpty());
+    }
+
+    @Test
+    void initializeNotSource() {
+        assertThrows(IllegalArgumentException.class, () -> handler.initialize(new Object()));
+    }
+
+    @Test
+    void kill() {
+        SseEventSource source = mock(SseEventSource.class);
+        when(source.isOpen()).thenReturn(true);
+        handler.setSseEventSource(source);
+        assertTrue(handler.isConnectionOpen());
+
+        handler.kill();
+
+        // Verify that the source is detached right away, and closed in the background
+        assertFalse(handler.isConnectionOpen());
+        verify(source, timeout(1000)).close();
+        assertDoesNotThrow(handler::kill);
+    }
+
+    @Test
+    void addLastEventId() {
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        when(request.getHeaders()).thenReturn(headers);
+
+        // No header is sent before the first event
+        handler.addLastEventId(request);
+        assertFalse(headers.containsKey(HttpHeaders.LAST_EVENT_ID_HEADER));
+
+        // Verify that every request carries the latest ID, e.g. when the source reconnects on its own
+        handler.lastEventId = "game:1";
+        handler.addLastEventId(request);
+        handler.lastEventId = "game:5";
+        handler.addLastEventId(request);
+        assertEquals(List.of("game:5"), headers.get(HttpHeaders.LAST_EVENT_ID_HEADER));
+    }
+}
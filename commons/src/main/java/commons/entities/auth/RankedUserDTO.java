@@ -0,0 +1,23 @@
+package commons.entities.auth;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.utils.Views;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A user of the global leaderboard, along with their rank.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class RankedUserDTO extends UserDTO {
+    /**
+     * The rank of the user, starting from 1.
+     */
+    @JsonView(Views.Public.class)
+    protected int rank;
+}
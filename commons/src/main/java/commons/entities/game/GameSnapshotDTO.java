@@ -0,0 +1,85 @@
+package commons.entities.game;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.AnswerDTO;
+import commons.entities.questions.QuestionDTO;
+import commons.entities.utils.Views;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * View of the current stage of a game, for one player.
+ * It holds everything a client needs on a stage transition, so that it is fetched in a single request.
+ */
+@Data
+@NoArgsConstructor
+@JsonView(Views.Public.class)
+public class GameSnapshotDTO {
+    /**
+     * Version of the snapshot format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Version of the snapshot format, so that clients can tell which fields to expect.
+     */
+    protected int formatVersion = FORMAT_VERSION;
+
+    /**
+     * ID of the game.
+     */
+    protected UUID gameId;
+
+    /**
+     * Number of the current question, starting from 0.
+     */
+    protected Integer questionNumber;
+
+    /**
+     * Whether the game is accepting answers to the current question.
+     */
+    protected boolean acceptingAnswers;
+
+    /**
+     * The current question, or null if the game has no question yet.
+     */
+    protected QuestionDTO question;
+
+    /**
+     * The answer to the current question, only sent once the game stopped accepting answers.
+     */
+    protected AnswerDTO answer;
+
+    /**
+     * The player the snapshot is for.
+     */
+    protected GamePlayerDTO player;
+
+    /**
+     * Rank of the player, starting from 1.
+     */
+    protected int rank;
+
+    /**
+     * Points the player gained on the current question, or null if unknown.
+     */
+    protected Integer scoreDelta;
+
+    /**
+     * Version of the leaderboard, as pushed in the leaderboard updates, or -1 if the game is not ongoing.
+     */
+    protected long leaderboardVersion = -1;
+
+    /**
+     * Number of players still in the game.
+     */
+    protected int playerCount;
+
+    /**
+     * The players at the top of the leaderboard, in rank order.
+     */
+    protected List<GamePlayerDTO> leaderboard = new ArrayList<>();
+}
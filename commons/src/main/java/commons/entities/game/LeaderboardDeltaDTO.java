@@ -0,0 +1,30 @@
+package commons.entities.game;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.utils.Views;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes to the leaderboard of a game.
+ * Only the players whose rank or score changed are listed, with their new standing.
+ * Versions are consecutive, so a client which missed an update can tell that it has to reload the leaderboard.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonView(Views.Public.class)
+public class LeaderboardDeltaDTO {
+    /**
+     * Version of the leaderboard after the changes, starting from 1.
+     */
+    protected long version;
+
+    /**
+     * New standings of the players which changed.
+     */
+    protected List<LeaderboardEntryDTO> entries = new ArrayList<>();
+}
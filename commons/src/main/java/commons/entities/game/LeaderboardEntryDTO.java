@@ -0,0 +1,37 @@
+package commons.entities.game;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.utils.Views;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Standing of a player in the leaderboard of a game.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonView(Views.Public.class)
+public class LeaderboardEntryDTO {
+    /**
+     * UUID of the game player.
+     */
+    protected UUID playerId;
+
+    /**
+     * Rank of the player, starting from 1, or 0 if the player left the game.
+     */
+    protected int rank;
+
+    /**
+     * Current score of the player.
+     */
+    protected int score;
+
+    /**
+     * Streak of the player.
+     */
+    protected int streak;
+}
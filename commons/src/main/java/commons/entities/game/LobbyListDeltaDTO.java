@@ -0,0 +1,35 @@
+package commons.entities.game;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.utils.Views;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes to the list of public lobbies.
+ * Versions are consecutive, so a client which missed an update can tell that it has to reload the list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonView(Views.Public.class)
+public class LobbyListDeltaDTO {
+    /**
+     * Version of the list after the changes, starting from 1.
+     */
+    protected long version;
+
+    /**
+     * Lobbies which were created or changed.
+     */
+    protected List<LobbySummaryDTO> updated = new ArrayList<>();
+
+    /**
+     * IDs of the lobbies which were started or deleted.
+     */
+    protected List<UUID> removed = new ArrayList<>();
+}
@@ -0,0 +1,33 @@
+package commons.entities.game;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.utils.Views;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of the list of public lobbies.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonView(Views.Public.class)
+public class LobbyPageDTO {
+    /**
+     * Version of the list the page was taken from, the updates with a higher version apply to it.
+     */
+    protected long version;
+
+    /**
+     * Number of lobbies matching the filters, over all the pages.
+     */
+    protected int total;
+
+    /**
+     * The lobbies of the page, oldest first.
+     */
+    protected List<LobbySummaryDTO> lobbies = new ArrayList<>();
+}
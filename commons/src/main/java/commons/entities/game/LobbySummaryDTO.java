@@ -0,0 +1,59 @@
+package commons.entities.game;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.game.configuration.GameConfigurationDTO;
+import commons.entities.utils.Views;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact view of a public lobby, as listed in the lobby browser.
+ * Unlike {@link GameDTO}, it only counts the players instead of listing them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonView(Views.Public.class)
+public class LobbySummaryDTO {
+    /**
+     * ID of the lobby.
+     */
+    protected UUID id;
+
+    /**
+     * Name of the lobby.
+     */
+    protected String gameName;
+
+    /**
+     * Username of the host of the lobby.
+     */
+    protected String host;
+
+    /**
+     * Number of players in the lobby.
+     */
+    protected int playerCount;
+
+    /**
+     * Configuration of the game, which holds the capacity of the lobby.
+     */
+    protected GameConfigurationDTO configuration;
+
+    /**
+     * Time at which the lobby was created.
+     */
+    protected LocalDateTime createDate;
+
+    /**
+     * Whether the lobby has room for another player.
+     *
+     * @return whether the lobby is not full.
+     */
+    public boolean hasRoom() {
+        return configuration == null || playerCount < configuration.getCapacity();
+    }
+}
@@ -41,6 +41,10 @@ public enum SSEMessageType {
      * Sent when the client should show the in-game leaderboard.
      */
     SHOW_LEADERBOARD,
+    /**
+     * Sent when the ranks or scores of the players in a game change.
+     */
+    LEADERBOARD_UPDATE,
     /**
      * Sent when the game ends.
      */
@@ -65,4 +69,8 @@ public enum SSEMessageType {
      * Sent when the receiver has been kicked from a game.
      */
     YOU_HAVE_BEEN_KICKED,
+    /**
+     * Sent to the users browsing the lobbies when public lobbies are created, change or close.
+     */
+    LOBBY_LIST_UPDATE,
 }
@@ -0,0 +1,81 @@
+package loadgen;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with roughly exponentially growing buckets.
+ * The buckets are finer than the ones of the client, so that the percentiles can be compared between releases.
+ */
+public class LatencyHistogram {
+    /**
+     * The upper bounds of the buckets in milliseconds, the last bucket being unbounded.
+     */
+    static final long[] BOUNDS = {1, 2, 5, 10, 15, 20, 30, 50, 75, 100, 150, 200, 300, 500, 750, 1000, 1500, 2000,
+        3000, 5000, 10000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a latency.
+     *
+     * @param millis the latency in milliseconds, negative latencies are recorded as 0.
+     */
+    public void record(long millis) {
+        millis = Math.max(0, millis);
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        sum.add(millis);
+        max.accumulate(millis);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the mean latency.
+     *
+     * @return the mean latency in milliseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Get an upper bound of a percentile of the latency.
+     *
+     * @param quantile the quantile, between 0 and 1.
+     * @return the upper bound of the bucket the quantile falls in, or the maximum for the last bucket.
+     */
+    public long getPercentile(double quantile) {
+        long rank = (long) Math.ceil(quantile * getCount());
+        long seen = 0;
+        for (int bucket = 0; bucket < BOUNDS.length; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                return Math.min(BOUNDS[bucket], getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fms p50<=%dms p95<=%dms p99<=%dms max=%dms", getCount(), getMean(),
+                getPercentile(0.5), getPercentile(0.95), getPercentile(0.99), getMax());
+    }
+}
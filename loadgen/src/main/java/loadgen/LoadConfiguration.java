@@ -0,0 +1,172 @@
+package loadgen;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * Configuration of a load test run.
+ * Every option can be set on the command line as {@code --<option>=<value>}, durations are in milliseconds.
+ */
+@Data
+public class LoadConfiguration {
+    /**
+     * Address of the server under test.
+     */
+    private String server = "http://localhost:8080/";
+
+    /**
+     * Number of lobbies to play in.
+     */
+    private int lobbies = 10;
+
+    /**
+     * Number of players per lobby, including the host.
+     */
+    private int players = 5;
+
+    /**
+     * Number of questions per game.
+     */
+    private int questions = 10;
+
+    /**
+     * Time the players have to answer a question.
+     */
+    private Duration answerTime = Duration.ofSeconds(10);
+
+    /**
+     * Distribution of the time the players take to answer, see {@link ThinkTime}.
+     */
+    private String thinkTime = "exponential:3000";
+
+    /**
+     * Probability that a player plays a power-up on a question.
+     */
+    private double powerUpRate = 0.1;
+
+    /**
+     * Probability that a player sends a reaction on a stage.
+     */
+    private double reactionRate = 0.2;
+
+    /**
+     * Time over which the games are started, so that the lobbies are not all created at once.
+     */
+    private Duration rampUp = Duration.ofSeconds(10);
+
+    /**
+     * Time after which the games that did not finish are given up on.
+     */
+    private Duration timeout = Duration.ofMinutes(15);
+
+    /**
+     * Number of threads making the requests of the players.
+     */
+    private int workers = 32;
+
+    /**
+     * Share of failed requests above which the run fails.
+     */
+    private double maxErrorRate = 0.01;
+
+    /**
+     * Seed of the random choices of the players, so that runs can be repeated.
+     */
+    private long seed = 42;
+
+    /**
+     * Parse the configuration from the command line arguments.
+     *
+     * @param args the arguments, as {@code --<option>=<value>}.
+     * @return the configuration.
+     * @throws IllegalArgumentException if an argument is unknown or its value is invalid.
+     */
+    public static LoadConfiguration parse(String... args) {
+        LoadConfiguration config = new LoadConfiguration();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Arguments must be written as --<option>=<value>, got " + arg);
+            }
+            String option = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            try {
+                config.set(option, value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value, e);
+            }
+        }
+        config.validate();
+        return config;
+    }
+
+    private void set(String option, String value) {
+        switch (option) {
+            case "server":
+                server = value.endsWith("/") ? value : value + "/";
+                break;
+            case "lobbies":
+                lobbies = Integer.parseInt(value);
+                break;
+            case "players":
+                players = Integer.parseInt(value);
+                break;
+            case "questions":
+                questions = Integer.parseInt(value);
+                break;
+            case "answerTime":
+                answerTime = Duration.ofMillis(Long.parseLong(value));
+                break;
+            case "thinkTime":
+                thinkTime = value;
+                break;
+            case "powerUpRate":
+                powerUpRate = Double.parseDouble(value);
+                break;
+            case "reactionRate":
+                reactionRate = Double.parseDouble(value);
+                break;
+            case "rampUp":
+                rampUp = Duration.ofMillis(Long.parseLong(value));
+                break;
+            case "timeout":
+                timeout = Duration.ofMillis(Long.parseLong(value));
+                break;
+            case "workers":
+                workers = Integer.parseInt(value);
+                break;
+            case "maxErrorRate":
+                maxErrorRate = Double.parseDouble(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option " + option);
+        }
+    }
+
+    /**
+     * Check that the configuration describes games the server accepts.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid.
+     */
+    void validate() {
+        // The bounds of the lobby configuration, as validated by the server
+        if (players < 1 || players > 8) {
+            throw new IllegalArgumentException("Lobbies hold between 1 and 8 players");
+        }
+        if (questions < 10 || questions > 100) {
+            throw new IllegalArgumentException("Games have between 10 and 100 questions");
+        }
+        if (answerTime.toMillis() < 3000 || answerTime.toMillis() > 120000) {
+            throw new IllegalArgumentException("The answer time must be between 3 and 120 seconds");
+        }
+        if (lobbies < 1 || workers < 1) {
+            throw new IllegalArgumentException("At least one lobby and one worker are needed");
+        }
+        if (powerUpRate < 0 || powerUpRate > 1 || reactionRate < 0 || reactionRate > 1) {
+            throw new IllegalArgumentException("Rates must be between 0 and 1");
+        }
+        ThinkTime.parse(thinkTime);
+    }
+}
@@ -0,0 +1,210 @@
+package loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Headless load generator, playing full games against a server with simulated players.
+ * Every lobby is created by a host that the other players join, and played until the end, after which
+ * the latency of every endpoint and the delivery lag of the SSE events are reported.
+ * The run fails if a game does not finish in time or too many requests fail, so that it can gate releases.
+ */
+@Slf4j
+public class LoadGenerator {
+    static final String CONNECTION_TIMEOUT_PROPERTY = "http.connection.timeout";
+    static final String RECEIVE_TIMEOUT_PROPERTY = "http.receive.timeout";
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RECEIVE_TIMEOUT = Duration.ofSeconds(15);
+
+    /**
+     * Time the players wait for their SSE connection to be initialized.
+     */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadConfiguration config;
+    private final LoadMetrics metrics = new LoadMetrics();
+    private final Queue<VirtualPlayer> players = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService executor;
+    private final Client client;
+    private final Random random;
+
+    /**
+     * Prefix of the names of the players, unique to the run so that runs against the same database do not collide.
+     */
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Create a load generator.
+     *
+     * @param config the configuration of the run.
+     */
+    public LoadGenerator(LoadConfiguration config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.executor = Executors.newScheduledThreadPool(config.getWorkers());
+
+        // Every player keeps an SSE connection open, on top of the requests it makes
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", Integer.toString(config.getWorkers() * 2));
+        }
+        this.client = ClientBuilder.newClient()
+                .property(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT.toMillis())
+                .property(RECEIVE_TIMEOUT_PROPERTY, RECEIVE_TIMEOUT.toMillis())
+                .register(new JacksonJsonProvider(new ObjectMapper().registerModule(new JavaTimeModule())))
+                .register(metrics);
+    }
+
+    /**
+     * Run the load test.
+     *
+     * @param args the options of the run, see {@link LoadConfiguration}.
+     */
+    public static void main(String[] args) {
+        LoadConfiguration config;
+        try {
+            config = LoadConfiguration.parse(args);
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        System.exit(new LoadGenerator(config).run() ? 0 : 1);
+    }
+
+    /**
+     * Play all the games and report the measurements.
+     *
+     * @return whether all the games finished and the failure rate stayed below the configured maximum.
+     */
+    public boolean run() {
+        log.info("Running {} lobbies of {} players against {}", config.getLobbies(), config.getPlayers(),
+                config.getServer());
+
+        // A first player checks that the server is up, and looks up the reactions the players can send
+        List<String> reactions;
+        try {
+            VirtualPlayer probe = newPlayer("probe");
+            probe.register();
+            reactions = probe.fetchReactions();
+        } catch (RuntimeException e) {
+            log.error("Server {} is not available: {}", config.getServer(), e.getMessage());
+            shutdown();
+            return false;
+        }
+
+        // Spread the creation of the lobbies over the ramp-up time
+        List<CompletableFuture<Void>> games = new ArrayList<>();
+        for (int lobby = 0; lobby < config.getLobbies(); lobby++) {
+            int index = lobby;
+            CompletableFuture<Void> game = new CompletableFuture<>();
+            games.add(game);
+            executor.schedule(() -> {
+                try {
+                    playLobby(index, reactions).whenComplete((result, throwable) -> game.complete(null));
+                } catch (Exception e) {
+                    log.warn("Lobby {} could not be started: {}", index, e.getMessage());
+                    game.completeExceptionally(e);
+                }
+            }, config.getRampUp().toMillis() * lobby / config.getLobbies(), TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            CompletableFuture.allOf(games.toArray(CompletableFuture[]::new))
+                    .get(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Timed out waiting for the games to finish");
+        } catch (ExecutionException e) {
+            log.debug("Some lobbies failed to start");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long finished = games.stream().filter(game -> game.isDone() && !game.isCompletedExceptionally()).count();
+        shutdown();
+        return report(finished);
+    }
+
+    /**
+     * Set up a lobby and start its game.
+     *
+     * @param index     the number of the lobby.
+     * @param reactions the reactions the players can send.
+     * @return a future completed once all the players saw the game end.
+     * @throws Exception if the lobby could not be set up.
+     */
+    private CompletableFuture<Void> playLobby(int index, List<String> reactions) throws Exception {
+        List<VirtualPlayer> lobbyPlayers = new ArrayList<>();
+        for (int player = 0; player < config.getPlayers(); player++) {
+            VirtualPlayer virtualPlayer = newPlayer(String.format("%03d_%d", index, player));
+            virtualPlayer.setReactions(reactions);
+            virtualPlayer.register();
+            virtualPlayer.connect().get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            lobbyPlayers.add(virtualPlayer);
+        }
+
+        // The first player hosts the lobby
+        VirtualPlayer host = lobbyPlayers.get(0);
+        UUID lobbyId = host.createLobby();
+        for (VirtualPlayer player : lobbyPlayers.subList(1, lobbyPlayers.size())) {
+            player.join(lobbyId);
+        }
+        host.start();
+        log.info("[{}] Lobby {} started", lobbyId, index);
+
+        return CompletableFuture.allOf(lobbyPlayers.stream()
+                .map(VirtualPlayer::getFinished)
+                .toArray(CompletableFuture[]::new))
+                .thenRun(() -> log.info("[{}] Lobby {} finished", lobbyId, index));
+    }
+
+    private VirtualPlayer newPlayer(String name) {
+        // Usernames are at most 20 characters long
+        VirtualPlayer player = new VirtualPlayer(runId + "_" + name, client, config, metrics, executor,
+                new Random(random.nextLong()));
+        players.add(player);
+        return player;
+    }
+
+    private void shutdown() {
+        players.forEach(VirtualPlayer::close);
+        executor.shutdownNow();
+        client.close();
+    }
+
+    /**
+     * Report the measurements of the run.
+     *
+     * @param finished the number of games that finished.
+     * @return whether the run passed.
+     */
+    private boolean report(long finished) {
+        metrics.logSummary();
+
+        long requests = metrics.getRequestCount();
+        long failures = metrics.getFailureCount();
+        double errorRate = requests == 0 ? 1 : (double) failures / requests;
+        log.info("Games finished: {}/{}", finished, config.getLobbies());
+        log.info("Requests: {}, failed: {} ({})", requests, failures, String.format("%.2f%%", errorRate * 100));
+
+        boolean passed = finished == config.getLobbies() && errorRate <= config.getMaxErrorRate();
+        log.info(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+}
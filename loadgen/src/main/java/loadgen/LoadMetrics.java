@@ -0,0 +1,166 @@
+package loadgen;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measurements of a load test run.
+ * It records the latency and the failures of the requests per endpoint, like the client does,
+ * and the delivery lag of the SSE events.
+ */
+@Slf4j
+public class LoadMetrics implements ClientRequestFilter, ClientResponseFilter {
+    private static final String START_PROPERTY = LoadMetrics.class.getName() + ".start";
+
+    /**
+     * Path segments that identify an entity rather than an endpoint.
+     */
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+)(?=/|$)");
+
+    private final Map<String, LatencyHistogram> requests = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> events = new ConcurrentHashMap<>();
+
+    /**
+     * Time at which the first player received each SSE event, by event ID.
+     */
+    private final Map<String, Long> firstDeliveries = new ConcurrentHashMap<>();
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        String endpoint = getEndpoint(requestContext.getMethod(), requestContext.getUri().getPath());
+        if (start instanceof Long) {
+            record(endpoint, System.nanoTime() - (Long) start);
+        }
+        if (responseContext.getStatus() >= 400) {
+            fail(endpoint);
+        }
+    }
+
+    /**
+     * Record the latency of a request.
+     *
+     * @param endpoint the endpoint the request was made to.
+     * @param nanos    the time until the response headers were received, in nanoseconds.
+     */
+    public void record(String endpoint, long nanos) {
+        requests.computeIfAbsent(endpoint, e -> new LatencyHistogram()).record(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Record a failed request, either an error status or a request that got no response.
+     *
+     * @param endpoint the endpoint the request was made to.
+     */
+    public void fail(String endpoint) {
+        failures.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+    }
+
+    /**
+     * Record the lag of a game stage event, i.e. how late it arrived compared to the delay announced
+     * by the previous stage event. It is measured against the clock of the player, so it includes the
+     * scheduling skew of the server and the time it took to deliver the event.
+     *
+     * @param type   the type of the event.
+     * @param millis the lag in milliseconds.
+     */
+    public void recordStageLag(String type, long millis) {
+        events.computeIfAbsent("SSE " + type, e -> new LatencyHistogram()).record(millis);
+    }
+
+    /**
+     * Record the delivery of an event to a player, to measure the spread of the deliveries of the same event
+     * to the players of a game.
+     *
+     * @param eventId     the ID of the event.
+     * @param arrivalTime the time the event was received at, in milliseconds.
+     */
+    public void recordDelivery(String eventId, long arrivalTime) {
+        long first = firstDeliveries.merge(eventId, arrivalTime, Math::min);
+        events.computeIfAbsent("SSE fan-out", e -> new LatencyHistogram()).record(arrivalTime - first);
+    }
+
+    /**
+     * Get the latency histogram of an endpoint.
+     *
+     * @param endpoint the endpoint.
+     * @return the histogram, or null if no request was made to the endpoint.
+     */
+    public LatencyHistogram getHistogram(String endpoint) {
+        return requests.get(endpoint);
+    }
+
+    /**
+     * Get the lag histogram of an SSE measurement.
+     *
+     * @param name the name of the measurement, e.g. {@code SSE START_QUESTION} or {@code SSE fan-out}.
+     * @return the histogram, or null if nothing was measured.
+     */
+    public LatencyHistogram getEventHistogram(String name) {
+        return events.get(name);
+    }
+
+    /**
+     * Get the total number of requests made.
+     *
+     * @return the number of requests that got a response.
+     */
+    public long getRequestCount() {
+        return requests.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+    }
+
+    /**
+     * Get the total number of failed requests.
+     *
+     * @return the number of failed requests.
+     */
+    public long getFailureCount() {
+        return failures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Log the measurements of the run.
+     */
+    public void logSummary() {
+        log.info("Request latencies:");
+        new TreeMap<>(requests).forEach((endpoint, histogram) -> {
+            LongAdder failed = failures.get(endpoint);
+            log.info("  {}: {} failed={}", endpoint, histogram, failed == null ? 0 : failed.sum());
+        });
+        // Requests that never got a response have no latency
+        failures.keySet().stream()
+                .filter(endpoint -> !requests.containsKey(endpoint))
+                .sorted()
+                .forEach(endpoint -> log.info("  {}: failed={}", endpoint, failures.get(endpoint).sum()));
+
+        log.info("SSE delivery lag:");
+        new TreeMap<>(events).forEach((name, histogram) -> log.info("  {}: {}", name, histogram));
+    }
+
+    /**
+     * Get the endpoint a request belongs to.
+     *
+     * @param method the method of the request.
+     * @param path   the path of the request.
+     * @return the method and the path, with the IDs replaced by a placeholder.
+     */
+    static String getEndpoint(String method, String path) {
+        return method + " " + ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
@@ -0,0 +1,80 @@
+package loadgen;
+
+import java.util.Random;
+
+/**
+ * Distribution of the time a simulated player takes to answer a question.
+ * Distributions are written as {@code <kind>:<parameters>}, with all the times in milliseconds:
+ * <ul>
+ *     <li>{@code constant:3000} - always the same time</li>
+ *     <li>{@code uniform:1000-8000} - uniformly distributed between two bounds</li>
+ *     <li>{@code exponential:3000} - exponentially distributed around a mean</li>
+ *     <li>{@code normal:4000,1500} - normally distributed with a mean and a standard deviation</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface ThinkTime {
+    /**
+     * Draw a think time.
+     *
+     * @param random the source of randomness.
+     * @return the think time in milliseconds, never negative.
+     */
+    long sample(Random random);
+
+    /**
+     * Parse a think time distribution.
+     *
+     * @param spec the distribution, as described in {@link ThinkTime}.
+     * @return the distribution.
+     * @throws IllegalArgumentException if the distribution is malformed.
+     */
+    static ThinkTime parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Think time must be written as <kind>:<parameters>, got " + spec);
+        }
+        try {
+            switch (parts[0].toLowerCase()) {
+                case "constant": {
+                    long time = nonNegative(Long.parseLong(parts[1].trim()), spec);
+                    return random -> time;
+                }
+                case "uniform": {
+                    String[] bounds = parts[1].split("-");
+                    long min = nonNegative(Long.parseLong(bounds[0].trim()), spec);
+                    long max = Long.parseLong(bounds[1].trim());
+                    if (bounds.length != 2 || max < min) {
+                        throw new IllegalArgumentException("Invalid uniform bounds in " + spec);
+                    }
+                    return random -> min + (long) (random.nextDouble() * (max - min));
+                }
+                case "exponential": {
+                    double mean = nonNegative(Long.parseLong(parts[1].trim()), spec);
+                    return random -> (long) (-mean * Math.log(1 - random.nextDouble()));
+                }
+                case "normal": {
+                    String[] params = parts[1].split(",");
+                    double mean = nonNegative(Long.parseLong(params[0].trim()), spec);
+                    double deviation = nonNegative(Long.parseLong(params[1].trim()), spec);
+                    if (params.length != 2) {
+                        throw new IllegalArgumentException("Invalid normal parameters in " + spec);
+                    }
+                    // Truncated at 0, players cannot answer before the question is shown
+                    return random -> Math.max(0, (long) (mean + random.nextGaussian() * deviation));
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown think time distribution " + parts[0]);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid think time parameters in " + spec, e);
+        }
+    }
+
+    private static long nonNegative(long value, String spec) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Think times cannot be negative, got " + spec);
+        }
+        return value;
+    }
+}
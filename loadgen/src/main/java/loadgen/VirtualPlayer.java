@@ -0,0 +1,449 @@
+package loadgen;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+import commons.entities.ActivityDTO;
+import commons.entities.AnswerDTO;
+import commons.entities.auth.LoginDTO;
+import commons.entities.auth.UserDTO;
+import commons.entities.game.GameDTO;
+import commons.entities.game.GameSnapshotDTO;
+import commons.entities.game.NormalGameDTO;
+import commons.entities.game.PowerUp;
+import commons.entities.game.ReactionDTO;
+import commons.entities.game.configuration.NormalGameConfigurationDTO;
+import commons.entities.messages.SSEMessageType;
+import commons.entities.questions.EstimateQuestionDTO;
+import commons.entities.questions.MCQuestionDTO;
+import commons.entities.questions.QuestionDTO;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.InboundSseEvent;
+import javax.ws.rs.sse.SseEventSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.cxf.jaxrs.ext.multipart.Attachment;
+import org.apache.cxf.jaxrs.ext.multipart.AttachmentBuilder;
+import org.apache.cxf.jaxrs.ext.multipart.ContentDisposition;
+import org.apache.cxf.jaxrs.ext.multipart.MultipartBody;
+import org.apache.cxf.jaxrs.provider.MultipartProvider;
+
+/**
+ * A simulated player, speaking the same REST and SSE protocol as the client.
+ * The player reacts to the events of its game on its own: it fetches the snapshot of every stage,
+ * answers the questions after a think time, and now and then plays a power-up or sends a reaction.
+ */
+@Slf4j
+public class VirtualPlayer {
+    /**
+     * Number of players in the leaderboards of the snapshots, as many as the game screen shows.
+     */
+    private static final int SNAPSHOT_TOP = 10;
+
+    private final LoadConfiguration config;
+    private final LoadMetrics metrics;
+    private final ScheduledExecutorService executor;
+    private final ThinkTime thinkTime;
+    private final Random random;
+    private final Set<PowerUp> unusedPowerUps = EnumSet.allOf(PowerUp.class);
+
+    /**
+     * Requests target of the player, carrying its credentials.
+     */
+    private final WebTarget target;
+
+    @Getter
+    private final String username;
+
+    private volatile String token;
+    private volatile List<String> reactions = List.of();
+    private volatile SseEventSource events;
+
+    /**
+     * ID of the game the player is in.
+     */
+    @Getter
+    private volatile UUID gameId;
+
+    /**
+     * Time at which the next stage event is expected, or -1 if no stage event was received yet.
+     */
+    private volatile long nextStageTime = -1;
+
+    /**
+     * Completed once the SSE connection is initialized.
+     */
+    @Getter
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+
+    /**
+     * Completed once the game of the player ends.
+     */
+    @Getter
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+    /**
+     * Create a simulated player.
+     *
+     * @param username the name of the player, which also makes up its email address.
+     * @param client   the client shared by all the players.
+     * @param config   the configuration of the run.
+     * @param metrics  the measurements of the run.
+     * @param executor the executor the player acts on.
+     * @param random   the source of the random choices of the player.
+     */
+    public VirtualPlayer(String username, Client client, LoadConfiguration config, LoadMetrics metrics,
+                         ScheduledExecutorService executor, Random random) {
+        this.username = username;
+        this.config = config;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.random = random;
+        this.thinkTime = ThinkTime.parse(config.getThinkTime());
+        this.target = client.target(config.getServer()).register((ClientRequestFilter) requestContext -> {
+            String token = this.token;
+            if (token != null) {
+                requestContext.getHeaders().putSingle(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            }
+        });
+    }
+
+    /**
+     * Register the player, logging in if it already exists.
+     *
+     * @throws IllegalStateException if the player could neither register nor log in.
+     */
+    public void register() {
+        UserDTO user = new UserDTO(username, username + "@loadgen.test", "loadgen-" + username);
+        List<Attachment> attachments = new ArrayList<>();
+        attachments.add(new AttachmentBuilder()
+                .mediaType(APPLICATION_JSON)
+                .object(user)
+                .contentDisposition(new ContentDisposition("form-data;name=\"userData\""))
+                .build());
+
+        try (Response response = invoke("POST", target.path("/api/auth/register").register(new MultipartProvider()),
+                Entity.entity(new MultipartBody(attachments), "multipart/mixed"))) {
+            if (response.getStatus() == 201) {
+                token = response.readEntity(LoginDTO.class).getToken();
+                return;
+            }
+            if (response.getStatus() != 409) {
+                throw new IllegalStateException("Registration of " + username + " failed: " + response.getStatus());
+            }
+        }
+
+        // The player was registered by a previous run
+        try (Response response = invoke("POST", target.path("/api/auth/login"),
+                Entity.entity(user, APPLICATION_JSON))) {
+            if (response.getStatus() != 200) {
+                throw new IllegalStateException("Login of " + username + " failed: " + response.getStatus());
+            }
+            token = response.readEntity(LoginDTO.class).getToken();
+        }
+    }
+
+    /**
+     * Open the SSE connection of the player.
+     *
+     * @return a future completed once the server initialized the connection.
+     */
+    public CompletableFuture<Void> connect() {
+        // The stream stays open for the whole game, so it must not time out between events
+        SseEventSource source = SseEventSource
+                .target(target.path("/api/sse/open").property(LoadGenerator.RECEIVE_TIMEOUT_PROPERTY, 0L))
+                .build();
+        source.register(this::handleEvent,
+                throwable -> log.warn("[{}] SSE connection failed: {}", username, throwable.getMessage()));
+        source.open();
+        events = source;
+        return connected;
+    }
+
+    /**
+     * Fetch the reactions the players can send.
+     *
+     * @return the reaction types.
+     */
+    public List<String> fetchReactions() {
+        try (Response response = invoke("GET", target.path("/api/reaction"), null)) {
+            if (response.getStatus() != 200) {
+                return List.of();
+            }
+            return new ArrayList<>(response.readEntity(new GenericType<Map<String, Object>>() {}).keySet());
+        }
+    }
+
+    public void setReactions(List<String> reactions) {
+        this.reactions = List.copyOf(reactions);
+    }
+
+    /**
+     * Create a public lobby hosted by the player.
+     *
+     * @return the ID of the lobby.
+     * @throws IllegalStateException if the lobby could not be created.
+     */
+    public UUID createLobby() {
+        NormalGameConfigurationDTO configuration = new NormalGameConfigurationDTO();
+        configuration.setCapacity(config.getPlayers());
+        configuration.setNumQuestions(config.getQuestions());
+        configuration.setAnswerTime((int) config.getAnswerTime().toMillis());
+        NormalGameDTO lobby = new NormalGameDTO();
+        lobby.setConfiguration(configuration);
+        lobby.setIsPrivate(false);
+        lobby.setGameName(username);
+
+        try (Response response = invoke("POST", target.path("/api/lobby"), Entity.entity(lobby, APPLICATION_JSON))) {
+            if (response.getStatus() != 201) {
+                throw new IllegalStateException("Lobby creation by " + username + " failed: " + response.getStatus());
+            }
+            gameId = response.readEntity(GameDTO.class).getId();
+            return gameId;
+        }
+    }
+
+    /**
+     * Join a lobby.
+     *
+     * @param lobbyId the ID of the lobby.
+     * @throws IllegalStateException if the lobby could not be joined.
+     */
+    public void join(UUID lobbyId) {
+        try (Response response = invoke("PUT", target.path("/api/lobby/" + lobbyId + "/join"),
+                Entity.entity("", APPLICATION_JSON))) {
+            if (response.getStatus() != 200) {
+                throw new IllegalStateException(username + " failed to join " + lobbyId + ": " + response.getStatus());
+            }
+            gameId = lobbyId;
+        }
+    }
+
+    /**
+     * Start the game of the lobby hosted by the player.
+     *
+     * @throws IllegalStateException if the game could not be started.
+     */
+    public void start() {
+        try (Response response = invoke("PUT", target.path("/api/lobby/" + gameId + "/start"),
+                Entity.entity("", APPLICATION_JSON))) {
+            if (response.getStatus() != 200) {
+                throw new IllegalStateException("Game " + gameId + " failed to start: " + response.getStatus());
+            }
+        }
+    }
+
+    /**
+     * Close the SSE connection of the player.
+     */
+    public void close() {
+        SseEventSource source = events;
+        if (source != null) {
+            source.close(1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Handle an SSE event, like the client does.
+     * The requests the events trigger are made on the executor, so that the events are received on time.
+     *
+     * @param event the event.
+     */
+    void handleEvent(InboundSseEvent event) {
+        long arrivalTime = System.currentTimeMillis();
+        if (event.getId() != null) {
+            metrics.recordDelivery(event.getId(), arrivalTime);
+        }
+
+        SSEMessageType type;
+        try {
+            type = SSEMessageType.valueOf(event.getName());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("[{}] Unknown SSE event {}", username, event.getName());
+            return;
+        }
+
+        switch (type) {
+            case INIT:
+                connected.complete(null);
+                break;
+            case GAME_START:
+            case SHOW_LEADERBOARD:
+                nextStage(type, arrivalTime, readDelay(event));
+                executor.execute(this::maybeReact);
+                break;
+            case START_QUESTION:
+                nextStage(type, arrivalTime, readDelay(event));
+                executor.execute(() -> playQuestion(arrivalTime));
+                break;
+            case STOP_QUESTION:
+                nextStage(type, arrivalTime, readDelay(event));
+                executor.execute(() -> {
+                    fetchSnapshot();
+                    maybeReact();
+                });
+                break;
+            case GAME_END:
+                nextStage(type, arrivalTime, -1);
+                finished.complete(null);
+                break;
+            default:
+                // Leaderboard updates, reactions and lobby changes only update the screens of the client
+                break;
+        }
+    }
+
+    /**
+     * Record the lag of a stage event, and when the next one is expected.
+     *
+     * @param type        the type of the event.
+     * @param arrivalTime the time the event was received at.
+     * @param delay       the delay until the next stage announced by the event, or -1 if there is no next stage.
+     */
+    private void nextStage(SSEMessageType type, long arrivalTime, long delay) {
+        if (nextStageTime >= 0) {
+            metrics.recordStageLag(type.name(), arrivalTime - nextStageTime);
+        }
+        nextStageTime = delay < 0 ? -1 : arrivalTime + delay;
+    }
+
+    private static long readDelay(InboundSseEvent event) {
+        try {
+            return Long.parseLong(event.readData().trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Play the current question: fetch it, maybe play a power-up, then answer once the think time passed.
+     *
+     * @param shownAt the time the question started at.
+     */
+    private void playQuestion(long shownAt) {
+        GameSnapshotDTO snapshot = fetchSnapshot();
+        if (snapshot == null || snapshot.getQuestion() == null) {
+            return;
+        }
+        QuestionDTO question = snapshot.getQuestion();
+
+        if (random.nextDouble() < config.getPowerUpRate()) {
+            playPowerUp(question);
+        }
+
+        // Players who think for too long do not answer at all
+        long think = thinkTime.sample(random);
+        if (think >= config.getAnswerTime().toMillis()) {
+            return;
+        }
+        long delay = Math.max(0, shownAt + think - System.currentTimeMillis());
+        executor.schedule(() -> answer(question), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void answer(QuestionDTO question) {
+        List<ActivityDTO> activities = question.getActivities();
+        if (activities.isEmpty()) {
+            return;
+        }
+        ActivityDTO response;
+        if (question instanceof EstimateQuestionDTO) {
+            response = activities.get(0);
+            response.setCost(1 + (long) (random.nextDouble() * 10000));
+        } else {
+            response = activities.get(random.nextInt(activities.size()));
+        }
+
+        try (Response ignored = invoke("PUT", target.path("/api/game/" + gameId + "/answer"),
+                Entity.entity(new AnswerDTO(question.getId(), List.of(response)), APPLICATION_JSON))) {
+            log.trace("[{}] Answered question {}", username, question.getId());
+        } catch (ProcessingException e) {
+            log.debug("[{}] Failed to answer: {}", username, e.getMessage());
+        }
+    }
+
+    private void playPowerUp(QuestionDTO question) {
+        List<PowerUp> playable = new ArrayList<>(unusedPowerUps);
+        // Incorrect answers cannot be eliminated from estimate questions
+        if (!(question instanceof MCQuestionDTO)) {
+            playable.remove(PowerUp.IncorrectAnswer);
+        }
+        if (playable.isEmpty()) {
+            return;
+        }
+        PowerUp powerUp = playable.get(random.nextInt(playable.size()));
+        unusedPowerUps.remove(powerUp);
+
+        try (Response ignored = invoke("POST", target.path("/api/game/powerUp"),
+                Entity.entity(powerUp, APPLICATION_JSON))) {
+            log.trace("[{}] Played {}", username, powerUp);
+        } catch (ProcessingException e) {
+            log.debug("[{}] Failed to play a power-up: {}", username, e.getMessage());
+        }
+    }
+
+    private void maybeReact() {
+        List<String> reactions = this.reactions;
+        if (reactions.isEmpty() || random.nextDouble() >= config.getReactionRate()) {
+            return;
+        }
+        ReactionDTO reaction = new ReactionDTO(null, reactions.get(random.nextInt(reactions.size())));
+        try (Response ignored = invoke("POST", target.path("/api/reaction/send"),
+                Entity.entity(reaction, APPLICATION_JSON))) {
+            log.trace("[{}] Reacted with {}", username, reaction.getReactionType());
+        } catch (ProcessingException e) {
+            log.debug("[{}] Failed to react: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Fetch the snapshot of the current stage, like the client does on every stage transition.
+     *
+     * @return the snapshot, or null if it could not be fetched.
+     */
+    private GameSnapshotDTO fetchSnapshot() {
+        try (Response response = invoke("GET", target.path("/api/game/" + gameId + "/snapshot")
+                .queryParam("top", SNAPSHOT_TOP), null)) {
+            return response.getStatus() == 200 ? response.readEntity(GameSnapshotDTO.class) : null;
+        } catch (ProcessingException e) {
+            log.debug("[{}] Failed to fetch the snapshot: {}", username, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Make a request, counting the requests that got no response as failed.
+     * The requests that got a response are measured by the {@link LoadMetrics} filter of the client.
+     *
+     * @param method   the method of the request.
+     * @param endpoint the target of the request.
+     * @param entity   the body of the request, or null if it has none.
+     * @return the response.
+     * @throws ProcessingException if no response was received.
+     */
+    private Response invoke(String method, WebTarget endpoint, Entity<?> entity) {
+        try {
+            return entity == null
+                    ? endpoint.request(APPLICATION_JSON).method(method)
+                    : endpoint.request(APPLICATION_JSON).method(method, entity);
+        } catch (ProcessingException e) {
+            metrics.fail(LoadMetrics.getEndpoint(method, endpoint.getUri().getPath()));
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package loadgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class LoadConfigurationTest {
+    @Test
+    void defaults() {
+        LoadConfiguration config = LoadConfiguration.parse();
+        assertEquals("http://localhost:8080/", config.getServer());
+        assertEquals(10, config.getLobbies());
+        assertEquals(5, config.getPlayers());
+    }
+
+    @Test
+    void parse() {
+        LoadConfiguration config = LoadConfiguration.parse("--server=http://qz.test:9000", "--lobbies=50",
+                "--players=8", "--answerTime=5000", "--thinkTime=uniform:500-4000", "--powerUpRate=0.5");
+        assertEquals("http://qz.test:9000/", config.getServer());
+        assertEquals(50, config.getLobbies());
+        assertEquals(8, config.getPlayers());
+        assertEquals(Duration.ofSeconds(5), config.getAnswerTime());
+        assertEquals("uniform:500-4000", config.getThinkTime());
+        assertEquals(0.5, config.getPowerUpRate());
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--lobbies"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("lobbies=3"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--colour=blue"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--lobbies=many"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--players=9"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--questions=5"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--answerTime=1000"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--reactionRate=2"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfiguration.parse("--thinkTime=soon"));
+    }
+}
@@ -0,0 +1,98 @@
+package loadgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoadMetricsTest {
+    LoadMetrics metrics;
+
+    @BeforeEach
+    void init() {
+        metrics = new LoadMetrics();
+    }
+
+    @Test
+    void getEndpoint() {
+        assertEquals("PUT /api/game/{id}/answer",
+                LoadMetrics.getEndpoint("PUT", "/api/game/8f3a3f0e-2b6d-4a64-8d4f-0d0a4f6b1c2e/answer"));
+        assertEquals("GET /api/lobby/available", LoadMetrics.getEndpoint("GET", "/api/lobby/available"));
+    }
+
+    @Test
+    void failedResponse() {
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getUri()).thenReturn(URI.create("http://localhost:8080/api/game/powerUp"));
+        when(request.getProperty(LoadMetrics.class.getName() + ".start")).thenReturn(System.nanoTime());
+        ClientResponseContext response = mock(ClientResponseContext.class);
+        when(response.getStatus()).thenReturn(409);
+
+        metrics.filter(request, response);
+
+        assertEquals(1, metrics.getHistogram("POST /api/game/powerUp").getCount());
+        assertEquals(1, metrics.getRequestCount());
+        assertEquals(1, metrics.getFailureCount());
+    }
+
+    @Test
+    void failureWithoutResponse() {
+        metrics.fail("GET /api/game/{id}/snapshot");
+        assertEquals(0, metrics.getRequestCount());
+        assertEquals(1, metrics.getFailureCount());
+        assertNull(metrics.getHistogram("GET /api/game/{id}/snapshot"));
+    }
+
+    @Test
+    void record() {
+        metrics.record("GET /api/misc/ping", TimeUnit.MILLISECONDS.toNanos(7));
+        metrics.record("GET /api/misc/ping", TimeUnit.MILLISECONDS.toNanos(12));
+        assertEquals(2, metrics.getHistogram("GET /api/misc/ping").getCount());
+        assertEquals(12, metrics.getHistogram("GET /api/misc/ping").getMax());
+    }
+
+    @Test
+    void stageLag() {
+        metrics.recordStageLag("START_QUESTION", 40);
+        metrics.recordStageLag("START_QUESTION", -5);
+
+        LatencyHistogram histogram = metrics.getEventHistogram("SSE START_QUESTION");
+        assertEquals(2, histogram.getCount());
+        assertEquals(40, histogram.getMax());
+        assertEquals(20, histogram.getMean());
+    }
+
+    @Test
+    void fanOut() {
+        metrics.recordDelivery("game-1", 1000);
+        metrics.recordDelivery("game-1", 1030);
+        metrics.recordDelivery("game-2", 2000);
+
+        LatencyHistogram histogram = metrics.getEventHistogram("SSE fan-out");
+        assertEquals(3, histogram.getCount());
+        assertEquals(30, histogram.getMax());
+    }
+
+    @Test
+    void histogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(3);
+        }
+        histogram.record(40);
+        histogram.record(20000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(20000, histogram.getMax());
+        assertEquals(5, histogram.getPercentile(0.5));
+        assertEquals(50, histogram.getPercentile(0.99));
+        assertEquals(20000, histogram.getPercentile(1));
+    }
+}
@@ -0,0 +1,50 @@
+package loadgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class ThinkTimeTest {
+    private static final int SAMPLES = 10000;
+
+    private static LongStream sample(ThinkTime thinkTime) {
+        Random random = new Random(42);
+        return LongStream.range(0, SAMPLES).map(i -> thinkTime.sample(random));
+    }
+
+    @Test
+    void constant() {
+        assertTrue(sample(ThinkTime.parse("constant:2500")).allMatch(time -> time == 2500));
+    }
+
+    @Test
+    void uniform() {
+        assertTrue(sample(ThinkTime.parse("uniform:1000-3000")).allMatch(time -> time >= 1000 && time < 3000));
+    }
+
+    @Test
+    void exponential() {
+        double mean = sample(ThinkTime.parse("exponential:2000")).average().orElseThrow();
+        assertEquals(2000, mean, 100);
+        assertTrue(sample(ThinkTime.parse("exponential:2000")).allMatch(time -> time >= 0));
+    }
+
+    @Test
+    void normalTruncated() {
+        assertTrue(sample(ThinkTime.parse("normal:100,500")).allMatch(time -> time >= 0));
+        assertEquals(4000, sample(ThinkTime.parse("normal:4000,200")).average().orElseThrow(), 50);
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("3000"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("poisson:3000"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("uniform:3000-1000"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("uniform:3000"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("normal:3000"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("constant:-1"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("constant:fast"));
+    }
+}
@@ -30,6 +30,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import server.configuration.FileSystemStorageConfiguration;
 import server.configuration.QuestionGenerationConfiguration;
 import server.configuration.ResourceConfiguration;
+import server.configuration.SSEConfiguration;
 import server.configuration.quiz.QuizConfiguration;
 import server.services.storage.StorageService;
 
@@ -42,7 +43,8 @@ import server.services.storage.StorageService;
 @EnableConfigurationProperties({FileSystemStorageConfiguration.class,
                                 ResourceConfiguration.class,
                                 QuizConfiguration.class,
-                                QuestionGenerationConfiguration.class})
+                                QuestionGenerationConfiguration.class,
+                                SSEConfiguration.class})
 public class Main {
 
     public static void main(String[] args) {
@@ -15,6 +15,7 @@ import org.springframework.web.multipart.MultipartFile;
 import server.database.entities.question.Activity;
 import server.database.repositories.question.ActivityRepository;
 import server.exceptions.ResourceNotFoundException;
+import server.services.question.ActivityIndex;
 import server.services.storage.StorageService;
 
 /**
@@ -30,6 +31,9 @@ public class ActivityController {
     @Autowired
     private StorageService storageService;
 
+    @Autowired
+    private ActivityIndex activityIndex;
+
     /**
      * Batch create/update activities with added images.
      *
@@ -69,6 +73,7 @@ public class ActivityController {
 
         // Save the activity entities
         List<Activity> savedActivities = activityRepository.saveAll(activitiesToAdd);
+        activityIndex.putAll(savedActivities);
         log.debug("Saved {} activities", savedActivities.size());
 
         // Return the DTOs of the saved activities
@@ -88,7 +93,9 @@ public class ActivityController {
 
         // Save the entities
         try {
-            List<ActivityDTO> activityDTOList = activityRepository.saveAll(activityList).stream()
+            List<Activity> savedActivities = activityRepository.saveAll(activityList);
+            activityIndex.putAll(savedActivities);
+            List<ActivityDTO> activityDTOList = savedActivities.stream()
                     .map(Activity::getDTO).collect(Collectors.toList());
             log.debug("Added {} activities", activityDTOList.size());
             return new ResponseEntity<>(activityDTOList, HttpStatus.CREATED);
@@ -181,6 +188,7 @@ public class ActivityController {
         // Save the entity (if the UUID in the DTO is already existing, the entity will be updated instead)
         try {
             toSave = activityRepository.save(toSave);
+            activityIndex.put(toSave);
             log.debug("Saved activity {}", toSave.toString());
             if (createdActivity) {
                 return ResponseEntity.status(HttpStatus.CREATED).build();
@@ -225,6 +233,7 @@ public class ActivityController {
         // Set activity as abandoned
         toDelete.get().setAbandoned(true);
         activityRepository.save(toDelete.get());
+        activityIndex.remove(activityId);
         return ResponseEntity.ok().build();
     }
 }
@@ -9,16 +9,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import server.database.entities.User;
 import server.database.entities.auth.config.AuthContext;
 import server.database.entities.game.Game;
-import server.database.entities.game.GamePlayer;
 import server.database.entities.question.Question;
-import server.database.repositories.UserRepository;
 import server.database.repositories.game.GamePlayerRepository;
 import server.database.repositories.game.GameRepository;
 import server.database.repositories.question.ActivityRepository;
+import server.services.FSMManager;
 import server.services.GameService;
+import server.services.answer.AnswerSubmission;
 
 /**
  * AnswerController, controller for all api endpoints of question answers.
@@ -28,9 +27,6 @@ import server.services.GameService;
 @RequestMapping("/api/game")
 public class AnswerController {
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private GameRepository gameRepository;
 
@@ -40,6 +36,9 @@ public class AnswerController {
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private FSMManager fsmManager;
+
     @Autowired
     private ActivityRepository activityRepository;
 
@@ -54,23 +53,14 @@ public class AnswerController {
     public ResponseEntity userAnswer(
             @RequestBody AnswerDTO answerData,
             @PathVariable UUID gameId) {
-        // Retrieve game and user
-        Optional<Game> gameOpt = gameRepository.findById(gameId);
-        Optional<User> userOpt = userRepository.findByEmailIgnoreCase(AuthContext.get());
+        // Retrieve game (from memory, if it is ongoing)
+        Optional<Game> gameOpt = fsmManager.findGame(gameId);
 
         // Check if game exists.
-        if (gameOpt.isEmpty() || userOpt.isEmpty()) {
+        if (gameOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
         Game game = gameOpt.get();
-        User user = userOpt.get();
-
-        // Find GamePlayer
-        GamePlayer gamePlayer = (GamePlayer) game.getPlayers().get(user.getId());
-        if (gamePlayer == null) {
-            log.warn("GamePlayer not found for user {}", user.getId());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
 
         // Check if the game is accepting answers.
         if (!game.isAcceptingAnswers()) {
@@ -78,34 +68,35 @@ public class AnswerController {
             throw new IllegalStateException("Game is not accepting answers.");
         }
 
-        // Check if question is correct
-        Optional<Question> currentQuestion = game.getQuestion();
-        if (currentQuestion.isEmpty()) {
-            log.warn("No question found for game {}", game.getId());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
-        if (!currentQuestion.get().getId().equals(answerData.getQuestionId())) {
-            // Trying to answer the wrong question
-            log.warn("Trying to answer question {} with answer for question {}",
-                    currentQuestion.get().getId(), answerData.getQuestionId());
-            throw new IllegalArgumentException("Trying to answer the wrong question.");
-        }
-
         // Set the answer timestamp
         answerData.setAnswerTime(LocalDateTime.now());
 
-        // Update the answer
-        // XXX: There might be a race condition here?
-        if (gameService.addAnswer(game, gamePlayer, answerData)) {
-            log.debug("[{}] Answer added to game (question {}).", gameId, currentQuestion.get().getId());
-            // Answer has been received successfully.
-            return ResponseEntity.ok().build();
-        } else {
-            log.warn("[{}] Could not add answer from user {} for question {}.",
-                    game.getId(),
-                    user.getId(),
-                    answerData.getQuestionId());
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        // Store the answer, the player and the question are resolved from the in-memory game state
+        Optional<UUID> userId = AuthContext.getUserId();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        AnswerSubmission submission = gameService.submitAnswer(game, userId.get(), answerData);
+        switch (submission) {
+            case ACCEPTED:
+                // Answer has been received successfully.
+                log.debug("[{}] Answer added to game (question {}).", gameId, answerData.getQuestionId());
+                return ResponseEntity.ok().build();
+            case NOT_PLAYER:
+                log.warn("[{}] User {} is not playing in the game", gameId, userId.get());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            case NO_QUESTION:
+                log.warn("No question found for game {}", game.getId());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            case WRONG_QUESTION:
+                // Trying to answer the wrong question
+                log.warn("[{}] Trying to answer the current question with answer for question {}",
+                        gameId, answerData.getQuestionId());
+                throw new IllegalArgumentException("Trying to answer the wrong question.");
+            default:
+                log.debug("[{}] Answer for question {} arrived after the answering stage.",
+                        gameId, answerData.getQuestionId());
+                throw new IllegalStateException("Game is not accepting answers.");
         }
     }
 
@@ -122,18 +113,18 @@ public class AnswerController {
             @PathVariable UUID gameId,
             @RequestParam(name = "idx") Optional<Integer> questionIdx) {
 
-        Optional<Game> game = gameRepository.findById(gameId);
-        Optional<User> user = userRepository.findByEmailIgnoreCase(AuthContext.get());
+        Optional<Game> game = fsmManager.findGame(gameId);
+        Optional<UUID> userId = AuthContext.getUserId();
 
         // Check if game exists
-        if (game.isEmpty() || user.isEmpty()) {
+        if (game.isEmpty() || userId.isEmpty()) {
             log.debug("Game or user not found.");
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
         // Check that the user is playing in the game
-        if (!gamePlayerRepository.existsByUserIdAndGameId(user.get().getId(), game.get().getId())) {
-            log.info("User {} is not playing in game {}", user.get().getId(), game.get().getId());
+        if (!gamePlayerRepository.existsByUserIdAndGameId(userId.get(), game.get().getId())) {
+            log.info("User {} is not playing in game {}", userId.get(), game.get().getId());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -165,18 +156,18 @@ public class AnswerController {
      */
     @GetMapping("/{gameId}/score")
     ResponseEntity<Integer> getScore(@PathVariable UUID gameId) {
-        Optional<Game> game = gameRepository.findById(gameId);
-        Optional<User> user = userRepository.findByEmailIgnoreCase(AuthContext.get());
+        Optional<Game> game = fsmManager.findGame(gameId);
+        Optional<UUID> userId = AuthContext.getUserId();
 
         // Check if game exists
-        if (game.isEmpty() || user.isEmpty()) {
+        if (game.isEmpty() || userId.isEmpty()) {
             log.debug("Game or user not found.");
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
         // Check that the user is playing in the game
-        if (!gamePlayerRepository.existsByUserIdAndGameId(user.get().getId(), game.get().getId())) {
-            log.info("User {} is not playing in game {}", user.get().getId(), game.get().getId());
+        if (!gamePlayerRepository.existsByUserIdAndGameId(userId.get(), game.get().getId())) {
+            log.info("User {} is not playing in game {}", userId.get(), game.get().getId());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -26,6 +26,8 @@ import server.database.entities.auth.config.JWTHandler;
 import server.database.entities.game.Game;
 import server.database.repositories.UserRepository;
 import server.database.repositories.game.GameRepository;
+import server.services.leaderboard.GlobalLeaderboard;
+import server.services.storage.ImageDerivativeService;
 import server.services.storage.StorageService;
 
 /**
@@ -45,9 +47,15 @@ public class AuthController {
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private GlobalLeaderboard globalLeaderboard;
+
     @Autowired
     private StorageService storageService;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
     @Autowired
     private JWTHandler handler;
 
@@ -102,6 +110,7 @@ public class AuthController {
         // Persist the user and return 201 with the user data
         try {
             User user = userRepository.save(new User(userData));
+            globalLeaderboard.update(user);
             log.info("Created user with email {} and username {}", user.getEmail(), user.getUsername());
 
             return ResponseEntity
@@ -116,7 +125,10 @@ public class AuthController {
                     userData.getEmail(),
                     userData.getUsername(),
                     e);
-            storageService.delete(userData.getProfilePic());
+            if (userData.getProfilePic() != null) {
+                storageService.delete(userData.getProfilePic());
+                imageDerivativeService.delete(userData.getProfilePic());
+            }
 
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -2,9 +2,12 @@ package server.api;
 
 import commons.entities.ActivityDTO;
 import commons.entities.game.GamePlayerDTO;
+import commons.entities.game.GameSnapshotDTO;
 import commons.entities.game.PowerUp;
 import commons.entities.questions.EstimateQuestionDTO;
 import commons.entities.questions.QuestionDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -28,8 +31,11 @@ import server.database.entities.question.Question;
 import server.database.repositories.UserRepository;
 import server.database.repositories.game.GamePlayerRepository;
 import server.database.repositories.game.GameRepository;
+import server.services.FSMManager;
 import server.services.GameService;
 import server.services.fsm.GameFSM;
+import server.services.fsm.LiveGame;
+import server.services.leaderboard.GameLeaderboard;
 
 
 /**
@@ -45,6 +51,9 @@ public class GameController {
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private FSMManager fsmManager;
+
     @Autowired
     private GamePlayerRepository gamePlayerRepository;
 
@@ -63,10 +72,19 @@ public class GameController {
 
         // If the user isn't in a game, return 404
         Game game = gameRepository.getPlayersGame(user.getId()).orElseThrow(GameNotFoundException::new);
-
-        // Mark the player as abandoned
-        gameService.removePlayer(game, user);
-        gameRepository.save(game);
+        Optional<LiveGame> liveGame = fsmManager.getLiveGame(game.getId());
+        if (liveGame.isPresent()) {
+            // Apply the changes to the in-memory state, which the FSM writes back along with the scores
+            game = liveGame.get().getGame();
+            synchronized (liveGame.get()) {
+                gameService.removePlayer(game, user);
+            }
+            gameService.persist(liveGame.get(), fsmManager.getFSM(game).getState());
+        } else {
+            // Mark the player as abandoned
+            gameService.removePlayer(game, user);
+            gameRepository.save(game);
+        }
 
         log.debug("User '{}' left game '{}'", user.getUsername(), game.getId());
         // Return 200
@@ -82,7 +100,7 @@ public class GameController {
     @GetMapping("/{gameId}/question")
     ResponseEntity<QuestionDTO> currentQuestion(@PathVariable UUID gameId) {
         // Check if game exists.
-        Game game = gameRepository.findById(gameId).orElseThrow(GameNotFoundException::new);
+        Game game = fsmManager.findGame(gameId).orElseThrow(GameNotFoundException::new);
 
         Optional<Question> question = game.getQuestion();
         // Check if question is not empty;
@@ -103,6 +121,11 @@ public class GameController {
     @GetMapping("/{gameId}/leaderboard")
     ResponseEntity<List<GamePlayerDTO>> getGameLeaderboard(@PathVariable UUID gameId) {
         log.debug("Getting leaderboard for game {}", gameId);
+        // If the game is ongoing, the scores are kept in memory
+        Optional<LiveGame> liveGame = fsmManager.getLiveGame(gameId);
+        if (liveGame.isPresent()) {
+            return ResponseEntity.ok(liveGame.get().getLeaderboard().getStandings());
+        }
         // Return the players in the game, sorted by score
         List<GamePlayerDTO> players = gamePlayerRepository
                 .findByGame_IdEqualsAndAbandonedIsFalseOrderByScoreDesc(gameId)
@@ -110,6 +133,76 @@ public class GameController {
         return ResponseEntity.ok(players);
     }
 
+    /**
+     * Get everything a player needs on a stage transition in a single request:
+     * the current question, its answer once the answers are closed, the player's score and the top of the
+     * leaderboard. The in-memory state of ongoing games is used, so the database is not queried.
+     *
+     * @param gameId the UUID of the game.
+     * @param top    the number of players of the leaderboard to include, or null for all of them.
+     * @return 200 and the snapshot, 404 if the game doesn't exist, 403 if the user isn't playing in it.
+     */
+    @GetMapping("/{gameId}/snapshot")
+    ResponseEntity<GameSnapshotDTO> getSnapshot(@PathVariable UUID gameId,
+                                                @RequestParam(required = false) Integer top) {
+        if (top != null && top < 0) {
+            throw new IllegalArgumentException("The number of players must not be negative");
+        }
+        UUID userId = AuthContext.getUserId()
+                .or(() -> userRepository.findByEmailIgnoreCase(AuthContext.get()).map(User::getId))
+                .orElseThrow(UserNotFoundException::new);
+        Optional<LiveGame> liveGame = fsmManager.getLiveGame(gameId);
+        Game<?> game = fsmManager.findGame(gameId).orElseThrow(GameNotFoundException::new);
+
+        // Check that the user is playing in the game
+        GamePlayer player = game.getPlayers().get(userId);
+        if (player == null) {
+            log.info("User {} is not playing in game {}", userId, gameId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        GameSnapshotDTO snapshot = new GameSnapshotDTO();
+        snapshot.setGameId(game.getId());
+        snapshot.setQuestionNumber(game.getCurrentQuestionNumber());
+        snapshot.setAcceptingAnswers(game.isAcceptingAnswers());
+        snapshot.setPlayer(player.getDTO());
+        game.getQuestion().ifPresent(question -> {
+            snapshot.setQuestion(question.getDTO());
+            // The answer is only revealed once the answers are closed
+            if (!game.isAcceptingAnswers()) {
+                snapshot.setAnswer(question.getRightAnswer());
+            }
+        });
+
+        // Rank the players, from memory if the game is ongoing
+        List<GamePlayerDTO> standings;
+        if (liveGame.isPresent()) {
+            GameLeaderboard leaderboard = liveGame.get().getLeaderboard();
+            synchronized (leaderboard) {
+                standings = leaderboard.getStandings();
+                snapshot.setLeaderboardVersion(leaderboard.getVersion());
+            }
+            liveGame.get().getScoreDelta(player).ifPresent(snapshot::setScoreDelta);
+        } else {
+            standings = game.getPlayers().values().stream()
+                    .filter(p -> !p.isAbandoned())
+                    .sorted(Comparator.comparing(GamePlayer::getScore).reversed())
+                    .map(GamePlayer::getDTO)
+                    .collect(Collectors.toList());
+        }
+        for (int idx = 0; idx < standings.size(); idx++) {
+            if (userId.equals(standings.get(idx).getUserId())) {
+                snapshot.setRank(idx + 1);
+            }
+        }
+        snapshot.setPlayerCount(standings.size());
+        snapshot.setLeaderboard(new ArrayList<>(
+                top == null ? standings : standings.subList(0, Math.min(top, standings.size()))));
+
+        log.trace("[{}] Sending snapshot of question {} to user {}", gameId, game.getCurrentQuestionNumber(), userId);
+        return ResponseEntity.ok(snapshot);
+    }
+
     /**
      * Get the current question number of the game.
      *
@@ -118,6 +211,10 @@ public class GameController {
      */
     @GetMapping("/{gameId}/questionNumber")
     ResponseEntity<Integer> getQuestionNumber(@PathVariable UUID gameId) {
+        Optional<LiveGame> liveGame = fsmManager.getLiveGame(gameId);
+        if (liveGame.isPresent()) {
+            return ResponseEntity.ok(liveGame.get().getGame().getCurrentQuestionNumber());
+        }
         return ResponseEntity.ok(gameRepository.getById(gameId).getCurrentQuestionNumber());
     }
 
@@ -134,23 +231,45 @@ public class GameController {
 
         // If the user isn't in a game, throw exception
         Game game = gameRepository.getPlayersGame(user.getId()).orElseThrow(GameNotFoundException::new);
+        // Apply the changes to the in-memory state, if the game is ongoing
+        Optional<LiveGame> liveGame = fsmManager.getLiveGame(game.getId());
+        game = liveGame.map(LiveGame::getGame).orElse(game);
 
         GamePlayer gamePlayer = (GamePlayer) game.getPlayers().get(user.getId());
 
-        // If power-up has already been used, throw exception
-        if (gamePlayer.getUserPowerUps().keySet().contains(powerUp)) {
-            throw new PowerUpAlreadyUsedException();
-        }
-
         log.debug("Sending power-up to game {}", game.getId());
 
         // Disable powerup for estimate question
         if (powerUp.name().equals("IncorrectAnswer") && game.getQuestion().get() instanceof EstimateQuestion) {
             throw new PowerUpDisabledException();
         }
-        gameService.sendPowerUp(game, gamePlayer, powerUp);
-        gamePlayer.getUserPowerUps().put(powerUp, game.getCurrentQuestionNumber());
-        gameRepository.save(game);
+
+        if (liveGame.isPresent()) {
+            // Claim the power-up under the lock of the live game, so that it can only be used once
+            synchronized (liveGame.get()) {
+                if (gamePlayer.getUserPowerUps().putIfAbsent(powerUp, game.getCurrentQuestionNumber()) != null) {
+                    throw new PowerUpAlreadyUsedException();
+                }
+            }
+            try {
+                gameService.sendPowerUp(game, gamePlayer, powerUp);
+            } catch (RuntimeException e) {
+                synchronized (liveGame.get()) {
+                    gamePlayer.getUserPowerUps().remove(powerUp);
+                }
+                throw e;
+            }
+            // The power-up is written along with the rest of the live state
+            gameService.persist(liveGame.get(), fsmManager.getFSM(game).getState());
+        } else {
+            // If power-up has already been used, throw exception
+            if (gamePlayer.getUserPowerUps().containsKey(powerUp)) {
+                throw new PowerUpAlreadyUsedException();
+            }
+            gameService.sendPowerUp(game, gamePlayer, powerUp);
+            gamePlayer.getUserPowerUps().put(powerUp, game.getCurrentQuestionNumber());
+            gameRepository.save(game);
+        }
 
         if (powerUp.name().equals("IncorrectAnswer") && game.getQuestion().get() instanceof MCQuestion) {
             MCQuestion question = (MCQuestion) game.getQuestion().get();
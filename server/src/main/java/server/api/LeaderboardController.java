@@ -1,20 +1,28 @@
 package server.api;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import commons.entities.auth.RankedUserDTO;
 import commons.entities.auth.UserDTO;
 import commons.entities.utils.Views;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import server.api.exceptions.UserNotFoundException;
 import server.database.entities.User;
 import server.database.repositories.UserRepository;
+import server.services.leaderboard.GlobalLeaderboard;
+import server.services.leaderboard.GlobalLeaderboard.Board;
+import server.services.leaderboard.GlobalLeaderboard.Cursor;
 
 /**
  * Controller for leaderboard API endpoints.
@@ -25,6 +33,9 @@ public class LeaderboardController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private GlobalLeaderboard globalLeaderboard;
+
     public static final int MAX_PAGE_SIZE = 50;
 
     /**
@@ -60,4 +71,74 @@ public class LeaderboardController {
                 .map(User::getDTO).collect(Collectors.toList());
         return ResponseEntity.ok(userLeaderboard);
     }
+
+    /**
+     * Get a page of the users ranked by score or by number of won games.
+     * Pages are addressed by the value and ID of the last user of the previous page, and served from memory.
+     *
+     * @param board the leaderboard, either "score" or "games".
+     * @param after the last user of the previous page as {@code <value>:<id>}, or none for the first page.
+     * @param size  specifies the size of the leaderboard page to be returned.
+     * @return a list of users with their ranks, in rank order.
+     */
+    @JsonView(Views.Public.class)
+    @GetMapping("/{board}/top")
+    public ResponseEntity<List<RankedUserDTO>> getTop(@PathVariable String board,
+                                                      @RequestParam Optional<String> after,
+                                                      @RequestParam Optional<Integer> size) {
+        return ResponseEntity.ok(globalLeaderboard.getTop(getBoard(board), after.map(Cursor::parse).orElse(null),
+                getPageSize(size)));
+    }
+
+    /**
+     * Get the rank of a user.
+     *
+     * @param board  the leaderboard, either "score" or "games".
+     * @param userId the ID of the user.
+     * @return the user with their rank.
+     */
+    @JsonView(Views.Public.class)
+    @GetMapping("/{board}/rank/{userId}")
+    public ResponseEntity<RankedUserDTO> getRank(@PathVariable String board, @PathVariable UUID userId) {
+        return globalLeaderboard.getRank(getBoard(board), userId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new UserNotFoundException("User not found."));
+    }
+
+    /**
+     * Get the users ranked around a user.
+     *
+     * @param board  the leaderboard, either "score" or "games".
+     * @param userId the ID of the user.
+     * @param size   specifies the number of users to be returned.
+     * @return a list of users with their ranks, in rank order.
+     */
+    @JsonView(Views.Public.class)
+    @GetMapping("/{board}/around/{userId}")
+    public ResponseEntity<List<RankedUserDTO>> getAround(@PathVariable String board,
+                                                         @PathVariable UUID userId,
+                                                         @RequestParam Optional<Integer> size) {
+        return globalLeaderboard.getAround(getBoard(board), userId, getPageSize(size))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new UserNotFoundException("User not found."));
+    }
+
+    private static Board getBoard(String board) {
+        switch (board) {
+            case "score":
+                return Board.SCORE;
+            case "games":
+                return Board.GAMES_WON;
+            default:
+                throw new IllegalArgumentException("Unknown leaderboard: " + board);
+        }
+    }
+
+    private static int getPageSize(Optional<Integer> size) {
+        int pageSize = Math.min(MAX_PAGE_SIZE, size.orElse(MAX_PAGE_SIZE));
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be positive.");
+        }
+        return pageSize;
+    }
 }
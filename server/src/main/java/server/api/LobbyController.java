@@ -2,6 +2,7 @@ package server.api;
 
 import commons.entities.game.GameDTO;
 import commons.entities.game.GameStatus;
+import commons.entities.game.LobbyPageDTO;
 import commons.entities.game.NormalGameDTO;
 import commons.entities.game.configuration.GameConfigurationDTO;
 import commons.entities.game.configuration.NormalGameConfigurationDTO;
@@ -33,6 +34,7 @@ import server.database.repositories.game.GameConfigurationRepository;
 import server.database.repositories.game.GamePlayerRepository;
 import server.database.repositories.game.GameRepository;
 import server.services.GameService;
+import server.services.LobbyDirectory;
 import server.services.LobbyService;
 import server.services.SSEManager;
 
@@ -45,6 +47,7 @@ import server.services.SSEManager;
 @RestController
 @RequestMapping("/api/lobby")
 public class LobbyController {
+    public static final int MAX_PAGE_SIZE = 50;
 
     @Autowired
     private GameService gameService;
@@ -67,6 +70,9 @@ public class LobbyController {
     @Autowired
     private SSEManager sseManager;
 
+    @Autowired
+    private LobbyDirectory lobbyDirectory;
+
     /**
      * Endpoint for the creation of new lobbies.
      *
@@ -96,6 +102,8 @@ public class LobbyController {
 
         // Save the game with the added host and player
         lobby = gameRepository.save(lobby);
+        lobbyDirectory.unsubscribe(founder.getId());
+        lobbyDirectory.update(lobby);
 
         log.debug("Created a new game with id {}", lobby.getGameId());
         // Return 201
@@ -106,6 +114,7 @@ public class LobbyController {
 
     /**
      * Endpoint for available lobbies.
+     * The lobby browser uses the lobby directory instead, this endpoint is kept for older clients.
      *
      * @return a list of available lobbies.
      */
@@ -120,6 +129,51 @@ public class LobbyController {
         return ResponseEntity.ok(lobbies);
     }
 
+    /**
+     * Endpoint for a page of the public lobbies, served from the lobby directory.
+     *
+     * @param page   the number of the page, starting from 0.
+     * @param size   the maximum number of lobbies in the page.
+     * @param search text the names of the lobbies must contain, ignoring case.
+     * @param open   whether to only list the lobbies with room for another player.
+     * @return 400 if the page or its size are invalid, 200 and the page of lobbies otherwise.
+     */
+    @GetMapping("/directory")
+    ResponseEntity<LobbyPageDTO> directory(@RequestParam Optional<Integer> page,
+                                           @RequestParam Optional<Integer> size,
+                                           @RequestParam Optional<String> search,
+                                           @RequestParam Optional<Boolean> open) {
+        int pageSize = Math.min(MAX_PAGE_SIZE, size.orElse(MAX_PAGE_SIZE));
+        if (pageSize < 1 || page.orElse(0) < 0) {
+            throw new IllegalArgumentException("The page must not be negative and its size must be positive.");
+        }
+        return ResponseEntity.ok(lobbyDirectory.getPage(page.orElse(0), pageSize, search.orElse(null),
+                open.orElse(false)));
+    }
+
+    /**
+     * Endpoint to receive the changes of the public lobbies over SSE, as long as the SSE connection is open.
+     * The subscription ends once the user creates or joins a lobby.
+     *
+     * @return 200
+     */
+    @PutMapping("/directory/subscription")
+    ResponseEntity subscribe() {
+        lobbyDirectory.subscribe(getUserId());
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Endpoint to stop receiving the changes of the public lobbies.
+     *
+     * @return 200
+     */
+    @DeleteMapping("/directory/subscription")
+    ResponseEntity unsubscribe() {
+        lobbyDirectory.unsubscribe(getUserId());
+        return ResponseEntity.ok().build();
+    }
+
     /**
      * Endpoint for player's current lobby/game.
      *
@@ -194,6 +248,8 @@ public class LobbyController {
 
         // Save the lobby
         lobby = gameRepository.save(lobby);
+        lobbyDirectory.unsubscribe(user.getId());
+        lobbyDirectory.update(lobby);
         log.debug("User {} joined game {}", user.getId(), lobby.getId());
 
         // Distribute the notifications to all players in the lobby
@@ -223,6 +279,7 @@ public class LobbyController {
         }
 
         gameService.start(lobby);
+        lobbyDirectory.update(lobby);
 
         // Otherwise, return 200
         log.debug("Started game {}", lobby.getId());
@@ -264,7 +321,8 @@ public class LobbyController {
         }
 
         // Update the repository
-        gameRepository.save(lobby);
+        lobby = gameRepository.save(lobby);
+        lobbyDirectory.update(lobby);
         log.info("Updated lobby {} configuration", lobby.getId());
 
         // Distribute the notifications to all players in the lobby
@@ -376,6 +434,8 @@ public class LobbyController {
 
         // Save the lobby
         lobby = gameRepository.save(lobby);
+        lobbyDirectory.unsubscribe(user.getId());
+        lobbyDirectory.update(lobby);
         log.debug("User {} joined game {}", user.getId(), lobby.getId());
 
         // Distribute the notifications to all players in the lobby
@@ -384,4 +444,10 @@ public class LobbyController {
         // Return 200
         return ResponseEntity.ok(lobby.getDTO());
     }
+
+    private UUID getUserId() {
+        return AuthContext.getUserId()
+                .or(() -> userRepository.findByEmailIgnoreCase(AuthContext.get()).map(User::getId))
+                .orElseThrow(UserNotFoundException::new);
+    }
 }
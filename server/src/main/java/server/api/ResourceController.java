@@ -1,47 +1,162 @@
 package server.api;
 
-import static com.google.common.base.MoreObjects.firstNonNull;
-
 import java.io.IOException;
-import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.UUID;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import server.services.storage.ImageDerivativeService;
+import server.services.storage.ResourceMetadata;
 import server.services.storage.StorageService;
 
 /**
  * Controller for accessing static files.
+ * Resources are addressed by UUID and never change, so they are served with a strong ETag and cached forever.
+ * The content is sent by the servlet container with sendfile when available, and with a channel transfer otherwise,
+ * so that it is never copied through the heap.
  */
+@Slf4j
 @RequestMapping("/api/resource")
 @Controller
 public class ResourceController {
+    /**
+     * Cache policy of the resources, which are immutable.
+     */
+    static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /**
+     * Request attributes of the Tomcat sendfile support.
+     */
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private StorageService storageService;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
     /**
      * Access a static resource.
+     * Supports conditional requests through If-None-Match, and single byte ranges through Range and If-Range.
+     * Images can be requested scaled down to fit in a square of one of the configured sizes.
      *
-     * @param id the UUID of the resource to be accessed.
-     * @return the resource.
+     * @param id       the UUID of the resource to be accessed.
+     * @param size     the size to scale the image down to, in pixels, or null for the original.
+     * @param request  the request.
+     * @param response the response to write the resource to.
+     * @throws IOException if the resource could not be sent.
      */
     @GetMapping("/{id}")
-    @ResponseBody
-    public ResponseEntity<Resource> serveResource(@PathVariable UUID id) throws IOException {
-        Resource file = storageService.loadAsResource(id);
-        return ResponseEntity.ok()
-                // TODO: URLConnection.guessContentTypeFromStream is *slow*
-                // Perhaps we should store MIME type as metadata somewhere? (in the database?)
-                .contentType(MediaType.valueOf(firstNonNull(
-                        URLConnection.guessContentTypeFromStream(file.getInputStream()),
-                        MediaType.APPLICATION_OCTET_STREAM_VALUE)))
-                .header("Content-Disposition",
-                        "attachment; filename=\"" + file.getFilename() + "\"").body(file);
+    public void serveResource(@PathVariable UUID id, @RequestParam(required = false) Integer size,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UUID resourceId = size == null ? id : imageDerivativeService.getDerivative(id, size);
+        ResourceMetadata metadata = storageService.getMetadata(resourceId);
+        long length = metadata.getSize();
+
+        response.setHeader(HttpHeaders.ETAG, metadata.getETag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // The client already has the resource
+        if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), metadata.getETag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // Serve a single range if requested, and the whole resource otherwise
+        long start = 0;
+        long end = length;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(metadata.getETag()))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length) + 1;
+                    if (start >= length) {
+                        throw new IllegalArgumentException("Range starts after the end of the resource");
+                    }
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE,
+                            "bytes " + start + "-" + (end - 1) + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("[{}] Unsatisfiable range {}", resourceId, rangeHeader);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        response.setContentType(metadata.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resourceId + "\"");
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod()) || end == start) {
+            return;
+        }
+
+        // Let the container send the file from the kernel if it can
+        Path file = storageService.load(resourceId);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end);
+            return;
+        }
+
+        // Otherwise transfer the file to the response channel
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, out);
+                if (transferred <= 0) {
+                    throw new IOException("Resource " + resourceId + " was truncated while being sent");
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Check whether an If-None-Match header matches an entity tag.
+     *
+     * @param header the value of the header, or null if absent.
+     * @param etag   the entity tag of the resource.
+     * @return true if one of the listed tags matches.
+     */
+    private static boolean matchesETag(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            // If-None-Match uses weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
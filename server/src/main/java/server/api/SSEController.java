@@ -5,10 +5,13 @@ import commons.entities.messages.SSEMessage;
 import commons.entities.messages.SSEMessageType;
 import java.io.IOException;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -38,11 +41,14 @@ public class SSEController {
 
     /**
      * Open a new SSE connection.
+     * If the client was already connected, the events of its game it missed are sent again.
      *
+     * @param lastEventId the ID of the last event received by the client, if it is reconnecting.
      * @return the response entity.
      */
     @GetMapping("/open")
-    public ResponseEntity<SseEmitter> open() {
+    public ResponseEntity<SseEmitter> open(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         // TODO: add a cooldown per user
         // Create a new SSE emitter
         var emitter = new SseEmitter(Long.MAX_VALUE);
@@ -65,12 +71,20 @@ public class SSEController {
                 sseManager.unregister(user.getId(), emitter);
             });
 
-            // Register emitter to the SSE manager.
-            sseManager.register(user.getId(), emitter);
-            log.trace("SSE connection opened");
-
             // The client will wait for a first event in order to start.
-            sseManager.send(user.getId(), new SSEMessage(SSEMessageType.INIT));
+            SSEMessage init = new SSEMessage(SSEMessageType.INIT);
+
+            // Register emitter to the SSE manager, catching up on the events missed while reconnecting
+            Optional<UUID> gameId = lastEventId == null
+                    ? Optional.empty()
+                    : gameRepository.getPlayersLobbyOrGame(user.getId()).map(Game::getId);
+            if (gameId.isPresent()) {
+                sseManager.reconnect(user.getId(), emitter, init, gameId.get(), lastEventId);
+            } else {
+                sseManager.register(user.getId(), emitter);
+                sseManager.send(user.getId(), init);
+            }
+            log.trace("SSE connection opened");
 
             return ResponseEntity.ok(emitter);
         } catch (NoSuchElementException e) {
@@ -24,7 +24,9 @@ import server.database.entities.auth.config.JWTHandler;
 import server.database.entities.game.Game;
 import server.database.repositories.UserRepository;
 import server.database.repositories.game.GameRepository;
+import server.services.LobbyDirectory;
 import server.services.SSEManager;
+import server.services.leaderboard.GlobalLeaderboard;
 
 /**
  * Controller that provides user metadata.
@@ -39,9 +41,15 @@ public class UserController {
     @Autowired
     GameRepository gameRepository;
 
+    @Autowired
+    GlobalLeaderboard globalLeaderboard;
+
     @Autowired
     SSEManager sseManager;
 
+    @Autowired
+    LobbyDirectory lobbyDirectory;
+
     /**
      * Shows details of the currently logged-in user.
      *
@@ -110,10 +118,13 @@ public class UserController {
 
         // Persist the username
         userRepository.save(user);
+        globalLeaderboard.update(user);
 
         Optional<Game> gameOptional = gameRepository.getPlayersLobbyOrGame(user.getId());
         if (gameOptional.isPresent()) {
             sseManager.send(gameOptional.get().getUserIds(), new SSEMessage(SSEMessageType.LOBBY_MODIFIED));
+            // The lobby browser shows the name of the host
+            lobbyDirectory.update(gameOptional.get());
         }
 
         return ResponseEntity.ok(user.getDTO());
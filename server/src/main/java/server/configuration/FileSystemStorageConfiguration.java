@@ -23,6 +23,12 @@ public class FileSystemStorageConfiguration {
     @Min(1)
     private Integer maxRecursionDepth = 5;
 
+    /**
+     * The storage backend: "filesystem" stores each resource as its own file,
+     * "content-addressed" stores identical resources once.
+     */
+    private String backend = "filesystem";
+
     /**
      * Get the path of the upload directory.
      *
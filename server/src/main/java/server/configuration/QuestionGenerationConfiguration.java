@@ -1,6 +1,8 @@
 package server.configuration;
 
 import commons.entities.questions.MCType;
+import java.time.Duration;
+import javax.validation.constraints.Min;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -20,6 +22,22 @@ public class QuestionGenerationConfiguration {
      */
     private int questionGenerationAttempts = 1000;
 
+    /**
+     * Number of ready questions kept in the question pool for each enabled question type, 0 disables the pool.
+     */
+    @Min(0)
+    private int poolSize = 16;
+
+    /**
+     * Interval between the background refills of the question pool.
+     */
+    private Duration poolRefillInterval = Duration.ofSeconds(30);
+
+    /**
+     * Whether the question pool is filled when the server starts, rather than when the first game starts.
+     */
+    private boolean poolWarmUp = true;
+
     /**
      * Array of enabled question types.
      */
@@ -1,6 +1,7 @@
 package server.configuration;
 
 import java.net.URI;
+import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -15,4 +16,9 @@ public class ResourceConfiguration {
      * This is the base URL of the resource server.
      */
     private URI baseUri = URI.create("http://localhost:8080/api/resource/");
+
+    /**
+     * The sizes, in pixels, to which images can be scaled down when requested.
+     */
+    private List<Integer> imageSizes = List.of(35, 40, 64, 128, 256);
 }
@@ -0,0 +1,75 @@
+package server.configuration;
+
+import commons.entities.messages.SSEMessageType;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import javax.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the delivery of server-sent events.
+ */
+@Data
+@ConfigurationProperties(prefix = "server.sse")
+public class SSEConfiguration {
+    /**
+     * Maximum number of events waiting to be written to a single connection.
+     */
+    @Min(1)
+    private int queueCapacity = 256;
+
+    /**
+     * Number of threads writing events to the connections.
+     */
+    @Min(1)
+    private int writerThreads = 4;
+
+    /**
+     * Time after which a write is considered stalled. Connections whose writes stall are disconnected,
+     * and their writers replaced while they stay blocked.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of writer threads added to replace the ones blocked by stalled writes.
+     */
+    @Min(0)
+    private int maxStalledWriters = 16;
+
+    /**
+     * Number of queued events above which a connection is considered congested.
+     * Events of a droppable type are discarded while a connection is congested.
+     */
+    @Min(1)
+    private int highWaterMark = 64;
+
+    /**
+     * Types of events for which only the latest one matters: queuing one discards the ones still queued.
+     */
+    private Set<SSEMessageType> coalescedTypes = EnumSet.of(SSEMessageType.LOBBY_MODIFIED,
+            SSEMessageType.KEEPALIVE);
+
+    /**
+     * Types of events which can be discarded when a connection is congested.
+     */
+    private Set<SSEMessageType> droppableTypes = EnumSet.of(SSEMessageType.REACTION,
+            SSEMessageType.KEEPALIVE);
+
+    /**
+     * Maximum time an event may wait in a queue. Connections lagging further behind are disconnected.
+     */
+    private Duration lagBudget = Duration.ofSeconds(10);
+
+    /**
+     * Number of events of a game kept in memory, so that they can be replayed to clients which reconnect.
+     */
+    @Min(1)
+    private int replayBufferSize = 64;
+
+    /**
+     * Time after the last event of a game for which its events are kept for replay.
+     */
+    private Duration replayRetention = Duration.ofMinutes(5);
+}
@@ -0,0 +1,28 @@
+package server.configuration.quiz;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration of the game clock, the timer that drives the game state machines.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizClockConfiguration {
+    /**
+     * Resolution of the clock, in milliseconds.
+     */
+    private int tickDuration = 10;
+
+    /**
+     * Number of buckets of each timer wheel (rounded up to a power of two).
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Number of timer wheels (and threads). If 0, one wheel per available processor is used.
+     */
+    private int shards = 0;
+}
@@ -15,6 +15,11 @@ public class QuizConfiguration {
      */
     private QuizTimingConfiguration timing = new QuizTimingConfiguration();
 
+    /**
+     * Game clock related configuration.
+     */
+    private QuizClockConfiguration clock = new QuizClockConfiguration();
+
     /**
      * How often to show the leaderboard.
      * (every X questions)
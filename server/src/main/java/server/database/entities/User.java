@@ -22,7 +22,6 @@ import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
-import org.modelmapper.ModelMapper;
 import server.database.entities.game.GamePlayer;
 import server.database.entities.utils.BaseEntity;
 
@@ -98,6 +97,6 @@ public class User extends BaseEntity<UserDTO> {
 
     @Override
     public UserDTO getDTO() {
-        return new ModelMapper().map(this, UserDTO.class);
+        return new UserDTO(id, username, email, password, profilePic, score, gamesWon);
     }
 }
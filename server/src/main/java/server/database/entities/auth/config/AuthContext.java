@@ -1,5 +1,7 @@
 package server.database.entities.auth.config;
 
+import java.util.Optional;
+import java.util.UUID;
 import lombok.Generated;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -14,6 +16,24 @@ public class AuthContext {
      * @return the authentication DAO key, i.e. the email
      */
     public static String get() {
-        return (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof AuthPrincipal) {
+            return ((AuthPrincipal) principal).getEmail();
+        }
+        return (String) principal;
+    }
+
+    /**
+     * Returns the ID of the authenticated user, which is resolved by the authentication filter
+     * so that it does not need to be looked up again.
+     *
+     * @return the ID of the user, or empty if the authentication does not carry it
+     */
+    public static Optional<UUID> getUserId() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof AuthPrincipal) {
+            return Optional.of(((AuthPrincipal) principal).getUserId());
+        }
+        return Optional.empty();
     }
 }
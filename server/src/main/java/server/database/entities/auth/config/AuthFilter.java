@@ -4,6 +4,8 @@ import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -13,8 +15,8 @@ import lombok.Generated;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,8 +28,13 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Generated
 public class AuthFilter extends OncePerRequestFilter {
 
-    @Autowired private JWTHandler handler;
-    @Autowired private CustomUserDetailsService customUserDetailsService;
+    /**
+     * Authorities of all authenticated users.
+     */
+    private static final List<SimpleGrantedAuthority> AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+
+    @Autowired private AuthTokenCache authTokenCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -43,14 +50,10 @@ public class AuthFilter extends OncePerRequestFilter {
                 response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid JWT Token in Bearer Header");
             } else {
                 try {
-                    // Validate the token and retrieve the user
-                    String email = handler.validateToken(jwt);
-                    UserDetails authDAO = customUserDetailsService.loadUserByUsername(email);
+                    // Validate the token and retrieve the user, both cached across requests
+                    AuthPrincipal principal = authTokenCache.resolve(jwt);
                     UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    email,
-                                    authDAO.getPassword(),
-                                    authDAO.getAuthorities());
+                            new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES);
 
                     // Set the user in the security context
                     if (SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -0,0 +1,26 @@
+package server.database.entities.auth.config;
+
+import java.security.Principal;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * The authenticated user of a request, as resolved from their JWT token.
+ */
+@Value
+public class AuthPrincipal implements Principal {
+    /**
+     * The ID of the user.
+     */
+    UUID userId;
+
+    /**
+     * The email of the user.
+     */
+    String email;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,133 @@
+package server.database.entities.auth.config;
+
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import server.database.entities.User;
+import server.database.repositories.UserRepository;
+
+/**
+ * Cache of verified JWT tokens, mapped to the user they authenticate.
+ * A token is verified and its user looked up once, and then served from the cache until the entry expires,
+ * which is at most {@code auth.token-cache.ttl} and never after the token itself expires.
+ * The cache holds at most {@code auth.token-cache.max-size} tokens, evicting the least recently used ones.
+ */
+@Component
+public class AuthTokenCache {
+    private final JWTHandler handler;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final Clock clock;
+
+    /**
+     * The cached tokens, in access order.
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * A verified token.
+     */
+    private static final class Entry {
+        private final AuthPrincipal principal;
+        private final long expiresAt;
+
+        private Entry(AuthPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Create a token cache.
+     *
+     * @param handler        the handler verifying the tokens.
+     * @param userRepository the repository of the users.
+     * @param ttl            the maximum time a token is cached for.
+     * @param maxSize        the maximum number of cached tokens.
+     */
+    @Autowired
+    public AuthTokenCache(JWTHandler handler, UserRepository userRepository,
+                          @Value("${auth.token-cache.ttl:5m}") Duration ttl,
+                          @Value("${auth.token-cache.max-size:10000}") int maxSize) {
+        this(handler, userRepository, ttl, maxSize, Clock.systemUTC());
+    }
+
+    /**
+     * Create a token cache with a custom clock.
+     *
+     * @param handler        the handler verifying the tokens.
+     * @param userRepository the repository of the users.
+     * @param ttl            the maximum time a token is cached for.
+     * @param maxSize        the maximum number of cached tokens.
+     * @param clock          the clock used to expire the tokens.
+     */
+    public AuthTokenCache(JWTHandler handler, UserRepository userRepository, Duration ttl, int maxSize,
+                          Clock clock) {
+        this.handler = handler;
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Resolve the user authenticated by a token, verifying the token if it is not cached.
+     *
+     * @param token the JWT token.
+     * @return the authenticated user.
+     * @throws TokenExpiredException          if the token expired.
+     * @throws SignatureVerificationException if the token could not be verified.
+     * @throws JWTDecodeException             if the token is malformed.
+     * @throws UsernameNotFoundException      if the user of the token no longer exists.
+     */
+    public AuthPrincipal resolve(String token) {
+        long now = clock.millis();
+        synchronized (entries) {
+            Entry entry = entries.get(token);
+            if (entry != null && entry.expiresAt > now) {
+                return entry.principal;
+            }
+        }
+
+        // Verify the token and look up its user
+        DecodedJWT jwt = handler.verifyToken(token);
+        String email = jwt.getClaim("email").asString();
+        User user = userRepository.findByEmailIgnoreCase(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " doesn't exist"));
+        AuthPrincipal principal = new AuthPrincipal(user.getId(), email);
+
+        long expiresAt = now + ttl.toMillis();
+        if (jwt.getExpiresAt() != null) {
+            expiresAt = Math.min(expiresAt, jwt.getExpiresAt().getTime());
+        }
+        synchronized (entries) {
+            entries.put(token, new Entry(principal, expiresAt));
+        }
+        return principal;
+    }
+
+    /**
+     * Get the number of cached tokens.
+     *
+     * @return the number of tokens.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -6,8 +6,9 @@ import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
 import java.util.Date;
-import java.util.UUID;
+import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -27,6 +28,23 @@ public class JWTHandler {
     @Value("${jwt.secret}")
     private String secret;
 
+    /**
+     * The signing algorithm and the verifier, which are thread-safe and built once.
+     */
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    /**
+     * Build the signing algorithm and the verifier from the secret.
+     */
+    @PostConstruct
+    public void init() {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withSubject("User")
+                .build();
+    }
+
     /**
      * Generates a JWT token for the given user.
      *
@@ -41,7 +59,7 @@ public class JWTHandler {
                 .withSubject("User")
                 .withClaim("email", email.toLowerCase())
                 .withIssuedAt(new Date())
-                .sign(Algorithm.HMAC256(secret));
+                .sign(algorithm);
     }
 
     /**
@@ -53,10 +71,18 @@ public class JWTHandler {
      * @throws SignatureVerificationException if the token could not be verified
      */
     public String validateToken(String token) throws TokenExpiredException, SignatureVerificationException {
-        DecodedJWT jwt = JWT.require(Algorithm.HMAC256(secret))
-                .withSubject("User")
-                .build()
-                .verify(token);
-        return jwt.getClaim("email").asString();
+        return verifyToken(token).getClaim("email").asString();
+    }
+
+    /**
+     * Verifies the given JWT token and returns its decoded form.
+     *
+     * @param token JWT token
+     * @return the decoded token
+     * @throws TokenExpiredException if the token expired
+     * @throws SignatureVerificationException if the token could not be verified
+     */
+    public DecodedJWT verifyToken(String token) throws TokenExpiredException, SignatureVerificationException {
+        return verifier.verify(token);
     }
 }
@@ -15,7 +15,6 @@ import java.util.*;
 import java.util.stream.Collectors;
 import javax.persistence.*;
 import lombok.*;
-import org.modelmapper.ModelMapper;
 import server.database.entities.game.configuration.GameConfiguration;
 import server.database.entities.game.configuration.NormalGameConfiguration;
 import server.database.entities.game.exceptions.LastPlayerRemovedException;
@@ -124,11 +123,6 @@ public abstract class Game<T extends GameDTO> extends BaseEntity<T> {
      * @param dto source DTO
      */
     public Game(GameDTO dto) {
-        ModelMapper mapper = new ModelMapper();
-        mapper.addConverter(
-                context -> Duration.ofMillis(context.getSource()),
-                Integer.class, Duration.class);
-        mapper.getConfiguration().setSkipNullEnabled(true);
         if (dto.getId() == null) {
             // This id will change once the game entity is saved, but it must be non-null
             this.id = getUUID(0);
@@ -139,7 +133,8 @@ public abstract class Game<T extends GameDTO> extends BaseEntity<T> {
         this.gameId = dto.getGameId();
         this.createDate = dto.getCreateDate();
         if (dto.getConfiguration() instanceof NormalGameConfigurationDTO) {
-            this.configuration = mapper.map(dto.getConfiguration(), NormalGameConfiguration.class);
+            this.configuration = new NormalGameConfiguration((NormalGameConfigurationDTO) dto.getConfiguration());
+            this.configuration.setId(dto.getConfiguration().getId());
         }
         this.status = dto.getStatus();
         this.currentQuestionNumber = dto.getCurrentQuestionNumber();
@@ -347,7 +342,18 @@ public abstract class Game<T extends GameDTO> extends BaseEntity<T> {
      * @return the new streak score.
      */
     public int computeStreakScore(GamePlayer gamePlayer, double baseScore) {
-        return (int) Math.round((gamePlayer.getStreak() >= configuration.getStreakSize())
+        return computeStreakScore(gamePlayer.getStreak(), baseScore);
+    }
+
+    /**
+     * Computes the streak score given a base score and the length of a streak.
+     *
+     * @param streak    the number of correct answers in a row.
+     * @param baseScore the base score.
+     * @return the new streak score.
+     */
+    public int computeStreakScore(int streak, double baseScore) {
+        return (int) Math.round((streak >= configuration.getStreakSize())
                 ? baseScore * configuration.getStreakMultiplier()
                 : baseScore);
     }
@@ -360,14 +366,26 @@ public abstract class Game<T extends GameDTO> extends BaseEntity<T> {
      * @param modifier the power up score modifier
      */
     public void applyScorePowerUpModifiers(GamePlayer gamePlayer, double score, float modifier) {
+        // Sets the game players' score to either the base score if condition is false,
+        // or returns the base score * modifier
+        gamePlayer.setScore(gamePlayer.getScore() + computePowerUpScore(gamePlayer, score, modifier));
+    }
+
+    /**
+     * Computes the points a player gets for the current question, accounting for the double points power up.
+     *
+     * @param gamePlayer the game player that may have applied the power up.
+     * @param score      the score on which the double points is calculated.
+     * @param modifier   the power up score modifier.
+     * @return the points to add to the score of the player.
+     */
+    public int computePowerUpScore(GamePlayer gamePlayer, double score, float modifier) {
         if (this.getCurrentQuestionNumber() == null) {
             throw new IllegalArgumentException("Game has no question number");
         }
-        // Sets the game players' score to either the base score if condition is false,
-        // or returns the base score * modifier
-        gamePlayer.setScore(gamePlayer.getScore() + (int) score * Math.round(this.getCurrentQuestionNumber()
+        return (int) score * Math.round(this.getCurrentQuestionNumber()
                 .equals(gamePlayer.getUserPowerUps().get(PowerUp.DoublePoints))
-                ? modifier : 1));
+                ? modifier : 1);
     }
 
     /**
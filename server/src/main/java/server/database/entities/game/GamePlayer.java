@@ -8,7 +8,6 @@ import java.util.HashMap;
 import java.util.Map;
 import javax.persistence.*;
 import lombok.*;
-import org.modelmapper.ModelMapper;
 import server.database.entities.User;
 import server.database.entities.utils.BaseEntity;
 
@@ -50,8 +49,12 @@ public class GamePlayer extends BaseEntity<GamePlayerDTO> {
     /**
      * Maps power-up used to the question number that is was used on.
      * Allows for double point power-up to easily check.
+     * The table is named explicitly, as the power-ups of live games are inserted into it directly.
      */
     @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "game_player_user_power_ups", joinColumns = @JoinColumn(name = "game_player_id"))
+    @MapKeyColumn(name = "user_power_ups_key")
+    @Column(name = "user_power_ups")
     protected Map<PowerUp, Integer> userPowerUps = new HashMap<>();
 
     /**
@@ -94,8 +97,13 @@ public class GamePlayer extends BaseEntity<GamePlayerDTO> {
      * @return the game player dto
      */
     public GamePlayerDTO getDTO() {
-        var gamePlayerDTO = new ModelMapper().map(this, GamePlayerDTO.class);
+        var gamePlayerDTO = new GamePlayerDTO();
+        gamePlayerDTO.setId(id);
+        gamePlayerDTO.setScore(score);
+        gamePlayerDTO.setStreak(streak);
+        gamePlayerDTO.setJoinDate(joinDate);
         // Some info of the user are passed to the game DTO
+        gamePlayerDTO.setUserId(user.getId());
         gamePlayerDTO.setNickname(user.getUsername());
         gamePlayerDTO.setProfilePic(user.getProfilePic());
         return gamePlayerDTO;
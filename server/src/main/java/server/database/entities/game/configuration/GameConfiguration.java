@@ -57,13 +57,46 @@ public abstract class GameConfiguration extends BaseEntity<GameConfigurationDTO>
      * @param dto source DTO
      */
     public GameConfiguration(GameConfigurationDTO dto) {
-        this.answerTime = Duration.ofMillis(dto.getAnswerTime());
-        System.out.println(dto.getAnswerTime());
-        this.capacity = dto.getCapacity();
-        this.streakSize = dto.getStreakSize();
-        this.streakMultiplier = dto.getStreakMultiplier();
-        this.pointsCorrect = dto.getPointsCorrect();
-        this.pointsWrong = dto.getPointsWrong();
-        this.correctAnswerThreshold = dto.getCorrectAnswerThreshold();
+        // Fields missing from the DTO keep their default values
+        if (dto.getAnswerTime() != null) {
+            this.answerTime = Duration.ofMillis(dto.getAnswerTime());
+        }
+        if (dto.getCapacity() != null) {
+            this.capacity = dto.getCapacity();
+        }
+        if (dto.getStreakSize() != null) {
+            this.streakSize = dto.getStreakSize();
+        }
+        if (dto.getStreakMultiplier() != null) {
+            this.streakMultiplier = dto.getStreakMultiplier();
+        }
+        if (dto.getPointsCorrect() != null) {
+            this.pointsCorrect = dto.getPointsCorrect();
+        }
+        if (dto.getPointsWrong() != null) {
+            this.pointsWrong = dto.getPointsWrong();
+        }
+        if (dto.getCorrectAnswerThreshold() != null) {
+            this.correctAnswerThreshold = dto.getCorrectAnswerThreshold();
+        }
+    }
+
+    /**
+     * Copies the fields shared by all the game configurations to a DTO.
+     *
+     * @param dto the DTO to fill.
+     * @param <D> the type of the DTO.
+     * @return the filled DTO.
+     */
+    protected <D extends GameConfigurationDTO> D toDTO(D dto) {
+        dto.setId(id);
+        dto.setAnswerTime((int) answerTime.toMillis());
+        dto.setCapacity(capacity);
+        dto.setStreakSize(streakSize);
+        dto.setStreakMultiplier(streakMultiplier);
+        dto.setPointsCorrect(pointsCorrect);
+        dto.setPointsWrong(pointsWrong);
+        dto.setCorrectAnswerThreshold(correctAnswerThreshold);
+        return dto;
     }
 }
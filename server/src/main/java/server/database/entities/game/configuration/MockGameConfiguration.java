@@ -8,7 +8,6 @@ import javax.persistence.InheritanceType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-import org.modelmapper.ModelMapper;
 
 /**
  * Mock game configuration entity.
@@ -46,6 +45,6 @@ public class MockGameConfiguration extends GameConfiguration {
 
     @Override
     public MockGameConfigurationDTO getDTO() {
-        return new ModelMapper().map(this, MockGameConfigurationDTO.class);
+        return toDTO(new MockGameConfigurationDTO());
     }
 }
\ No newline at end of file
@@ -9,7 +9,6 @@ import javax.persistence.InheritanceType;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 /**
  * Configuration for the normal game mode, which contains a fixed number of questions.
@@ -28,7 +27,9 @@ public class NormalGameConfiguration extends GameConfiguration {
      */
     public NormalGameConfiguration(NormalGameConfigurationDTO dto) {
         super(dto);
-        this.numQuestions = dto.getNumQuestions();
+        if (dto.getNumQuestions() != null) {
+            this.numQuestions = dto.getNumQuestions();
+        }
     }
 
     /**
@@ -57,11 +58,8 @@ public class NormalGameConfiguration extends GameConfiguration {
 
     @Override
     public NormalGameConfigurationDTO getDTO() {
-        ModelMapper mapper = new ModelMapper();
-        mapper.addConverter(
-                context -> (int) context.getSource().toMillis(),
-                Duration.class, Integer.class);
-
-        return mapper.map(this, NormalGameConfigurationDTO.class);
+        NormalGameConfigurationDTO dto = toDTO(new NormalGameConfigurationDTO());
+        dto.setNumQuestions(numQuestions);
+        return dto;
     }
 }
@@ -2,7 +2,6 @@ package server.database.entities.game.configuration;
 
 import commons.entities.game.configuration.GameConfigurationDTO;
 import commons.entities.game.configuration.SurvivalGameConfigurationDTO;
-import java.time.Duration;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Inheritance;
@@ -11,7 +10,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 /**
  * Configuration for the survival game mode.
@@ -32,7 +30,11 @@ public class SurvivalGameConfiguration extends GameConfiguration {
      * @param dto source DTO
      */
     public SurvivalGameConfiguration(GameConfigurationDTO dto) {
-        new ModelMapper().map(dto, this);
+        super(dto);
+        if (dto instanceof SurvivalGameConfigurationDTO
+                && ((SurvivalGameConfigurationDTO) dto).getSpeedModifier() != null) {
+            this.speedModifier = ((SurvivalGameConfigurationDTO) dto).getSpeedModifier();
+        }
     }
 
     /**
@@ -43,11 +45,8 @@ public class SurvivalGameConfiguration extends GameConfiguration {
 
     @Override
     public SurvivalGameConfigurationDTO getDTO() {
-        ModelMapper mapper = new ModelMapper();
-        mapper.addConverter(
-                context -> (int) context.getSource().toMillis(),
-                Duration.class, Integer.class);
-
-        return mapper.map(this, SurvivalGameConfigurationDTO.class);
+        SurvivalGameConfigurationDTO dto = toDTO(new SurvivalGameConfigurationDTO());
+        dto.setSpeedModifier(speedModifier);
+        return dto;
     }
 }
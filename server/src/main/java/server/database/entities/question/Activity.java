@@ -11,7 +11,6 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.PositiveOrZero;
 import lombok.*;
 import org.hibernate.validator.constraints.URL;
-import org.modelmapper.ModelMapper;
 import server.database.entities.utils.BaseEntity;
 
 /**
@@ -31,7 +30,13 @@ public class Activity extends BaseEntity<ActivityDTO> {
      * @param dto DTO to map to entity.
      */
     public Activity(ActivityDTO dto) {
-        new ModelMapper().map(dto, this);
+        this.id = dto.getId();
+        this.description = dto.getDescription();
+        if (dto.getCost() != null) {
+            this.cost = dto.getCost();
+        }
+        this.iconId = dto.getIconId();
+        this.source = dto.getSource();
         if (dto.getId() == null) {
             // Avoid instances without an id set
             this.id = getUUID(0);
@@ -75,8 +80,12 @@ public class Activity extends BaseEntity<ActivityDTO> {
 
     @Override
     public ActivityDTO getDTO() {
-        ActivityDTO dto = new ModelMapper().map(this, ActivityDTO.class);
-        dto.setIcon(null);
+        ActivityDTO dto = new ActivityDTO();
+        dto.setId(id);
+        dto.setDescription(description);
+        dto.setCost(cost);
+        dto.setIconId(iconId);
+        dto.setSource(source);
         return dto;
     }
 }
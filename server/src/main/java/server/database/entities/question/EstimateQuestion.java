@@ -16,7 +16,6 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import server.services.answer.AnswerCollection;
 import server.utils.MathHelpers;
 
@@ -64,7 +63,7 @@ public class EstimateQuestion extends Question {
      * @param dto DTO to map to entity.
      */
     public EstimateQuestion(EstimateQuestionDTO dto) {
-        new ModelMapper().map(dto, this);
+        super(dto);
     }
 
     /**
@@ -87,23 +86,27 @@ public class EstimateQuestion extends Question {
         // Create a map <GamePlayer UUID, Double> to store the results.
         return userAnswers.getAnswers().stream().collect(Collectors.toMap(
                 Map.Entry::getKey,
-                entry -> {
-                    // Get the answer for the current user.
-                    AnswerDTO answer = entry.getValue();
+                entry -> checkAnswer(entry.getValue())));
+    }
 
-                    // Verify that we have exactly one activity as the answer.
-                    // We don't want to throw here, as this allows rogue users to DoS the server.
-                    if (answer.getResponse().size() != 1) {
-                        log.warn("checkAnswer: userAnswers for user {} has more than one activity.",
-                                entry.getKey());
-                        return 0.0;
-                    }
+    /**
+     * checkAnswer, checks how close a single answer to an estimate question is.
+     *
+     * @param answer the answer of a user.
+     * @return a value between 0 and 1 indicating the percentage of points the user should get.
+     */
+    @Override
+    public double checkAnswer(AnswerDTO answer) {
+        // Verify that we have exactly one activity as the answer.
+        // We don't want to throw here, as this allows rogue users to DoS the server.
+        if (answer.getResponse().size() != 1) {
+            log.warn("checkAnswer: answer to question {} does not have exactly one activity.", this.getId());
+            return 0.0;
+        }
 
-                    // Calculate the percentage of points for the user.
-                    return MathHelpers.calculatePercentage(answer.getResponse().get(0).getCost(),
-                            getActivities().iterator().next().getCost());
-                }
-        ));
+        // Calculate the percentage of points for the user.
+        return MathHelpers.calculatePercentage(answer.getResponse().get(0).getCost(),
+                getActivities().iterator().next().getCost());
     }
 
     /**
@@ -15,7 +15,6 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import server.services.answer.AnswerCollection;
 
 /**
@@ -49,7 +48,8 @@ public class MCQuestion extends Question {
      * @param dto DTO to map to entity.
      */
     public MCQuestion(MCQuestionDTO dto) {
-        new ModelMapper().map(dto, this);
+        super(dto);
+        this.questionType = dto.getQuestionType();
     }
 
     /**
@@ -111,26 +111,34 @@ public class MCQuestion extends Question {
         }
 
         return userAnswers.getAnswers().stream().collect(
-                Collectors.toMap(Map.Entry::getKey, answerEntry -> {
-                    AnswerDTO answerDTO = answerEntry.getValue();
-                    if (answer == null || answerDTO.getResponse().size() == 0) {
-                        log.trace("User {} answered with no answer", answerEntry.getKey());
-                        return 0.0;
-                    }
-                    // We don't want to throw here, as this allows rogue users to DoS the server.
-                    if (answerDTO.getResponse().size() > 1) {
-                        log.warn("User {} answered with more than one answer", answerEntry.getKey());
-                        return 0.0;
-                    }
+                Collectors.toMap(Map.Entry::getKey, answerEntry -> checkAnswer(answerEntry.getValue())));
+    }
 
-                    if (answerDTO.getResponse().get(0).getCost() == answer.getCost()) {
-                        log.trace("User {} answered correctly", answerEntry.getKey());
-                        return 1.0;
-                    } else {
-                        log.trace("User {} answered incorrectly", answerEntry.getKey());
-                        return 0.0;
-                    }
-                }));
+    /**
+     * checkAnswer, checks if a single answer to a multiple choice question is correct.
+     *
+     * @param answerDTO the answer of a user.
+     * @return 1 if the answer is correct, 0 otherwise.
+     */
+    @Override
+    public double checkAnswer(AnswerDTO answerDTO) {
+        if (answer == null || answerDTO.getResponse().size() == 0) {
+            log.trace("Question {} answered with no answer", this.getId());
+            return 0.0;
+        }
+        // We don't want to throw here, as this allows rogue users to DoS the server.
+        if (answerDTO.getResponse().size() > 1) {
+            log.warn("Question {} answered with more than one answer", this.getId());
+            return 0.0;
+        }
+
+        if (answerDTO.getResponse().get(0).getCost() == answer.getCost()) {
+            log.trace("Question {} answered correctly", this.getId());
+            return 1.0;
+        } else {
+            log.trace("Question {} answered incorrectly", this.getId());
+            return 0.0;
+        }
     }
 
     /**
@@ -49,6 +49,20 @@ public abstract class Question extends BaseEntity<QuestionDTO> {
         this.text = q.text;
     }
 
+    /**
+     * Construct a new question from a DTO.
+     *
+     * @param dto DTO to map to the question.
+     */
+    protected Question(QuestionDTO dto) {
+        this.id = dto.getId();
+        // Questions sent without activities keep an empty set
+        if (dto.getActivities() != null) {
+            this.activities = dto.getActivities().stream().map(Activity::new).collect(Collectors.toSet());
+        }
+        this.text = dto.getText();
+    }
+
     /**
      * checkAnswer, checks if the answer is correct.
      *
@@ -57,6 +71,14 @@ public abstract class Question extends BaseEntity<QuestionDTO> {
      */
     public abstract Map<UUID, Double> checkAnswer(AnswerCollection userAnswers) throws IllegalArgumentException;
 
+    /**
+     * checkAnswer, checks if a single answer is correct.
+     *
+     * @param answer the answer provided by a user.
+     * @return a value between 0 and 1 indicating the percentage of points the user should get.
+     */
+    public abstract double checkAnswer(AnswerDTO answer);
+
     /**
      * getRightAnswer, returns the correct answer for the question.
      *
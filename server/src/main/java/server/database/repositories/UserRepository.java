@@ -12,7 +12,7 @@ import server.database.entities.User;
  * User Repository - Interface that initializes repository.
  */
 @Repository
-public interface UserRepository extends PagingAndSortingRepository<User, UUID> {
+public interface UserRepository extends PagingAndSortingRepository<User, UUID>, UserStatsRepository {
     Optional<User> findByEmailIgnoreCase(String email);
 
     /**
@@ -0,0 +1,31 @@
+package server.database.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Set-based updates of the statistics of users, bypassing the persistence context.
+ */
+public interface UserStatsRepository {
+    /**
+     * Statistics of a user.
+     */
+    @Value
+    class UserStats {
+        UUID userId;
+        int score;
+        int gamesWon;
+    }
+
+    /**
+     * Apply the results of a game to the statistics of its players in a single statement.
+     * The score of a user becomes the maximum of their score and the score of the result,
+     * and the won games of the result are added to the won games of the user.
+     *
+     * @param results the results of the players.
+     * @return the new statistics of the updated users.
+     */
+    List<UserStats> applyResults(Collection<UserStats> results);
+}
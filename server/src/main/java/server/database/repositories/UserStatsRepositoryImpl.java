@@ -0,0 +1,52 @@
+package server.database.repositories;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JDBC implementation of {@link UserStatsRepository}.
+ */
+public class UserStatsRepositoryImpl implements UserStatsRepository {
+    private static final String APPLY_RESULTS = "UPDATE user_details AS u"
+            + " SET score = GREATEST(u.score, r.score), games_won = u.games_won + r.games_won"
+            + " FROM unnest(?, ?, ?) AS r(id, score, games_won)"
+            + " WHERE u.id = r.id"
+            + " RETURNING u.id, u.score, u.games_won";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<UserStats> applyResults(Collection<UserStats> results) {
+        if (results.isEmpty()) {
+            return List.of();
+        }
+
+        // Pass the results as column arrays, so that any number of players is a single statement
+        UUID[] ids = new UUID[results.size()];
+        Integer[] scores = new Integer[results.size()];
+        Integer[] gamesWon = new Integer[results.size()];
+        int idx = 0;
+        for (UserStats result : results) {
+            ids[idx] = result.getUserId();
+            scores[idx] = result.getScore();
+            gamesWon[idx] = result.getGamesWon();
+            idx++;
+        }
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_RESULTS);
+            statement.setArray(1, connection.createArrayOf("uuid", ids));
+            statement.setArray(2, connection.createArrayOf("integer", scores));
+            statement.setArray(3, connection.createArrayOf("integer", gamesWon));
+            return statement;
+        }, (row, rowNum) -> new UserStats(
+                row.getObject("id", UUID.class), row.getInt("score"), row.getInt("games_won")));
+    }
+}
@@ -10,7 +10,7 @@ import server.database.entities.game.GamePlayer;
 /**
  * JPA interface for accessing GamePlayer entities.
  */
-public interface GamePlayerRepository extends JpaRepository<GamePlayer, UUID> {
+public interface GamePlayerRepository extends JpaRepository<GamePlayer, UUID>, GamePlayerScoreRepository {
     boolean existsByUserIdAndGameStatusNotAndAbandonedIsFalse(UUID userId, GameStatus status);
 
     boolean existsByUserIdAndGameId(UUID userId, UUID gameId);
@@ -0,0 +1,48 @@
+package server.database.repositories.game;
+
+import commons.entities.game.PowerUp;
+import java.util.Collection;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Bulk updates of the scores and power-ups of game players, bypassing the persistence context.
+ */
+public interface GamePlayerScoreRepository {
+    /**
+     * Score of a game player, as captured from the live state of its game.
+     */
+    @Value
+    class PlayerScore {
+        UUID playerId;
+        int score;
+        int streak;
+        boolean abandoned;
+    }
+
+    /**
+     * Write the scores, streaks and abandoned flags of the given players in a single JDBC batch.
+     *
+     * @param scores the scores of the players to update.
+     * @return the number of updated rows.
+     */
+    int updateScores(Collection<PlayerScore> scores);
+
+    /**
+     * Power-up used by a game player, as captured from the live state of its game.
+     */
+    @Value
+    class PlayerPowerUp {
+        UUID playerId;
+        PowerUp powerUp;
+        int questionNumber;
+    }
+
+    /**
+     * Record the power-ups used by the given players in a single JDBC batch.
+     *
+     * @param powerUps the power-ups to insert, none of which may be recorded already.
+     * @return the number of inserted rows.
+     */
+    int insertPowerUps(Collection<PlayerPowerUp> powerUps);
+}
@@ -0,0 +1,52 @@
+package server.database.repositories.game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JDBC implementation of {@link GamePlayerScoreRepository}.
+ */
+public class GamePlayerScoreRepositoryImpl implements GamePlayerScoreRepository {
+    private static final String UPDATE_SCORES =
+            "UPDATE game_player SET score = ?, streak = ?, abandoned = ? WHERE id = ?";
+    private static final String INSERT_POWER_UPS =
+            "INSERT INTO game_player_user_power_ups (game_player_id, user_power_ups_key, user_power_ups) "
+                    + "VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int updateScores(Collection<PlayerScore> scores) {
+        if (scores.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        for (PlayerScore score : scores) {
+            rows.add(new Object[] {score.getScore(), score.getStreak(), score.isAbandoned(), score.getPlayerId()});
+        }
+        return IntStream.of(jdbcTemplate.batchUpdate(UPDATE_SCORES, rows)).sum();
+    }
+
+    @Override
+    @Transactional
+    public int insertPowerUps(Collection<PlayerPowerUp> powerUps) {
+        if (powerUps.isEmpty()) {
+            return 0;
+        }
+
+        // Power-ups are mapped by their ordinal, like the other enums
+        List<Object[]> rows = new ArrayList<>(powerUps.size());
+        for (PlayerPowerUp powerUp : powerUps) {
+            rows.add(new Object[] {powerUp.getPlayerId(), powerUp.getPowerUp().ordinal(), powerUp.getQuestionNumber()});
+        }
+        return IntStream.of(jdbcTemplate.batchUpdate(INSERT_POWER_UPS, rows)).sum();
+    }
+}
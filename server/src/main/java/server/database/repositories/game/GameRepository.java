@@ -12,7 +12,7 @@ import server.database.entities.game.Game;
 /**
  * JPA repository for interacting with Game entities in the database.
  */
-public interface GameRepository extends JpaRepository<Game, UUID> {
+public interface GameRepository extends JpaRepository<Game, UUID>, GameStateRepository {
     List<Game> findAllByStatus(GameStatus status);
 
     List<Game> findAllByStatusAndIsPrivateIsFalse(GameStatus status);
@@ -0,0 +1,29 @@
+package server.database.repositories.game;
+
+import commons.entities.game.GameStatus;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Targeted updates of the progress of a game, bypassing the persistence context.
+ */
+public interface GameStateRepository {
+    /**
+     * Progress of a game, as captured from its live state.
+     */
+    @Value
+    class GameState {
+        UUID gameId;
+        GameStatus status;
+        Integer currentQuestionNumber;
+        boolean acceptingAnswers;
+    }
+
+    /**
+     * Write the status, current question number and answering flag of a game, leaving the rest of it untouched.
+     *
+     * @param state the progress of the game.
+     * @return the number of updated rows.
+     */
+    int updateState(GameState state);
+}
@@ -0,0 +1,24 @@
+package server.database.repositories.game;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JDBC implementation of {@link GameStateRepository}.
+ */
+public class GameStateRepositoryImpl implements GameStateRepository {
+    // The status is mapped by its ordinal, like the JPA mapping of the game entity
+    private static final String UPDATE_STATE =
+            "UPDATE game SET status = ?, current_question_number = ?, accepting_answers = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int updateState(GameState state) {
+        return jdbcTemplate.update(UPDATE_STATE, state.getStatus().ordinal(), state.getCurrentQuestionNumber(),
+                state.isAcceptingAnswers(), state.getGameId());
+    }
+}
@@ -1,14 +1,20 @@
 package server.services;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import server.database.entities.game.Game;
 import server.database.repositories.game.GameRepository;
+import server.services.fsm.FSMState;
 import server.services.fsm.GameFSM;
+import server.services.fsm.LiveGame;
 
 /**
  * Class for managing the finite state machines.
@@ -23,8 +29,24 @@ public class FSMManager {
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private MeterRegistry registry;
+
     private final ConcurrentHashMap<UUID, GameFSM> fsmMap = new ConcurrentHashMap<>();
 
+    /**
+     * Expose the number of games in each state.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        for (FSMState state : FSMState.values()) {
+            Gauge.builder("quiz_fsm_games", fsmMap, map -> countGames(state))
+                    .tag("state", state.toString())
+                    .description("Number of games whose state machine is in a state")
+                    .register(registry);
+        }
+    }
+
     @Scheduled(fixedRate = 1000, initialDelay = 1000)
     void cleanUp() {
         fsmMap.entrySet().removeIf(entry -> !entry.getValue().isRunning());
@@ -47,7 +69,41 @@ public class FSMManager {
      * @return the FSM associated to the game
      */
     public GameFSM getFSM(Game game) {
-        return fsmMap.get(game.getId());
+        return getFSM(game.getId());
+    }
+
+    /**
+     * Returns the FSM associated to a certain game.
+     *
+     * @param gameId the id of the game to retrieve
+     * @return the FSM associated to the game, or null if there is none
+     */
+    public GameFSM getFSM(UUID gameId) {
+        return fsmMap.get(gameId);
+    }
+
+    /**
+     * Returns the in-memory state of an ongoing game.
+     *
+     * @param gameId the id of the game to retrieve
+     * @return the live game, or empty if the game has no running FSM
+     */
+    public Optional<LiveGame> getLiveGame(UUID gameId) {
+        return Optional.ofNullable(fsmMap.get(gameId)).map(GameFSM::getLiveGame);
+    }
+
+    /**
+     * Finds a game, preferring the in-memory state of ongoing games over the database.
+     *
+     * @param gameId the id of the game to retrieve
+     * @return the game, or empty if it doesn't exist
+     */
+    public Optional<Game> findGame(UUID gameId) {
+        Optional<LiveGame> liveGame = getLiveGame(gameId);
+        if (liveGame.isPresent()) {
+            return Optional.of(liveGame.get().getGame());
+        }
+        return gameRepository.findById(gameId);
     }
 
     /**
@@ -75,8 +131,8 @@ public class FSMManager {
             if (!fsm.isRunning() && fsm.isStartable()) {
 
                 log.debug("Starting FSM for game {}", gameId);
-                // Start the finite state machine (in a new thread, to avoid blocking the main thread)
-                new Thread(fsm::run).start();
+                // Start the finite state machine on the game clock, to avoid blocking the main thread
+                fsm.getContext().getGameClock().submit(gameId, fsm::run);
                 return true;
 
             } else {
@@ -114,6 +170,16 @@ public class FSMManager {
         return false;
     }
 
+    /**
+     * Count the games whose state machine is in a state.
+     *
+     * @param state the state.
+     * @return the number of games.
+     */
+    public long countGames(FSMState state) {
+        return fsmMap.values().stream().filter(fsm -> fsm.getState() == state).count();
+    }
+
     /**
      * Get the size of the FSM map.
      *
@@ -0,0 +1,122 @@
+package server.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import server.services.answer.AnswerSubmission;
+import server.services.fsm.FSMState;
+import server.utils.QuestionType;
+
+/**
+ * Metrics of the game lifecycle, to tell which stage of a game is slow.
+ * All the timers publish percentile histograms, so that they can be aggregated across instances.
+ */
+@Service
+public class GameMetrics {
+    private final Map<FSMState, Timer> stageTimers = new EnumMap<>(FSMState.class);
+    private final Map<FSMState, Timer> persistTimers = new EnumMap<>(FSMState.class);
+    private final Map<AnswerSubmission, Timer> answerTimers = new EnumMap<>(AnswerSubmission.class);
+    private final MeterRegistry registry;
+
+    /**
+     * Delay between the time a stage was planned to start at and the time it started.
+     */
+    @Getter
+    private final Timer scheduleSkew;
+
+    /**
+     * Time taken to score the answers to a question.
+     */
+    @Getter
+    private final Timer scoreUpdates;
+
+    /**
+     * Create the game metrics.
+     *
+     * @param registry Metrics registry.
+     */
+    @Autowired
+    public GameMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (FSMState state : FSMState.values()) {
+            stageTimers.put(state, Timer.builder("quiz_fsm_stage")
+                    .tag("state", state.toString())
+                    .description("Time taken by the game state machines to enter a stage")
+                    .publishPercentileHistogram()
+                    .register(registry));
+            persistTimers.put(state, Timer.builder("quiz_fsm_persist")
+                    .tag("state", state.toString())
+                    .description("Time taken to write the state of a game to the database, by stage")
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (AnswerSubmission outcome : AnswerSubmission.values()) {
+            answerTimers.put(outcome, Timer.builder("quiz_answer_submissions")
+                    .tag("outcome", outcome.toString())
+                    .description("Time taken to validate and store a submitted answer")
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofSeconds(1))
+                    .register(registry));
+        }
+        scheduleSkew = Timer.builder("quiz_fsm_schedule_skew")
+                .description("Delay between the planned and the actual start of the stages of the games")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+        scoreUpdates = Timer.builder("quiz_score_updates")
+                .description("Time taken to score the answers to a question")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Get the timer of the transitions into a stage.
+     *
+     * @param state the stage.
+     * @return the timer.
+     */
+    public Timer getStageTimer(FSMState state) {
+        return stageTimers.get(state);
+    }
+
+    /**
+     * Get the timer of the database writes of a stage.
+     *
+     * @param state the stage.
+     * @return the timer.
+     */
+    public Timer getPersistTimer(FSMState state) {
+        return persistTimers.get(state);
+    }
+
+    /**
+     * Get the timer of the answer submissions with an outcome.
+     *
+     * @param outcome the outcome of the submissions.
+     * @return the timer.
+     */
+    public Timer getAnswerTimer(AnswerSubmission outcome) {
+        return answerTimers.get(outcome);
+    }
+
+    /**
+     * Get the timer of the generation of questions of a kind.
+     * Questions are generated in batches, so the timer is looked up in the registry rather than kept.
+     *
+     * @param kind the kind of the questions, or null if the kinds are mixed.
+     * @return the timer.
+     */
+    public Timer getQuestionGeneration(QuestionType kind) {
+        return Timer.builder("quiz_question_generation")
+                .tag("type", kind == null ? "mixed" : kind.toString())
+                .description("Time taken to generate and save a batch of questions")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+}
@@ -13,10 +13,9 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.NotImplementedException;
@@ -38,11 +37,18 @@ import server.database.entities.question.Question;
 import server.database.repositories.UserRepository;
 import server.database.repositories.game.GamePlayerRepository;
 import server.database.repositories.game.GameRepository;
+import server.services.answer.AnswerBuffer;
 import server.services.answer.AnswerCollection;
+import server.services.answer.AnswerSubmission;
+import server.services.answer.GameAnswers;
+import server.services.clock.GameClock;
 import server.services.fsm.DefiniteGameFSM;
 import server.services.fsm.FSMContext;
 import server.services.fsm.FSMState;
 import server.services.fsm.GameFSM;
+import server.services.fsm.LiveGame;
+import server.services.question.QuestionPool;
+import server.services.settlement.GameSettlement;
 
 /**
  * Handles a specific game.
@@ -50,7 +56,7 @@ import server.services.fsm.GameFSM;
 @Service
 @Slf4j
 public class GameService {
-    Map<UUID, Map<UUID, AnswerCollection>> allGameAnswers = new ConcurrentHashMap<>();
+    Map<UUID, GameAnswers> allGameAnswers = new ConcurrentHashMap<>();
 
     @Autowired
     @Getter
@@ -64,7 +70,10 @@ public class GameService {
     private GamePlayerRepository gamePlayerRepository;
 
     @Autowired
-    private QuestionService questionService;
+    private QuestionPool questionPool;
+
+    @Autowired
+    private GameSettlement gameSettlement;
 
     @Autowired
     @Getter
@@ -81,9 +90,17 @@ public class GameService {
     @Getter
     private ThreadPoolTaskScheduler taskScheduler;
 
+    @Autowired
+    @Getter
+    private GameClock gameClock;
+
     @Autowired
     private ReactionService reactionService;
 
+    @Autowired
+    @Getter
+    private GameMetrics metrics;
+
     /**
      * Starts a new game, by verifying the starting conditions and creating a questions set.
      *
@@ -109,13 +126,13 @@ public class GameService {
         // Launch the game
         game.setStatus(GameStatus.ONGOING);
 
-        // Initialize the answers collection
-        allGameAnswers.put(game.getId(), new ConcurrentHashMap<>());
+        // Assign the answer slots of the players
+        allGameAnswers.put(game.getId(), new GameAnswers(game));
 
         // Initialize the game
         if (game instanceof DefiniteGame) {
             DefiniteGame definiteGame = (DefiniteGame) game;
-            definiteGame.addQuestions(questionService.provideQuestions(definiteGame.getQuestionsCount()));
+            definiteGame.addQuestions(questionPool.take(definiteGame.getQuestionsCount()));
             definiteGame = gameRepository.save(definiteGame);
 
             // Create and start a finite state machine for the game.
@@ -155,15 +172,33 @@ public class GameService {
 
         // Disconnect the player and update clients
         sseManager.unregister(user.getId());
-        sseManager.send(game.getUserIds(), new SSEMessage(SSEMessageType.PLAYER_LEFT, user.getId()));
+        sseManager.publish(game.getId(), game.getUserIds(), new SSEMessage(SSEMessageType.PLAYER_LEFT, user.getId()));
+        publishLeaderboard(game);
+    }
+
+    /**
+     * Re-rank the players of a live game, and push the changes of the leaderboard to the players.
+     *
+     * @param game the game.
+     */
+    public void publishLeaderboard(Game<?> game) {
+        fsmManager.getLiveGame(game.getId())
+                .map(liveGame -> liveGame.getLeaderboard().update())
+                .filter(delta -> !delta.getEntries().isEmpty())
+                .ifPresent(delta -> {
+                    log.trace("[{}] Leaderboard version {}: {} players changed.",
+                            game.getId(), delta.getVersion(), delta.getEntries().size());
+                    sseManager.publish(game.getId(), game.getUserIds(),
+                            new SSEMessage(SSEMessageType.LEADERBOARD_UPDATE, delta));
+                });
     }
 
     /**
      * Transitions the game to the next question stage.
+     * Only the in-memory state is updated, persisting it is up to the finite state machine.
      *
      * @param game the game to transition
      */
-    @Transactional
     public void nextQuestion(Game<?> game, Long delay) throws GameFinishedException {
         log.debug("[{}] Trying to move to next question", game.getId());
 
@@ -173,61 +208,96 @@ public class GameService {
             throw new GameFinishedException();
         }
 
-        // Set the current question number
+        // Set the current question number and open its answer buffer
         game.incrementQuestion();
+        game.getQuestion().ifPresent(question -> getGameAnswers(game).open(question.getId()));
         game.setAcceptingAnswers(true);
-        game = gameRepository.save(game);
 
         // Distribute the event to all players
         log.trace("[{}] FSM runnable: accepting answers enabled.", game.getId());
-        sseManager.send(game.getUserIds(), new SSEMessage(SSEMessageType.START_QUESTION, delay));
+        sseManager.publish(game.getId(), game.getUserIds(), new SSEMessage(SSEMessageType.START_QUESTION, delay));
     }
 
     /**
      * Transitions the game to the answer stage.
+     * Only the in-memory state is updated, persisting it is up to the finite state machine.
      *
      * @param game the game to transition
      */
     public boolean showAnswer(Game<?> game, Long delay) {
         // Disable answering
+        closeAnswers(game);
         game.setAcceptingAnswers(false);
-        game = gameRepository.save(game);
 
         // Distribute the event to all players
         log.trace("[{}] FSM runnable: accepting answers disabled.", game.getId());
 
-        return sseManager.send(game.getUserIds(), new SSEMessage(SSEMessageType.STOP_QUESTION, delay));
+        return sseManager.publish(game.getId(), game.getUserIds(), new SSEMessage(SSEMessageType.STOP_QUESTION, delay));
     }
 
     /**
      * Finishes the game.
+     * The status and the final scores are written behind like on every other stage,
+     * only the statistics of the players are settled right away.
      *
-     * @param game the game to transition
+     * @param liveGame the live game to transition
      */
-    public void finish(Game<?> game) {
+    public void finish(LiveGame liveGame) {
         // Mark the game as finished
+        Game<?> game = liveGame.getGame();
         game.setStatus(GameStatus.FINISHED);
-        game = gameRepository.save(game);
-
+        persist(liveGame, FSMState.FINISHED);
+        allGameAnswers.remove(game.getId());
 
-        var leaderboard = game.getPlayers()
-                .entrySet()
-                .stream()
-                .filter(uuidGamePlayerEntry -> !uuidGamePlayerEntry.getValue().isAbandoned())
-                .sorted((o1, o2) -> Integer.compare(o1.getValue().getScore(), o1.getValue().getScore()))
-                .collect(Collectors.toList());
+        // Update the statistics of the players in the background
+        gameSettlement.settle(game);
 
-        for (int i = 0; i < leaderboard.size(); i++) {
-            var entry = leaderboard.get(i);
-            User user = userRepository.findById(entry.getKey()).get();
-
-            user.setGamesWon(user.getGamesWon() + (i == 0 ? 1 : 0));
-            user.setScore(Math.max(user.getScore(), entry.getValue().getScore()));
-            userRepository.save(user);
-        }
         // Distribute the event to all players
         log.debug("[{}] Game is finished.", game.getId());
-        sseManager.send(game.getUserIds(), new SSEMessage(SSEMessageType.GAME_END));
+        sseManager.publish(game.getId(), game.getUserIds(), new SSEMessage(SSEMessageType.GAME_END));
+    }
+
+    /**
+     * Writes the pending changes of a live game back to the database.
+     * The changes are captured on the calling thread, so that they are consistent with the stage that made them,
+     * and written on the task scheduler, so that the caller is not blocked by the database.
+     *
+     * @param liveGame the live game to persist.
+     * @param stage    the stage the game is in, which the time spent writing is recorded against.
+     */
+    public void persist(LiveGame liveGame, FSMState stage) {
+        liveGame.capture().ifPresent(changes -> taskScheduler.execute(() -> metrics.getPersistTimer(stage)
+                .record(() -> liveGame.write(changes, gameRepository, gamePlayerRepository))));
+    }
+
+    /**
+     * Get the answers of a game, assigning the slots of its players if needed.
+     *
+     * @param game the game.
+     * @return the answers of the game.
+     */
+    private GameAnswers getGameAnswers(Game<?> game) {
+        return allGameAnswers.computeIfAbsent(game.getId(), id -> new GameAnswers(game));
+    }
+
+    /**
+     * Submit the answer of a user to the current question of a game.
+     * The answer is validated against the in-memory state of the game only.
+     *
+     * @param game   the game.
+     * @param userId the ID of the user.
+     * @param answer the answer.
+     * @return the outcome of the submission.
+     */
+    public AnswerSubmission submitAnswer(Game<?> game, UUID userId, AnswerDTO answer) {
+        GameAnswers gameAnswers = getGameAnswers(game);
+        Integer slot = gameAnswers.getSlotByUser(userId);
+        long start = System.nanoTime();
+        AnswerSubmission submission = slot == null || gameAnswers.getPlayer(slot).isAbandoned()
+                ? AnswerSubmission.NOT_PLAYER
+                : submitAnswer(game, gameAnswers, slot, answer);
+        metrics.getAnswerTimer(submission).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return submission;
     }
 
     /**
@@ -239,38 +309,69 @@ public class GameService {
      * @return whether the answer was added properly.
      */
     public boolean addAnswer(Game game, GamePlayer gamePlayer, AnswerDTO answer) {
-        if (!game.getPlayerIds().contains(gamePlayer.getId())) {
+        GameAnswers gameAnswers = getGameAnswers(game);
+        Integer slot = gameAnswers.getSlot(gamePlayer.getId());
+        if (slot == null) {
             log.warn("[{}] Player {} tried to submit an answer, but is not in the game.",
                     game.getId(),
                     gamePlayer.getId());
             return false;
         }
+
+        // The answer is for whichever question is current
         Question question = (Question) game.getQuestion().orElse(null);
+        if (question != null && answer.getQuestionId() == null) {
+            answer.setQuestionId(question.getId());
+        }
+        return submitAnswer(game, gameAnswers, slot, answer) == AnswerSubmission.ACCEPTED;
+    }
+
+    /**
+     * Store the answer of a player into the buffer of the current question.
+     *
+     * @param game        the game.
+     * @param gameAnswers the answers of the game.
+     * @param slot        the slot of the player.
+     * @param answer      the answer.
+     * @return the outcome of the submission.
+     */
+    private AnswerSubmission submitAnswer(Game<?> game, GameAnswers gameAnswers, int slot, AnswerDTO answer) {
+        Question question = game.getQuestion().orElse(null);
         if (question == null) {
             log.warn("[{}] Player {} tried to submit an answer, but there is no question.",
                     game.getId(),
-                    gamePlayer.getId());
-            return false;
+                    gameAnswers.getPlayer(slot).getId());
+            return AnswerSubmission.NO_QUESTION;
         }
-
-        Map<UUID, AnswerCollection> gameAnswerCollections = allGameAnswers.get(game.getId());
-        if (gameAnswerCollections == null) {
-            log.warn("[{}] Player {} tried to submit an answer, but the game map is not present.",
-                    game.getId(),
-                    gamePlayer.getId());
-            gameAnswerCollections = new ConcurrentHashMap<>();
-            allGameAnswers.put(game.getId(), gameAnswerCollections);
+        if (!question.getId().equals(answer.getQuestionId())) {
+            return AnswerSubmission.WRONG_QUESTION;
         }
 
-        AnswerCollection answerCollection = gameAnswerCollections.get(question.getId());
-        if (answerCollection == null) {
-            log.trace("[{}] Creating answer collection for question {}.", game.getId(), question.getId());
-            answerCollection = new AnswerCollection();
-            allGameAnswers.get(game.getId()).put(question.getId(), answerCollection);
+        // The buffer is opened by the FSM, unless the game was not started through this service
+        AnswerBuffer buffer = gameAnswers.getOrOpen(question.getId());
+        if (buffer == null || !buffer.submit(slot, answer)) {
+            log.debug("[{}] Late answer of player {} to question {} rejected.",
+                    game.getId(), gameAnswers.getPlayer(slot).getId(), question.getId());
+            return AnswerSubmission.CLOSED;
         }
+        return AnswerSubmission.ACCEPTED;
+    }
 
-        answerCollection.addAnswer(gamePlayer.getId(), answer);
-        return true;
+    /**
+     * Close the answer buffer of the current question of a game, so that no more answers are accepted.
+     *
+     * @param game the game.
+     */
+    public void closeAnswers(Game<?> game) {
+        GameAnswers gameAnswers = allGameAnswers.get(game.getId());
+        Question question = game.getQuestion().orElse(null);
+        if (gameAnswers == null || question == null) {
+            return;
+        }
+        AnswerBuffer buffer = gameAnswers.get(question.getId());
+        if (buffer != null && buffer.close()) {
+            log.trace("[{}] Closed the answers to question {}.", game.getId(), question.getId());
+        }
     }
 
     /**
@@ -289,17 +390,19 @@ public class GameService {
 
     /**
      * Get answers for a specific question of a specific game.
+     * Only the answers to the current question are kept, and reading them closes their buffer.
      *
      * @param game     Game to get the answers for.
      * @param question Question to get the answers for.
      * @return The answers for the given game and question.
      */
     public AnswerCollection getAnswers(Game game, Question question) {
-        Map<UUID, AnswerCollection> gameAnswerCollections = allGameAnswers.get(game.getId());
-        if (gameAnswerCollections == null || question == null) {
+        GameAnswers gameAnswers = allGameAnswers.get(game.getId());
+        if (gameAnswers == null || question == null) {
             return null;
         }
-        return gameAnswerCollections.get(question.getId());
+        AnswerBuffer buffer = gameAnswers.get(question.getId());
+        return buffer == null ? null : buffer.collect();
     }
 
     /**
@@ -313,13 +416,15 @@ public class GameService {
 
     /**
      * Update the game score to account for a specific question.
+     * The answers to the question are closed first, so that late answers are rejected.
      *
      * @param game     game to update the scores for.
      * @param question question to update the scores for.
      */
     public void updateScores(Game game, Question question, LocalDateTime questionEndTime) {
-        AnswerCollection answerCollection = getAnswers(game, question);
-        if (answerCollection == null) {
+        GameAnswers gameAnswers = allGameAnswers.get(game.getId());
+        AnswerBuffer buffer = gameAnswers == null ? null : gameAnswers.get(question.getId());
+        if (buffer == null) {
             // If there are no answers, there's nothing to do
             log.error("[{}] No answer collection for question {}.", game.getId(), question.getId());
             return;
@@ -327,36 +432,16 @@ public class GameService {
 
         log.debug("[{}] Updating scores for question {}.", game.getId(), question.getId());
 
-        // Update game score
-        question.checkAnswer(answerCollection).entrySet().forEach(entry -> {
-            Optional<GamePlayer> gamePlayer = game.getPlayers().values().stream()
-                    .filter(p -> ((GamePlayer) p).getId().equals(entry.getKey())).findFirst();
-            if (gamePlayer.isEmpty()) {
-                return;
-            }
-
-            int score = game.computeBaseScore(entry.getValue());
-            boolean isCorrect = score > game.getConfiguration().getCorrectAnswerThreshold();
-
-            // The answer time stamp
-            LocalDateTime answerTime = answerCollection.getAnswer(entry.getKey()).getAnswerTime();
-            // Compute score based on the quickness of answering a question
-            score = game.computeTimeBasedScore(score, answerTime, questionEndTime);
-
-            // Update players' streak
-            game.updateStreak(gamePlayer.get(), isCorrect);
-            // Calculate the streak score
-            int streakScore = game.computeStreakScore(gamePlayer.get(), score);
-
-            //Apply double points power up
-            game.applyScorePowerUpModifiers(gamePlayer.get(), streakScore, 2);
-            // Persist the score changes
-            gamePlayerRepository.save(gamePlayer.get());
+        // Stop accepting answers, then score them in a single pass over the players' slots
+        long start = System.nanoTime();
+        buffer.close();
+        int scored = gameAnswers.getScoringEngine().score(game, question, buffer, questionEndTime);
+        metrics.getScoreUpdates().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
-            log.debug("[{}] player {} now has {} points", game.getId(), entry.getKey(), gamePlayer.get().getScore());
-        });
+        log.debug("[{}] Scores of {} players updated.", game.getId(), scored);
 
-        log.debug("[{}] Scores updated.", game.getId());
+        // Push the rank changes, ahead of the answer stage
+        publishLeaderboard(game);
     }
 
 
@@ -389,7 +474,7 @@ public class GameService {
                 break;
         }
         log.info("Sending power-up " + powerUp.name() + " to game: " + game.getGameId());
-        sseManager.send(game.getUserIds(), new SSEMessage(SSEMessageType.POWER_UP_PLAYED, powerUp));
+        sseManager.publish(game.getId(), game.getUserIds(), new SSEMessage(SSEMessageType.POWER_UP_PLAYED, powerUp));
     }
 
     /**
@@ -0,0 +1,209 @@
+package server.services;
+
+import commons.entities.game.GameStatus;
+import commons.entities.game.LobbyListDeltaDTO;
+import commons.entities.game.LobbyPageDTO;
+import commons.entities.game.LobbySummaryDTO;
+import commons.entities.messages.SSEMessage;
+import commons.entities.messages.SSEMessageType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.entities.game.Game;
+import server.database.entities.game.GamePlayer;
+import server.database.repositories.game.GameRepository;
+
+/**
+ * In-memory directory of the public lobbies.
+ * The directory is loaded from the database at startup and updated as lobbies are created, change, start or
+ * are deleted, so that the lobby browser is served without querying the database.
+ * The users browsing the lobbies can subscribe to the changes, which are pushed to them as versioned deltas.
+ */
+@Slf4j
+@Service
+public class LobbyDirectory {
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private SSEManager sseManager;
+
+    /**
+     * The public lobbies, oldest first.
+     */
+    private final Map<UUID, LobbySummaryDTO> lobbies = new LinkedHashMap<>();
+
+    /**
+     * The users to push the changes to.
+     */
+    private final Set<UUID> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Version of the directory, incremented on every change.
+     */
+    private long version = 0;
+
+    /**
+     * Create an empty lobby directory.
+     *
+     * @param registry Metrics registry.
+     */
+    @Autowired
+    public LobbyDirectory(MeterRegistry registry) {
+        Gauge.builder("quiz_lobby_directory_size", this, LobbyDirectory::size)
+                .description("Number of public lobbies in the lobby directory")
+                .register(registry);
+        Gauge.builder("quiz_lobby_directory_subscribers", subscribers, Set::size)
+                .description("Number of users subscribed to the changes of the lobby directory")
+                .register(registry);
+    }
+
+    /**
+     * Load the directory from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        lobbies.clear();
+        gameRepository.findAllByStatusAndIsPrivateIsFalse(GameStatus.CREATED).stream()
+                .map(LobbyDirectory::summaryOf)
+                .sorted(Comparator.comparing(LobbySummaryDTO::getCreateDate,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(summary -> lobbies.put(summary.getId(), summary));
+        version++;
+        log.info("Lobby directory loaded with {} lobbies", lobbies.size());
+    }
+
+    /**
+     * Update a lobby after it changed in the database.
+     * Lobbies which started or are private are removed from the directory.
+     *
+     * @param game the lobby.
+     */
+    public void update(Game<?> game) {
+        if (game.getStatus() != GameStatus.CREATED || Boolean.TRUE.equals(game.getIsPrivate())) {
+            remove(game.getId());
+            return;
+        }
+
+        LobbySummaryDTO summary = summaryOf(game);
+        synchronized (this) {
+            if (summary.equals(lobbies.put(game.getId(), summary))) {
+                return;
+            }
+            publish(new LobbyListDeltaDTO(++version, List.of(summary), List.of()));
+        }
+    }
+
+    /**
+     * Remove a lobby which was deleted.
+     *
+     * @param lobbyId the ID of the lobby.
+     */
+    public synchronized void remove(UUID lobbyId) {
+        if (lobbies.remove(lobbyId) != null) {
+            publish(new LobbyListDeltaDTO(++version, List.of(), List.of(lobbyId)));
+        }
+    }
+
+    /**
+     * Get a page of the public lobbies.
+     *
+     * @param page   the number of the page, starting from 0.
+     * @param size   the maximum number of lobbies.
+     * @param search text the names of the lobbies must contain, ignoring case, or null to list all of them.
+     * @param open   whether to only list the lobbies which have room for another player.
+     * @return the page, and the version of the directory it was taken from.
+     */
+    public synchronized LobbyPageDTO getPage(int page, int size, String search, boolean open) {
+        String query = search == null ? "" : search.toLowerCase(Locale.ROOT);
+        List<LobbySummaryDTO> matching = lobbies.values().stream()
+                .filter(lobby -> Objects.toString(lobby.getGameName(), "").toLowerCase(Locale.ROOT).contains(query))
+                .filter(lobby -> !open || lobby.hasRoom())
+                .collect(Collectors.toList());
+
+        int from = (int) Math.min(matching.size(), (long) page * size);
+        int to = Math.min(matching.size(), from + size);
+        return new LobbyPageDTO(version, matching.size(), new ArrayList<>(matching.subList(from, to)));
+    }
+
+    /**
+     * Push the changes of the directory to a user, until it unsubscribes or disconnects.
+     *
+     * @param userId the ID of the user.
+     */
+    public void subscribe(UUID userId) {
+        subscribers.add(userId);
+    }
+
+    /**
+     * Stop pushing the changes of the directory to a user.
+     *
+     * @param userId the ID of the user.
+     */
+    public void unsubscribe(UUID userId) {
+        subscribers.remove(userId);
+    }
+
+    /**
+     * Check whether the changes of the directory are pushed to a user.
+     *
+     * @param userId the ID of the user.
+     * @return whether the user is subscribed.
+     */
+    public boolean isSubscribed(UUID userId) {
+        return subscribers.contains(userId);
+    }
+
+    /**
+     * Get the number of lobbies in the directory.
+     *
+     * @return the number of public lobbies.
+     */
+    public synchronized int size() {
+        return lobbies.size();
+    }
+
+    /**
+     * Push a change to the subscribers.
+     * Called while holding the directory, so that the subscribers receive the changes in version order.
+     *
+     * @param delta the change.
+     */
+    private void publish(LobbyListDeltaDTO delta) {
+        // Users who closed their connection stop browsing the lobbies
+        subscribers.removeIf(userId -> !sseManager.isRegistered(userId));
+        if (!subscribers.isEmpty()) {
+            log.trace("Lobby directory version {}: {} updated, {} removed", delta.getVersion(),
+                    delta.getUpdated().size(), delta.getRemoved().size());
+            sseManager.send(subscribers, new SSEMessage(SSEMessageType.LOBBY_LIST_UPDATE, delta));
+        }
+    }
+
+    private static LobbySummaryDTO summaryOf(Game<?> game) {
+        GamePlayer host = game.getHost();
+        return new LobbySummaryDTO(
+                game.getId(),
+                game.getGameName(),
+                host == null ? null : host.getUser().getUsername(),
+                game.getPlayers().size(),
+                game.getConfiguration() == null ? null : game.getConfiguration().getDTO(),
+                game.getCreateDate());
+    }
+}
@@ -24,6 +24,9 @@ public class LobbyService {
     @Autowired
     private SSEManager sseManager;
 
+    @Autowired
+    private LobbyDirectory lobbyDirectory;
+
     /**
      * Removes the specified user from the lobby. If this was the last player in the lobby, the game is deleted.
      *
@@ -42,12 +45,14 @@ public class LobbyService {
 
             // Save the lobby
             lobby = gameRepository.save(lobby);
+            lobbyDirectory.update(lobby);
             log.info("[{}] Removed player {}", lobby.getGameId(), user.getId());
 
             // Distribute the notifications to all players in the lobby
             sseManager.send(lobby.getUserIds(), new SSEMessage(SSEMessageType.LOBBY_MODIFIED));
         } catch (LastPlayerRemovedException ex) {
             gameRepository.delete(lobby);
+            lobbyDirectory.remove(lobby.getId());
             log.info("[{}] Last player removed, deleting lobby", lobby.getGameId());
         }
         return true;
@@ -72,6 +77,7 @@ public class LobbyService {
 
         // Delete the lobby
         gameRepository.delete(lobby);
+        lobbyDirectory.remove(lobby.getId());
 
         // Update players of the deletion
         sseManager.send(lobby.getUserIds(), new SSEMessage(SSEMessageType.LOBBY_DELETED));
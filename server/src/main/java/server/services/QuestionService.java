@@ -1,10 +1,7 @@
 package server.services;
 
 import commons.entities.questions.MCType;
-import java.io.IOException;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,8 +10,8 @@ import server.database.entities.question.Activity;
 import server.database.entities.question.EstimateQuestion;
 import server.database.entities.question.MCQuestion;
 import server.database.entities.question.Question;
-import server.database.repositories.question.ActivityRepository;
 import server.database.repositories.question.QuestionRepository;
+import server.services.question.ActivityIndex;
 import server.utils.QuestionType;
 
 /**
@@ -27,11 +24,14 @@ public class QuestionService {
     private QuestionGenerationConfiguration config;
 
     @Autowired
-    private ActivityRepository activityRepository;
+    private ActivityIndex activityIndex;
 
     @Autowired
     private QuestionRepository questionRepository;
 
+    @Autowired
+    private GameMetrics metrics;
+
     /**
      * Provides the specified amount of questions.
      *
@@ -41,11 +41,83 @@ public class QuestionService {
      *                               not sufficient to generate any question.
      */
     public List<Question> provideQuestions(int count) throws IllegalStateException {
+        return metrics.getQuestionGeneration(null).record(() -> {
+            // We need to generate a pool of questions containing an equal amount of each kind
+            List<Question> questions = generateQuestions(balancedQuestionTypes(count));
+
+            // Select only the questions needed
+            questions = questions.subList(0, count);
+
+            // Save the new questions
+            return questionRepository.saveAll(questions);
+        });
+    }
+
+    /**
+     * Provides the specified amount of questions of a single kind.
+     *
+     * @param kind  The kind of the questions.
+     * @param count The amount of questions to return.
+     * @return Randomly generated questions.
+     * @throws IllegalStateException If the amount of activities in the database is
+     *                               not sufficient to generate questions of this kind.
+     */
+    public List<Question> provideQuestions(QuestionType kind, int count) throws IllegalStateException {
+        return metrics.getQuestionGeneration(kind).record(() -> {
+            List<Question> questions = generateQuestions(Collections.nCopies(count, kind));
+            return questionRepository.saveAll(questions);
+        });
+    }
+
+    /**
+     * Picks the kinds of the questions of a game, so that each enabled kind appears about as often.
+     *
+     * @param count The amount of questions.
+     * @return The kinds of the questions, in random order.
+     */
+    public List<QuestionType> pickQuestionTypes(int count) {
+        return balancedQuestionTypes(count).subList(0, count);
+    }
+
+    /**
+     * Lists the enabled question kinds in random order, each of them equally often.
+     * The size of the list is the smallest multiple of the number of enabled kinds that is at least count.
+     *
+     * @param count The minimum amount of kinds.
+     * @return The shuffled kinds.
+     */
+    private List<QuestionType> balancedQuestionTypes(int count) {
+        // The size of the pool must be a multiple of Config.enabledQuestionTypes.length
+        int poolSize = count;
+        if (poolSize % config.getNumberEnabledQuestionTypes() != 0) {
+            poolSize += config.getNumberEnabledQuestionTypes()
+                    - (count % config.getNumberEnabledQuestionTypes());
+        }
+
+        List<QuestionType> kinds = new ArrayList<>(poolSize);
+        for (int idx = 0; idx < poolSize; idx++) {
+            kinds.add(config.getEnabledQuestionTypes()[idx % config.getNumberEnabledQuestionTypes()]);
+        }
+
+        // Randomize the pool of question kinds
+        Collections.shuffle(kinds);
+        return kinds;
+    }
+
+    /**
+     * Generates one question of each of the given kinds, without saving them.
+     *
+     * @param kinds The kinds of the questions to generate.
+     * @return The generated questions, in the order of their kinds.
+     * @throws IllegalStateException If the amount of activities in the database is
+     *                               not sufficient to generate the questions.
+     */
+    private List<Question> generateQuestions(List<QuestionType> kinds) throws IllegalStateException {
         // Init
-        List<Question> questions = new ArrayList<>();
+        List<Question> questions = new ArrayList<>(kinds.size());
 
         // Retrieve the acceptable activities
-        List<Activity> activities = activityRepository.findQuestionAcceptable();
+        ActivityIndex.Snapshot activities = activityIndex.getSnapshot();
 
         // Check that there are enough activities
         if (activities.size() < 5) {
@@ -56,16 +128,8 @@ public class QuestionService {
         // Create a provider of random numbers
         Random myRandom = new Random();
 
-        // We need to generate a pool of questions containing an equal amount of each kind
-        // Therefore the size of the pool must be a multiple of Config.enabledQuestionTypes.length
-        int poolSize = count;
-        if (poolSize % config.getNumberEnabledQuestionTypes() != 0) {
-            poolSize += config.getNumberEnabledQuestionTypes()
-                    - (count % config.getNumberEnabledQuestionTypes());
-        }
-
         int failedAttempts = 0;
-        for (int idx = 0; idx < poolSize; idx++) {
+        for (int idx = 0; idx < kinds.size(); idx++) {
             // Check failed attempts, otherwise the loop might run forever
             // Allow for a certain amount of failed attempts before giving up
             if (failedAttempts >= config.getQuestionGenerationAttempts()) {
@@ -74,14 +138,13 @@ public class QuestionService {
             }
 
             // Select an answer
-            Activity answer = activities.get(myRandom.nextInt(activities.size()));
+            Activity answer = activities.random(myRandom);
 
             // Sanitize the description
             String answerDescription = sanitizeDescription(answer.getDescription());
 
             // Select the question type
-            QuestionType questionKind = config
-                    .getEnabledQuestionTypes()[idx % config.getNumberEnabledQuestionTypes()];
+            QuestionType questionKind = kinds.get(idx);
 
             // Generate question
             Question newQuestion;
@@ -109,14 +172,7 @@ public class QuestionService {
                     case INSTEAD_OF: {
                         // Instead-of questions
                         questionText = "Instead of " + answerDescription + ", you could be...";
-                        correctOption = activities.stream()
-                                .filter(act -> act.getCost() != answer.getCost())
-                                .min((o1, o2) -> {
-                                    long dist1 = Math.abs(o1.getCost() - answer.getCost());
-                                    long dist2 = Math.abs(o2.getCost() - answer.getCost());
-                                    return Long.compare(dist1, dist2);
-                                })
-                                .orElse(null);
+                        correctOption = activities.nearest(answer);
                         break;
                     }
                     default: {
@@ -138,14 +194,15 @@ public class QuestionService {
                 ((MCQuestion) newQuestion).setAnswer(correctOption);
 
                 // Set the options
-                try {
-                    newQuestion.setActivities(getMCOptions(activities, correctOption, 4));
-                } catch (IOException e) {
+                Set<Activity> options = activities.options(correctOption, 4, myRandom);
+                if (options == null) {
                     // Retry with a different answer
+                    log.trace("Not enough distinct activities around {}", correctOption.getCost());
                     failedAttempts++;
                     idx--;
                     continue;
                 }
+                newQuestion.setActivities(options);
             } else if (questionKind.questionType.equals(EstimateQuestion.class)) {
                 // Estimate questions
                 newQuestion = new EstimateQuestion();
@@ -165,86 +222,9 @@ public class QuestionService {
             questions.add(newQuestion);
         }
 
-        // Randomize the pool of generated questions
-        Collections.shuffle(questions);
-
-        // Select only the questions needed
-        questions = questions.subList(0, count);
-
-        // Save the new questions
-        questions = questionRepository.saveAll(questions);
         return questions;
     }
 
-    /**
-     * Returns a set of activities fit for a multiple-choice question.
-     * The set includes the correct answer.
-     *
-     * @param pool   pool of activities to choose from.
-     * @param answer pre-selected correct answer of the question.
-     * @param size   size of the set to return.
-     * @return a set containing activities close enough to the answer, but not too similar.
-     * @throws IOException if the pool is not sufficient to generate the set.
-     */
-    private Set<Activity> getMCOptions(List<Activity> pool, Activity answer, int size)
-            throws IOException {
-
-        // 1. collect information over the answer's order of magnitude
-        long answerCost = answer.getCost();
-        long minLimT = 1;
-        long maxLimT = 10;
-        while (answerCost >= 10) {
-            answerCost /= 10;
-            minLimT *= 10;
-            maxLimT *= 10;
-        }
-
-        // 2. define a filter
-        final long minLim = minLimT;
-        final long maxLim = maxLimT;
-        Function<Long, Boolean> goodChoice =
-                (cost) -> cost != answer.getCost()
-                        && cost >= minLim
-                        && cost < maxLim;
-
-        // 3. apply the filter
-        List<Activity> options = pool.stream()
-                .filter(act -> goodChoice.apply(act.getCost()))
-                .collect(Collectors.toList());
-        Collections.shuffle(options);
-        if (options.size() < size - 1) {
-            log.error("Not enough activities fulfill the filter");
-            throw new IOException("Not enough activities to generate the question");
-        }
-
-        // 4. select options with distinct costs (magnitude-wise)
-        Set<Activity> chosen = new HashSet<>(List.of(answer));
-        for (int optIdx = 0; optIdx < options.size(); optIdx++) {
-            boolean optionOk = true;
-            Activity option = options.get(optIdx);
-            for (Activity opt : chosen) {
-                if (option.getCost() / minLim == opt.getCost() / minLim) {
-                    optionOk = false;
-                    break;
-                }
-            }
-            if (optionOk) {
-                chosen.add(option);
-                if (chosen.size() == size) {
-                    break;
-                }
-            }
-        }
-
-        // 5. check if enough options were selected
-        if (chosen.size() < size) {
-            log.error("Not enough distinct activities available");
-            throw new IOException("Not enough activities to generate the question");
-        }
-
-        return chosen;
-    }
-
     /**
      * Render a description fit for question generation.
      * Removes initial capital letters and final full-stops.
@@ -1,56 +1,112 @@
 package server.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.entities.messages.SSEMessage;
 import commons.entities.messages.SSEMessageType;
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
-import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-import server.api.exceptions.SSEFailedException;
+import server.configuration.SSEConfiguration;
+import server.services.sse.ReplayBuffer;
+import server.services.sse.SSEConnection;
+import server.services.sse.SSEMetrics;
+import server.services.sse.SerializedEvent;
 import server.utils.SSE;
 
 /**
  * Manager class to handle SSE emitters.
+ * Messages are serialized once, and then queued on the connections of their recipients.
+ * The queues are drained by a small pool of writer threads, so that a slow client never blocks the sender,
+ * and clients which fall too far behind are disconnected. Writers blocked by clients which stopped reading are
+ * replaced, up to a limit, so that the other clients keep receiving their events.
+ * The events of a game are numbered and kept in a replay buffer, so that clients which reconnect can catch up.
  */
 @Slf4j
 @Service
 public class SSEManager {
-    private final Counter sseMessageCounter;
+    private final SSEMetrics metrics;
+
+    private final ObjectMapper objectMapper;
+    private final SSEConfiguration configuration;
+    private final ThreadPoolExecutor writers;
 
     @Autowired
     private ThreadPoolTaskScheduler taskScheduler;
 
     /**
-     * Create a new SSE manager.
+     * The Map which maps user IDs to SSE connections.
+     * As this class can be called from different threads, we need to use a concurrent map.
+     */
+    private final Map<UUID, SSEConnection> connections = new ConcurrentHashMap<>();
+
+    /**
+     * The Map which maps game IDs to the buffers of their latest events.
+     */
+    private final Map<UUID, ReplayBuffer> replayBuffers = new ConcurrentHashMap<>();
+
+    /**
+     * The connections whose writes stalled, and which still block a writer.
+     */
+    private final Set<SSEConnection> stalled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The connections which were evicted while an event was being written to them, whose write may still stall.
+     */
+    private final Set<SSEConnection> evictedWriting = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a new SSE manager with the default configuration.
      *
      * @param registry Metrics registry.
      */
-    @Autowired
     public SSEManager(MeterRegistry registry) {
-        sseMessageCounter = Counter.builder("quiz_sse_messages")
-                .tag("type", "sent")
-                .description("Number of sent SSE messages")
-                .register(registry);
-        Gauge.builder("quiz_sse_emitters", this, SSEManager::size)
-                .description("Number of registered SSE emitters")
-                .register(registry);
+        this(registry, new ObjectMapper().findAndRegisterModules(), new SSEConfiguration());
     }
 
     /**
-     * The Map which maps user IDs to SSE emitters.
-     * As this class can be called from different threads, we need to use a concurrent map.
+     * Create a new SSE manager.
+     *
+     * @param registry      Metrics registry.
+     * @param objectMapper  Object mapper used to serialize the messages.
+     * @param configuration SSE configuration.
      */
-    private final Map<UUID, SseEmitter> emitters = new ConcurrentHashMap<>();
+    @Autowired
+    public SSEManager(MeterRegistry registry, ObjectMapper objectMapper, SSEConfiguration configuration) {
+        this.objectMapper = objectMapper;
+        this.configuration = configuration;
+        this.writers = new ThreadPoolExecutor(configuration.getWriterThreads(), configuration.getWriterThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new CustomizableThreadFactory("quiz-sse-"));
+        this.metrics = new SSEMetrics(registry);
+
+        Gauge.builder("quiz_sse_emitters", this, SSEManager::size)
+                .description("Number of registered SSE emitters")
+                .register(registry);
+        Gauge.builder("quiz_sse_queue_depth", this, SSEManager::queueDepth)
+                .description("Number of SSE messages waiting to be written")
+                .register(registry);
+        Gauge.builder("quiz_sse_stalled_writes", stalled, Set::size)
+                .description("Number of SSE writes blocked by clients which stopped reading")
+                .register(registry);
+    }
 
     /**
      * Initialization routine for the SSE manager.
@@ -58,20 +114,28 @@ public class SSEManager {
     @PostConstruct
     public void init() {
         taskScheduler.scheduleAtFixedRate(this::sendKeepAlive, Duration.ofSeconds(45));
+        taskScheduler.scheduleAtFixedRate(this::discardReplayBuffers, Duration.ofMinutes(1));
+        taskScheduler.scheduleAtFixedRate(this::checkStalledWrites, configuration.getWriteTimeout());
         log.info("Initialized SSE manager");
     }
 
+    /**
+     * Stop the writer threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
     /**
      * Send a keep alive message to all registered SSE emitters.
      */
     public void sendKeepAlive() {
-        emitters.forEach((userId, emitter) -> {
-            try {
-                emitter.send(new SSEMessage(SSEMessageType.KEEPALIVE));
-                log.trace("Sent keep alive to user {}", userId);
-            } catch (IOException e) {
-                log.error("Failed to send keep alive message to user {}", userId, e);
-            }
+        SerializedEvent keepAlive = serializeData(new SSEMessage(SSEMessageType.KEEPALIVE));
+        connections.forEach((userId, connection) -> {
+            // Queuing the keep alive also evicts the connections which stopped reading
+            connection.enqueue(keepAlive);
+            log.trace("Sent keep alive to user {}", userId);
         });
     }
 
@@ -81,23 +145,31 @@ public class SSEManager {
      * @return The number of registered SSE emitters.
      */
     public int size() {
-        return emitters.size();
+        return connections.size();
+    }
+
+    /**
+     * Get the number of messages waiting to be written, over all connections.
+     *
+     * @return The total number of queued messages.
+     */
+    public int queueDepth() {
+        return connections.values().stream().mapToInt(SSEConnection::size).sum();
     }
 
     /**
      * Add a new SSE emitter.
      *
      * @param userId User ID to add SSE emitter for.
+     * @param emitter SSE emitter to add.
      */
     public void register(UUID userId, SseEmitter emitter) {
-        if (emitters.containsKey(userId)) {
-            emitters.get(userId).complete();
-            unregister(userId);
+        SSEConnection previous = connections.put(userId,
+                new SSEConnection(userId, emitter, configuration, writers, metrics, this::evicted));
+        if (previous != null) {
+            previous.complete();
             log.debug("Removed the previous SSE emitter for user [{}]", userId);
         }
-
-        log.debug("Registered SSE emitter for user {}", userId);
-        emitters.put(userId, emitter);
         log.info("Registered SSE emitter for user [{}]", userId);
     }
 
@@ -108,14 +180,14 @@ public class SSEManager {
      * @return Whether the SSE emitter was successfully removed or not.
      */
     public boolean unregister(UUID userId) {
-        if (!emitters.containsKey(userId)) {
+        SSEConnection connection = connections.remove(userId);
+        if (connection == null) {
             log.debug("Cannot unregister emitter: user {} has no registered emitter", userId);
             return false;
-        } else {
-            emitters.remove(userId);
-            log.debug("Unregistered SSE emitter for user {}", userId);
-            return true;
         }
+        metrics.removeLagTimer(connection.getLagTimer());
+        log.debug("Unregistered SSE emitter for user {}", userId);
+        return true;
     }
 
     /**
@@ -127,8 +199,9 @@ public class SSEManager {
      * @return whether the SSE emitter was successfully removed or not
      */
     public boolean unregister(UUID userId, SseEmitter emitter) {
-        if (emitters.get(userId) == emitter) {
-            emitters.remove(userId);
+        SSEConnection connection = connections.get(userId);
+        if (connection != null && connection.getEmitter() == emitter && connections.remove(userId, connection)) {
+            metrics.removeLagTimer(connection.getLagTimer());
             log.debug("Unregistered SSE emitter for user {}", userId);
             return true;
         }
@@ -145,10 +218,10 @@ public class SSEManager {
      */
     public SseEmitter get(UUID userId) {
         log.trace("Getting SSE emitter for user {}", userId);
-        return emitters.get(userId);
+        SSEConnection connection = connections.get(userId);
+        return connection == null ? null : connection.getEmitter();
     }
 
-
     /**
      * Check if the user has an SSE emitter registered.
      *
@@ -156,34 +229,27 @@ public class SSEManager {
      * @return Whether the user has an SSE emitter registered.
      */
     public boolean isRegistered(UUID userId) {
-        return emitters.containsKey(userId);
+        return connections.containsKey(userId);
     }
 
     /**
      * Send a message to a single user.
+     * The message is queued, and written to the emitter asynchronously.
      *
      * @param userId User ID to send the message to.
      * @param message Message to send.
-     * @return Whether the message was successfully sent or not.
-     * @throws SSEFailedException If the message could not be sent.
+     * @return Whether the message was successfully queued or not.
      */
     public boolean send(UUID userId, SseEmitter.SseEventBuilder message) {
         // Check that the emitter for the user exists
-        if (!emitters.containsKey(userId)) {
+        SSEConnection connection = connections.get(userId);
+        if (connection == null) {
             log.debug("Cannot send message: user {} has no registered emitter", userId);
             return false;
         }
 
-        // Send the message
-        try {
-            emitters.get(userId).send(message);
-            sseMessageCounter.increment();
-            log.debug("Sent message to user {}", userId);
-            return true;
-        } catch (IOException e) {
-            log.error("Failed to send message to user {}", userId);
-            return false;
-        }
+        // Queue the message
+        return connection.enqueue(message);
     }
 
     /**
@@ -191,11 +257,11 @@ public class SSEManager {
      *
      * @param userId User ID to send the message to.
      * @param message Message to send.
-     * @return Whether the message was successfully sent or not.
+     * @return Whether the message was successfully queued or not.
      */
     public boolean send(UUID userId, SSEMessage message) {
         log.trace("Sending message of type {} to user {}", message.getType(), userId);
-        return send(userId, SSE.createEvent(message));
+        return send(userId, serialize(message));
     }
 
     /**
@@ -203,12 +269,14 @@ public class SSEManager {
      *
      * @param users User IDs to send the message to.
      * @param message Message to send.
-     * @return Whether the message was sent to all specified users or not.
+     * @return Whether the message was queued for all specified users or not.
      */
     public boolean send(Iterable<UUID> users, SseEmitter.SseEventBuilder message) {
+        // Build the event once, so that it can be shared by the connections
+        SerializedEvent event = SerializedEvent.of(message);
         boolean success = true;
         for (UUID userId : users) {
-            success &= send(userId, message);
+            success &= send(userId, event);
         }
         return success;
     }
@@ -218,11 +286,192 @@ public class SSEManager {
      *
      * @param users User IDs to send the message to.
      * @param message Message to send.
-     * @return Whether the message was sent to all specified users or not.
+     * @return Whether the message was queued for all specified users or not.
      */
     public boolean send(Iterable<UUID> users, SSEMessage message) {
         log.trace(String.valueOf(message));
-        return send(users, SSE.createEvent(message));
+        return send(users, serialize(message));
+    }
+
+    /**
+     * Send a message to the players of a game.
+     * The message is assigned the next ID of the game and kept in its replay buffer,
+     * so that the players who reconnect can be sent it again, see {@link #replay}.
+     *
+     * @param gameId ID of the game the message belongs to.
+     * @param users User IDs to send the message to.
+     * @param message Message to send.
+     * @return Whether the message was queued for all specified users or not.
+     */
+    public boolean publish(UUID gameId, Iterable<UUID> users, SSEMessage message) {
+        log.trace("[{}] Publishing message of type {}", gameId, message.getType());
+        Set<UUID> recipients = new HashSet<>();
+        users.forEach(recipients::add);
+
+        ReplayBuffer buffer = replayBuffers.computeIfAbsent(gameId,
+                id -> new ReplayBuffer(configuration.getReplayBufferSize()));
+
+        // Queue the message while holding the buffer, so that all players receive the events of a game in order
+        synchronized (buffer) {
+            SerializedEvent event = buffer.append(sequence -> {
+                metrics.getSerialized().increment();
+                return SSE.serialize(objectMapper, message, eventId(gameId, sequence));
+            }, Collections.unmodifiableSet(recipients));
+
+            boolean success = true;
+            for (UUID userId : recipients) {
+                success &= send(userId, event);
+            }
+            return success;
+        }
+    }
+
+    /**
+     * Send a user the events of its current game it missed while it was disconnected.
+     *
+     * @param userId User ID to send the events to.
+     * @param gameId ID of the game the user is currently in.
+     * @param lastEventId ID of the last event the user received, as sent in the Last-Event-ID header.
+     * @return Whether all the missed events were still available and queued or not.
+     */
+    public boolean replay(UUID userId, UUID gameId, String lastEventId) {
+        Long sequence = parseSequence(userId, gameId, lastEventId);
+        return sequence != null && replay(userId, gameId, sequence);
+    }
+
+    /**
+     * Send a user the events of a game published after the given sequence number.
+     *
+     * @param userId User ID to send the events to.
+     * @param gameId ID of the game whose events to send.
+     * @param sequence Sequence number of the last event the user received.
+     * @return Whether all the missed events were still available and queued or not.
+     */
+    public boolean replay(UUID userId, UUID gameId, long sequence) {
+        ReplayBuffer buffer = replayBuffers.get(gameId);
+        if (buffer == null) {
+            log.debug("[{}] Cannot replay events to user {}: no events buffered", gameId, userId);
+            return false;
+        }
+        return replay(userId, gameId, buffer, sequence);
+    }
+
+    /**
+     * Add a new SSE emitter of a user who is reconnecting, and send it the events of its game it missed.
+     * The emitter is registered while holding the replay buffer of the game, so that the events published
+     * in the meantime are queued after the missed ones, and are not sent twice.
+     *
+     * @param userId User ID to add SSE emitter for.
+     * @param emitter SSE emitter to add.
+     * @param first Message sent to the user ahead of the missed events.
+     * @param gameId ID of the game the user is currently in.
+     * @param lastEventId ID of the last event the user received, as sent in the Last-Event-ID header.
+     * @return Whether all the missed events were still available and queued or not.
+     */
+    public boolean reconnect(UUID userId, SseEmitter emitter, SSEMessage first, UUID gameId, String lastEventId) {
+        Long sequence = parseSequence(userId, gameId, lastEventId);
+        ReplayBuffer buffer = sequence == null ? null : replayBuffers.get(gameId);
+        if (buffer == null) {
+            register(userId, emitter);
+            send(userId, first);
+            return false;
+        }
+
+        synchronized (buffer) {
+            register(userId, emitter);
+            send(userId, first);
+            return replay(userId, gameId, buffer, sequence);
+        }
+    }
+
+    /**
+     * Parse the sequence number of the last event a user received.
+     *
+     * @param userId User ID the event was sent to.
+     * @param gameId ID of the game the user is currently in.
+     * @param lastEventId ID of the last event the user received, formatted as gameId:sequence.
+     * @return The sequence number, or null if the ID is malformed or belongs to another game.
+     */
+    private Long parseSequence(UUID userId, UUID gameId, String lastEventId) {
+        int separator = lastEventId == null ? -1 : lastEventId.lastIndexOf(':');
+        if (separator < 0) {
+            log.debug("[{}] Cannot replay events to user {}: malformed event ID {}", gameId, userId, lastEventId);
+            return null;
+        }
+        try {
+            // The events of the previous games of the user are no longer relevant
+            if (!gameId.equals(UUID.fromString(lastEventId.substring(0, separator)))) {
+                log.debug("[{}] Not replaying events of another game to user {}", gameId, userId);
+                return null;
+            }
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            log.debug("[{}] Cannot replay events to user {}: malformed event ID {}", gameId, userId, lastEventId);
+            return null;
+        }
+    }
+
+    /**
+     * Send a user the events buffered after the given sequence number.
+     *
+     * @param userId User ID to send the events to.
+     * @param gameId ID of the game whose events to send.
+     * @param buffer Replay buffer of the game.
+     * @param sequence Sequence number of the last event the user received.
+     * @return Whether all the missed events were still available and queued or not.
+     */
+    private boolean replay(UUID userId, UUID gameId, ReplayBuffer buffer, long sequence) {
+        synchronized (buffer) {
+            List<SerializedEvent> missed = buffer.since(userId, sequence);
+            log.debug("[{}] Replaying {} events to user {}", gameId, missed.size(), userId);
+            boolean success = buffer.covers(sequence);
+            for (SerializedEvent event : missed) {
+                success &= send(userId, event);
+            }
+            return success;
+        }
+    }
+
+    /**
+     * Abandon the connections whose writes stalled, and resize the writer pool so that the writers they block
+     * are replaced, up to the configured limit. The writers are removed again once the blocked writes return.
+     */
+    public synchronized void checkStalledWrites() {
+        List<SSEConnection> writing = new ArrayList<>(connections.values());
+        writing.addAll(evictedWriting);
+        for (SSEConnection connection : writing) {
+            if (connection.isStalled() && stalled.add(connection)) {
+                connection.abandon();
+            }
+        }
+        stalled.removeIf(connection -> !connection.isWriting());
+        evictedWriting.removeIf(connection -> !connection.isWriting());
+
+        int size = configuration.getWriterThreads() + Math.min(stalled.size(), configuration.getMaxStalledWriters());
+        if (size > writers.getMaximumPoolSize()) {
+            writers.setMaximumPoolSize(size);
+            writers.setCorePoolSize(size);
+        } else if (size < writers.getMaximumPoolSize()) {
+            writers.setCorePoolSize(size);
+            writers.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * Get the number of writer threads, including the ones replacing blocked writers.
+     *
+     * @return the size of the writer pool.
+     */
+    public int getWriterThreads() {
+        return writers.getMaximumPoolSize();
+    }
+
+    /**
+     * Discard the replay buffers of the games which have not published any event for a while.
+     */
+    public void discardReplayBuffers() {
+        long retention = configuration.getReplayRetention().toNanos();
+        replayBuffers.entrySet().removeIf(entry -> entry.getValue().getIdleNanos() > retention);
     }
 
     /**
@@ -231,12 +480,9 @@ public class SSEManager {
      * @param message Message to send.
      */
     public void sendAll(SseEmitter.SseEventBuilder message) {
-        for (SseEmitter emitter : emitters.values()) {
-            try {
-                emitter.send(message);
-            } catch (IOException e) {
-                log.error("Failed to send sse message: " + e.getMessage());
-            }
+        SerializedEvent event = SerializedEvent.of(message);
+        for (SSEConnection connection : connections.values()) {
+            connection.enqueue(event);
         }
     }
 
@@ -247,26 +493,28 @@ public class SSEManager {
      */
     public void sendAll(SSEMessage message) {
         log.trace("Sending message of type {} to all users", message.getType());
-        sendAll(SSE.createEvent(message));
+        sendAll(serialize(message));
     }
 
     /**
-     * Disconnects the user's SSE emitter.
+     * Disconnects the user's SSE emitter, once the messages queued so far have been written.
      *
      * @param userId user's id
      * @return whether the emitter was successfully disconnected or not
      */
     public boolean disconnect(UUID userId) {
         // If the user has no registered SSE emitter, we can't disconnect it.
-        if (!isRegistered(userId)) {
+        SSEConnection connection = connections.remove(userId);
+        if (connection == null) {
             log.debug("Cannot disconnect user {}: no registered emitter", userId);
             return false;
         }
 
-        // Completes the emitter lifecycle and unregisters it.
-        emitters.get(userId).complete();
+        // Completes the emitter lifecycle.
+        connection.complete();
+        metrics.removeLagTimer(connection.getLagTimer());
         log.trace("Disconnected emitter for user {}", userId);
-        return unregister(userId);
+        return true;
     }
 
     /**
@@ -287,11 +535,60 @@ public class SSEManager {
      * Disconnect all registered SSE emitters and clear the map.
      */
     public void disconnectAll() {
-        for (SseEmitter emitter : emitters.values()) {
-            emitter.complete();
+        for (SSEConnection connection : connections.values()) {
+            connection.complete();
+            metrics.removeLagTimer(connection.getLagTimer());
         }
-        emitters.clear();
+        connections.clear();
 
         log.trace("Disconnected all emitters");
     }
+
+    /**
+     * Unregisters a connection which was evicted for lagging behind.
+     *
+     * @param connection the evicted connection.
+     */
+    private void evicted(SSEConnection connection) {
+        if (connections.remove(connection.getUserId(), connection)) {
+            metrics.removeLagTimer(connection.getLagTimer());
+        }
+        // The event being written may be blocked by the client, which is only noticed later
+        if (connection.isWriting()) {
+            evictedWriting.add(connection);
+        }
+    }
+
+    /**
+     * Format the ID of an event of a game.
+     *
+     * @param gameId the ID of the game.
+     * @param sequence the sequence number of the event within the game.
+     * @return the ID of the event.
+     */
+    private static String eventId(UUID gameId, long sequence) {
+        return gameId + ":" + sequence;
+    }
+
+    /**
+     * Serialize a message, so that it can be shared by all its recipients.
+     *
+     * @param message the message to serialize.
+     * @return the serialized event.
+     */
+    private SerializedEvent serialize(SSEMessage message) {
+        metrics.getSerialized().increment();
+        return SSE.serialize(objectMapper, message);
+    }
+
+    /**
+     * Serialize a message as the data of an unnamed event.
+     *
+     * @param message the message to serialize.
+     * @return the serialized event.
+     */
+    private SerializedEvent serializeData(SSEMessage message) {
+        metrics.getSerialized().increment();
+        return SSE.serializeData(objectMapper, message);
+    }
 }
@@ -0,0 +1,147 @@
+package server.services.answer;
+
+import commons.entities.AnswerDTO;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.Getter;
+
+/**
+ * Answers to a single question, indexed by the slots of the players in the game.
+ * Submitting an answer is lock-free. Once the buffer is closed, no answer is accepted anymore,
+ * and every answer accepted before is visible to the reader: an answer is accepted if and only if
+ * its submission started before the buffer was closed.
+ */
+public class AnswerBuffer {
+    /**
+     * Flag of the state marking the buffer as closed, the lower bits count the submissions in flight.
+     */
+    private static final int CLOSED = 1 << 30;
+
+    /**
+     * The question the answers are for.
+     */
+    @Getter
+    private final UUID questionId;
+
+    /**
+     * The IDs of the players, by slot.
+     */
+    private final UUID[] playerIds;
+
+    /**
+     * The answers, by slot.
+     */
+    private final AtomicReferenceArray<AnswerDTO> answers;
+
+    /**
+     * Closed flag and number of submissions in flight.
+     */
+    private final AtomicInteger state = new AtomicInteger();
+
+    /**
+     * The accepted answers, collected once the buffer is closed.
+     */
+    private volatile AnswerCollection collection;
+
+    /**
+     * Create an empty, open buffer.
+     *
+     * @param questionId the question the answers are for.
+     * @param playerIds  the IDs of the players, by slot.
+     */
+    public AnswerBuffer(UUID questionId, UUID[] playerIds) {
+        this.questionId = questionId;
+        this.playerIds = playerIds;
+        this.answers = new AtomicReferenceArray<>(playerIds.length);
+    }
+
+    /**
+     * Submit the answer of a player. A later answer of the same player replaces the previous one.
+     *
+     * @param slot   the slot of the player.
+     * @param answer the answer.
+     * @return true if the answer was accepted, false if the buffer is closed.
+     */
+    public boolean submit(int slot, AnswerDTO answer) {
+        // Register the submission, unless the buffer is closed
+        int current;
+        do {
+            current = state.get();
+            if ((current & CLOSED) != 0) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, current + 1));
+
+        try {
+            answers.set(slot, answer);
+            return true;
+        } finally {
+            state.decrementAndGet();
+        }
+    }
+
+    /**
+     * Close the buffer, and wait for the submissions in flight to complete.
+     *
+     * @return true if this call closed the buffer, false if it was already closed.
+     */
+    public boolean close() {
+        int previous = state.getAndUpdate(current -> current | CLOSED);
+
+        // The submissions in flight only store a reference, so they complete right away
+        while (state.get() != CLOSED) {
+            Thread.onSpinWait();
+        }
+        return (previous & CLOSED) == 0;
+    }
+
+    /**
+     * Check whether the buffer is closed.
+     *
+     * @return true if no more answers are accepted.
+     */
+    public boolean isClosed() {
+        return (state.get() & CLOSED) != 0;
+    }
+
+    /**
+     * Get the answer of a player.
+     *
+     * @param slot the slot of the player.
+     * @return the answer, or null if the player did not answer.
+     */
+    public AnswerDTO get(int slot) {
+        return answers.get(slot);
+    }
+
+    /**
+     * Get the number of slots of the buffer.
+     *
+     * @return the number of players.
+     */
+    public int capacity() {
+        return playerIds.length;
+    }
+
+    /**
+     * Close the buffer and collect the accepted answers.
+     *
+     * @return the answers, mapped by player ID.
+     */
+    public AnswerCollection collect() {
+        close();
+        AnswerCollection result = collection;
+        if (result == null) {
+            result = new AnswerCollection();
+            for (int slot = 0; slot < playerIds.length; slot++) {
+                AnswerDTO answer = answers.get(slot);
+                if (answer != null) {
+                    result.addAnswer(playerIds[slot], answer);
+                }
+            }
+            collection = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,31 @@
+package server.services.answer;
+
+/**
+ * Outcome of the submission of an answer.
+ */
+public enum AnswerSubmission {
+    /**
+     * The answer was stored.
+     */
+    ACCEPTED,
+
+    /**
+     * The user is not an active player of the game.
+     */
+    NOT_PLAYER,
+
+    /**
+     * The game has no current question.
+     */
+    NO_QUESTION,
+
+    /**
+     * The answer is for another question than the current one.
+     */
+    WRONG_QUESTION,
+
+    /**
+     * The answering stage of the question is over.
+     */
+    CLOSED
+}
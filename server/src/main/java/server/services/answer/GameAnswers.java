@@ -0,0 +1,146 @@
+package server.services.answer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Getter;
+import server.database.entities.game.Game;
+import server.database.entities.game.GamePlayer;
+
+/**
+ * Answers of the players of a game. Each player is assigned a fixed slot when the game starts,
+ * and the answers to the current question are kept in an {@link AnswerBuffer} indexed by these slots.
+ */
+public class GameAnswers {
+    /**
+     * The ID of the game.
+     */
+    @Getter
+    private final UUID gameId;
+
+    /**
+     * The players, by slot.
+     */
+    private final GamePlayer[] players;
+
+    /**
+     * The IDs of the players, by slot.
+     */
+    private final UUID[] playerIds;
+
+    /**
+     * The slots of the players, mapped by player ID and by the ID of their user.
+     */
+    private final Map<UUID, Integer> slotsByPlayer = new HashMap<>();
+    private final Map<UUID, Integer> slotsByUser = new HashMap<>();
+
+    /**
+     * The engine scoring the answers of the players.
+     */
+    @Getter
+    private final ScoringEngine scoringEngine;
+
+    /**
+     * The buffer of the current question, or null if no question was opened yet.
+     */
+    private final AtomicReference<AnswerBuffer> current = new AtomicReference<>();
+
+    /**
+     * Assign the slots of the players of a game.
+     *
+     * @param game the game.
+     */
+    public GameAnswers(Game<?> game) {
+        this.gameId = game.getId();
+        this.players = game.getPlayers().values().toArray(new GamePlayer[0]);
+        this.playerIds = new UUID[players.length];
+        for (int slot = 0; slot < players.length; slot++) {
+            playerIds[slot] = players[slot].getId();
+            slotsByPlayer.put(players[slot].getId(), slot);
+            if (players[slot].getUser() != null) {
+                slotsByUser.put(players[slot].getUser().getId(), slot);
+            }
+        }
+        this.scoringEngine = new ScoringEngine(players);
+    }
+
+    /**
+     * Get the slot of a player.
+     *
+     * @param playerId the ID of the player.
+     * @return the slot, or null if the player is not in the game.
+     */
+    public Integer getSlot(UUID playerId) {
+        return slotsByPlayer.get(playerId);
+    }
+
+    /**
+     * Get the slot of a player by the ID of their user.
+     *
+     * @param userId the ID of the user.
+     * @return the slot, or null if the user is not playing in the game.
+     */
+    public Integer getSlotByUser(UUID userId) {
+        return userId == null ? null : slotsByUser.get(userId);
+    }
+
+    /**
+     * Get the player in a slot.
+     *
+     * @param slot the slot.
+     * @return the player.
+     */
+    public GamePlayer getPlayer(int slot) {
+        return players[slot];
+    }
+
+    /**
+     * Get the number of slots.
+     *
+     * @return the number of players in the game.
+     */
+    public int size() {
+        return players.length;
+    }
+
+    /**
+     * Open the buffer of a new question, closing the buffer of the previous one.
+     *
+     * @param questionId the ID of the question.
+     * @return the new buffer.
+     */
+    public AnswerBuffer open(UUID questionId) {
+        AnswerBuffer previous = current.getAndSet(new AnswerBuffer(questionId, playerIds));
+        if (previous != null) {
+            previous.close();
+        }
+        return current.get();
+    }
+
+    /**
+     * Get the buffer of a question, opening it if no question was opened yet.
+     *
+     * @param questionId the ID of the question.
+     * @return the buffer, or null if another question is current.
+     */
+    public AnswerBuffer getOrOpen(UUID questionId) {
+        AnswerBuffer buffer = current.get();
+        if (buffer == null) {
+            current.compareAndSet(null, new AnswerBuffer(questionId, playerIds));
+            buffer = current.get();
+        }
+        return buffer.getQuestionId().equals(questionId) ? buffer : null;
+    }
+
+    /**
+     * Get the buffer of a question.
+     *
+     * @param questionId the ID of the question.
+     * @return the buffer, or null if the question is not the current one.
+     */
+    public AnswerBuffer get(UUID questionId) {
+        AnswerBuffer buffer = current.get();
+        return buffer != null && buffer.getQuestionId().equals(questionId) ? buffer : null;
+    }
+}
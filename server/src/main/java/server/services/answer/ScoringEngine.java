@@ -0,0 +1,83 @@
+package server.services.answer;
+
+import commons.entities.AnswerDTO;
+import java.time.LocalDateTime;
+import server.database.entities.game.Game;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.question.Question;
+
+/**
+ * Scores the answers to the questions of a game.
+ * The players are addressed by their slots, so a question is scored in a single pass over the answer buffer,
+ * with the scores and streaks kept in arrays that are reused across questions.
+ */
+public class ScoringEngine {
+    /**
+     * Score modifier of the double points power-up.
+     */
+    private static final float DOUBLE_POINTS_MODIFIER = 2;
+
+    /**
+     * The players, by slot.
+     */
+    private final GamePlayer[] players;
+
+    /**
+     * Scores and streaks of the players, by slot.
+     */
+    private final int[] scores;
+    private final int[] streaks;
+
+    /**
+     * Create a scoring engine for the players of a game.
+     *
+     * @param players the players, by slot.
+     */
+    public ScoringEngine(GamePlayer[] players) {
+        this.players = players;
+        this.scores = new int[players.length];
+        this.streaks = new int[players.length];
+    }
+
+    /**
+     * Score the answers to a question and update the scores and streaks of the players who answered.
+     *
+     * @param game            the game.
+     * @param question        the question.
+     * @param buffer          the closed answer buffer of the question.
+     * @param questionEndTime the time at which the question ended.
+     * @return the number of players whose score was updated.
+     */
+    public synchronized int score(Game<?> game, Question question, AnswerBuffer buffer,
+                                  LocalDateTime questionEndTime) {
+        int threshold = game.getConfiguration().getCorrectAnswerThreshold();
+        int scored = 0;
+
+        for (int slot = 0; slot < players.length; slot++) {
+            AnswerDTO answer = buffer.get(slot);
+            if (answer == null) {
+                continue;
+            }
+            GamePlayer player = players[slot];
+            scores[slot] = player.getScore();
+            streaks[slot] = player.getStreak();
+
+            // Base score, and whether the answer counts as correct
+            int score = game.computeBaseScore(question.checkAnswer(answer));
+            boolean isCorrect = score > threshold;
+
+            // Compute score based on the quickness of answering a question
+            score = game.computeTimeBasedScore(score, answer.getAnswerTime(), questionEndTime);
+
+            // Update the streak, then apply the streak and power-up modifiers
+            streaks[slot] = isCorrect ? streaks[slot] + 1 : 0;
+            score = game.computeStreakScore(streaks[slot], score);
+            scores[slot] += game.computePowerUpScore(player, score, DOUBLE_POINTS_MODIFIER);
+
+            player.setStreak(streaks[slot]);
+            player.setScore(scores[slot]);
+            scored++;
+        }
+        return scored;
+    }
+}
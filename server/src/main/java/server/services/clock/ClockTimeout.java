@@ -0,0 +1,100 @@
+package server.services.clock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A task scheduled on the {@link GameClock}, which can be used to cancel it.
+ */
+@Slf4j
+public class ClockTimeout {
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    /**
+     * The task to execute.
+     */
+    private final Runnable task;
+
+    /**
+     * The wheel the task is scheduled on.
+     */
+    private final TimerWheel wheel;
+
+    /**
+     * The time at which the task should be executed, in nanoseconds (see {@link System#nanoTime()}).
+     */
+    @Getter
+    private final long deadline;
+
+    /**
+     * Number of full rotations of the wheel left before the task expires.
+     */
+    long remainingRounds;
+
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+    /**
+     * Create a new timeout.
+     *
+     * @param wheel    the wheel the task is scheduled on.
+     * @param task     the task to execute.
+     * @param deadline the time at which the task should be executed, in nanoseconds.
+     */
+    ClockTimeout(TimerWheel wheel, Runnable task, long deadline) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Cancel the task. The task is removed from the wheel lazily, when its bucket is processed.
+     *
+     * @return true if the task was cancelled, false if it already expired or was cancelled before.
+     */
+    public boolean cancel() {
+        if (!state.compareAndSet(PENDING, CANCELLED)) {
+            return false;
+        }
+        wheel.onDone();
+        return true;
+    }
+
+    /**
+     * Check whether the task was cancelled.
+     *
+     * @return true if the task was cancelled.
+     */
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    /**
+     * Check whether the task was executed (or is being executed).
+     *
+     * @return true if the task expired.
+     */
+    public boolean isExpired() {
+        return state.get() == EXPIRED;
+    }
+
+    /**
+     * Execute the task, unless it was cancelled.
+     *
+     * @return true if the task was executed.
+     */
+    boolean expire() {
+        if (!state.compareAndSet(PENDING, EXPIRED)) {
+            return false;
+        }
+        wheel.onDone();
+        try {
+            task.run();
+        } catch (Throwable t) {
+            log.error("Game clock task threw an exception", t);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,116 @@
+package server.services.clock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import server.configuration.quiz.QuizClockConfiguration;
+import server.configuration.quiz.QuizConfiguration;
+
+/**
+ * Clock driving the game state machines.
+ * Tasks are scheduled on a set of hashed timer wheels, each with its own thread.
+ * All tasks with the same key (i.e. of the same game) go to the same wheel, so they are executed in order
+ * and never concurrently.
+ */
+@Slf4j
+@Service
+public class GameClock {
+    private final TimerWheel[] wheels;
+
+    /**
+     * Create a new game clock.
+     *
+     * @param quizConfiguration the quiz configuration.
+     * @param registry          Metrics registry.
+     */
+    @Autowired
+    public GameClock(QuizConfiguration quizConfiguration, MeterRegistry registry) {
+        QuizClockConfiguration configuration = quizConfiguration.getClock();
+        int shards = configuration.getShards() > 0
+                ? configuration.getShards()
+                : Runtime.getRuntime().availableProcessors();
+
+        wheels = new TimerWheel[shards];
+        for (int i = 0; i < shards; i++) {
+            wheels[i] = new TimerWheel("quiz-clock-" + i,
+                    TimeUnit.MILLISECONDS.toNanos(configuration.getTickDuration()),
+                    configuration.getWheelSize());
+            Gauge.builder("quiz_clock_tasks", wheels[i], TimerWheel::getPending)
+                    .tag("shard", String.valueOf(i))
+                    .description("Number of pending game clock tasks")
+                    .register(registry);
+            Gauge.builder("quiz_clock_lag", wheels[i], TimerWheel::getLagMillis)
+                    .tag("shard", String.valueOf(i))
+                    .baseUnit("milliseconds")
+                    .description("Delay of the last game clock tick")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Start the clock.
+     */
+    @PostConstruct
+    public void start() {
+        Arrays.stream(wheels).forEach(TimerWheel::start);
+        log.info("Initialized game clock with {} shards", wheels.length);
+    }
+
+    /**
+     * Stop the clock. Pending tasks are discarded.
+     */
+    @PreDestroy
+    public void stop() {
+        Arrays.stream(wheels).forEach(TimerWheel::stop);
+    }
+
+    /**
+     * Schedule a task to run after a delay.
+     *
+     * @param key   key of the task (e.g. the game ID), tasks with the same key are executed sequentially.
+     * @param task  task to execute.
+     * @param delay delay before executing the task.
+     * @return the timeout, which can be used to cancel the task.
+     */
+    public ClockTimeout schedule(UUID key, Runnable task, Duration delay) {
+        return getWheel(key).schedule(task, delay.toNanos());
+    }
+
+    /**
+     * Schedule a task to run on the next tick.
+     *
+     * @param key  key of the task (e.g. the game ID), tasks with the same key are executed sequentially.
+     * @param task task to execute.
+     * @return the timeout, which can be used to cancel the task.
+     */
+    public ClockTimeout submit(UUID key, Runnable task) {
+        return schedule(key, task, Duration.ZERO);
+    }
+
+    /**
+     * Get the number of pending tasks.
+     *
+     * @return the number of tasks which were neither executed nor cancelled.
+     */
+    public int size() {
+        return Arrays.stream(wheels).mapToInt(TimerWheel::getPending).sum();
+    }
+
+    /**
+     * Get the wheel responsible for a key.
+     *
+     * @param key the key.
+     * @return the wheel the key is hashed to.
+     */
+    private TimerWheel getWheel(UUID key) {
+        return wheels[Math.floorMod(key.hashCode(), wheels.length)];
+    }
+}
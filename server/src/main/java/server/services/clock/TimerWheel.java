@@ -0,0 +1,178 @@
+package server.services.clock;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A hashed timer wheel, driven by a single worker thread.
+ * Tasks are placed in the bucket of the tick they expire on, so scheduling and cancelling are O(1).
+ * Expired tasks are executed on the worker thread, in order of their buckets.
+ */
+@Slf4j
+class TimerWheel implements Runnable {
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<ClockTimeout>[] buckets;
+
+    /**
+     * Tasks scheduled since the last tick, which haven't been placed in a bucket yet.
+     */
+    private final Queue<ClockTimeout> incoming = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of tasks which were neither executed nor cancelled.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+
+    /**
+     * How late the last tick was processed, in nanoseconds.
+     */
+    private volatile long lag = 0;
+
+    /**
+     * Number of ticks since the wheel started. Only accessed by the worker thread.
+     */
+    private long tick = 0;
+
+    /**
+     * Create a new timer wheel.
+     *
+     * @param name      name of the worker thread.
+     * @param tickNanos duration of a tick, in nanoseconds.
+     * @param wheelSize number of buckets, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(String name, long tickNanos, int wheelSize) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = Math.max(1, tickNanos);
+        this.mask = size - 1;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.worker = new Thread(this, name);
+        this.worker.setDaemon(true);
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Start the worker thread.
+     */
+    void start() {
+        worker.start();
+    }
+
+    /**
+     * Stop the worker thread. Pending tasks are discarded.
+     */
+    void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task       the task to execute.
+     * @param delayNanos delay before executing the task, in nanoseconds.
+     * @return the timeout, which can be used to cancel the task.
+     */
+    ClockTimeout schedule(Runnable task, long delayNanos) {
+        ClockTimeout timeout = new ClockTimeout(this, task, System.nanoTime() + Math.max(0, delayNanos));
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Called when a task was executed or cancelled.
+     */
+    void onDone() {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * Get the number of pending tasks.
+     *
+     * @return the number of tasks which were neither executed nor cancelled.
+     */
+    int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Get how late the last tick was processed.
+     *
+     * @return the lag, in milliseconds.
+     */
+    double getLagMillis() {
+        return lag / 1e6;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            // Wait for the end of the current tick
+            long tickDeadline = startTime + (tick + 1) * tickNanos;
+            long sleep;
+            while (running && (sleep = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (!running) {
+                break;
+            }
+
+            long now = System.nanoTime();
+            lag = now - tickDeadline;
+            transferIncoming();
+            expireBucket(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+        log.debug("Timer wheel {} stopped", worker.getName());
+    }
+
+    /**
+     * Place the newly scheduled tasks in their buckets.
+     */
+    private void transferIncoming() {
+        ClockTimeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expiryTick = (timeout.getDeadline() - startTime) / tickNanos;
+            timeout.remainingRounds = (expiryTick - tick) / buckets.length;
+            // Tasks which are already overdue go into the current bucket
+            buckets[(int) (Math.max(expiryTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Execute the expired tasks of a bucket, and drop the cancelled ones.
+     *
+     * @param bucket the bucket to process.
+     */
+    private void expireBucket(ArrayDeque<ClockTimeout> bucket) {
+        Iterator<ClockTimeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            ClockTimeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+}
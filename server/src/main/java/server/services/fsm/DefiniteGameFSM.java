@@ -5,11 +5,8 @@ import commons.entities.messages.SSEMessage;
 import commons.entities.messages.SSEMessageType;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Date;
-import java.util.Optional;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.time.DateUtils;
 import server.database.entities.game.DefiniteGame;
 import server.database.entities.game.exceptions.GameFinishedException;
 
@@ -48,12 +45,10 @@ public class DefiniteGameFSM extends GameFSM {
         if (getState() == FSMState.IDLE) {
             log.debug("[{}] FSM is in PREPARING state.", getGame().getId());
 
-            // Update the game
-            refreshGame();
-
             // Distribute the start event to all players
-            getContext().getSseManager().send(getGame().getUserIds(), new SSEMessage(SSEMessageType.GAME_START,
-                    getContext().getQuizConfiguration().getTiming().getPreparationTime()));
+            getContext().getSseManager().publish(getGame().getId(), getGame().getUserIds(),
+                    new SSEMessage(SSEMessageType.GAME_START,
+                            getContext().getQuizConfiguration().getTiming().getPreparationTime()));
 
             setState(FSMState.PREPARING);
             scheduleTask(this::run,
@@ -94,14 +89,16 @@ public class DefiniteGameFSM extends GameFSM {
             log.debug("[{}] FSM runnable: advancing onto question {}.",
                 getGame().getId(), getGame().getCurrentQuestionNumber());
 
-            // Update the game
-            refreshGame();
-
+            // Remember the scores, to tell the points the players gain on the question
+            getLiveGame().startQuestion();
             getContext().getGameService()
                 .nextQuestion(
                     getGame(),
                     getGame().getConfiguration().getAnswerTime().toMillis());
 
+            // Write the new question number back to the database
+            persistGame();
+
             // Schedule the "show answer" stage.
             scheduleTask(this::runAnswer, getGame().getConfiguration().getAnswerTime());
         } catch (GameFinishedException e) {
@@ -124,11 +121,8 @@ public class DefiniteGameFSM extends GameFSM {
         log.trace("[{}] FSM runAnswer called.", getGame().getId());
         setState(FSMState.ANSWER);
 
-        // Update the game
-        refreshGame();
-
         // Update the scores
-        getContext().getGameService().updateScores(this.game);
+        getContext().getGameService().updateScores(getGame());
 
         // Delay before progressing to the next stage
         long delay = getContext().getQuizConfiguration().getTiming().getAnswerTime();
@@ -138,6 +132,9 @@ public class DefiniteGameFSM extends GameFSM {
         // Stop accepting answers
         getContext().getGameService().showAnswer(getGame(), delay);
 
+        // Write the new scores back to the database
+        persistGame();
+
         // Show leaderboard on every 5th question, and show next question on other questions
         scheduleTask(
                 (getGame().getCurrentQuestionNumber() + 1) % leaderboardInterval == 0
@@ -164,31 +161,19 @@ public class DefiniteGameFSM extends GameFSM {
         // Delay before progressing to the next stage.
         int delay = getContext().getQuizConfiguration().getTiming().getLeaderboardTime();
 
-        // Update the game
-        refreshGame();
-
         // Notify all players to show the leaderboard.
-        getContext().getSseManager().send(getGame().getUserIds(),
+        getContext().getSseManager().publish(getGame().getId(), getGame().getUserIds(),
             new SSEMessage(SSEMessageType.SHOW_LEADERBOARD, delay));
         log.trace("[{}] Leaderboard shown.", getGame().getId());
 
-        // Calculate when to proceed to the next stage.
-        Date executionTime = DateUtils.addMilliseconds(new Date(), delay);
         // Schedule the next stage.
-        setFuture(
-            new FSMFuture(
-                Optional.of(getContext().getTaskScheduler().schedule(this::runQuestion, executionTime)),
-                executionTime, this::runQuestion)
-        );
+        scheduleTask(this::runQuestion, Duration.ofMillis(delay));
     }
 
     @SneakyThrows
     void runFinish() {
-        // Update the game
-        refreshGame();
-
         // We are not accepting answers anymore.
-        getContext().getGameService().finish(getGame());
+        getContext().getGameService().finish(getLiveGame());
 
         // Stop the FSM
         setState(FSMState.FINISHED);
@@ -7,8 +7,10 @@ import lombok.NonNull;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import server.configuration.quiz.QuizConfiguration;
 import server.database.repositories.game.GameRepository;
+import server.services.GameMetrics;
 import server.services.GameService;
 import server.services.SSEManager;
+import server.services.clock.GameClock;
 
 /**
  * Execution context for the finite state machine.
@@ -36,6 +38,15 @@ public class FSMContext {
         return gameService.getTaskScheduler();
     }
 
+    /**
+     * Get the {@link GameClock} of the execution context.
+     *
+     * @return The {@link GameClock} used to schedule the stages of the game.
+     */
+    public GameClock getGameClock() {
+        return gameService.getGameClock();
+    }
+
     /**
      * Get the {@link QuizConfiguration} of the execution context.
      *
@@ -45,6 +56,15 @@ public class FSMContext {
         return gameService.getQuizConfiguration();
     }
 
+    /**
+     * Get the {@link GameMetrics} of the execution context.
+     *
+     * @return The {@link GameMetrics} recording the duration of the stages.
+     */
+    public GameMetrics getMetrics() {
+        return gameService.getMetrics();
+    }
+
     public GameRepository getRepository() {
         return gameService.getGameRepository();
     }
@@ -2,9 +2,9 @@ package server.services.fsm;
 
 import java.util.Date;
 import java.util.Optional;
-import java.util.concurrent.ScheduledFuture;
 import lombok.Data;
 import lombok.NonNull;
+import server.services.clock.ClockTimeout;
 
 /**
  * A future that can be used to cancel a scheduled task.
@@ -14,7 +14,7 @@ public class FSMFuture {
     /**
      * The future that can be used to cancel the task.
      */
-    @NonNull private Optional<ScheduledFuture<?>> future;
+    @NonNull private Optional<ClockTimeout> future;
 
     /**
      * The time at which the task was scheduled.
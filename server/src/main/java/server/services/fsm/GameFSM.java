@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import lombok.Data;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -16,9 +17,14 @@ import server.database.entities.game.Game;
 @Data
 public abstract class GameFSM {
     /**
-     * ID of the game being managed.
+     * The game being managed.
      */
-    @NonNull protected Game game;
+    @NonNull protected final Game game;
+
+    /**
+     * Authoritative in-memory state of the game, owned by the FSM while the game is ongoing.
+     */
+    private final LiveGame liveGame;
 
     /**
      * Execution context of the FSM.
@@ -40,6 +46,18 @@ public abstract class GameFSM {
      */
     private FSMFuture future;
 
+    /**
+     * Create a new finite state machine. The game is loaded once and kept in memory afterwards.
+     *
+     * @param game    The game instance.
+     * @param context The execution context of the FSM.
+     */
+    protected GameFSM(@NonNull Game game, @NonNull FSMContext context) {
+        this.game = game;
+        this.context = context;
+        this.liveGame = new LiveGame(game);
+    }
+
     /**
      * Schedule a task to run after a delay.
      *
@@ -50,7 +68,7 @@ public abstract class GameFSM {
         log.debug("[{}] Scheduling task in {}", getGame().getId(), delay);
         Date executionTime = Date.from(Instant.now().plus(delay));
         setFuture(new FSMFuture(
-                Optional.of(context.getTaskScheduler().schedule(task, executionTime)),
+                Optional.of(context.getGameClock().schedule(game.getId(), instrument(task, delay), delay)),
                 executionTime, task));
     }
 
@@ -64,13 +82,35 @@ public abstract class GameFSM {
         Date executionTime = Date.from(Instant.now().plus(delay));
 
         if (future.getFuture().isPresent()) {
-            future.getFuture().get().cancel(true);
+            future.getFuture().get().cancel();
             setFuture(new FSMFuture(
-                    Optional.of(context.getTaskScheduler().schedule(future.getRunnable(), executionTime)),
+                    Optional.of(context.getGameClock().schedule(game.getId(),
+                            instrument(future.getRunnable(), delay), delay)),
                     executionTime, future.getRunnable()));
         }
     }
 
+    /**
+     * Wrap a task so that its scheduling skew and the time taken by the stage it enters are recorded.
+     *
+     * @param task  the task.
+     * @param delay the delay the task is scheduled with.
+     * @return the instrumented task.
+     */
+    private Runnable instrument(Runnable task, Duration delay) {
+        long plannedAt = System.nanoTime() + delay.toNanos();
+        return () -> {
+            long start = System.nanoTime();
+            context.getMetrics().getScheduleSkew().record(Math.max(0, start - plannedAt), TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                // The task sets the state of the stage it enters
+                context.getMetrics().getStageTimer(state).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
     /**
      * Stop the finite state machine.
      */
@@ -94,7 +134,10 @@ public abstract class GameFSM {
      */
     public abstract void run();
 
-    public void refreshGame() {
-        game = context.getRepository().findById(game.getId()).get();
+    /**
+     * Write the pending changes of the game back to the database, off the FSM's critical path.
+     */
+    protected void persistGame() {
+        context.getGameService().persist(liveGame, state);
     }
 }
\ No newline at end of file
@@ -0,0 +1,266 @@
+package server.services.fsm;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import server.database.entities.game.Game;
+import server.database.entities.game.GamePlayer;
+import server.database.repositories.game.GamePlayerRepository;
+import server.database.repositories.game.GamePlayerScoreRepository.PlayerPowerUp;
+import server.database.repositories.game.GamePlayerScoreRepository.PlayerScore;
+import server.database.repositories.game.GameRepository;
+import server.database.repositories.game.GameStateRepository.GameState;
+import server.services.leaderboard.GameLeaderboard;
+
+/**
+ * Authoritative in-memory state of an ongoing game.
+ * The state is loaded once, when the finite state machine is created, and is mutated in place afterwards.
+ * Changes to the progress of the game and to the players' scores and power-ups are written back to the database lazily:
+ * they are captured by {@link #capture} and written by {@link #write}, see {@link #flush}.
+ */
+@Slf4j
+public class LiveGame {
+    /**
+     * Values of the live state captured at one point in time, to be written to the database.
+     */
+    @Value
+    public static class Changes {
+        /**
+         * Order in which the changes were captured.
+         */
+        long sequence;
+
+        /**
+         * Progress of the game, or null if it did not change.
+         */
+        GameState state;
+
+        /**
+         * Scores of the players which changed.
+         */
+        List<PlayerScore> scores;
+
+        /**
+         * Power-ups used by the players which were not recorded yet.
+         */
+        List<PlayerPowerUp> powerUps;
+    }
+
+    /**
+     * The game entity that holds the live state.
+     */
+    @Getter
+    @NonNull
+    private final Game<?> game;
+
+    /**
+     * Ranking of the players, updated as the scores are applied.
+     */
+    @Getter
+    private final GameLeaderboard leaderboard;
+
+    /**
+     * Progress of the game, as last written to the database.
+     */
+    private GameState persistedState;
+
+    /**
+     * Scores of the players, as last written to the database, mapped by their player IDs.
+     */
+    private final Map<UUID, PlayerScore> persistedScores = new HashMap<>();
+
+    /**
+     * Power-ups used by the players, as last written to the database.
+     */
+    private final Set<PlayerPowerUp> persistedPowerUps = new HashSet<>();
+
+    /**
+     * Scores of the players when the current question started, mapped by their player IDs.
+     */
+    private final Map<UUID, Integer> questionStartScores = new HashMap<>();
+
+    /**
+     * Number of changes captured so far.
+     */
+    private long capturedSequence = 0;
+
+    /**
+     * Serializes the writes, which run off the FSM's thread.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Sequence of the last changes written to the database, guarded by {@link #writeLock}.
+     */
+    private long writtenSequence = 0;
+
+    /**
+     * Creates the live state of a game. The game is assumed to be in sync with the database.
+     *
+     * @param game the game entity.
+     */
+    public LiveGame(@NonNull Game<?> game) {
+        this.game = game;
+        this.leaderboard = new GameLeaderboard(game);
+        persistedState = stateOf(game);
+        game.getPlayers().values().forEach(player -> persistedScores.put(player.getId(), scoreOf(player)));
+        persistedPowerUps.addAll(getChangedPowerUps());
+    }
+
+    /**
+     * Get the ID of the game.
+     *
+     * @return the ID of the game.
+     */
+    public UUID getId() {
+        return game.getId();
+    }
+
+    /**
+     * Check whether the live state contains changes that have not been written to the database yet.
+     *
+     * @return true if the state needs to be flushed.
+     */
+    public synchronized boolean isDirty() {
+        return !stateOf(game).equals(persistedState) || !getChangedScores().isEmpty()
+                || !getChangedPowerUps().isEmpty();
+    }
+
+    /**
+     * Capture the values which differ from the ones last written to the database.
+     * Must be called by the thread running the FSM, which is the only one mutating the game without holding
+     * this live game; other threads, e.g. a player leaving, mutate the game while holding it.
+     *
+     * @return the changes to write, or empty if nothing changed.
+     */
+    public synchronized Optional<Changes> capture() {
+        GameState state = stateOf(game);
+        List<PlayerScore> scores = getChangedScores();
+        List<PlayerPowerUp> powerUps = getChangedPowerUps();
+        if (state.equals(persistedState) && scores.isEmpty() && powerUps.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Changes(++capturedSequence, state.equals(persistedState) ? null : state, scores,
+                powerUps));
+    }
+
+    /**
+     * Write captured changes to the database.
+     * The progress of the game is written with a single targeted update, and the scores and new power-ups of the
+     * players in a JDBC batch each. Changes captured before the last written ones are skipped, as the later changes
+     * contain every value the earlier ones would write; power-ups recorded by an earlier write are not inserted again.
+     *
+     * @param changes              the changes.
+     * @param gameRepository       repository used to persist the game.
+     * @param gamePlayerRepository repository used to persist the players.
+     */
+    public void write(Changes changes, GameRepository gameRepository, GamePlayerRepository gamePlayerRepository) {
+        synchronized (writeLock) {
+            if (changes.getSequence() <= writtenSequence) {
+                log.trace("[{}] Skipping outdated changes {}.", getId(), changes.getSequence());
+                return;
+            }
+            if (changes.getState() != null) {
+                log.trace("[{}] Writing game state.", getId());
+                gameRepository.updateState(changes.getState());
+            }
+            if (!changes.getScores().isEmpty()) {
+                log.trace("[{}] Writing {} player scores.", getId(), changes.getScores().size());
+                gamePlayerRepository.updateScores(changes.getScores());
+            }
+            List<PlayerPowerUp> powerUps;
+            synchronized (this) {
+                powerUps = changes.getPowerUps().stream()
+                        .filter(powerUp -> !persistedPowerUps.contains(powerUp))
+                        .collect(Collectors.toList());
+            }
+            if (!powerUps.isEmpty()) {
+                log.trace("[{}] Writing {} power-ups.", getId(), powerUps.size());
+                gamePlayerRepository.insertPowerUps(powerUps);
+            }
+            writtenSequence = changes.getSequence();
+
+            // Remember exactly the values written, later changes to the game are picked up by the next capture
+            synchronized (this) {
+                if (changes.getState() != null) {
+                    persistedState = changes.getState();
+                }
+                changes.getScores().forEach(score -> persistedScores.put(score.getPlayerId(), score));
+                persistedPowerUps.addAll(powerUps);
+            }
+        }
+    }
+
+    /**
+     * Capture the pending changes and write them to the database right away.
+     *
+     * @param gameRepository       repository used to persist the game.
+     * @param gamePlayerRepository repository used to persist the players.
+     */
+    public void flush(GameRepository gameRepository, GamePlayerRepository gamePlayerRepository) {
+        capture().ifPresent(changes -> write(changes, gameRepository, gamePlayerRepository));
+    }
+
+    /**
+     * Remember the scores of the players at the start of a question,
+     * so that the points they gain on it can be told apart from their total.
+     */
+    public synchronized void startQuestion() {
+        questionStartScores.clear();
+        game.getPlayers().values().forEach(player -> questionStartScores.put(player.getId(), player.getScore()));
+    }
+
+    /**
+     * Get the points a player gained on the current question.
+     *
+     * @param player the player.
+     * @return the points, or empty if the player joined after the question started.
+     */
+    public synchronized Optional<Integer> getScoreDelta(GamePlayer player) {
+        return Optional.ofNullable(questionStartScores.get(player.getId()))
+                .map(start -> player.getScore() - start);
+    }
+
+    /**
+     * Get the scores of the players which differ from the persisted ones.
+     *
+     * @return the scores to write.
+     */
+    private List<PlayerScore> getChangedScores() {
+        return game.getPlayers().values().stream()
+                .map(LiveGame::scoreOf)
+                .filter(score -> !score.equals(persistedScores.get(score.getPlayerId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the power-ups used by the players which are not persisted yet.
+     *
+     * @return the power-ups to write.
+     */
+    private List<PlayerPowerUp> getChangedPowerUps() {
+        return game.getPlayers().values().stream()
+                .flatMap(player -> player.getUserPowerUps().entrySet().stream()
+                        .map(used -> new PlayerPowerUp(player.getId(), used.getKey(), used.getValue())))
+                .filter(powerUp -> !persistedPowerUps.contains(powerUp))
+                .collect(Collectors.toList());
+    }
+
+    private static GameState stateOf(Game<?> game) {
+        return new GameState(game.getId(), game.getStatus(), game.getCurrentQuestionNumber(),
+                game.isAcceptingAnswers());
+    }
+
+    private static PlayerScore scoreOf(GamePlayer player) {
+        return new PlayerScore(player.getId(), player.getScore(), player.getStreak(), player.isAbandoned());
+    }
+}
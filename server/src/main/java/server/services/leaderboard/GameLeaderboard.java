@@ -0,0 +1,125 @@
+package server.services.leaderboard;
+
+import commons.entities.game.GamePlayerDTO;
+import commons.entities.game.LeaderboardDeltaDTO;
+import commons.entities.game.LeaderboardEntryDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+import server.database.entities.game.Game;
+import server.database.entities.game.GamePlayer;
+
+/**
+ * Ranking of the players of a live game.
+ * The order is kept between updates, so re-ranking after a question only moves the players whose score changed.
+ * Each update produces the changes since the previous one, which are pushed to the clients.
+ */
+public class GameLeaderboard {
+    /**
+     * The players, by slot.
+     */
+    private final GamePlayer[] players;
+
+    /**
+     * The slots of the players, in rank order.
+     */
+    private final int[] order;
+
+    /**
+     * Rank, score and streak of each slot as of the last update. Ranks start at 1, 0 marks players who left.
+     */
+    private final int[] ranks;
+    private final int[] scores;
+    private final int[] streaks;
+
+    /**
+     * Version of the last update.
+     */
+    @Getter
+    private long version;
+
+    /**
+     * Create the leaderboard of a game. The first update lists all the players.
+     *
+     * @param game the game.
+     */
+    public GameLeaderboard(Game<?> game) {
+        this.players = game.getPlayers().values().toArray(new GamePlayer[0]);
+        this.order = new int[players.length];
+        for (int slot = 0; slot < players.length; slot++) {
+            order[slot] = slot;
+        }
+        this.ranks = new int[players.length];
+        this.scores = new int[players.length];
+        this.streaks = new int[players.length];
+        Arrays.fill(ranks, -1);
+    }
+
+    /**
+     * Re-rank the players after their scores changed.
+     *
+     * @return the changes since the last update, with no entries if nothing changed.
+     */
+    public synchronized LeaderboardDeltaDTO update() {
+        // Insertion sort, which is linear when only few players overtake each other
+        for (int idx = 1; idx < order.length; idx++) {
+            int slot = order[idx];
+            int pos = idx;
+            while (pos > 0 && isAhead(slot, order[pos - 1])) {
+                order[pos] = order[pos - 1];
+                pos--;
+            }
+            order[pos] = slot;
+        }
+
+        // Collect the players whose standing changed
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        int rank = 0;
+        for (int slot : order) {
+            GamePlayer player = players[slot];
+            int newRank = player.isAbandoned() ? 0 : ++rank;
+            if (newRank != ranks[slot] || player.getScore() != scores[slot] || player.getStreak() != streaks[slot]) {
+                ranks[slot] = newRank;
+                scores[slot] = player.getScore();
+                streaks[slot] = player.getStreak();
+                entries.add(new LeaderboardEntryDTO(player.getId(), newRank, scores[slot], streaks[slot]));
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            version++;
+        }
+        return new LeaderboardDeltaDTO(version, entries);
+    }
+
+    /**
+     * Get the players still in the game, in rank order as of the last update.
+     *
+     * @return the players.
+     */
+    public synchronized List<GamePlayerDTO> getStandings() {
+        List<GamePlayerDTO> standings = new ArrayList<>(order.length);
+        for (int slot : order) {
+            if (!players[slot].isAbandoned()) {
+                standings.add(players[slot].getDTO());
+            }
+        }
+        return standings;
+    }
+
+    /**
+     * Check whether a player should be ranked before another one.
+     * Players who left the game are ranked last, the others by descending score.
+     *
+     * @param slot  the slot of the player.
+     * @param other the slot of the other player.
+     * @return true if the player is ahead of the other one.
+     */
+    private boolean isAhead(int slot, int other) {
+        if (players[slot].isAbandoned() != players[other].isAbandoned()) {
+            return players[other].isAbandoned();
+        }
+        return players[slot].getScore() > players[other].getScore();
+    }
+}
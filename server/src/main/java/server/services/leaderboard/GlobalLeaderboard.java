@@ -0,0 +1,306 @@
+package server.services.leaderboard;
+
+import commons.entities.auth.RankedUserDTO;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import server.database.entities.User;
+import server.database.repositories.UserRepository;
+import server.database.repositories.UserStatsRepository.UserStats;
+
+/**
+ * In-memory global leaderboards of all the users.
+ * The leaderboards are loaded from the database at startup and updated as the users change,
+ * so that ranks and pages are served without querying the database.
+ */
+@Slf4j
+@Service
+public class GlobalLeaderboard {
+    /**
+     * The orders in which the users can be ranked.
+     */
+    public enum Board {
+        SCORE(Standing::getScore),
+        GAMES_WON(Standing::getGamesWon);
+
+        private final ToIntFunction<Standing> value;
+
+        Board(ToIntFunction<Standing> value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * The public details of a user, as of the last update.
+     */
+    @Value
+    private static class Standing {
+        UUID id;
+        String username;
+        UUID profilePic;
+        int score;
+        int gamesWon;
+    }
+
+    /**
+     * The position of a user in a leaderboard, as the value and ID the client last saw.
+     * Written as {@code <value>:<id>}, e.g. {@code 400:3f2504e0-4f89-11d3-9a0c-0305e82c3301}.
+     */
+    @Value
+    public static class Cursor {
+        int value;
+        UUID id;
+
+        /**
+         * Parse a cursor from its textual form.
+         *
+         * @param cursor the cursor, as {@code <value>:<id>}.
+         * @return the cursor.
+         * @throws IllegalArgumentException if the cursor is malformed.
+         */
+        public static Cursor parse(String cursor) {
+            int separator = cursor.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("The cursor must be formatted as <value>:<id>.");
+            }
+            return new Cursor(Integer.parseInt(cursor.substring(0, separator)),
+                    UUID.fromString(cursor.substring(separator + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return value + ":" + id;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Standing> standings = new HashMap<>();
+    private final Map<Board, RankTree> trees = new EnumMap<>(Board.class);
+
+    /**
+     * Create empty leaderboards.
+     */
+    public GlobalLeaderboard() {
+        for (Board board : Board.values()) {
+            trees.put(board, new RankTree());
+        }
+    }
+
+    /**
+     * Load the leaderboards from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            standings.clear();
+            trees.replaceAll((board, tree) -> new RankTree());
+            for (User user : userRepository.findAll()) {
+                insert(standingOf(user));
+            }
+            log.info("Global leaderboard loaded with {} users", standings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update the standing of a user after it changed in the database.
+     *
+     * @param user the user.
+     */
+    public void update(User user) {
+        Standing standing = standingOf(user);
+        lock.writeLock().lock();
+        try {
+            Standing previous = standings.get(user.getId());
+            if (standing.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                remove(previous);
+            }
+            insert(standing);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update the score and won games of a user after they changed in the database.
+     * Users not loaded yet are skipped, they are loaded with their new statistics once looked up.
+     *
+     * @param stats the new statistics of the user.
+     */
+    public void update(UserStats stats) {
+        lock.writeLock().lock();
+        try {
+            Standing previous = standings.get(stats.getUserId());
+            if (previous == null) {
+                return;
+            }
+            remove(previous);
+            insert(new Standing(previous.getId(), previous.getUsername(), previous.getProfilePic(),
+                    stats.getScore(), stats.getGamesWon()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the rank of a user.
+     *
+     * @param board  the leaderboard.
+     * @param userId the ID of the user.
+     * @return the user and their rank, or empty if the user does not exist.
+     */
+    public Optional<RankedUserDTO> getRank(Board board, UUID userId) {
+        if (!isIndexed(userId)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Standing standing = standings.get(userId);
+            return Optional.ofNullable(standing).map(s -> toDTO(s, indexOf(board, s) + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the users ranked around a user.
+     *
+     * @param board  the leaderboard.
+     * @param userId the ID of the user.
+     * @param size   the maximum number of users.
+     * @return the users around the user in rank order, or empty if the user does not exist.
+     */
+    public Optional<List<RankedUserDTO>> getAround(Board board, UUID userId, int size) {
+        if (!isIndexed(userId)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Standing standing = standings.get(userId);
+            if (standing == null) {
+                return Optional.empty();
+            }
+
+            // Center the window on the user, shifting it at the ends of the leaderboard
+            int total = trees.get(board).size();
+            int from = Math.max(0, indexOf(board, standing) - size / 2);
+            from = Math.max(0, Math.min(from, total - size));
+            return Optional.of(page(board, from, size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of the leaderboard, starting after a position.
+     * The position is the value and ID of the last user the client saw, rather than where that user is now,
+     * so a user moving in between requests does not shift the page. Users whose value changes across the
+     * position can still be skipped or repeated, like with any keyset pagination over a changing order.
+     *
+     * @param board the leaderboard.
+     * @param after the position of the last user of the previous page, or null for the first page.
+     * @param size  the maximum number of users.
+     * @return the users in rank order.
+     */
+    public List<RankedUserDTO> getTop(Board board, Cursor after, int size) {
+        lock.readLock().lock();
+        try {
+            if (after == null) {
+                return page(board, 0, size);
+            }
+
+            // The position does not need to be in the tree, only the users ranked after it are listed
+            int from = trees.get(board).countBefore(after.getId(), after.getValue());
+            Standing standing = standings.get(after.getId());
+            if (standing != null && board.value.applyAsInt(standing) == after.getValue()) {
+                from++;
+            }
+            return page(board, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Make sure a user is in the leaderboards, loading them from the database if needed.
+     * Users registered since the leaderboards were loaded are only added once they are looked up.
+     *
+     * @param userId the ID of the user.
+     * @return whether the user exists.
+     */
+    private boolean isIndexed(UUID userId) {
+        lock.readLock().lock();
+        try {
+            if (standings.containsKey(userId)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Optional<User> user = userRepository.findById(userId);
+        user.ifPresent(this::update);
+        return user.isPresent();
+    }
+
+    private List<RankedUserDTO> page(Board board, int from, int size) {
+        List<RankedUserDTO> page = new ArrayList<>(size);
+        int rank = from;
+        for (UUID id : trees.get(board).range(from, size)) {
+            page.add(toDTO(standings.get(id), ++rank));
+        }
+        return page;
+    }
+
+    private int indexOf(Board board, Standing standing) {
+        return trees.get(board).countBefore(standing.getId(), board.value.applyAsInt(standing));
+    }
+
+    private void insert(Standing standing) {
+        standings.put(standing.getId(), standing);
+        trees.forEach((board, tree) -> tree.insert(standing.getId(), board.value.applyAsInt(standing)));
+    }
+
+    private void remove(Standing standing) {
+        standings.remove(standing.getId());
+        trees.forEach((board, tree) -> tree.remove(standing.getId(), board.value.applyAsInt(standing)));
+    }
+
+    private static Standing standingOf(User user) {
+        return new Standing(user.getId(), user.getUsername(), user.getProfilePic(), user.getScore(),
+                user.getGamesWon());
+    }
+
+    private static RankedUserDTO toDTO(Standing standing, int rank) {
+        RankedUserDTO dto = new RankedUserDTO();
+        dto.setId(standing.getId());
+        dto.setUsername(standing.getUsername());
+        dto.setProfilePic(standing.getProfilePic());
+        dto.setScore(standing.getScore());
+        dto.setGamesWon(standing.getGamesWon());
+        dto.setRank(rank);
+        return dto;
+    }
+}
@@ -0,0 +1,205 @@
+package server.services.leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Order-statistic tree of users, ranked by descending value and then by ID.
+ * It is a treap whose nodes keep the size of their subtree, so that both the rank of a user
+ * and the user at a rank are found in logarithmic time.
+ * The tree is not thread-safe.
+ */
+public class RankTree {
+    /**
+     * Node of the tree.
+     */
+    private static final class Node {
+        private final UUID id;
+        private final int value;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(UUID id, int value, int priority) {
+            this.id = id;
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final Random random = new Random();
+
+    private Node root;
+
+    /**
+     * Get the number of users in the tree.
+     *
+     * @return the number of users.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Insert a user.
+     *
+     * @param id    the ID of the user.
+     * @param value the value the user is ranked by.
+     */
+    public void insert(UUID id, int value) {
+        Node[] parts = split(root, value, id);
+        root = merge(merge(parts[0], new Node(id, value, random.nextInt())), parts[1]);
+    }
+
+    /**
+     * Remove a user.
+     *
+     * @param id    the ID of the user.
+     * @param value the value the user was inserted with.
+     */
+    public void remove(UUID id, int value) {
+        root = remove(root, value, id);
+    }
+
+    /**
+     * Count the users ranked before a user.
+     * The user does not need to be in the tree, which allows resuming a listing after a removed user.
+     *
+     * @param id    the ID of the user.
+     * @param value the value of the user.
+     * @return the number of users ranked before, which is the 0-based index of the user if it is in the tree.
+     */
+    public int countBefore(UUID id, int value) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(value, id, node) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the user at an index.
+     *
+     * @param index the 0-based index.
+     * @return the ID of the user.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public UUID get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.id;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Get the users in a range of indices.
+     *
+     * @param from  the 0-based index of the first user.
+     * @param count the maximum number of users.
+     * @return the IDs of the users, in rank order.
+     */
+    public List<UUID> range(int from, int count) {
+        int to = Math.min(size(), from + count);
+        List<UUID> ids = new ArrayList<>(Math.max(0, to - from));
+        for (int index = Math.max(0, from); index < to; index++) {
+            ids.add(get(index));
+        }
+        return ids;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    /**
+     * Compare a key to a node, higher values first and then lower IDs first.
+     */
+    private static int compare(int value, UUID id, Node node) {
+        int cmp = Integer.compare(node.value, value);
+        return cmp != 0 ? cmp : id.compareTo(node.id);
+    }
+
+    /**
+     * Split a subtree into the nodes ranked before a key, and the other ones.
+     */
+    private static Node[] split(Node node, int value, UUID id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(value, id, node) > 0) {
+            Node[] parts = split(node.right, value, id);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        } else {
+            Node[] parts = split(node.left, value, id);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+            return parts;
+        }
+    }
+
+    /**
+     * Merge two subtrees, all nodes of the first one being ranked before the nodes of the second one.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        } else {
+            second.left = merge(first, second.left);
+            update(second);
+            return second;
+        }
+    }
+
+    private static Node remove(Node node, int value, UUID id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(value, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, value, id);
+        } else {
+            node.right = remove(node.right, value, id);
+        }
+        update(node);
+        return node;
+    }
+}
@@ -0,0 +1,311 @@
+package server.services.question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import server.database.entities.question.Activity;
+import server.database.repositories.question.ActivityRepository;
+
+/**
+ * In-memory index of the activities which can be used to generate questions.
+ * The activities are loaded from the database once, and kept in sync by the activity endpoints afterwards.
+ * Lookups run on an immutable {@link Snapshot}, which is replaced whenever the activities change.
+ */
+@Slf4j
+@Service
+public class ActivityIndex {
+    private final ActivityRepository activityRepository;
+
+    /**
+     * The current snapshot, or null if the activities were not loaded yet.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Create an index backed by the given repository.
+     *
+     * @param activityRepository the repository to load the activities from.
+     */
+    @Autowired
+    public ActivityIndex(ActivityRepository activityRepository) {
+        this.activityRepository = activityRepository;
+    }
+
+    /**
+     * Check whether an activity can be used to generate questions.
+     * This mirrors {@link ActivityRepository#findQuestionAcceptable()}.
+     *
+     * @param activity the activity to check.
+     * @return true if the activity is acceptable.
+     */
+    public static boolean isAcceptable(Activity activity) {
+        String description = activity.getDescription();
+        return !activity.isAbandoned()
+                && description != null
+                && description.contains("ing")
+                && !description.endsWith("?");
+    }
+
+    /**
+     * Get the current snapshot of the index, loading the activities if needed.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot(activityRepository.findQuestionAcceptable());
+                    snapshot = current;
+                    log.info("Loaded {} activities into the activity index", current.size());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Add or replace saved activities. Activities which are no longer acceptable are removed.
+     *
+     * @param activities the saved activities.
+     */
+    public synchronized void putAll(Collection<Activity> activities) {
+        // Activities which were not loaded yet will be read from the database on the first lookup
+        if (snapshot == null) {
+            return;
+        }
+
+        Map<UUID, Activity> updated = snapshot.byId();
+        for (Activity activity : activities) {
+            if (isAcceptable(activity)) {
+                updated.put(activity.getId(), activity);
+            } else {
+                updated.remove(activity.getId());
+            }
+        }
+        snapshot = new Snapshot(updated.values());
+        log.debug("Updated {} activities in the activity index", activities.size());
+    }
+
+    /**
+     * Add or replace a saved activity.
+     *
+     * @param activity the saved activity.
+     */
+    public void put(Activity activity) {
+        putAll(List.of(activity));
+    }
+
+    /**
+     * Remove an activity, e.g. once it is abandoned.
+     *
+     * @param activityId the ID of the activity.
+     */
+    public synchronized void remove(UUID activityId) {
+        if (snapshot == null) {
+            return;
+        }
+
+        Map<UUID, Activity> updated = snapshot.byId();
+        if (updated.remove(activityId) != null) {
+            snapshot = new Snapshot(updated.values());
+            log.debug("Removed activity {} from the activity index", activityId);
+        }
+    }
+
+    /**
+     * Drop the loaded activities, so that they are loaded from the database again on the next lookup.
+     */
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * Immutable view of the indexed activities.
+     * Activities are sorted by cost, and bucketed by the order of magnitude of their cost.
+     */
+    public static class Snapshot {
+        /**
+         * Number of buckets, enough for any positive long cost.
+         */
+        private static final int MAGNITUDES = 19;
+
+        /**
+         * Activities sorted by cost, and their costs.
+         */
+        private final Activity[] activities;
+        private final long[] costs;
+
+        /**
+         * Index of the first activity of each order of magnitude, the last entry is the number of activities.
+         */
+        private final int[] bucketStarts = new int[MAGNITUDES + 1];
+
+        /**
+         * Build a snapshot of the given activities.
+         *
+         * @param activities the activities to index.
+         */
+        Snapshot(Collection<Activity> activities) {
+            this.activities = activities.toArray(new Activity[0]);
+            Arrays.sort(this.activities, Comparator.comparingLong(Activity::getCost));
+            this.costs = new long[this.activities.length];
+            for (int idx = 0; idx < costs.length; idx++) {
+                costs[idx] = this.activities[idx].getCost();
+            }
+
+            // Costs below 10 are in the first bucket, like in the question generation
+            long lowerBound = 10;
+            for (int magnitude = 1; magnitude < MAGNITUDES; magnitude++) {
+                bucketStarts[magnitude] = lowerBound(lowerBound);
+                lowerBound = lowerBound > Long.MAX_VALUE / 10 ? Long.MAX_VALUE : lowerBound * 10;
+            }
+            bucketStarts[MAGNITUDES] = costs.length;
+        }
+
+        /**
+         * Get the number of indexed activities.
+         *
+         * @return the number of activities.
+         */
+        public int size() {
+            return activities.length;
+        }
+
+        /**
+         * Pick an activity uniformly at random.
+         *
+         * @param random the source of randomness.
+         * @return the activity.
+         */
+        public Activity random(Random random) {
+            return activities[random.nextInt(activities.length)];
+        }
+
+        /**
+         * Find the activity with the closest cost to, but a different cost than, the given activity.
+         *
+         * @param activity the reference activity.
+         * @return the closest activity, or null if all the activities have the same cost.
+         */
+        public Activity nearest(Activity activity) {
+            long cost = activity.getCost();
+            int below = lowerBound(cost) - 1;
+            int above = upperBound(cost);
+
+            if (below < 0 && above >= costs.length) {
+                return null;
+            } else if (below < 0) {
+                return activities[above];
+            } else if (above >= costs.length) {
+                return activities[below];
+            }
+            return cost - costs[below] <= costs[above] - cost ? activities[below] : activities[above];
+        }
+
+        /**
+         * Pick activities of the same order of magnitude as the given one, but with different leading digits,
+         * so that they can be told apart in a multiple choice question.
+         *
+         * @param answer the correct answer, which is included in the result.
+         * @param size   the number of activities to pick.
+         * @param random the source of randomness.
+         * @return the picked activities, or null if there are not enough distinct activities.
+         */
+        public Set<Activity> options(Activity answer, int size, Random random) {
+            long cost = answer.getCost();
+            int magnitude = 0;
+            long unit = 1;
+            while (cost >= 10) {
+                cost /= 10;
+                unit *= 10;
+                magnitude++;
+            }
+            long answerDigit = cost;
+
+            // Each leading digit other than the answer's is a candidate, if some activity has it
+            List<int[]> ranges = new ArrayList<>(9);
+            int bucketEnd = bucketStarts[magnitude + 1];
+            for (long digit = 1; digit <= 9; digit++) {
+                if (digit == answerDigit) {
+                    continue;
+                }
+                int from = lowerBound(digit * unit);
+                int to = digit == 9 ? bucketEnd : lowerBound((digit + 1) * unit);
+                if (from < to) {
+                    ranges.add(new int[] {from, to});
+                }
+            }
+            if (ranges.size() < size - 1) {
+                return null;
+            }
+
+            // Pick distinct digits at random, then an activity with each digit
+            Set<Activity> chosen = new HashSet<>(List.of(answer));
+            for (int idx = 0; idx < size - 1; idx++) {
+                int pick = idx + random.nextInt(ranges.size() - idx);
+                int[] range = ranges.get(pick);
+                ranges.set(pick, ranges.get(idx));
+                ranges.set(idx, range);
+                chosen.add(activities[range[0] + random.nextInt(range[1] - range[0])]);
+            }
+            return chosen;
+        }
+
+        /**
+         * Copy the activities, mapped by their IDs.
+         *
+         * @return a mutable map of the activities.
+         */
+        private Map<UUID, Activity> byId() {
+            Map<UUID, Activity> byId = new LinkedHashMap<>();
+            for (Activity activity : activities) {
+                byId.put(activity.getId(), activity);
+            }
+            return byId;
+        }
+
+        /**
+         * Find the index of the first activity whose cost is at least the given one.
+         *
+         * @param cost the cost to look up.
+         * @return the index, or the number of activities if all are cheaper.
+         */
+        private int lowerBound(long cost) {
+            int low = 0;
+            int high = costs.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (costs[mid] < cost) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Find the index of the first activity whose cost is greater than the given one.
+         *
+         * @param cost the cost to look up.
+         * @return the index, or the number of activities if none is more expensive.
+         */
+        private int upperBound(long cost) {
+            return cost == Long.MAX_VALUE ? costs.length : lowerBound(cost + 1);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package server.services.question;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import server.configuration.QuestionGenerationConfiguration;
+import server.database.entities.question.Question;
+import server.services.QuestionService;
+import server.utils.QuestionType;
+
+/**
+ * Pool of ready questions, so that starting a game does not have to generate and save its questions.
+ * The pool keeps up to {@link QuestionGenerationConfiguration#getPoolSize()} saved questions of each enabled
+ * question type, and is refilled in the background. Questions missing from the pool are generated on the spot.
+ */
+@Slf4j
+@Service
+public class QuestionPool {
+    private final QuestionService questionService;
+    private final QuestionGenerationConfiguration config;
+    private final ThreadPoolTaskScheduler taskScheduler;
+
+    /**
+     * The ready questions of each enabled question type.
+     */
+    private final Map<QuestionType, BlockingQueue<Question>> pools = new LinkedHashMap<>();
+
+    /**
+     * The number of questions which were not in the pool when needed, for each question type.
+     */
+    private final Map<QuestionType, Counter> misses = new LinkedHashMap<>();
+
+    /**
+     * Whether the periodic refill was scheduled.
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * Whether a refill is running or queued.
+     */
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * Create a question pool for the enabled question types.
+     *
+     * @param questionService the service generating the questions.
+     * @param config          the question generation configuration.
+     * @param taskScheduler   the scheduler running the refills.
+     * @param registry        metrics registry.
+     */
+    @Autowired
+    public QuestionPool(QuestionService questionService, QuestionGenerationConfiguration config,
+                        ThreadPoolTaskScheduler taskScheduler, MeterRegistry registry) {
+        this.questionService = questionService;
+        this.config = config;
+        this.taskScheduler = taskScheduler;
+
+        for (QuestionType kind : config.getEnabledQuestionTypes()) {
+            BlockingQueue<Question> pool = new LinkedBlockingQueue<>(Math.max(1, config.getPoolSize()));
+            pools.put(kind, pool);
+            misses.put(kind, Counter.builder("quiz_question_pool_misses")
+                    .description("Number of questions generated on demand because the pool was empty")
+                    .tag("type", kind.toString())
+                    .register(registry));
+            Gauge.builder("quiz_question_pool_depth", pool, BlockingQueue::size)
+                    .description("Number of ready questions in the pool")
+                    .tag("type", kind.toString())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Fill the pool once the server is up, if the warm-up is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (config.isPoolWarmUp()) {
+            start();
+        }
+    }
+
+    /**
+     * Schedule the periodic refill of the pool, unless it is already scheduled or the pool is disabled.
+     */
+    public void start() {
+        if (config.getPoolSize() > 0 && started.compareAndSet(false, true)) {
+            taskScheduler.scheduleWithFixedDelay(this::requestRefill, config.getPoolRefillInterval());
+            log.info("Started the question pool with {} questions per type", config.getPoolSize());
+        }
+    }
+
+    /**
+     * Take questions for a game out of the pool. The kinds of the questions are balanced like in
+     * {@link QuestionService#provideQuestions(int)}, and the missing questions are generated on the spot.
+     *
+     * @param count the number of questions.
+     * @return the saved questions, in random order.
+     * @throws IllegalStateException if the missing questions cannot be generated.
+     */
+    public List<Question> take(int count) throws IllegalStateException {
+        if (config.getPoolSize() <= 0) {
+            return questionService.provideQuestions(count);
+        }
+        start();
+
+        // Draw the questions of each kind from its pool, leaving gaps for the missing ones
+        List<QuestionType> kinds = questionService.pickQuestionTypes(count);
+        List<Question> questions = new ArrayList<>(count);
+        Map<QuestionType, Integer> missing = new LinkedHashMap<>();
+        for (QuestionType kind : kinds) {
+            Question question = pools.get(kind).poll();
+            if (question == null) {
+                missing.merge(kind, 1, Integer::sum);
+            }
+            questions.add(question);
+        }
+
+        // Fill the gaps with freshly generated questions
+        if (!missing.isEmpty()) {
+            Map<QuestionType, List<Question>> generated = new LinkedHashMap<>();
+            missing.forEach((kind, amount) -> {
+                log.debug("Question pool miss: generating {} {} questions", amount, kind);
+                misses.get(kind).increment(amount);
+                generated.put(kind, new ArrayList<>(questionService.provideQuestions(kind, amount)));
+            });
+            for (int idx = 0; idx < count; idx++) {
+                if (questions.get(idx) == null) {
+                    questions.set(idx, generated.get(kinds.get(idx)).remove(0));
+                }
+            }
+        }
+
+        // Replace the questions which were taken
+        requestRefill();
+        return questions;
+    }
+
+    /**
+     * Get the number of ready questions of a kind.
+     *
+     * @param kind the question kind.
+     * @return the number of questions in its pool.
+     */
+    public int depth(QuestionType kind) {
+        BlockingQueue<Question> pool = pools.get(kind);
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * Queue a refill of the pool, unless one is already queued.
+     */
+    public void requestRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            taskScheduler.execute(() -> {
+                try {
+                    refill();
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Top up the pool of each question kind to the configured size.
+     */
+    void refill() {
+        pools.forEach((kind, pool) -> {
+            int deficit = pool.remainingCapacity();
+            if (deficit <= 0) {
+                return;
+            }
+            try {
+                List<Question> questions = questionService.provideQuestions(kind, deficit);
+                int added = 0;
+                for (Question question : questions) {
+                    if (pool.offer(question)) {
+                        added++;
+                    }
+                }
+                log.trace("Added {} {} questions to the question pool", added, kind);
+            } catch (IllegalStateException e) {
+                log.warn("Could not refill the {} question pool: {}", kind, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Could not refill the {} question pool", kind, e);
+            }
+        });
+    }
+}
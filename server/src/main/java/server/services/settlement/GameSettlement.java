@@ -0,0 +1,141 @@
+package server.services.settlement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import server.database.entities.game.Game;
+import server.database.entities.game.GamePlayer;
+import server.database.repositories.UserRepository;
+import server.database.repositories.UserStatsRepository.UserStats;
+import server.services.leaderboard.GlobalLeaderboard;
+
+/**
+ * Applies the results of finished games to the statistics of their players.
+ * The results are written in a single statement per game on the task scheduler, and retried if the write fails,
+ * so that finishing a game does not wait for the database.
+ */
+@Slf4j
+@Service
+public class GameSettlement {
+    /**
+     * Number of attempts to write the results of a game.
+     */
+    static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Delay before the first retry, doubled for each subsequent retry.
+     */
+    static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final UserRepository userRepository;
+    private final GlobalLeaderboard globalLeaderboard;
+    private final ThreadPoolTaskScheduler taskScheduler;
+
+    /**
+     * Time between the end of a game and the results being written.
+     */
+    private final Timer latency;
+
+    /**
+     * Number of games whose results could not be written.
+     */
+    private final Counter failures;
+
+    /**
+     * Create the settlement service.
+     *
+     * @param userRepository    the repository of the users.
+     * @param globalLeaderboard the global leaderboard to update.
+     * @param taskScheduler     the scheduler running the writes.
+     * @param registry          metrics registry.
+     */
+    @Autowired
+    public GameSettlement(UserRepository userRepository, GlobalLeaderboard globalLeaderboard,
+                          ThreadPoolTaskScheduler taskScheduler, MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.globalLeaderboard = globalLeaderboard;
+        this.taskScheduler = taskScheduler;
+        this.latency = Timer.builder("quiz_settlement_latency")
+                .description("Time between the end of a game and the statistics of its players being updated")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.failures = Counter.builder("quiz_settlement_failures")
+                .description("Number of finished games whose results could not be written")
+                .register(registry);
+    }
+
+    /**
+     * Rank the players still in a game, and compute the results to apply to their statistics.
+     * The players are ranked by descending score, ties being broken by join date, and only the first one wins.
+     *
+     * @param game the finished game.
+     * @return the results, in rank order.
+     */
+    public static List<UserStats> getResults(Game<?> game) {
+        List<GamePlayer> ranking = game.getPlayers().values().stream()
+                .filter(player -> !player.isAbandoned())
+                .sorted(Comparator.comparing(GamePlayer::getScore, Comparator.reverseOrder())
+                        .thenComparing(GamePlayer::getJoinDate, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+
+        List<UserStats> results = new ArrayList<>(ranking.size());
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            GamePlayer player = ranking.get(rank);
+            results.add(new UserStats(player.getUser().getId(), player.getScore(), rank == 0 ? 1 : 0));
+        }
+        return results;
+    }
+
+    /**
+     * Apply the results of a finished game in the background.
+     *
+     * @param game the finished game.
+     */
+    public void settle(Game<?> game) {
+        List<UserStats> results = getResults(game);
+        if (results.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        taskScheduler.execute(() -> apply(game.getId(), results, 1, start));
+    }
+
+    /**
+     * Write the results of a game, scheduling a retry if the write fails.
+     *
+     * @param gameId  the ID of the game.
+     * @param results the results of the players.
+     * @param attempt the number of the attempt, starting from 1.
+     * @param start   the time at which the game finished, in nanoseconds.
+     */
+    void apply(UUID gameId, List<UserStats> results, int attempt, long start) {
+        try {
+            List<UserStats> totals = userRepository.applyResults(results);
+            totals.forEach(globalLeaderboard::update);
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("[{}] Statistics of {} players updated.", gameId, totals.size());
+        } catch (DataAccessException ex) {
+            if (attempt >= MAX_ATTEMPTS) {
+                failures.increment();
+                log.error("[{}] Failed to update the statistics of the players.", gameId, ex);
+                return;
+            }
+            Duration delay = RETRY_DELAY.multipliedBy(1L << (attempt - 1));
+            log.warn("[{}] Failed to update the statistics of the players, retrying in {}.", gameId, delay, ex);
+            taskScheduler.schedule(() -> apply(gameId, results, attempt + 1, start), Instant.now().plus(delay));
+        }
+    }
+}
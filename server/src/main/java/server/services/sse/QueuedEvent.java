@@ -0,0 +1,26 @@
+package server.services.sse;
+
+import commons.entities.messages.SSEMessageType;
+import lombok.Data;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * An event waiting in the queue of an {@link SSEConnection}.
+ */
+@Data
+class QueuedEvent {
+    /**
+     * The event to write.
+     */
+    private final SseEmitter.SseEventBuilder event;
+
+    /**
+     * Type of the message carried by the event, or null if unknown.
+     */
+    private final SSEMessageType type;
+
+    /**
+     * When the event was queued, in nanoseconds (see {@link System#nanoTime()}).
+     */
+    private final long enqueuedAt;
+}
@@ -0,0 +1,120 @@
+package server.services.sse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded ring of the latest events sent to the players of a game.
+ * Every event is assigned a sequence number, so that a client which reconnects can be sent the events it missed.
+ */
+public class ReplayBuffer {
+    /**
+     * Event stored in the ring, together with its sequence number and recipients.
+     */
+    private static class Entry {
+        private final long sequence;
+        private final SerializedEvent event;
+        private final Set<UUID> recipients;
+
+        private Entry(long sequence, SerializedEvent event, Set<UUID> recipients) {
+            this.sequence = sequence;
+            this.event = event;
+            this.recipients = recipients;
+        }
+    }
+
+    private final Entry[] entries;
+
+    /**
+     * Sequence number of the next event. Sequence numbers start at 1.
+     */
+    private long nextSequence = 1;
+
+    /**
+     * Time of the last append, in nanoseconds.
+     */
+    private volatile long lastAppend = System.nanoTime();
+
+    /**
+     * Create an empty replay buffer.
+     *
+     * @param capacity the maximum number of events kept in the buffer.
+     */
+    public ReplayBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the replay buffer must be positive");
+        }
+        this.entries = new Entry[capacity];
+    }
+
+    /**
+     * Assign the next sequence number to an event and store it, evicting the oldest event if the buffer is full.
+     *
+     * @param serializer function serializing the event, given its sequence number.
+     * @param recipients the users the event is sent to.
+     * @return the stored event.
+     */
+    public synchronized SerializedEvent append(LongFunction<SerializedEvent> serializer, Set<UUID> recipients) {
+        long sequence = nextSequence++;
+        SerializedEvent event = serializer.apply(sequence);
+        entries[(int) (sequence % entries.length)] = new Entry(sequence, event, recipients);
+        lastAppend = System.nanoTime();
+        return event;
+    }
+
+    /**
+     * Get the events sent to a user after the given sequence number, oldest first.
+     * Events which were already evicted from the buffer are not returned.
+     *
+     * @param userId   the user whose events to return.
+     * @param sequence the sequence number of the last event the user received.
+     * @return the events the user missed.
+     */
+    public synchronized List<SerializedEvent> since(UUID userId, long sequence) {
+        long from = Math.max(sequence + 1, nextSequence - entries.length);
+        if (from >= nextSequence) {
+            return Collections.emptyList();
+        }
+
+        List<SerializedEvent> missed = new ArrayList<>();
+        for (long current = from; current < nextSequence; current++) {
+            Entry entry = entries[(int) (current % entries.length)];
+            if (entry != null && entry.sequence == current && entry.recipients.contains(userId)) {
+                missed.add(entry.event);
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Check whether all the events after the given sequence number are still in the buffer.
+     *
+     * @param sequence the sequence number of the last event received.
+     * @return true if no event was evicted since then.
+     */
+    public synchronized boolean covers(long sequence) {
+        return sequence + 1 >= nextSequence - entries.length;
+    }
+
+    /**
+     * Get the sequence number of the latest event, or 0 if no event was appended yet.
+     *
+     * @return the latest sequence number.
+     */
+    public synchronized long getSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Get the time elapsed since the last event was appended.
+     *
+     * @return the idle time, in nanoseconds.
+     */
+    public long getIdleNanos() {
+        return System.nanoTime() - lastAppend;
+    }
+}
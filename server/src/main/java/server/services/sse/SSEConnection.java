@@ -0,0 +1,273 @@
+package server.services.sse;
+
+import commons.entities.messages.SSEMessageType;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server.configuration.SSEConfiguration;
+
+/**
+ * An SSE connection of a user: the emitter and a bounded queue of events waiting to be written to it.
+ * The queue is drained by a shared writer pool, with at most one writer per connection at a time,
+ * so events are delivered in the order they were queued.
+ *
+ * <p>Once the queue reaches its high-water mark, droppable events are discarded, and events of a coalesced type
+ * always replace the queued ones of the same type. A connection whose oldest event waited longer than the lag
+ * budget is evicted: its queue is discarded and the emitter is completed.
+ *
+ * <p>A write blocked for longer than the write timeout, e.g. because the client stopped reading, is stalled:
+ * the manager abandons the connection and replaces the blocked writer, see {@link #abandon}.
+ */
+@Slf4j
+public class SSEConnection {
+    /**
+     * The user the connection belongs to.
+     */
+    @Getter
+    private final UUID userId;
+
+    /**
+     * The emitter events are written to.
+     */
+    @Getter
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<QueuedEvent> queue;
+    private final SSEConfiguration configuration;
+    private final Executor writers;
+    private final SSEMetrics metrics;
+    private final Consumer<SSEConnection> onEvicted;
+
+    /**
+     * Histogram of the time the user's events spend in the queue.
+     * The histogram is shared with later connections of the same user, so it is removed by the manager.
+     */
+    @Getter
+    private final Timer lagTimer;
+
+    /**
+     * Whether a writer is currently draining the queue, or is about to.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    /**
+     * Whether the connection should be completed once the queue is drained.
+     */
+    private volatile boolean closing = false;
+    private boolean completed = false;
+
+    /**
+     * Whether the connection was abandoned because its write stalled.
+     */
+    private volatile boolean stalled = false;
+
+    /**
+     * The event being written, which still counts toward the lag of the connection.
+     */
+    private volatile QueuedEvent inFlight;
+
+    /**
+     * When the write of the event in flight started, in nanoseconds.
+     */
+    private volatile long writeStartedAt;
+
+    /**
+     * Create a new connection.
+     *
+     * @param userId        the user the connection belongs to.
+     * @param emitter       the emitter events are written to.
+     * @param configuration the SSE configuration.
+     * @param writers       the pool writing the events.
+     * @param metrics       the SSE metrics.
+     * @param onEvicted     called when the connection is evicted for lagging behind.
+     */
+    public SSEConnection(UUID userId, SseEmitter emitter, SSEConfiguration configuration, Executor writers,
+                         SSEMetrics metrics, Consumer<SSEConnection> onEvicted) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(configuration.getQueueCapacity());
+        this.configuration = configuration;
+        this.writers = writers;
+        this.metrics = metrics;
+        this.onEvicted = onEvicted;
+        this.lagTimer = metrics.createLagTimer(userId);
+    }
+
+    /**
+     * Queue an event to be written to the connection.
+     *
+     * @param event the event to write.
+     * @return true if the event was queued, false if it was dropped.
+     */
+    public boolean enqueue(SseEmitter.SseEventBuilder event) {
+        if (closing) {
+            metrics.getDropped().increment();
+            log.debug("Dropped SSE message for user {}: the connection is closing", userId);
+            return false;
+        }
+
+        // Disconnect clients that cannot keep up
+        if (isLagging()) {
+            evict();
+            return false;
+        }
+
+        SSEMessageType type = event instanceof SerializedEvent ? ((SerializedEvent) event).getType() : null;
+
+        // Only the latest event of a coalesced type matters
+        if (type != null && configuration.getCoalescedTypes().contains(type)
+                && queue.removeIf(queued -> queued.getType() == type)) {
+            metrics.getCoalesced().increment();
+            log.trace("Coalesced {} messages for user {}", type, userId);
+        }
+
+        // Shed the events which can be lost when the connection is congested
+        if (type != null && configuration.getDroppableTypes().contains(type)
+                && queue.size() >= configuration.getHighWaterMark()) {
+            metrics.getDropped().increment();
+            log.debug("Dropped {} message for user {}: the connection is congested", type, userId);
+            return false;
+        }
+
+        if (!queue.offer(new QueuedEvent(event, type, System.nanoTime()))) {
+            metrics.getDropped().increment();
+            log.warn("Dropped SSE message for user {}: the queue is full", userId);
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Complete the connection, after the events queued so far have been written.
+     */
+    public void complete() {
+        closing = true;
+        schedule();
+    }
+
+    /**
+     * Get the number of queued events.
+     *
+     * @return the number of events waiting to be written.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Check whether the oldest event, either being written or queued, has been waiting for longer than the lag budget.
+     *
+     * @return true if the connection lags behind.
+     */
+    public boolean isLagging() {
+        QueuedEvent oldest = inFlight;
+        if (oldest == null) {
+            oldest = queue.peek();
+        }
+        return oldest != null
+                && System.nanoTime() - oldest.getEnqueuedAt() > configuration.getLagBudget().toNanos();
+    }
+
+    /**
+     * Check whether an event is being written.
+     *
+     * @return true if a writer is sending an event to the client.
+     */
+    public boolean isWriting() {
+        return inFlight != null;
+    }
+
+    /**
+     * Check whether the write in progress has been blocked for longer than the write timeout.
+     *
+     * @return true if the write is stalled.
+     */
+    public boolean isStalled() {
+        return inFlight != null
+                && System.nanoTime() - writeStartedAt > configuration.getWriteTimeout().toNanos();
+    }
+
+    /**
+     * Evict the connection because its write stalled.
+     * The emitter is completed with an error once the blocked write returns, e.g. when the container times it out.
+     */
+    public void abandon() {
+        log.warn("Abandoning SSE connection of user {}: a write is blocked", userId);
+        stalled = true;
+        evict();
+    }
+
+    /**
+     * Drop the queued events and complete the connection, because the client cannot keep up.
+     * The emitter is completed by the writer, so that the caller is never blocked by a stuck connection.
+     */
+    public void evict() {
+        if (closing) {
+            return;
+        }
+        log.warn("Evicting SSE connection of user {}: more than {} behind", userId, configuration.getLagBudget());
+        closing = true;
+        queue.clear();
+        metrics.getEvicted().increment();
+        onEvicted.accept(this);
+        schedule();
+    }
+
+    /**
+     * Make sure that a writer will drain the queue.
+     */
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.error("Cannot write SSE messages for user {}: the writer pool is shut down", userId);
+            }
+        }
+    }
+
+    /**
+     * Write all queued events to the emitter, and complete it if requested.
+     */
+    private void drain() {
+        do {
+            QueuedEvent event;
+            while ((event = queue.poll()) != null) {
+                writeStartedAt = System.nanoTime();
+                inFlight = event;
+                try {
+                    emitter.send(event.getEvent());
+                    lagTimer.record(System.nanoTime() - event.getEnqueuedAt(), TimeUnit.NANOSECONDS);
+                    metrics.getSent().increment();
+                    log.trace("Sent message to user {}", userId);
+                } catch (IOException | IllegalStateException e) {
+                    log.error("Failed to send message to user {}", userId);
+                } finally {
+                    inFlight = null;
+                }
+            }
+            if (closing && !completed) {
+                completed = true;
+                if (stalled) {
+                    emitter.completeWithError(new IOException("The client stopped reading"));
+                } else {
+                    emitter.complete();
+                }
+            }
+            draining.set(false);
+            // Events might have been queued after the loop ended, but before the flag was cleared
+        } while ((!queue.isEmpty() || (closing && !completed)) && draining.compareAndSet(false, true));
+    }
+}
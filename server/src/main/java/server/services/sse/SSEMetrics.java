@@ -0,0 +1,72 @@
+package server.services.sse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ * Metrics of the delivery of server-sent events.
+ */
+@Getter
+public class SSEMetrics {
+    private final MeterRegistry registry;
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter coalesced;
+    private final Counter evicted;
+    private final Counter serialized;
+
+    /**
+     * Create the SSE metrics.
+     *
+     * @param registry Metrics registry.
+     */
+    public SSEMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        sent = Counter.builder("quiz_sse_messages")
+                .tag("type", "sent")
+                .description("Number of sent SSE messages")
+                .register(registry);
+        dropped = Counter.builder("quiz_sse_messages")
+                .tag("type", "dropped")
+                .description("Number of SSE messages dropped because of a congested connection")
+                .register(registry);
+        coalesced = Counter.builder("quiz_sse_messages")
+                .tag("type", "coalesced")
+                .description("Number of queued SSE messages replaced by a newer message of the same type")
+                .register(registry);
+        evicted = Counter.builder("quiz_sse_evictions")
+                .description("Number of SSE connections disconnected for exceeding the lag budget")
+                .register(registry);
+        serialized = Counter.builder("quiz_sse_serializations")
+                .description("Number of serialized SSE messages")
+                .register(registry);
+    }
+
+    /**
+     * Create the lag histogram of a user's connection.
+     *
+     * @param userId the user.
+     * @return the timer recording how long the user's events waited in the queue.
+     */
+    public Timer createLagTimer(UUID userId) {
+        return Timer.builder("quiz_sse_lag")
+                .tag("user", userId.toString())
+                .description("Time SSE messages spend queued before being written")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    /**
+     * Remove the lag histogram of a closed connection.
+     *
+     * @param timer the timer to remove.
+     */
+    public void removeLagTimer(Timer timer) {
+        registry.remove(timer);
+    }
+}
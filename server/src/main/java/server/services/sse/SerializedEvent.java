@@ -0,0 +1,96 @@
+package server.services.sse;
+
+import commons.entities.messages.SSEMessageType;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * An SSE event whose content has already been built, so that it can be shared by any number of connections.
+ * Unlike the builder returned by {@link SseEmitter#event()}, building this event has no side effects.
+ */
+public class SerializedEvent implements SseEmitter.SseEventBuilder {
+    private static final MediaType TEXT_PLAIN = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final Set<ResponseBodyEmitter.DataWithMediaType> data;
+
+    /**
+     * Type of the message carried by the event, if known.
+     */
+    @Getter
+    private final SSEMessageType type;
+
+    /**
+     * Create an event from its wire format.
+     *
+     * @param type the type of the message carried by the event, or null if unknown.
+     * @param text the serialized event, including the terminating empty line.
+     */
+    public SerializedEvent(SSEMessageType type, String text) {
+        this(type, Set.of(new ResponseBodyEmitter.DataWithMediaType(text, TEXT_PLAIN)));
+    }
+
+    /**
+     * Create an event from already built data.
+     *
+     * @param type the type of the message carried by the event, or null if unknown.
+     * @param data the data of the event.
+     */
+    private SerializedEvent(SSEMessageType type, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        this.type = type;
+        this.data = data;
+    }
+
+    /**
+     * Freeze an event builder, building it exactly once.
+     *
+     * @param builder the builder to freeze.
+     * @return the frozen event.
+     */
+    public static SerializedEvent of(SseEmitter.SseEventBuilder builder) {
+        if (builder instanceof SerializedEvent) {
+            return (SerializedEvent) builder;
+        }
+        return new SerializedEvent(null, Collections.unmodifiableSet(new LinkedHashSet<>(builder.build())));
+    }
+
+    @Override
+    public Set<ResponseBodyEmitter.DataWithMediaType> build() {
+        return data;
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder id(String id) {
+        throw new UnsupportedOperationException("A serialized event cannot be modified.");
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder name(String eventName) {
+        throw new UnsupportedOperationException("A serialized event cannot be modified.");
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder reconnectTime(long reconnectTimeMillis) {
+        throw new UnsupportedOperationException("A serialized event cannot be modified.");
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder comment(String comment) {
+        throw new UnsupportedOperationException("A serialized event cannot be modified.");
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder data(Object object) {
+        throw new UnsupportedOperationException("A serialized event cannot be modified.");
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder data(Object object, MediaType mediaType) {
+        throw new UnsupportedOperationException("A serialized event cannot be modified.");
+    }
+}
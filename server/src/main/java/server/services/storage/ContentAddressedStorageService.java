@@ -0,0 +1,404 @@
+package server.services.storage;
+
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import server.configuration.FileSystemStorageConfiguration;
+import server.configuration.ResourceConfiguration;
+import server.exceptions.ResourceNotFoundException;
+import server.exceptions.StorageException;
+
+/**
+ * Service for filesystem storage which stores identical content only once.
+ * Content is hashed while it is streamed to disk, and kept as a blob named after its SHA-256 digest in a sharded
+ * directory layout. Each resource ID is a reference to a blob, recorded in a small file along with the metadata,
+ * and a blob is deleted once no resource refers to it anymore.
+ * Resources stored by {@link FileSystemStorageService} in the upload directory are moved in on first access.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "server.storage", name = "backend", havingValue = "content-addressed")
+public class ContentAddressedStorageService implements StorageService {
+    /**
+     * Names of the directories holding the blobs, the references and the uploads in progress,
+     * inside the upload directory.
+     */
+    static final String BLOBS_DIR = "blobs";
+    static final String REFS_DIR = "refs";
+    static final String TMP_DIR = "tmp";
+
+    private static final String CONTENT_TYPE_KEY = "content-type";
+    private static final String SIZE_KEY = "size";
+    private static final String HASH_KEY = "sha256";
+
+    @Autowired
+    private FileSystemStorageConfiguration fsConfiguration;
+
+    @Autowired
+    private ResourceConfiguration resourceConfiguration;
+
+    /**
+     * The blob each resource refers to, by resource ID.
+     */
+    private final Map<UUID, ResourceMetadata> refs = new ConcurrentHashMap<>();
+
+    /**
+     * Number of resources referring to each blob, by digest. Guarded by the service.
+     */
+    private final Map<String, Integer> refCounts = new HashMap<>();
+
+    /**
+     * Initialize the storage service, loading the references from disk.
+     */
+    @Override
+    public synchronized void init() {
+        try {
+            Path root = this.fsConfiguration.getUploadDirPath();
+            Files.createDirectories(root.resolve(BLOBS_DIR));
+            Files.createDirectories(root.resolve(REFS_DIR));
+            FileSystemUtils.deleteRecursively(root.resolve(TMP_DIR));
+            Files.createDirectories(root.resolve(TMP_DIR));
+
+            refs.clear();
+            refCounts.clear();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(root.resolve(REFS_DIR), "*.properties")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    UUID resourceId = UUID.fromString(name.substring(0, name.length() - ".properties".length()));
+                    ResourceMetadata metadata = readRef(file);
+                    refs.put(resourceId, metadata);
+                    refCounts.merge(metadata.getHash(), 1, Integer::sum);
+                }
+            }
+            log.info("Storage initialized with {} resources in {} blobs", refs.size(), refCounts.size());
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Could not initialize storage", e);
+            throw new StorageException("Could not initialize storage", e);
+        }
+    }
+
+    /**
+     * Store a file in the storage service.
+     *
+     * @param fileStream File stream to store.
+     * @return resource ID.
+     */
+    @Override
+    public UUID store(InputStream fileStream) {
+        return store(fileStream, UUID.randomUUID());
+    }
+
+    /**
+     * Store a file in the storage service.
+     * If the same content is already stored, the resource refers to the existing blob.
+     *
+     * @param fileStream File stream to store.
+     * @param resourceId Resource ID to store the file as.
+     * @return resource ID.
+     */
+    @Override
+    public UUID store(InputStream fileStream, UUID resourceId) {
+        Path tmpFile = null;
+        try {
+            // Stream the file to a temporary location, hashing it and sniffing its type on the way
+            Path tmpDir = this.fsConfiguration.getUploadDirPath().resolve(TMP_DIR);
+            Files.createDirectories(tmpDir);
+            tmpFile = Files.createTempFile(tmpDir, resourceId.toString(), null);
+            @SuppressWarnings("UnstableApiUsage")
+            HashingInputStream hashingStream = new HashingInputStream(Hashing.sha256(), fileStream);
+            InputStream bufferedStream = new BufferedInputStream(hashingStream);
+            String contentType = FileSystemStorageService.guessContentType(bufferedStream);
+            long size = Files.copy(bufferedStream, tmpFile, StandardCopyOption.REPLACE_EXISTING);
+            ResourceMetadata metadata = new ResourceMetadata(contentType, size, hashingStream.hash().toString());
+
+            commit(resourceId, metadata, tmpFile);
+            log.trace("Resource {} stored as blob {}", resourceId, metadata.getHash());
+            return resourceId;
+        } catch (IOException e) {
+            log.error("Could not store file", e);
+            throw new StorageException("Could not store file", e);
+        } finally {
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary file {}", tmpFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a stream of all stored resources, as paths relative to the upload directory.
+     *
+     * @return Stream of stored resource paths.
+     */
+    @Override
+    public Stream<Path> loadAll() {
+        return refs.keySet().stream().map(resourceId -> Path.of(resourceId.toString()));
+    }
+
+    /**
+     * Resolve a resource to the path of its content.
+     *
+     * @param resourceId resource ID.
+     * @return path of the blob, or of the legacy file if the resource is not stored.
+     */
+    @Override
+    public Path load(UUID resourceId) {
+        ResourceMetadata metadata = resolve(resourceId);
+        return metadata == null ? legacyPath(resourceId) : blobPath(metadata.getHash());
+    }
+
+    /**
+     * Get the metadata of a resource.
+     *
+     * @param resourceId resource ID.
+     * @return metadata of the resource.
+     */
+    @Override
+    public ResourceMetadata getMetadata(UUID resourceId) {
+        ResourceMetadata metadata = resolve(resourceId);
+        if (metadata == null) {
+            throw new ResourceNotFoundException("Could not read resource: " + resourceId);
+        }
+        return metadata;
+    }
+
+    /**
+     * Load a file as a resource.
+     *
+     * @param resourceId ID of the resource to load.
+     * @return loaded resource.
+     */
+    @Override
+    public Resource loadAsResource(UUID resourceId) {
+        ResourceMetadata metadata = resolve(resourceId);
+        if (metadata == null) {
+            throw new ResourceNotFoundException("Could not read resource: " + resourceId);
+        }
+        try {
+            return new UrlResource(blobPath(metadata.getHash()).toUri());
+        } catch (MalformedURLException e) {
+            log.warn("Could not resolve resource " + resourceId);
+            throw new ResourceNotFoundException("Could not read file " + resourceId, e);
+        }
+    }
+
+    /**
+     * Delete all stored resources.
+     */
+    @Override
+    public synchronized void deleteAll() {
+        FileSystemUtils.deleteRecursively(this.fsConfiguration.getUploadDirPath().toFile());
+        refs.clear();
+        refCounts.clear();
+    }
+
+    /**
+     * Delete a resource, and its content if no other resource refers to it.
+     *
+     * @param resourceId resource ID.
+     * @return true if the resource was deleted, false otherwise.
+     */
+    @Override
+    public synchronized boolean delete(UUID resourceId) {
+        try {
+            Files.deleteIfExists(legacyPath(resourceId));
+            ResourceMetadata metadata = refs.remove(resourceId);
+            if (metadata == null) {
+                return false;
+            }
+            Files.deleteIfExists(refPath(resourceId));
+            release(metadata.getHash());
+            log.debug("Resource {} deleted", resourceId);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not delete resource {}", resourceId);
+            log.warn("Error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get the URI of a resource.
+     *
+     * @param resourceId resource ID.
+     * @return URI of the resource.
+     */
+    @Override
+    public URI getURI(UUID resourceId) {
+        return this.resourceConfiguration.getBaseUri().resolve(resourceId.toString()).normalize();
+    }
+
+    /**
+     * Get the number of blobs stored.
+     *
+     * @return the number of distinct contents.
+     */
+    public synchronized int getBlobCount() {
+        return refCounts.size();
+    }
+
+    /**
+     * Point a resource to the blob of its content, moving the content in place if it is not stored yet.
+     *
+     * @param resourceId resource ID.
+     * @param metadata   metadata of the content.
+     * @param tmpFile    temporary file holding the content.
+     * @throws IOException if the blob or the reference could not be written.
+     */
+    private synchronized void commit(UUID resourceId, ResourceMetadata metadata, Path tmpFile) throws IOException {
+        // Keep the content only if no other resource has it already
+        Path blob = blobPath(metadata.getHash());
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.move(tmpFile, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                log.trace("Blob {} already stored", metadata.getHash());
+            }
+        }
+
+        // Write the reference before counting it, so that a crash never leaves a blob without references
+        writeRef(resourceId, metadata);
+        refCounts.merge(metadata.getHash(), 1, Integer::sum);
+        ResourceMetadata previous = refs.put(resourceId, metadata);
+        if (previous != null) {
+            release(previous.getHash());
+        }
+    }
+
+    /**
+     * Drop a reference to a blob, deleting it if it was the last one.
+     *
+     * @param hash digest of the blob.
+     * @throws IOException if the blob could not be deleted.
+     */
+    private void release(String hash) throws IOException {
+        Integer count = refCounts.computeIfPresent(hash, (key, value) -> value > 1 ? value - 1 : null);
+        if (count == null) {
+            Files.deleteIfExists(blobPath(hash));
+            log.trace("Blob {} deleted", hash);
+        }
+    }
+
+    /**
+     * Get the metadata of a resource, moving it in from the legacy layout if needed.
+     *
+     * @param resourceId resource ID.
+     * @return metadata of the resource, or null if it is not stored.
+     */
+    private ResourceMetadata resolve(UUID resourceId) {
+        ResourceMetadata metadata = refs.get(resourceId);
+        if (metadata != null) {
+            return metadata;
+        }
+
+        Path legacy = legacyPath(resourceId);
+        if (!Files.isRegularFile(legacy)) {
+            return null;
+        }
+        synchronized (this) {
+            if (!refs.containsKey(resourceId) && Files.isRegularFile(legacy)) {
+                log.debug("Moving resource {} to content-addressed storage", resourceId);
+                try (InputStream in = Files.newInputStream(legacy)) {
+                    store(in, resourceId);
+                } catch (IOException e) {
+                    log.error("Could not move resource {}", resourceId, e);
+                    throw new StorageException("Could not move resource " + resourceId, e);
+                }
+                try {
+                    Files.delete(legacy);
+                    Files.deleteIfExists(this.fsConfiguration.getUploadDirPath()
+                            .resolve(FileSystemStorageService.METADATA_DIR).resolve(resourceId + ".properties"));
+                } catch (IOException e) {
+                    log.warn("Could not delete legacy file of resource {}", resourceId);
+                }
+            }
+            return refs.get(resourceId);
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return this.fsConfiguration.getUploadDirPath().resolve(BLOBS_DIR)
+                .resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path refPath(UUID resourceId) {
+        return this.fsConfiguration.getUploadDirPath().resolve(REFS_DIR).resolve(resourceId + ".properties");
+    }
+
+    private Path legacyPath(UUID resourceId) {
+        return this.fsConfiguration.getUploadDirPath().resolve(resourceId.toString()).normalize();
+    }
+
+    /**
+     * Write the reference of a resource to disk, replacing the previous one atomically.
+     *
+     * @param resourceId resource ID.
+     * @param metadata   metadata of the content.
+     * @throws IOException if the reference could not be written.
+     */
+    private void writeRef(UUID resourceId, ResourceMetadata metadata) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(CONTENT_TYPE_KEY, metadata.getContentType());
+        properties.setProperty(SIZE_KEY, Long.toString(metadata.getSize()));
+        properties.setProperty(HASH_KEY, metadata.getHash());
+
+        Path path = refPath(resourceId);
+        Files.createDirectories(path.getParent());
+        Path tmpFile = Files.createTempFile(this.fsConfiguration.getUploadDirPath().resolve(TMP_DIR),
+                resourceId.toString(), ".properties");
+        try (OutputStream out = Files.newOutputStream(tmpFile)) {
+            properties.store(out, resourceId.toString());
+        }
+        Files.move(tmpFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the reference of a resource from disk.
+     *
+     * @param path path of the reference.
+     * @return metadata of the content.
+     * @throws IOException if the reference could not be read.
+     */
+    private static ResourceMetadata readRef(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        }
+        String hash = properties.getProperty(HASH_KEY);
+        if (hash == null || hash.length() < 4) {
+            throw new IOException("Invalid reference " + path);
+        }
+        return new ResourceMetadata(
+                properties.getProperty(CONTENT_TYPE_KEY, MediaType.APPLICATION_OCTET_STREAM_VALUE),
+                Long.parseLong(properties.getProperty(SIZE_KEY, "0")),
+                hash);
+    }
+}
@@ -1,19 +1,30 @@
 package server.services.storage;
 
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 import server.configuration.FileSystemStorageConfiguration;
@@ -23,23 +34,40 @@ import server.exceptions.StorageException;
 
 /**
  * Service for filesystem storage.
+ * The metadata of each resource is computed while it is stored, and kept next to it in a sidecar file
+ * so that serving a resource never needs to inspect its content.
  */
 @Slf4j
 @Service
+@ConditionalOnProperty(prefix = "server.storage", name = "backend", havingValue = "filesystem", matchIfMissing = true)
 public class FileSystemStorageService implements StorageService {
+    /**
+     * Name of the directory holding the metadata, inside the upload directory.
+     */
+    static final String METADATA_DIR = ".meta";
+
+    private static final String CONTENT_TYPE_KEY = "content-type";
+    private static final String SIZE_KEY = "size";
+    private static final String HASH_KEY = "sha256";
+
     @Autowired
     private FileSystemStorageConfiguration fsConfiguration;
 
     @Autowired
     private ResourceConfiguration resourceConfiguration;
 
+    /**
+     * Metadata of the resources read so far, by resource ID.
+     */
+    private final Map<UUID, ResourceMetadata> metadataCache = new ConcurrentHashMap<>();
+
     /**
      * Initialize the storage service.
      */
     @Override
     public void init() {
         try {
-            Files.createDirectories(this.fsConfiguration.getUploadDirPath());
+            Files.createDirectories(this.fsConfiguration.getUploadDirPath().resolve(METADATA_DIR));
         } catch (IOException e) {
             log.error("Could not initialize storage", e);
             throw new StorageException("Could not initialize storage", e);
@@ -72,9 +100,18 @@ public class FileSystemStorageService implements StorageService {
                             Paths.get(resourceId.toString()))
                     .normalize().toAbsolutePath();
 
-            // Save the file
-            Files.copy(fileStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
-            log.trace("Resource {} stored at {}", resourceId, destinationFile);
+            // Save the file, hashing it and sniffing its type on the way
+            @SuppressWarnings("UnstableApiUsage")
+            HashingInputStream hashingStream = new HashingInputStream(Hashing.sha256(), fileStream);
+            InputStream bufferedStream = new BufferedInputStream(hashingStream);
+            String contentType = guessContentType(bufferedStream);
+            long size = Files.copy(bufferedStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+
+            // Save the metadata
+            ResourceMetadata metadata = new ResourceMetadata(contentType, size, hashingStream.hash().toString());
+            writeMetadata(resourceId, metadata);
+            metadataCache.put(resourceId, metadata);
+            log.trace("Resource {} stored at {} as {}", resourceId, destinationFile, metadata);
 
             return resourceId;
         } catch (IOException e) {
@@ -97,7 +134,8 @@ public class FileSystemStorageService implements StorageService {
                             this.fsConfiguration.getMaxRecursionDepth()
                     )
                     .filter(path -> !path.equals(this.fsConfiguration.getUploadDirPath()))
-                    .map(this.fsConfiguration.getUploadDirPath()::relativize);
+                    .map(this.fsConfiguration.getUploadDirPath()::relativize)
+                    .filter(path -> !path.startsWith(METADATA_DIR));
         } catch (IOException e) {
             log.error("Could not load files", e);
             throw new StorageException("Could not load files", e);
@@ -110,10 +148,23 @@ public class FileSystemStorageService implements StorageService {
      * @param resourceId resource ID.
      * @return resource file path.
      */
+    @Override
     public Path load(UUID resourceId) {
         return this.fsConfiguration.getUploadDirPath().resolve(resourceId.toString()).normalize();
     }
 
+    /**
+     * Get the metadata of a resource.
+     * Resources stored before metadata was recorded get it computed on first access.
+     *
+     * @param resourceId resource ID.
+     * @return metadata of the resource.
+     */
+    @Override
+    public ResourceMetadata getMetadata(UUID resourceId) {
+        return metadataCache.computeIfAbsent(resourceId, this::readMetadata);
+    }
+
     /**
      * Load a file as a resource.
      *
@@ -145,6 +196,7 @@ public class FileSystemStorageService implements StorageService {
     @Override
     public void deleteAll() {
         FileSystemUtils.deleteRecursively(this.fsConfiguration.getUploadDirPath().toFile());
+        metadataCache.clear();
     }
 
     /**
@@ -158,8 +210,10 @@ public class FileSystemStorageService implements StorageService {
         Path destinationFile = this.fsConfiguration.getUploadDirPath().resolve(
                         Paths.get(resourceId.toString()))
                 .normalize().toAbsolutePath();
+        metadataCache.remove(resourceId);
         if (Files.exists(destinationFile)) {
             try {
+                Files.deleteIfExists(metadataPath(resourceId));
                 Files.delete(destinationFile);
                 log.debug("Resource {} deleted", resourceId);
                 return true;
@@ -181,4 +235,95 @@ public class FileSystemStorageService implements StorageService {
     public URI getURI(UUID resourceId) {
         return this.resourceConfiguration.getBaseUri().resolve(resourceId.toString()).normalize();
     }
+
+    /**
+     * Resolve the path of the metadata of a resource.
+     *
+     * @param resourceId resource ID.
+     * @return metadata file path.
+     */
+    private Path metadataPath(UUID resourceId) {
+        return this.fsConfiguration.getUploadDirPath().resolve(METADATA_DIR)
+                .resolve(resourceId + ".properties").normalize();
+    }
+
+    /**
+     * Write the metadata of a resource to its sidecar file.
+     *
+     * @param resourceId resource ID.
+     * @param metadata   metadata of the resource.
+     * @throws IOException if the file could not be written.
+     */
+    private void writeMetadata(UUID resourceId, ResourceMetadata metadata) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(CONTENT_TYPE_KEY, metadata.getContentType());
+        properties.setProperty(SIZE_KEY, Long.toString(metadata.getSize()));
+        properties.setProperty(HASH_KEY, metadata.getHash());
+
+        Path path = metadataPath(resourceId);
+        Files.createDirectories(path.getParent());
+        try (OutputStream out = Files.newOutputStream(path)) {
+            properties.store(out, resourceId.toString());
+        }
+    }
+
+    /**
+     * Read the metadata of a resource from its sidecar file, computing it from the resource if there is none.
+     *
+     * @param resourceId resource ID.
+     * @return metadata of the resource.
+     */
+    private ResourceMetadata readMetadata(UUID resourceId) {
+        Path file = load(resourceId);
+        if (!Files.isReadable(file)) {
+            throw new ResourceNotFoundException("Could not read resource: " + resourceId);
+        }
+
+        try {
+            // Read the sidecar if it is still up to date
+            Path path = metadataPath(resourceId);
+            if (Files.exists(path)) {
+                Properties properties = new Properties();
+                try (InputStream in = Files.newInputStream(path)) {
+                    properties.load(in);
+                }
+                ResourceMetadata metadata = new ResourceMetadata(
+                        properties.getProperty(CONTENT_TYPE_KEY, MediaType.APPLICATION_OCTET_STREAM_VALUE),
+                        Long.parseLong(properties.getProperty(SIZE_KEY, "-1")),
+                        properties.getProperty(HASH_KEY, ""));
+                if (metadata.getSize() == Files.size(file) && !metadata.getHash().isEmpty()) {
+                    return metadata;
+                }
+            }
+
+            // Compute the metadata of resources stored without it
+            log.debug("Computing the metadata of resource {}", resourceId);
+            ResourceMetadata metadata;
+            try (InputStream in = Files.newInputStream(file)) {
+                @SuppressWarnings("UnstableApiUsage")
+                HashingInputStream hashingStream = new HashingInputStream(Hashing.sha256(), in);
+                InputStream bufferedStream = new BufferedInputStream(hashingStream);
+                String contentType = guessContentType(bufferedStream);
+                long size = bufferedStream.transferTo(OutputStream.nullOutputStream());
+                metadata = new ResourceMetadata(contentType, size, hashingStream.hash().toString());
+            }
+            writeMetadata(resourceId, metadata);
+            return metadata;
+        } catch (IOException | NumberFormatException e) {
+            log.error("Could not read the metadata of resource {}", resourceId, e);
+            throw new StorageException("Could not read the metadata of resource " + resourceId, e);
+        }
+    }
+
+    /**
+     * Guess the MIME type of a stream from its first bytes, without consuming them.
+     *
+     * @param stream stream supporting mark and reset.
+     * @return the MIME type, or application/octet-stream if unknown.
+     * @throws IOException if the stream could not be read.
+     */
+    static String guessContentType(InputStream stream) throws IOException {
+        return Objects.requireNonNullElse(URLConnection.guessContentTypeFromStream(stream),
+                MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
 }
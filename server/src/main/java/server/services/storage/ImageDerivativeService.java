@@ -0,0 +1,197 @@
+package server.services.storage;
+
+import com.google.common.util.concurrent.Striped;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import server.configuration.ResourceConfiguration;
+import server.exceptions.ResourceNotFoundException;
+import server.exceptions.StorageException;
+
+/**
+ * Service scaling stored images down to the sizes they are displayed at.
+ * Derivatives are generated on first request and stored as resources of their own, under an ID derived from
+ * the original resource and the size, so that they are served and cached like any other resource.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private ResourceConfiguration resourceConfiguration;
+
+    /**
+     * The resource served for each derivative ID, which is the original resource if it needs no scaling.
+     */
+    private final Map<UUID, UUID> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Locks preventing a derivative from being generated by several requests at once.
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    /**
+     * Get the ID of the derivative of a resource.
+     *
+     * @param resourceId ID of the original resource.
+     * @param size       the size of the derivative, in pixels.
+     * @return ID of the derivative.
+     */
+    public static UUID getDerivativeId(UUID resourceId, int size) {
+        return UUID.nameUUIDFromBytes((resourceId + "/" + size).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get an image scaled down to fit in a square, generating it if needed.
+     * Resources which are not images, or which already fit, are served as they are.
+     *
+     * @param resourceId ID of the original resource.
+     * @param size       the side of the square, in pixels.
+     * @return ID of the resource to serve.
+     * @throws IllegalArgumentException if the size is not supported.
+     */
+    public UUID getDerivative(UUID resourceId, int size) {
+        if (!resourceConfiguration.getImageSizes().contains(size)) {
+            throw new IllegalArgumentException("Unsupported image size: " + size);
+        }
+
+        UUID derivativeId = getDerivativeId(resourceId, size);
+        UUID served = resolved.get(derivativeId);
+        if (served != null) {
+            return served;
+        }
+
+        Lock lock = locks.get(derivativeId);
+        lock.lock();
+        try {
+            // Another request may have generated it in the meantime, or it may be stored from a previous run
+            served = resolved.get(derivativeId);
+            if (served == null) {
+                served = Files.exists(storageService.load(derivativeId))
+                        ? derivativeId
+                        : generate(resourceId, derivativeId, size);
+                resolved.put(derivativeId, served);
+            }
+            return served;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete the derivatives of a resource.
+     *
+     * @param resourceId ID of the original resource.
+     */
+    public void delete(UUID resourceId) {
+        for (int size : resourceConfiguration.getImageSizes()) {
+            UUID derivativeId = getDerivativeId(resourceId, size);
+            resolved.remove(derivativeId);
+            storageService.delete(derivativeId);
+        }
+    }
+
+    /**
+     * Generate and store the derivative of an image.
+     *
+     * @param resourceId   ID of the original resource.
+     * @param derivativeId ID to store the derivative as.
+     * @param size         the side of the square to fit the image in, in pixels.
+     * @return ID of the resource to serve.
+     */
+    private UUID generate(UUID resourceId, UUID derivativeId, int size) {
+        Path file = storageService.load(resourceId);
+        if (!Files.isReadable(file)) {
+            throw new ResourceNotFoundException("Could not read resource: " + resourceId);
+        }
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                log.debug("Resource {} is not an image, serving it unscaled", resourceId);
+                return resourceId;
+            }
+
+            ImageReader reader = readers.next();
+            BufferedImage image;
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= size && height <= size) {
+                    return resourceId;
+                }
+
+                // Skip pixels while decoding, keeping twice the target size for a smooth downscale
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (2 * size));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scale(image, size), "png", out);
+            storageService.store(new ByteArrayInputStream(out.toByteArray()), derivativeId);
+            log.debug("Stored {}px derivative {} of resource {} ({} bytes)", size, derivativeId, resourceId,
+                    out.size());
+            return derivativeId;
+        } catch (IOException e) {
+            log.error("Could not scale resource {}", resourceId, e);
+            throw new StorageException("Could not scale resource " + resourceId, e);
+        }
+    }
+
+    /**
+     * Scale an image down to fit in a square, keeping its aspect ratio.
+     * The image is halved repeatedly before the last step, since bilinear interpolation
+     * skips pixels when shrinking by more than half.
+     *
+     * @param image the image.
+     * @param size  the side of the square, in pixels.
+     * @return the scaled image.
+     */
+    static BufferedImage scale(BufferedImage image, int size) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage scaled = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(scaled, 0, 0, width, height, null);
+            graphics.dispose();
+            scaled = step;
+        } while (width != targetWidth || height != targetHeight);
+        return scaled;
+    }
+}
@@ -0,0 +1,33 @@
+package server.services.storage;
+
+import lombok.Value;
+
+/**
+ * Metadata of a stored resource, computed once when the resource is stored.
+ */
+@Value
+public class ResourceMetadata {
+    /**
+     * The MIME type of the resource.
+     */
+    String contentType;
+
+    /**
+     * The size of the resource, in bytes.
+     */
+    long size;
+
+    /**
+     * The SHA-256 hash of the content of the resource, in hexadecimal.
+     */
+    String hash;
+
+    /**
+     * Get the strong entity tag of the resource, derived from its content hash.
+     *
+     * @return the quoted entity tag.
+     */
+    public String getETag() {
+        return "\"" + hash + "\"";
+    }
+}
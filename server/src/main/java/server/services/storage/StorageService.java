@@ -42,6 +42,22 @@ public interface StorageService {
      */
     Stream<Path> loadAll();
 
+    /**
+     * Resolve the path of a stored file.
+     *
+     * @param resourceId ID of the resource.
+     * @return path of the file.
+     */
+    Path load(UUID resourceId);
+
+    /**
+     * Get the metadata of a stored file.
+     *
+     * @param resourceId ID of the resource.
+     * @return metadata of the resource.
+     */
+    ResourceMetadata getMetadata(UUID resourceId);
+
     /**
      * Load a file as a resource.
      *
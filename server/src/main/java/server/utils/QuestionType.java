@@ -15,4 +15,15 @@ public class QuestionType {
     public QuestionType(Class type) {
         this(type, null);
     }
+
+    /**
+     * Returns a readable name of the question kind, e.g. MCQuestion/GUESS_COST.
+     *
+     * @return the name of the question kind.
+     */
+    @Override
+    public String toString() {
+        String name = questionType.getSimpleName();
+        return questionSubtype == null ? name : name + "/" + questionSubtype.name();
+    }
 }
@@ -1,9 +1,12 @@
 package server.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.entities.messages.SSEMessage;
 import java.util.Set;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server.services.sse.SerializedEvent;
 
 /**
  * Utilities to help with the communication between the client and the server.
@@ -22,4 +25,71 @@ public class SSE {
         }
         return builder;
     }
+
+    /**
+     * Serialize an SSE message into an event which can be sent to any number of connections.
+     * The payload is converted to JSON once, instead of once per connection.
+     *
+     * @param mapper  The object mapper used to serialize the payload.
+     * @param message The message to serialize.
+     * @return The serialized SSE event.
+     * @throws IllegalArgumentException If the payload cannot be serialized.
+     */
+    public static SerializedEvent serialize(ObjectMapper mapper, SSEMessage message) {
+        return serialize(mapper, message, null);
+    }
+
+    /**
+     * Serialize an SSE message into an event carrying an ID, which clients send back when reconnecting.
+     *
+     * @param mapper  The object mapper used to serialize the payload.
+     * @param message The message to serialize.
+     * @param id      The ID of the event, or null if the event has no ID.
+     * @return The serialized SSE event.
+     * @throws IllegalArgumentException If the payload cannot be serialized.
+     */
+    public static SerializedEvent serialize(ObjectMapper mapper, SSEMessage message, String id) {
+        StringBuilder event = new StringBuilder();
+        if (id != null) {
+            event.append("id:").append(id).append('\n');
+        }
+        event.append("event:").append(message.getType().name()).append('\n');
+        if (message.getData() != null) {
+            appendData(event, toJson(mapper, message.getData()));
+        }
+        return new SerializedEvent(message.getType(), event.append('\n').toString());
+    }
+
+    /**
+     * Serialize a message into a data-only SSE event, i.e. the whole message is the payload of an unnamed event.
+     *
+     * @param mapper  The object mapper used to serialize the payload.
+     * @param message The message to serialize.
+     * @return The serialized SSE event.
+     * @throws IllegalArgumentException If the payload cannot be serialized.
+     */
+    public static SerializedEvent serializeData(ObjectMapper mapper, SSEMessage message) {
+        StringBuilder event = new StringBuilder();
+        appendData(event, toJson(mapper, message));
+        return new SerializedEvent(message.getType(), event.append('\n').toString());
+    }
+
+    private static String toJson(ObjectMapper mapper, Object data) {
+        // Strings are written as they are, like the default SSE message converters do
+        if (data instanceof String) {
+            return (String) data;
+        }
+        try {
+            return mapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize SSE payload of type " + data.getClass(), e);
+        }
+    }
+
+    private static void appendData(StringBuilder event, String payload) {
+        // Every line of the payload needs its own data field
+        for (String line : payload.split("\n", -1)) {
+            event.append("data:").append(line).append('\n');
+        }
+    }
 }
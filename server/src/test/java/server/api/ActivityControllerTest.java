@@ -39,7 +39,7 @@ import server.database.entities.question.Activity;
 import server.database.repositories.question.ActivityRepository;
 import server.services.storage.StorageService;
 
-@SpringBootTest
+@SpringBootTest(properties = "question.pool-warm-up=false")
 @AutoConfigureMockMvc
 @EnableWebMvc
 class ActivityControllerTest {
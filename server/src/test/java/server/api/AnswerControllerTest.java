@@ -31,6 +31,7 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.util.UriBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 import server.database.entities.User;
+import server.database.entities.auth.config.AuthPrincipal;
 import server.database.entities.game.Game;
 import server.database.entities.game.GamePlayer;
 import server.database.entities.game.NormalGame;
@@ -119,10 +120,9 @@ class AnswerControllerTest {
         // Set the context user
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken(
-                        joe.getEmail(),
-                        joe.getPassword(),
+                        new AuthPrincipal(joe.getId(), joe.getEmail()),
+                        null,
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
-        when(userRepository.findByEmailIgnoreCase(joe.getEmail())).thenReturn(Optional.of(joe));
 
     }
 
@@ -199,10 +199,9 @@ class AnswerControllerTest {
         // Set the context user
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken(
-                        susan.getEmail(),
-                        susan.getPassword(),
+                        new AuthPrincipal(susan.getId(), susan.getEmail()),
+                        null,
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
-        when(userRepository.findByEmailIgnoreCase(susan.getEmail())).thenReturn(Optional.of(susan));
 
         // Request
         AnswerDTO userAnswer = new AnswerDTO();
@@ -280,10 +279,9 @@ class AnswerControllerTest {
         // Set the context user
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken(
-                        susan.getEmail(),
-                        susan.getPassword(),
+                        new AuthPrincipal(susan.getId(), susan.getEmail()),
+                        null,
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
-        when(userRepository.findByEmailIgnoreCase(susan.getEmail())).thenReturn(Optional.of(susan));
 
         this.mockMvc
                 .perform(MockMvcRequestBuilders.get(answerEndpoint(mockLobby.getId())))
@@ -322,10 +320,9 @@ class AnswerControllerTest {
         // Set the context user
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken(
-                        susan.getEmail(),
-                        susan.getPassword(),
+                        new AuthPrincipal(susan.getId(), susan.getEmail()),
+                        null,
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
-        when(userRepository.findByEmailIgnoreCase(susan.getEmail())).thenReturn(Optional.of(susan));
 
         this.mockMvc
                 .perform(MockMvcRequestBuilders.get(scoreEndpoint(mockLobby.getId())))
@@ -2,6 +2,7 @@ package server.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -30,11 +31,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import server.configuration.ResourceConfiguration;
 import server.database.entities.User;
 import server.database.entities.game.NormalGame;
 import server.database.entities.game.configuration.NormalGameConfiguration;
 import server.database.repositories.UserRepository;
 import server.database.repositories.game.GameRepository;
+import server.services.storage.ImageDerivativeService;
 import server.services.storage.StorageService;
 
 /**
@@ -57,6 +60,9 @@ public class AuthControllerTests {
     @MockBean
     private StorageService storageService;
 
+    @Autowired
+    private ResourceConfiguration resourceConfiguration;
+
     User joe;
     UserDTO joeDTO;
     NormalGame game;
@@ -142,6 +148,44 @@ public class AuthControllerTests {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void registerImageFailed() throws Exception {
+        // Mock the repository to fail saving the user
+        when(userRepository.existsByEmailIgnoreCaseOrUsername(joeDTO.getEmail(), joeDTO.getUsername()))
+                .thenReturn(false);
+        when(userRepository.save(any(User.class))).thenThrow(new IllegalStateException());
+
+        // Convert the DTO to a MultipartFile (JSON)
+        MockMultipartFile userMP = new MockMultipartFile(
+                "userData",
+                "blob",
+                "application/json",
+                objectMapper.writeValueAsString(joeDTO).getBytes());
+
+        // Create a dummy image file
+        MockMultipartFile imageMP = new MockMultipartFile(
+                "image",
+                "activity.png",
+                "image/png",
+                "imageContent".getBytes());
+
+        // Mock the response from the storage service
+        when(storageService.store(any(InputStream.class))).thenReturn(getUUID(3));
+
+        // Perform the request
+        this.mvc
+                .perform(multipart("/api/auth/register")
+                        .file(userMP)
+                        .file(imageMP))
+                .andExpect(status().isInternalServerError());
+
+        // Verify that the image and its derivatives are deleted
+        verify(storageService).delete(getUUID(3));
+        for (int size : resourceConfiguration.getImageSizes()) {
+            verify(storageService).delete(ImageDerivativeService.getDerivativeId(getUUID(3), size));
+        }
+    }
+
     @Test
     void registerConflict() throws Exception {
         // Mock the repository
@@ -1,16 +1,20 @@
 package server.api;
 
 import static org.hamcrest.Matchers.equalToObject;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static server.utils.TestHelpers.getUUID;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import commons.entities.AnswerDTO;
 import commons.entities.game.GameStatus;
+import commons.entities.game.PowerUp;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -39,7 +44,11 @@ import server.database.entities.question.Question;
 import server.database.repositories.UserRepository;
 import server.database.repositories.game.GamePlayerRepository;
 import server.database.repositories.game.GameRepository;
+import server.services.FSMManager;
 import server.services.GameService;
+import server.services.fsm.FSMState;
+import server.services.fsm.GameFSM;
+import server.services.fsm.LiveGame;
 
 /**
  * Tests for the GameController.
@@ -64,6 +73,9 @@ public class GameControllerTest {
     @MockBean
     private GameService gameService;
 
+    @Autowired
+    private FSMManager fsmManager;
+
     private Game<?> game;
     private GameConfiguration gameConfiguration;
     private User john;
@@ -168,6 +180,64 @@ public class GameControllerTest {
         verifyNoMoreInteractions(gameRepository, gameService);
     }
 
+    @Test
+    void leaveLiveGame() throws Exception {
+        // Make the game live
+        LiveGame liveGame = new LiveGame(game);
+        GameFSM fsm = mock(GameFSM.class);
+        when(fsm.getLiveGame()).thenReturn(liveGame);
+        when(fsm.getState()).thenReturn(FSMState.QUESTION);
+        fsmManager.addFSM(game, fsm);
+
+        try {
+            // Perform the request
+            this.mockMvc
+                    .perform(post("/api/game/leave"))
+                    .andExpect(status().isOk());
+
+            // Verify that the change is written along with the live state, instead of saving the game
+            verify(gameService, times(1)).removePlayer(game, john);
+            verify(gameService, times(1)).persist(liveGame, FSMState.QUESTION);
+            verify(gameRepository, never()).save(any());
+        } finally {
+            fsmManager.removeFSM(game);
+        }
+    }
+
+    @Test
+    void sendPowerUpLiveGame() throws Exception {
+        // Make the game live
+        game.addQuestions(new ArrayList<>(List.of(question)));
+        game.setCurrentQuestionNumber(0);
+        LiveGame liveGame = new LiveGame(game);
+        GameFSM fsm = mock(GameFSM.class);
+        when(fsm.getLiveGame()).thenReturn(liveGame);
+        when(fsm.getState()).thenReturn(FSMState.QUESTION);
+        fsmManager.addFSM(game, fsm);
+
+        try {
+            // Perform the request twice
+            this.mockMvc
+                    .perform(post("/api/game/powerUp")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(PowerUp.DoublePoints)))
+                    .andExpect(status().isOk());
+            this.mockMvc
+                    .perform(post("/api/game/powerUp")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(PowerUp.DoublePoints)))
+                    .andExpect(status().isConflict());
+
+            // Verify that the power-up is used once, and written along with the live state
+            assertEquals(0, johnPlayer.getUserPowerUps().get(PowerUp.DoublePoints));
+            verify(gameService, times(1)).sendPowerUp(game, johnPlayer, PowerUp.DoublePoints);
+            verify(gameService, times(1)).persist(liveGame, FSMState.QUESTION);
+            verify(gameRepository, never()).save(any());
+        } finally {
+            fsmManager.removeFSM(game);
+        }
+    }
+
     @Test
     public void leaveNotFound() throws Exception {
         // Mock the authentication
@@ -217,4 +287,73 @@ public class GameControllerTest {
         verify(gamePlayerRepository, times(1))
                 .findByGame_IdEqualsAndAbandonedIsFalseOrderByScoreDesc(game.getId());
     }
+
+    @Test
+    void snapshotQuestionStage() throws Exception {
+        game.addQuestions(new ArrayList<>(List.of(question)));
+        game.setCurrentQuestionNumber(0);
+        game.setAcceptingAnswers(true);
+        johnPlayer.setScore(50);
+
+        // The answer must not be revealed while the question is open
+        this.mockMvc.perform(get("/api/game/{id}/snapshot", game.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.formatVersion").value(1))
+                .andExpect(jsonPath("$.questionNumber").value(0))
+                .andExpect(jsonPath("$.acceptingAnswers").value(true))
+                .andExpect(jsonPath("$.question").exists())
+                .andExpect(jsonPath("$.answer").doesNotExist())
+                .andExpect(jsonPath("$.player.score").value(50))
+                .andExpect(jsonPath("$.rank").value(1))
+                .andExpect(jsonPath("$.playerCount").value(1))
+                .andExpect(jsonPath("$.leaderboard.length()").value(1))
+                .andExpect(jsonPath("$.leaderboard[0].nickname").value("John"));
+    }
+
+    @Test
+    void snapshotAnswerStage() throws Exception {
+        Question answered = mock(Question.class);
+        when(answered.getRightAnswer()).thenReturn(new AnswerDTO(getUUID(5), new ArrayList<>()));
+        game.addQuestions(new ArrayList<>(List.of(answered)));
+        game.setCurrentQuestionNumber(0);
+        game.setAcceptingAnswers(false);
+
+        this.mockMvc.perform(get("/api/game/{id}/snapshot", game.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.acceptingAnswers").value(false))
+                .andExpect(jsonPath("$.answer.questionId").value(getUUID(5).toString()));
+    }
+
+    @Test
+    void snapshotTop() throws Exception {
+        this.mockMvc.perform(get("/api/game/{id}/snapshot", game.getId()).param("top", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(1))
+                .andExpect(jsonPath("$.playerCount").value(1))
+                .andExpect(jsonPath("$.leaderboard.length()").value(0));
+    }
+
+    @Test
+    void snapshotNegativeTop() throws Exception {
+        this.mockMvc.perform(get("/api/game/{id}/snapshot", game.getId()).param("top", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void snapshotNotPlaying() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        sally.getEmail(),
+                        sally.getPassword(),
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        this.mockMvc.perform(get("/api/game/{id}/snapshot", game.getId()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void snapshotGameNotFound() throws Exception {
+        this.mockMvc.perform(get("/api/game/{id}/snapshot", getUUID(9)))
+                .andExpect(status().isNotFound());
+    }
 }
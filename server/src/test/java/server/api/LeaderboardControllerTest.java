@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static server.utils.TestHelpers.getUUID;
 
@@ -14,6 +15,7 @@ import commons.entities.utils.Views;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -213,4 +215,73 @@ class LeaderboardControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(expectedResponse));
     }
-}
\ No newline at end of file
+
+    /**
+     * Verify that the rank of a user is served by the global leaderboard.
+     *
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testRank() throws Exception {
+        User user = getUser(7, 2, 1234);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        this.mockMvc
+                .perform(get("/api/leaderboard/score/rank/" + user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId().toString()))
+                .andExpect(jsonPath("$.score").value(1234))
+                .andExpect(jsonPath("$.rank").isNumber())
+                .andExpect(jsonPath("$.email").doesNotExist());
+    }
+
+    /**
+     * Verify that the rank of an unknown user is not found.
+     *
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testRankUnknownUser() throws Exception {
+        when(userRepository.findById(getUUID(8))).thenReturn(Optional.empty());
+
+        this.mockMvc
+                .perform(get("/api/leaderboard/games/rank/" + getUUID(8)))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Verify that a page can start after a user who is not in the leaderboard anymore.
+     *
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testTopAfterRemovedUser() throws Exception {
+        this.mockMvc
+                .perform(get("/api/leaderboard/score/top").param("after", "400:" + getUUID(9)))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Verify that malformed page cursors are rejected.
+     *
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testTopMalformedCursor() throws Exception {
+        this.mockMvc
+                .perform(get("/api/leaderboard/score/top").param("after", getUUID(9).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Verify that unknown leaderboards are rejected.
+     *
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testUnknownBoard() throws Exception {
+        this.mockMvc
+                .perform(get("/api/leaderboard/streak/top"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import commons.entities.game.GameStatus;
+import commons.entities.game.LobbyPageDTO;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -41,6 +42,7 @@ import server.database.repositories.game.GameConfigurationRepository;
 import server.database.repositories.game.GamePlayerRepository;
 import server.database.repositories.game.GameRepository;
 import server.services.GameService;
+import server.services.LobbyDirectory;
 import server.services.LobbyService;
 
 @SpringBootTest
@@ -68,6 +70,9 @@ class LobbyControllerTest {
     @MockBean
     private LobbyService lobbyService;
 
+    @MockBean
+    private LobbyDirectory lobbyDirectory;
+
     private NormalGame mockLobby;
     private GameConfiguration mockLobbyConfiguration;
     private NormalGameConfiguration normalGameConfiguration;
@@ -148,6 +153,56 @@ class LobbyControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void directoryOk() throws Exception {
+        // Mock the directory
+        LobbyPageDTO page = new LobbyPageDTO(4, 21, List.of());
+        when(lobbyDirectory.getPage(1, 20, "quiz", true)).thenReturn(page);
+
+        // Request
+        this.mockMvc
+                .perform(get("/api/lobby/directory?page=1&size=20&search=quiz&open=true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    void directoryDefaults() throws Exception {
+        // Request
+        this.mockMvc
+                .perform(get("/api/lobby/directory?size=1000"))
+                .andExpect(status().isOk());
+
+        // Verify that the size of the page is capped
+        verify(lobbyDirectory).getPage(0, LobbyController.MAX_PAGE_SIZE, null, false);
+    }
+
+    @Test
+    void directoryBadRequest() throws Exception {
+        // Request
+        this.mockMvc
+                .perform(get("/api/lobby/directory?size=0"))
+                .andExpect(status().isBadRequest());
+        this.mockMvc
+                .perform(get("/api/lobby/directory?page=-1"))
+                .andExpect(status().isBadRequest());
+        verify(lobbyDirectory, never()).getPage(anyInt(), anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    void directorySubscription() throws Exception {
+        // Request
+        this.mockMvc
+                .perform(put("/api/lobby/directory/subscription"))
+                .andExpect(status().isOk());
+        verify(lobbyDirectory).subscribe(john.getId());
+
+        this.mockMvc
+                .perform(delete("/api/lobby/directory/subscription"))
+                .andExpect(status().isOk());
+        verify(lobbyDirectory).unsubscribe(john.getId());
+    }
+
     @Test
     public void getOk() throws Exception {
         // Request
@@ -198,6 +253,10 @@ class LobbyControllerTest {
         this.mockMvc
                 .perform(put("/api/lobby/" + mockLobby.getId() + "/join"))
                 .andExpect(status().isOk());
+
+        // Verify that the lobby browser is updated, and the user stops browsing
+        verify(lobbyDirectory).unsubscribe(sally.getId());
+        verify(lobbyDirectory).update(mockLobby);
     }
 
     @Test
@@ -388,6 +447,7 @@ class LobbyControllerTest {
                     .content(objectMapper.writeValueAsString(mockLobby.getDTO())))
                 .andExpect(status().isCreated())
                 .andExpect(content().string(objectMapper.writeValueAsString(mockLobby.getDTO())));
+        verify(lobbyDirectory).update(mockLobby);
     }
 
     @Test
@@ -427,6 +487,7 @@ class LobbyControllerTest {
         // Verify that the game has been started
         verify(gameService).start(mockLobby);
         verifyNoMoreInteractions(gameService);
+        verify(lobbyDirectory).update(mockLobby);
     }
 
     @Test
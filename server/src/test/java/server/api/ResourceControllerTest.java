@@ -4,18 +4,21 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static server.utils.TestHelpers.getUUID;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -23,6 +26,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import server.database.entities.User;
+import server.services.storage.ResourceMetadata;
 import server.services.storage.StorageService;
 
 @SpringBootTest
@@ -34,6 +38,9 @@ class ResourceControllerTest {
     @MockBean
     private StorageService storageService;
 
+    private Path file;
+    private ResourceMetadata metadata;
+
     @Autowired
     public ResourceControllerTest(MockMvc mockMvc) {
         this.mockMvc = mockMvc;
@@ -49,18 +56,72 @@ class ResourceControllerTest {
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
                 )
         );
+
+        // Store a resource
+        file = Files.createTempFile("resource", null);
+        Files.writeString(file, "Hello World");
+        metadata = new ResourceMetadata(MediaType.APPLICATION_OCTET_STREAM_VALUE, 11, "abcdef");
+        when(storageService.getMetadata(getUUID(1))).thenReturn(metadata);
+        when(storageService.load(getUUID(1))).thenReturn(file);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
     }
 
     @Test
     void serveResource() throws Exception {
-        // Construct a resource
-        Resource resource = new ByteArrayResource("Hello World".getBytes());
-        when(storageService.loadAsResource(getUUID(1))).thenReturn(resource);
-
         // Perform a GET request
         mockMvc.perform(get("/api/resource/{id}", getUUID(1)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abcdef\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 11))
+                .andExpect(content().string("Hello World"));
+    }
+
+    @Test
+    void serveResourceUnsupportedSize() throws Exception {
+        mockMvc.perform(get("/api/resource/{id}", getUUID(1)).param("size", "41"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void serveResourceNotModified() throws Exception {
+        mockMvc.perform(get("/api/resource/{id}", getUUID(1))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", \"abcdef\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abcdef\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void serveResourceRange() throws Exception {
+        mockMvc.perform(get("/api/resource/{id}", getUUID(1))
+                        .header(HttpHeaders.RANGE, "bytes=6-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 6-10/11"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5))
+                .andExpect(content().string("World"));
+    }
+
+    @Test
+    void serveResourceStaleRange() throws Exception {
+        // The range does not apply to another version of the resource
+        mockMvc.perform(get("/api/resource/{id}", getUUID(1))
+                        .header(HttpHeaders.RANGE, "bytes=0-4")
+                        .header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
                 .andExpect(content().string("Hello World"));
     }
+
+    @Test
+    void serveResourceUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/api/resource/{id}", getUUID(1))
+                        .header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */11"));
+    }
 }
\ No newline at end of file
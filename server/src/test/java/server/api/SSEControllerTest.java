@@ -102,4 +102,23 @@ class SSEControllerTest {
         verify(sseManager, times(1)).send(any(UUID.class), any(SSEMessage.class));
         verifyNoMoreInteractions(sseManager);
     }
+
+    @Test
+    void testReconnect() throws Exception {
+        Game game = new NormalGame();
+        game.setId(getUUID(2));
+        game.setStatus(GameStatus.ONGOING);
+        String lastEventId = getUUID(2) + ":5";
+
+        when(gameRepository.getPlayersLobbyOrGame(user.getId()))
+                .thenReturn(Optional.of(game));
+
+        this.mockMvc.perform(get("/api/sse/open").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted());
+
+        // The emitter is registered together with the replay of the missed events
+        verify(sseManager, times(1)).reconnect(eq(user.getId()), any(SseEmitter.class), any(SSEMessage.class),
+                eq(getUUID(2)), eq(lastEventId));
+        verifyNoMoreInteractions(sseManager);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package server.database.entities;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import commons.entities.auth.UserDTO;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 class UserTest {
@@ -18,4 +19,17 @@ class UserTest {
         assertEquals(annDTO.getUsername(), user.getUsername());
         assertEquals(annDTO.getPassword(), user.getPassword());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testToDTO() {
+        User user = new User("Ann", "ann@damn.me", "AVerySecurePassword");
+        user.setId(UUID.randomUUID());
+        user.setProfilePic(UUID.randomUUID());
+        user.setScore(42);
+        user.setGamesWon(3);
+
+        UserDTO dto = user.getDTO();
+        assertEquals(new UserDTO(user.getId(), "Ann", "ann@damn.me", "AVerySecurePassword",
+                user.getProfilePic(), 42, 3), dto);
+    }
+}
@@ -4,12 +4,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static server.utils.TestHelpers.getUUID;
 
 import java.util.Collections;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import server.database.entities.User;
 import server.database.entities.auth.config.AuthContext;
+import server.database.entities.auth.config.AuthPrincipal;
 
 /**
  * Tests for AuthContext.
@@ -31,4 +33,22 @@ public class AuthContextTests {
         // Get the context
         assertEquals(AuthContext.get(), joe.getEmail());
     }
+
+    @Test
+    void getUserId() {
+        // Create the user
+        User joe = new User("joe", "joe@doe.com", "stinkywinky");
+        joe.setId(getUUID(0));
+
+        // Set the context, as the authentication filter does
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        new AuthPrincipal(joe.getId(), joe.getEmail()),
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        // Get the context
+        assertEquals(Optional.of(joe.getId()), AuthContext.getUserId());
+        assertEquals(joe.getEmail(), AuthContext.get());
+    }
 }
@@ -0,0 +1,107 @@
+package server.database.entities.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static server.utils.TestHelpers.getUUID;
+
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import server.database.entities.User;
+import server.database.entities.auth.config.AuthPrincipal;
+import server.database.entities.auth.config.AuthTokenCache;
+import server.database.entities.auth.config.JWTHandler;
+import server.database.repositories.UserRepository;
+
+/**
+ * Tests for AuthTokenCache.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AuthTokenCacheTests {
+    @Mock
+    private UserRepository userRepository;
+
+    private JWTHandler handler;
+    private User joe;
+    private Clock clock;
+    private AuthTokenCache cache;
+
+    @BeforeEach
+    void init() {
+        handler = new JWTHandler();
+        ReflectionTestUtils.setField(handler, "secret", "stinkysecret");
+        handler.init();
+
+        joe = new User("joe", "joe@doe.com", "stinkywinky");
+        joe.setId(getUUID(0));
+
+        clock = Clock.fixed(Instant.now(), ZoneOffset.UTC);
+        cache = new AuthTokenCache(handler, userRepository, Duration.ofMinutes(5), 2, clock);
+    }
+
+    @Test
+    void resolveCached() {
+        when(userRepository.findByEmailIgnoreCase(joe.getEmail())).thenReturn(Optional.of(joe));
+        String token = handler.generateToken(joe.getEmail());
+
+        assertEquals(new AuthPrincipal(joe.getId(), joe.getEmail()), cache.resolve(token));
+        assertEquals(new AuthPrincipal(joe.getId(), joe.getEmail()), cache.resolve(token));
+
+        // The user is only looked up once
+        verify(userRepository, times(1)).findByEmailIgnoreCase(joe.getEmail());
+    }
+
+    @Test
+    void resolveExpiredEntry() {
+        when(userRepository.findByEmailIgnoreCase(joe.getEmail())).thenReturn(Optional.of(joe));
+        String token = handler.generateToken(joe.getEmail());
+        cache.resolve(token);
+
+        // Once the entry expires, the token is verified again
+        cache = new AuthTokenCache(handler, userRepository, Duration.ZERO, 2, clock);
+        cache.resolve(token);
+        cache.resolve(token);
+        verify(userRepository, times(3)).findByEmailIgnoreCase(joe.getEmail());
+    }
+
+    @Test
+    void bounded() {
+        when(userRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(joe));
+
+        cache.resolve(handler.generateToken("a@doe.com"));
+        cache.resolve(handler.generateToken("b@doe.com"));
+        cache.resolve(handler.generateToken("c@doe.com"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void unknownUser() {
+        when(userRepository.findByEmailIgnoreCase(joe.getEmail())).thenReturn(Optional.empty());
+        String token = handler.generateToken(joe.getEmail());
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.resolve(token));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidToken() {
+        JWTHandler other = new JWTHandler();
+        ReflectionTestUtils.setField(other, "secret", "othersecret");
+        other.init();
+
+        assertThrows(SignatureVerificationException.class, () -> cache.resolve(other.generateToken(joe.getEmail())));
+        assertThrows(JWTDecodeException.class, () -> cache.resolve("not a token"));
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -3,6 +3,7 @@ package server.database.entities.question;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import commons.entities.ActivityDTO;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 class ActivityTest {
@@ -15,4 +16,23 @@ class ActivityTest {
         Activity activity = new Activity(activityDTO);
         assertEquals(desc, activity.getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testToDTO() {
+        Activity activity = new Activity("A sample description");
+        activity.setId(UUID.randomUUID());
+        activity.setCost(1234L);
+        activity.setIconId(UUID.randomUUID());
+        activity.setSource("https://example.com");
+
+        ActivityDTO dto = activity.getDTO();
+        assertEquals(activity.getId(), dto.getId());
+        assertEquals(activity.getDescription(), dto.getDescription());
+        assertEquals(1234L, dto.getCost());
+        assertEquals(activity.getIconId(), dto.getIconId());
+        assertEquals(activity.getSource(), dto.getSource());
+
+        // Converting back yields the same activity
+        assertEquals(activity, new Activity(dto));
+    }
+}
@@ -2,6 +2,7 @@ package server.database.entities.question;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static server.utils.TestHelpers.getUUID;
 
 import commons.entities.ActivityDTO;
@@ -46,6 +47,17 @@ class MCQuestionTest {
         assertEquals("Question text", q.getText());
     }
 
+    @Test
+    void testFromDTOConstructorNullActivities() {
+        MCQuestionDTO questionDTO = new MCQuestionDTO(MCType.GUESS_ACTIVITY);
+        questionDTO.setText("Question text");
+        questionDTO.setActivities(null);
+
+        MCQuestion q = new MCQuestion(questionDTO);
+        assertTrue(q.getActivities().isEmpty());
+        assertEquals(MCType.GUESS_ACTIVITY, q.getQuestionType());
+    }
+
     @Test
     void getRightAnswerTest() {
         int rightAnswerIdx = 2;
@@ -56,6 +68,24 @@ class MCQuestionTest {
         assertEquals(rightAnswer, q.getRightAnswer());
     }
 
+    @Test
+    void checkSingleAnswer() {
+        MCQuestion question = new MCQuestion();
+        question.setAnswer(getActivity(1));
+
+        AnswerDTO correct = new AnswerDTO();
+        correct.setResponse(List.of(getActivity(1).getDTO()));
+        AnswerDTO wrong = new AnswerDTO();
+        wrong.setResponse(List.of(getActivity(2).getDTO()));
+        AnswerDTO multiple = new AnswerDTO();
+        multiple.setResponse(List.of(getActivity(1).getDTO(), getActivity(2).getDTO()));
+
+        assertEquals(1.0, question.checkAnswer(correct));
+        assertEquals(0.0, question.checkAnswer(wrong));
+        assertEquals(0.0, question.checkAnswer(multiple));
+        assertEquals(0.0, question.checkAnswer(new AnswerDTO()));
+    }
+
     @Test
     void checkAnswerTest() {
         AnswerCollection userAnswers = new AnswerCollection();
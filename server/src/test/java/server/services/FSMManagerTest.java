@@ -4,13 +4,10 @@ import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.mock;
 import static server.utils.TestHelpers.getUUID;
 
 import commons.entities.game.GameStatus;
-import java.util.Date;
-import java.util.Optional;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,15 +15,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import server.configuration.quiz.QuizConfiguration;
 import server.configuration.quiz.QuizTimingConfiguration;
 import server.database.entities.game.NormalGame;
 import server.database.entities.game.configuration.NormalGameConfiguration;
 import server.database.repositories.game.GameRepository;
+import server.services.clock.ClockTimeout;
+import server.services.clock.GameClock;
 import server.services.fsm.DefiniteGameFSM;
 import server.services.fsm.FSMContext;
-import server.utils.FSMHelpers;
+import server.services.fsm.FSMState;
 
 @ExtendWith(MockitoExtension.class)
 class FSMManagerTest {
@@ -37,7 +35,7 @@ class FSMManagerTest {
     @Mock
     private SSEManager sseManager;
     @Mock
-    private ThreadPoolTaskScheduler taskScheduler;
+    private GameClock gameClock;
     @Mock
     private QuizConfiguration quizConfiguration;
     @Mock
@@ -61,7 +59,12 @@ class FSMManagerTest {
 
         context = new FSMContext(gameService);
 
-        lenient().when(taskScheduler.schedule(any(), any(Date.class))).thenReturn(new FSMHelpers.MockFuture<>());
+        lenient().when(gameClock.schedule(any(), any(), any())).thenReturn(mock(ClockTimeout.class));
+        // Run submitted tasks immediately
+        lenient().when(gameClock.submit(any(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return mock(ClockTimeout.class);
+        });
         lenient().when(quizConfiguration.getTiming()).thenReturn(
                 new QuizTimingConfiguration(5000, 5000, 5000));
     }
@@ -83,6 +86,17 @@ class FSMManagerTest {
         assertEquals(0, fsmManager.size());
     }
 
+    @Test
+    void countGames() {
+        DefiniteGameFSM fsm = new DefiniteGameFSM(game, context);
+        fsmManager.addFSM(game, fsm);
+        assertEquals(1, fsmManager.countGames(FSMState.IDLE));
+
+        fsm.setState(FSMState.QUESTION);
+        assertEquals(0, fsmManager.countGames(FSMState.IDLE));
+        assertEquals(1, fsmManager.countGames(FSMState.QUESTION));
+    }
+
     @Test
     void startFSM() {
         DefiniteGameFSM fsm = new DefiniteGameFSM(game, context);
@@ -133,7 +147,6 @@ class FSMManagerTest {
     void startFSMAlreadyStarted() {
         DefiniteGameFSM fsm = new DefiniteGameFSM(game, context);
         fsm.getContext().setGameService(gameService);
-        when(gameRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(game));
 
         // Add a new FSM
         fsmManager.addFSM(game, fsm);
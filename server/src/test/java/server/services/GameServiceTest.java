@@ -10,6 +10,7 @@ import commons.entities.AnswerDTO;
 import commons.entities.game.GameStatus;
 import commons.entities.messages.SSEMessage;
 import commons.entities.messages.SSEMessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -20,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import server.database.entities.User;
@@ -36,7 +38,12 @@ import server.database.entities.question.MCQuestion;
 import server.database.repositories.UserRepository;
 import server.database.repositories.game.GamePlayerRepository;
 import server.database.repositories.game.GameRepository;
+import server.services.answer.AnswerSubmission;
+import server.services.fsm.FSMState;
 import server.services.fsm.GameFSM;
+import server.services.fsm.LiveGame;
+import server.services.question.QuestionPool;
+import server.services.settlement.GameSettlement;
 
 /**
  * Tests for GameService class.
@@ -62,7 +69,13 @@ public class GameServiceTest {
     private ThreadPoolTaskScheduler taskScheduler;
 
     @Mock
-    private QuestionService questionService;
+    private QuestionPool questionPool;
+
+    @Mock
+    private GameSettlement gameSettlement;
+
+    @Spy
+    private GameMetrics metrics = new GameMetrics(new SimpleMeterRegistry());
 
     @InjectMocks
     private GameService gameService;
@@ -144,7 +157,7 @@ public class GameServiceTest {
     void startNormal() throws IOException {
         // Mock the repository
         when(gameRepository.save(any(Game.class))).thenReturn(game);
-        when(questionService.provideQuestions(3)).thenReturn(List.of(questionA, questionB, questionC));
+        when(questionPool.take(3)).thenReturn(List.of(questionA, questionB, questionC));
 
         // Start the game
         gameService.start(game);
@@ -155,10 +168,10 @@ public class GameServiceTest {
         assertNull(game.getCurrentQuestionNumber());
 
         // Verify interactions
-        verify(questionService).provideQuestions(3);
+        verify(questionPool).take(3);
         verify(fsmManager, times(1)).addFSM(any(Game.class), any(GameFSM.class));
         verify(fsmManager, times(1)).startFSM(any(UUID.class));
-        verifyNoMoreInteractions(questionService, fsmManager);
+        verifyNoMoreInteractions(questionPool, fsmManager);
     }
 
     @Test
@@ -170,7 +183,7 @@ public class GameServiceTest {
         assertThrows(IllegalStateException.class, () -> gameService.start(game));
 
         // Verify interactions
-        verifyNoMoreInteractions(questionService);
+        verifyNoMoreInteractions(questionPool);
     }
 
     @Test
@@ -204,7 +217,7 @@ public class GameServiceTest {
 
         // Verify interactions
         verify(sseManager, times(1)).unregister(joe.getId());
-        verify(sseManager, times(1)).send(any(Iterable.class), any(SSEMessage.class));
+        verify(sseManager, times(1)).publish(eq(game.getId()), any(Iterable.class), any(SSEMessage.class));
         verifyNoMoreInteractions(sseManager);
     }
 
@@ -221,7 +234,7 @@ public class GameServiceTest {
 
         // Verify interactions
         verify(sseManager, times(1)).unregister(joe.getId());
-        verify(sseManager, times(1)).send(any(Iterable.class), any(SSEMessage.class));
+        verify(sseManager, times(1)).publish(eq(game.getId()), any(Iterable.class), any(SSEMessage.class));
         verifyNoMoreInteractions(sseManager);
     }
 
@@ -243,7 +256,6 @@ public class GameServiceTest {
     void nextQuestionOk() throws IOException {
         // Set the game to be started and mock the repository
         game.setStatus(GameStatus.ONGOING);
-        when(gameRepository.save(game)).thenReturn(game);
 
         // Call the service
         Long delay = 1000L;
@@ -253,9 +265,9 @@ public class GameServiceTest {
         assertEquals(0, game.getCurrentQuestionNumber());
         assertTrue(game.isAcceptingAnswers());
 
-        // Verify interactions
-        verify(gameRepository, times(1)).save(game);
-        verify(sseManager, times(1)).send(
+        // Verify interactions, the state is persisted by the FSM
+        verify(sseManager, times(1)).publish(
+                eq(game.getId()),
                 any(Iterable.class),
                 eq(new SSEMessage(SSEMessageType.START_QUESTION, delay)));
         verifyNoMoreInteractions(gameRepository, sseManager);
@@ -275,8 +287,6 @@ public class GameServiceTest {
     void showAnswerOk() throws IOException {
         // Set the game to be started and mock the repository
         game.setStatus(GameStatus.ONGOING);
-        when(gameRepository.save(game)).thenReturn(game);
-
 
         // Call the service
         Long delay = 1000L;
@@ -285,9 +295,9 @@ public class GameServiceTest {
         // Check changes
         assertFalse(game.isAcceptingAnswers());
 
-        // Verify interactions
-        verify(gameRepository, times(1)).save(game);
-        verify(sseManager, times(1)).send(
+        // Verify interactions, the state is persisted by the FSM
+        verify(sseManager, times(1)).publish(
+                eq(game.getId()),
                 any(Iterable.class),
                 eq(new SSEMessage(SSEMessageType.STOP_QUESTION, delay)));
         verifyNoMoreInteractions(gameRepository, sseManager);
@@ -295,21 +305,28 @@ public class GameServiceTest {
 
     @Test
     void finishOk() throws IOException {
-        // Set the game to be started and mock the repository
+        // Run the writes right away
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(taskScheduler).execute(any(Runnable.class));
+
+        // Set the game to be started
         game.setStatus(GameStatus.ONGOING);
-        when(gameRepository.save(game)).thenReturn(game);
-        when(userRepository.findById(joe.getId())).thenReturn(Optional.ofNullable(joe));
-        when(userRepository.findById(susanne.getId())).thenReturn(Optional.ofNullable(susanne));
+        LiveGame liveGame = new LiveGame(game);
 
         // Call the service
-        gameService.finish(game);
+        gameService.finish(liveGame);
 
         // Check changes
         assertEquals(GameStatus.FINISHED, game.getStatus());
+        assertFalse(liveGame.isDirty());
 
-        // Verify interactions
-        verify(gameRepository, times(1)).save(game);
-        verify(sseManager, times(1)).send(
+        // Verify interactions, the status is written behind instead of saving the whole game
+        verify(gameRepository, times(1)).updateState(argThat(state -> state.getStatus() == GameStatus.FINISHED));
+        verify(gameSettlement, times(1)).settle(game);
+        verify(sseManager, times(1)).publish(
+                eq(game.getId()),
                 any(Iterable.class),
                 eq(new SSEMessage(SSEMessageType.GAME_END)));
         verifyNoMoreInteractions(gameRepository, sseManager);
@@ -438,4 +455,71 @@ public class GameServiceTest {
         assertEquals(-10, susannePlayer.getScore());
         assertEquals(0, susannePlayer.getStreak());
     }
+
+    @Test
+    void lateAnswerRejected() throws GameFinishedException {
+        game.addQuestions(List.of(questionA, questionB));
+        game.setStatus(GameStatus.ONGOING);
+        gameService.nextQuestion(game, 1000L);
+
+        AnswerDTO answerA = new AnswerDTO();
+        answerA.setResponse(List.of(questionA.getAnswer().getDTO()));
+        answerA.setQuestionId(questionA.getId());
+        answerA.setAnswerTime(LocalDateTime.now());
+        assertEquals(AnswerSubmission.ACCEPTED, gameService.submitAnswer(game, joe.getId(), answerA));
+
+        // Scoring the question closes its answers
+        gameService.updateScores(game);
+        int score = susannePlayer.getScore();
+
+        AnswerDTO answerB = new AnswerDTO();
+        answerB.setResponse(List.of(questionA.getAnswer().getDTO()));
+        answerB.setQuestionId(questionA.getId());
+        answerB.setAnswerTime(LocalDateTime.now());
+        assertEquals(AnswerSubmission.CLOSED, gameService.submitAnswer(game, susanne.getId(), answerB));
+        assertEquals(AnswerSubmission.NOT_PLAYER, gameService.submitAnswer(game, james.getId(), answerB));
+        assertEquals(1, gameService.getAnswers(game).getAnswers().size());
+        assertEquals(score, susannePlayer.getScore());
+
+        // The next question accepts answers again, but not for the previous question
+        gameService.nextQuestion(game, 1000L);
+        assertEquals(AnswerSubmission.WRONG_QUESTION, gameService.submitAnswer(game, susanne.getId(), answerB));
+        answerB.setQuestionId(questionB.getId());
+        assertEquals(AnswerSubmission.ACCEPTED, gameService.submitAnswer(game, susanne.getId(), answerB));
+    }
+
+    @Test
+    void persistQuestionCycle() throws GameFinishedException {
+        // Run the writes right away
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(taskScheduler).execute(any(Runnable.class));
+        game.addQuestions(List.of(questionA, questionB));
+        game.setStatus(GameStatus.ONGOING);
+        LiveGame liveGame = new LiveGame(game);
+
+        // Question stage
+        liveGame.startQuestion();
+        gameService.nextQuestion(game, 1000L);
+        gameService.persist(liveGame, FSMState.QUESTION);
+
+        AnswerDTO answer = new AnswerDTO();
+        answer.setResponse(List.of(questionA.getAnswer().getDTO()));
+        answer.setQuestionId(questionA.getId());
+        answer.setAnswerTime(LocalDateTime.now());
+        assertEquals(AnswerSubmission.ACCEPTED, gameService.submitAnswer(game, joe.getId(), answer));
+
+        // Answer stage
+        gameService.updateScores(game);
+        gameService.showAnswer(game, 1000L);
+        gameService.persist(liveGame, FSMState.ANSWER);
+
+        // Verify that the progress of the game is written on each stage, and the new score through the batch
+        verify(gameRepository, times(2)).updateState(any());
+        verify(gamePlayerRepository, times(1)).updateScores(argThat(scores -> scores.stream()
+                .anyMatch(score -> score.getPlayerId().equals(joePlayer.getId()) && score.getScore() > 0)));
+        verify(gameRepository, never()).save(any());
+        assertFalse(liveGame.isDirty());
+    }
 }
@@ -0,0 +1,208 @@
+package server.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+import static server.utils.TestHelpers.getUUID;
+
+import commons.entities.game.GameStatus;
+import commons.entities.game.LobbyListDeltaDTO;
+import commons.entities.game.LobbyPageDTO;
+import commons.entities.game.LobbySummaryDTO;
+import commons.entities.messages.SSEMessage;
+import commons.entities.messages.SSEMessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import server.database.entities.User;
+import server.database.entities.game.Game;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.game.NormalGame;
+import server.database.entities.game.configuration.NormalGameConfiguration;
+import server.database.repositories.game.GameRepository;
+
+class LobbyDirectoryTest {
+    private GameRepository gameRepository;
+    private SSEManager sseManager;
+    private SimpleMeterRegistry registry;
+
+    private LobbyDirectory directory;
+
+    private NormalGame older;
+    private NormalGame newer;
+
+    private NormalGame lobby(int id, String name, int players, int capacity) {
+        NormalGame lobby = new NormalGame();
+        lobby.setId(getUUID(id));
+        lobby.setGameId("lobby" + id);
+        lobby.setGameName(name);
+        lobby.setCreateDate(LocalDateTime.parse("2022-03-01T00:00:00").plusDays(id));
+        lobby.setConfiguration(new NormalGameConfiguration(3, Duration.ofSeconds(13), capacity, 2, 2f, 100, 0, 75));
+        for (int player = 0; player < players; player++) {
+            User user = new User("user" + id + player, "user" + id + player + "@doe.com", "stinkywinky");
+            user.setId(getUUID(100 * id + player));
+            lobby.add(new GamePlayer(user));
+        }
+        return lobby;
+    }
+
+    private List<String> names(LobbyPageDTO page) {
+        return page.getLobbies().stream().map(LobbySummaryDTO::getGameName).collect(Collectors.toList());
+    }
+
+    private LobbyListDeltaDTO lastDelta() {
+        ArgumentCaptor<SSEMessage> message = ArgumentCaptor.forClass(SSEMessage.class);
+        verify(sseManager, atLeastOnce()).send(anyIterable(), message.capture());
+        assertEquals(SSEMessageType.LOBBY_LIST_UPDATE, message.getValue().getType());
+        return (LobbyListDeltaDTO) message.getValue().getData();
+    }
+
+    @BeforeEach
+    void init() {
+        gameRepository = mock(GameRepository.class);
+        sseManager = mock(SSEManager.class);
+        registry = new SimpleMeterRegistry();
+        directory = new LobbyDirectory(registry);
+        ReflectionTestUtils.setField(directory, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(directory, "sseManager", sseManager);
+
+        older = lobby(1, "Energy quiz", 1, 2);
+        newer = lobby(2, "Watts up", 2, 2);
+        when(gameRepository.findAllByStatusAndIsPrivateIsFalse(GameStatus.CREATED)).thenReturn(List.of(newer, older));
+        directory.rebuild();
+
+        when(sseManager.isRegistered(any())).thenReturn(true);
+        when(sseManager.send(anyIterable(), any(SSEMessage.class))).thenReturn(true);
+    }
+
+    @Test
+    void rebuild() {
+        LobbyPageDTO page = directory.getPage(0, 10, null, false);
+
+        assertEquals(1, page.getVersion());
+        assertEquals(2, page.getTotal());
+        assertEquals(List.of("Energy quiz", "Watts up"), names(page));
+        assertEquals(new LobbySummaryDTO(getUUID(1), "Energy quiz", "user10", 1,
+                older.getConfiguration().getDTO(), older.getCreateDate()), page.getLobbies().get(0));
+        assertEquals(2, registry.get("quiz_lobby_directory_size").gauge().value());
+    }
+
+    @Test
+    void getPage() {
+        directory.update(lobby(3, "Kilowatt hour", 0, 4));
+
+        assertEquals(List.of("Energy quiz", "Watts up"), names(directory.getPage(0, 2, null, false)));
+        assertEquals(List.of("Kilowatt hour"), names(directory.getPage(1, 2, null, false)));
+        assertEquals(List.of(), names(directory.getPage(5, 2, null, false)));
+        assertEquals(3, directory.getPage(5, 2, null, false).getTotal());
+    }
+
+    @Test
+    void getPageFiltered() {
+        assertEquals(List.of("Watts up"), names(directory.getPage(0, 10, "WATT", false)));
+        assertEquals(List.of("Energy quiz"), names(directory.getPage(0, 10, null, true)));
+        assertEquals(List.of(), names(directory.getPage(0, 10, "watt", true)));
+    }
+
+    @Test
+    void updateNotSubscribed() {
+        older.add(newer.getPlayers().values().iterator().next());
+        directory.update(older);
+
+        // Verify that the change is applied, but not pushed to anyone
+        assertEquals(2, directory.getPage(0, 10, null, false).getVersion());
+        assertEquals(2, directory.getPage(0, 10, "energy", false).getLobbies().get(0).getPlayerCount());
+        assertEquals(List.of(), names(directory.getPage(0, 10, null, true)));
+        verify(sseManager, never()).send(anyIterable(), any(SSEMessage.class));
+    }
+
+    @Test
+    void updatePushed() {
+        directory.subscribe(getUUID(7));
+        older.setGameName("Joules");
+        directory.update(older);
+
+        LobbyListDeltaDTO delta = lastDelta();
+        assertEquals(2, delta.getVersion());
+        assertEquals(List.of("Joules"), delta.getUpdated().stream()
+                .map(LobbySummaryDTO::getGameName).collect(Collectors.toList()));
+        assertTrue(delta.getRemoved().isEmpty());
+        verify(sseManager).send(eq(Set.of(getUUID(7))), any(SSEMessage.class));
+    }
+
+    @Test
+    void updateUnchanged() {
+        directory.subscribe(getUUID(7));
+        directory.update(older);
+
+        // Verify that nothing is pushed if the summary did not change
+        assertEquals(1, directory.getPage(0, 10, null, false).getVersion());
+        verify(sseManager, never()).send(anyIterable(), any(SSEMessage.class));
+    }
+
+    @Test
+    void updateStarted() {
+        directory.subscribe(getUUID(7));
+        newer.setStatus(GameStatus.ONGOING);
+        directory.update(newer);
+
+        LobbyListDeltaDTO delta = lastDelta();
+        assertEquals(2, delta.getVersion());
+        assertEquals(List.of(getUUID(2)), delta.getRemoved());
+        assertEquals(List.of("Energy quiz"), names(directory.getPage(0, 10, null, false)));
+    }
+
+    @Test
+    void updatePrivate() {
+        Game<?> hidden = lobby(3, "Secret", 1, 4);
+        hidden.setIsPrivate(true);
+        directory.update(hidden);
+
+        assertEquals(2, directory.size());
+        assertEquals(1, directory.getPage(0, 10, null, false).getVersion());
+    }
+
+    @Test
+    void remove() {
+        directory.subscribe(getUUID(7));
+        directory.remove(getUUID(1));
+        directory.remove(getUUID(1));
+
+        // Verify that removing a lobby twice is only pushed once
+        assertEquals(List.of(getUUID(1)), lastDelta().getRemoved());
+        verify(sseManager, times(1)).send(anyIterable(), any(SSEMessage.class));
+        assertEquals(2, directory.getPage(0, 10, null, false).getVersion());
+    }
+
+    @Test
+    void disconnectedSubscribers() {
+        directory.subscribe(getUUID(7));
+        directory.subscribe(getUUID(8));
+        when(sseManager.isRegistered(getUUID(8))).thenReturn(false);
+
+        directory.remove(getUUID(1));
+
+        // Verify that users who closed their connection are unsubscribed
+        assertTrue(directory.isSubscribed(getUUID(7)));
+        assertFalse(directory.isSubscribed(getUUID(8)));
+        assertEquals(1, registry.get("quiz_lobby_directory_subscribers").gauge().value());
+    }
+
+    @Test
+    void unsubscribe() {
+        directory.subscribe(getUUID(7));
+        directory.unsubscribe(getUUID(7));
+        directory.remove(getUUID(1));
+
+        assertFalse(directory.isSubscribed(getUUID(7)));
+        verify(sseManager, never()).send(anyIterable(), any(SSEMessage.class));
+    }
+}
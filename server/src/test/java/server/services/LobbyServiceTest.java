@@ -34,6 +34,9 @@ public class LobbyServiceTest {
     @Mock
     private SSEManager sseManager;
 
+    @Mock
+    private LobbyDirectory lobbyDirectory;
+
     @InjectMocks
     private LobbyService lobbyService;
 
@@ -86,6 +89,7 @@ public class LobbyServiceTest {
         // Verify interactions
         verify(gameRepository, times(1)).save(lobby);
         verifyNoMoreInteractions(gameRepository);
+        verify(lobbyDirectory, times(1)).update(lobby);
     }
 
     @Test
@@ -97,6 +101,8 @@ public class LobbyServiceTest {
         // Verify interactions
         verify(gameRepository, times(1)).delete(lobby);
         verifyNoMoreInteractions(gameRepository);
+        verify(lobbyDirectory, times(1)).remove(lobby.getId());
+        verifyNoMoreInteractions(lobbyDirectory);
     }
 
     @Test
@@ -116,6 +122,7 @@ public class LobbyServiceTest {
         // Verify interactions
         verify(gameRepository, times(1)).delete(lobby);
         verifyNoMoreInteractions(gameRepository);
+        verify(lobbyDirectory, times(1)).remove(lobby.getId());
     }
 
     @Test
@@ -139,5 +146,6 @@ public class LobbyServiceTest {
         // Verify interactions
         verify(gameRepository, times(0)).delete(lobby);
         verifyNoMoreInteractions(gameRepository);
+        verifyNoInteractions(lobbyDirectory);
     }
 }
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import commons.entities.questions.MCType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -12,8 +13,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
 import server.configuration.QuestionGenerationConfiguration;
 import server.database.entities.question.Activity;
 import server.database.entities.question.EstimateQuestion;
@@ -21,6 +24,7 @@ import server.database.entities.question.MCQuestion;
 import server.database.entities.question.Question;
 import server.database.repositories.question.ActivityRepository;
 import server.database.repositories.question.QuestionRepository;
+import server.services.question.ActivityIndex;
 
 /**
  * Tests for QuestionService class.
@@ -36,6 +40,9 @@ class QuestionServiceTest {
     @Mock
     private ActivityRepository activityRepository;
 
+    @Spy
+    private GameMetrics metrics = new GameMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private QuestionService questionService;
 
@@ -53,6 +60,8 @@ class QuestionServiceTest {
 
     @BeforeEach
     void init() {
+        // The activities are read through a real index, backed by the mocked repository
+        ReflectionTestUtils.setField(questionService, "activityIndex", new ActivityIndex(activityRepository));
         lenient().when(questionRepository.saveAll(any(List.class)))
                 .thenAnswer((Answer<List<Question>>) invocation -> invocation.getArgument(0));
         lenient().when(questionGenerationConfiguration.getNumberEnabledQuestionTypes()).thenReturn(4);
@@ -5,18 +5,28 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static server.utils.TestHelpers.getUUID;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.entities.messages.SSEMessage;
 import commons.entities.messages.SSEMessageType;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server.configuration.SSEConfiguration;
+import server.services.sse.SerializedEvent;
+import server.utils.SSE;
 
 @ExtendWith(MockitoExtension.class)
 class SSEManagerTest {
@@ -62,7 +72,7 @@ class SSEManagerTest {
         sseManager.register(getUUID(1), emitter2);
 
         // Verify that the old emitter was closed.
-        verify(emitter1, times(1)).complete();
+        verify(emitter1, timeout(1000).times(1)).complete();
         // Verify that only one emitter is registered for the user.
         assertEquals(1, sseManager.size());
     }
@@ -137,7 +147,7 @@ class SSEManagerTest {
         assertTrue(sseManager.send(getUUID(1), new SSEMessage(SSEMessageType.INIT)));
 
         // Verify that the `send()` function was called only for the emitter with the given ID.
-        verify(emitter1, times(1)).send(any());
+        verify(emitter1, timeout(1000).times(1)).send(any());
         verify(emitter2, never()).send(any());
     }
 
@@ -163,8 +173,8 @@ class SSEManagerTest {
         assertTrue(sseManager.send(uuids, new SSEMessage(SSEMessageType.INIT)));
 
         // Verify that the `send()` function was called only for the targeted emitters.
-        verify(emitter1, times(1)).send(any());
-        verify(emitter2, times(1)).send(any());
+        verify(emitter1, timeout(1000).times(1)).send(any());
+        verify(emitter2, timeout(1000).times(1)).send(any());
         verify(emitter3, never()).send(any());
     }
 
@@ -188,9 +198,9 @@ class SSEManagerTest {
         sseManager.sendAll(new SSEMessage(SSEMessageType.INIT));
 
         // Verify that the `send()` function was called for all emitters.
-        verify(emitter1, times(1)).send(any());
-        verify(emitter2, times(1)).send(any());
-        verify(emitter3, times(1)).send(any());
+        verify(emitter1, timeout(1000).times(1)).send(any());
+        verify(emitter2, timeout(1000).times(1)).send(any());
+        verify(emitter3, timeout(1000).times(1)).send(any());
     }
 
     /**
@@ -227,8 +237,8 @@ class SSEManagerTest {
         assertFalse(sseManager.send(uuids, new SSEMessage(SSEMessageType.INIT)));
 
         // All users that were in the set and have emitters registered should be notified.
-        verify(emitter1, times(1)).send(any());
-        verify(emitter3, times(1)).send(any());
+        verify(emitter1, timeout(1000).times(1)).send(any());
+        verify(emitter3, timeout(1000).times(1)).send(any());
         verify(emitter4, never()).send(any());
     }
 
@@ -251,7 +261,7 @@ class SSEManagerTest {
         sseManager.disconnect(getUUID(1));
 
         // Verify that the `complete()` function was called for all emitters.
-        verify(emitter1, times(1)).complete();
+        verify(emitter1, timeout(1000).times(1)).complete();
     }
 
     @Test
@@ -272,8 +282,8 @@ class SSEManagerTest {
         sseManager.disconnect(uuids);
 
         // Verify that the `complete()` function was called for all emitters.
-        verify(emitter1, times(1)).complete();
-        verify(emitter2, times(1)).complete();
+        verify(emitter1, timeout(1000).times(1)).complete();
+        verify(emitter2, timeout(1000).times(1)).complete();
         verify(emitter3, never()).complete();
     }
 
@@ -292,8 +302,124 @@ class SSEManagerTest {
         sseManager.disconnectAll();
 
         // Verify that the `complete()` function was called for all emitters.
-        verify(emitter1, times(1)).complete();
-        verify(emitter2, times(1)).complete();
-        verify(emitter3, times(1)).complete();
+        verify(emitter1, timeout(1000).times(1)).complete();
+        verify(emitter2, timeout(1000).times(1)).complete();
+        verify(emitter3, timeout(1000).times(1)).complete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSerializedOnce() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        sseManager = new SSEManager(registry);
+        sseManager.register(getUUID(1), new SseEmitter());
+        sseManager.register(getUUID(2), new SseEmitter());
+        sseManager.register(getUUID(3), new SseEmitter());
+
+        // Send one message to all three users
+        assertTrue(sseManager.send(Set.of(getUUID(1), getUUID(2), getUUID(3)),
+                new SSEMessage(SSEMessageType.START_QUESTION, 1000L)));
+
+        // The message should only have been serialized once
+        assertEquals(1.0, registry.get("quiz_sse_serializations").counter().count());
+    }
+
+    @Test
+    void testSerializedFormat() {
+        SerializedEvent event = SSE.serialize(new ObjectMapper(), new SSEMessage(SSEMessageType.START_QUESTION, 1000L));
+        assertEquals("event:START_QUESTION\ndata:1000\n\n", event.build().iterator().next().getData());
+
+        event = SSE.serialize(new ObjectMapper(), new SSEMessage(SSEMessageType.GAME_END));
+        assertEquals("event:GAME_END\n\n", event.build().iterator().next().getData());
+    }
+
+    @Test
+    void testReconnect() throws IOException {
+        UUID gameId = getUUID(7);
+        for (int i = 0; i < 3; i++) {
+            sseManager.publish(gameId, Set.of(getUUID(1)), new SSEMessage(SSEMessageType.START_QUESTION));
+        }
+
+        // The user received the first event before reconnecting
+        SseEmitter emitter1 = Mockito.spy(new SseEmitter());
+        assertTrue(sseManager.reconnect(getUUID(1), emitter1, new SSEMessage(SSEMessageType.INIT),
+                gameId, gameId + ":1"));
+        sseManager.publish(gameId, Set.of(getUUID(1)), new SSEMessage(SSEMessageType.STOP_QUESTION));
+
+        // The missed events are sent once, after the first message and before the live ones
+        ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter1, timeout(1000).times(4)).send(events.capture());
+        List<String> sent = events.getAllValues().stream()
+                .map(event -> event.build().iterator().next().getData().toString())
+                .collect(Collectors.toList());
+        assertTrue(sent.get(0).startsWith("event:INIT"));
+        assertTrue(sent.get(1).startsWith("id:" + gameId + ":2\n"));
+        assertTrue(sent.get(2).startsWith("id:" + gameId + ":3\n"));
+        assertTrue(sent.get(3).startsWith("id:" + gameId + ":4\n"));
+    }
+
+    @Test
+    void testReconnectOtherGame() throws IOException {
+        sseManager.publish(getUUID(7), Set.of(getUUID(1)), new SSEMessage(SSEMessageType.START_QUESTION));
+
+        // Nothing is replayed from the previous game of the user, but the emitter is registered
+        SseEmitter emitter1 = Mockito.spy(new SseEmitter());
+        assertFalse(sseManager.reconnect(getUUID(1), emitter1, new SSEMessage(SSEMessageType.INIT),
+                getUUID(7), getUUID(8) + ":0"));
+        assertEquals(emitter1, sseManager.get(getUUID(1)));
+        verify(emitter1, timeout(1000).times(1)).send(any());
+    }
+
+    @Test
+    void testStalledWrites() throws IOException, InterruptedException {
+        SSEConfiguration configuration = new SSEConfiguration();
+        configuration.setWriterThreads(1);
+        configuration.setWriteTimeout(Duration.ofMillis(1));
+        sseManager = new SSEManager(new SimpleMeterRegistry(), new ObjectMapper(), configuration);
+
+        // The first client stops reading, and blocks the only writer
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        SseEmitter emitter1 = Mockito.spy(new SseEmitter());
+        doAnswer(invocation -> {
+            sending.countDown();
+            unblock.await();
+            return null;
+        }).when(emitter1).send(any());
+        SseEmitter emitter2 = Mockito.spy(new SseEmitter());
+        sseManager.register(getUUID(1), emitter1);
+        sseManager.register(getUUID(2), emitter2);
+        assertTrue(sseManager.send(getUUID(1), new SSEMessage(SSEMessageType.START_QUESTION)));
+        sending.await();
+        Thread.sleep(10);
+
+        // The stalled connection is abandoned, and its writer replaced, so that the other client is served
+        sseManager.checkStalledWrites();
+        assertFalse(sseManager.isRegistered(getUUID(1)));
+        assertEquals(2, sseManager.getWriterThreads());
+        assertTrue(sseManager.send(getUUID(2), new SSEMessage(SSEMessageType.START_QUESTION)));
+        verify(emitter2, timeout(1000).times(1)).send(any());
+
+        // Once the blocked write returns, the extra writer is removed
+        unblock.countDown();
+        verify(emitter1, timeout(1000).times(1)).completeWithError(any());
+        Thread.sleep(10);
+        sseManager.checkStalledWrites();
+        assertEquals(1, sseManager.getWriterThreads());
+    }
+
+    @Test
+    void testDisconnectAfterSend() throws IOException {
+        SseEmitter emitter1 = Mockito.spy(new SseEmitter());
+        sseManager.register(getUUID(1), emitter1);
+
+        // Send a message, and disconnect right away
+        assertTrue(sseManager.send(getUUID(1), new SSEMessage(SSEMessageType.LOBBY_DELETED)));
+        assertTrue(sseManager.disconnect(getUUID(1)));
+
+        // The message must be written before the emitter is completed
+        verify(emitter1, timeout(1000).times(1)).complete();
+        InOrder inOrder = inOrder(emitter1);
+        inOrder.verify(emitter1).send(any());
+        inOrder.verify(emitter1).complete();
+    }
+}
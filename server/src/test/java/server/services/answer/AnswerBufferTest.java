@@ -0,0 +1,88 @@
+package server.services.answer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static server.utils.TestHelpers.getUUID;
+
+import commons.entities.AnswerDTO;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AnswerBufferTest {
+    private final UUID[] playerIds = {getUUID(0), getUUID(1), getUUID(2)};
+
+    private AnswerBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new AnswerBuffer(getUUID(10), playerIds);
+    }
+
+    @Test
+    void submitAndCollect() {
+        AnswerDTO first = new AnswerDTO();
+        AnswerDTO second = new AnswerDTO();
+        AnswerDTO replaced = new AnswerDTO();
+
+        assertTrue(buffer.submit(0, first));
+        assertTrue(buffer.submit(2, replaced));
+        assertTrue(buffer.submit(2, second));
+
+        AnswerCollection answers = buffer.collect();
+        assertEquals(2, answers.getAnswers().size());
+        assertSame(first, answers.getAnswer(playerIds[0]));
+        assertSame(second, answers.getAnswer(playerIds[2]));
+        assertFalse(answers.hasAnswer(playerIds[1]));
+    }
+
+    @Test
+    void closeRejectsLateAnswers() {
+        assertTrue(buffer.submit(0, new AnswerDTO()));
+        assertTrue(buffer.close());
+        assertFalse(buffer.close());
+
+        assertTrue(buffer.isClosed());
+        assertFalse(buffer.submit(1, new AnswerDTO()));
+        assertEquals(1, buffer.collect().getAnswers().size());
+    }
+
+    @Test
+    void concurrentClose() throws InterruptedException {
+        int players = 64;
+        UUID[] ids = new UUID[players];
+        for (int idx = 0; idx < players; idx++) {
+            ids[idx] = getUUID(idx);
+        }
+        buffer = new AnswerBuffer(getUUID(100), ids);
+
+        // Every answer reported as accepted must be collected, and no rejected one
+        AtomicIntegerArray accepted = new AtomicIntegerArray(players);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int idx = 0; idx < players; idx++) {
+            int slot = idx;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                accepted.set(slot, buffer.submit(slot, new AnswerDTO()) ? 1 : 0);
+            });
+        }
+        start.countDown();
+        buffer.close();
+        AnswerCollection answers = buffer.collect();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        for (int slot = 0; slot < players; slot++) {
+            assertEquals(accepted.get(slot) == 1, answers.hasAnswer(ids[slot]));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package server.services.clock;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static server.utils.TestHelpers.getUUID;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.configuration.quiz.QuizClockConfiguration;
+import server.configuration.quiz.QuizConfiguration;
+
+class GameClockTest {
+    private GameClock gameClock;
+
+    @BeforeEach
+    void setUp() {
+        QuizConfiguration configuration = new QuizConfiguration();
+        configuration.setClock(new QuizClockConfiguration(5, 8, 2));
+        gameClock = new GameClock(configuration, new SimpleMeterRegistry());
+        gameClock.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameClock.stop();
+    }
+
+    @Test
+    void schedule() {
+        AtomicBoolean executed = new AtomicBoolean(false);
+        ClockTimeout timeout = gameClock.schedule(getUUID(1), () -> executed.set(true), Duration.ofMillis(20));
+
+        await().atMost(1, TimeUnit.SECONDS).untilTrue(executed);
+        assertTrue(timeout.isExpired());
+        assertEquals(0, gameClock.size());
+    }
+
+    @Test
+    void scheduleBeyondOneRotation() {
+        // 8 buckets of 5ms, so this task has to wait for more than one rotation
+        AtomicBoolean executed = new AtomicBoolean(false);
+        long start = System.nanoTime();
+        gameClock.schedule(getUUID(1), () -> executed.set(true), Duration.ofMillis(100));
+
+        await().atMost(1, TimeUnit.SECONDS).untilTrue(executed);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void cancel() throws InterruptedException {
+        AtomicBoolean executed = new AtomicBoolean(false);
+        ClockTimeout timeout = gameClock.schedule(getUUID(1), () -> executed.set(true), Duration.ofMillis(50));
+
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, gameClock.size());
+        // Cancelling twice has no effect
+        assertFalse(timeout.cancel());
+
+        Thread.sleep(150);
+        assertFalse(executed.get());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    void sameKeyInOrder() {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        gameClock.schedule(getUUID(1), () -> order.add(2), Duration.ofMillis(40));
+        gameClock.schedule(getUUID(1), () -> order.add(1), Duration.ofMillis(10));
+        gameClock.submit(getUUID(1), () -> order.add(0));
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> order.size() == 3);
+        assertEquals(List.of(0, 1, 2), order);
+    }
+
+    @Test
+    void taskFailureDoesNotStopTheClock() {
+        AtomicBoolean executed = new AtomicBoolean(false);
+        gameClock.submit(getUUID(1), () -> {
+            throw new IllegalStateException();
+        });
+        gameClock.schedule(getUUID(1), () -> executed.set(true), Duration.ofMillis(20));
+
+        await().atMost(1, TimeUnit.SECONDS).untilTrue(executed);
+    }
+}
@@ -2,16 +2,17 @@ package server.services.fsm;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static server.utils.TestHelpers.getUUID;
 
 import commons.entities.game.GameStatus;
 import commons.entities.messages.SSEMessage;
 import commons.entities.messages.SSEMessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Date;
-import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,7 +22,6 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import server.configuration.quiz.QuizConfiguration;
 import server.configuration.quiz.QuizTimingConfiguration;
 import server.database.entities.game.DefiniteGame;
@@ -29,9 +29,11 @@ import server.database.entities.game.Game;
 import server.database.entities.game.NormalGame;
 import server.database.entities.game.configuration.NormalGameConfiguration;
 import server.database.repositories.game.GameRepository;
+import server.services.GameMetrics;
 import server.services.GameService;
 import server.services.SSEManager;
-import server.utils.FSMHelpers;
+import server.services.clock.ClockTimeout;
+import server.services.clock.GameClock;
 
 @ExtendWith(MockitoExtension.class)
 class DefiniteGameFSMTest {
@@ -50,13 +52,14 @@ class DefiniteGameFSMTest {
     @Mock
     private SSEManager sseManager;
     @Mock
-    private ThreadPoolTaskScheduler taskScheduler;
+    private GameClock gameClock;
     @Mock
     private QuizConfiguration quizConfiguration;
     @Mock
     private GameService gameService;
 
     private FSMContext context;
+    private GameMetrics metrics;
 
     @BeforeEach
     void setUp() throws IOException {
@@ -69,15 +72,17 @@ class DefiniteGameFSMTest {
         game.setStatus(GameStatus.ONGOING);
 
         context = new FSMContext(gameService);
+        metrics = new GameMetrics(new SimpleMeterRegistry());
 
         lenient().when(gameService.getQuizConfiguration()).thenReturn(quizConfiguration);
         lenient().doNothing().when(gameService).updateScores(any());
         lenient().when(quizConfiguration.getLeaderboardInterval()).thenReturn(5);
-        lenient().when(gameService.getTaskScheduler()).thenReturn(taskScheduler);
+        lenient().when(gameService.getGameClock()).thenReturn(gameClock);
+        lenient().when(gameService.getMetrics()).thenReturn(metrics);
         lenient().when(gameService.getSseManager()).thenReturn(sseManager);
         lenient().when(gameRepository.save(any(Game.class))).thenReturn(game);
         lenient().when(sseManager.send(any(UUID.class), any(SSEMessage.class))).thenReturn(true);
-        lenient().when(taskScheduler.schedule(any(), any(Date.class))).thenReturn(new FSMHelpers.MockFuture<>());
+        lenient().when(gameClock.schedule(any(), any(), any())).thenReturn(mock(ClockTimeout.class));
         lenient().when(quizConfiguration.getLeaderboardInterval()).thenReturn(5);
         lenient().when(quizConfiguration.getTiming()).thenReturn(
                 new QuizTimingConfiguration(5000, 5000, 5000));
@@ -101,8 +106,6 @@ class DefiniteGameFSMTest {
     void run() {
         DefiniteGameFSM fsm = new DefiniteGameFSM(game, context);
         fsm.getContext().setGameService(gameService);
-        when(fsm.getContext().getRepository()).thenReturn(gameRepository);
-        when(gameRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(game));
         fsm.run();
 
         // Verify that the game is in the correct state
@@ -113,37 +116,40 @@ class DefiniteGameFSMTest {
     void runLeaderboard() throws IOException {
         DefiniteGameFSM fsm = new DefiniteGameFSM(game, context);
         fsm.getContext().setGameService(gameService);
-        when(fsm.getContext().getRepository()).thenReturn(gameRepository);
-        when(gameRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(game));
         fsm.setRunning(true);
         // Force the game to be in the leaderboard state
         fsm.runLeaderboard();
 
         // Verify that the users are notified of the leaderboard
-        verify(sseManager, times(1)).send(any(Iterable.class), sseMessageCaptor.capture());
+        verify(sseManager, times(1)).publish(eq(game.getId()), any(Iterable.class), sseMessageCaptor.capture());
         assertEquals(SSEMessageType.SHOW_LEADERBOARD, sseMessageCaptor.getValue().getType());
     }
 
     @Test
     void runAnswerToLeaderboard() throws IOException {
-        // Mock the repository
-        when(gameRepository.findById(game.getId())).thenReturn(Optional.of(game));
-
         // Put the game in a state where leaderboard should be shown
         game.setCurrentQuestionNumber(4);
         DefiniteGameFSM fsm = new DefiniteGameFSM(game, context);
         fsm.getContext().setGameService(gameService);
-        when(fsm.getContext().getRepository()).thenReturn(gameRepository);
         fsm.setRunning(true);
         fsm.runAnswer();
 
         // Verify that the transition to leaderboard happens
-        verify(taskScheduler, times(1)).schedule(runnableCaptor.capture(), any(Date.class));
+        verify(gameClock, times(1)).schedule(eq(game.getId()), runnableCaptor.capture(), any(Duration.class));
         runnableCaptor.getValue().run();
 
         // Verify that the leaderboard notification is sent
-        verify(sseManager, times(1)).send(any(Iterable.class), sseMessageCaptor.capture());
+        verify(sseManager, times(1)).publish(eq(game.getId()), any(Iterable.class), sseMessageCaptor.capture());
         assertEquals(SSEMessageType.SHOW_LEADERBOARD, sseMessageCaptor.getValue().getType());
+
+        // Verify that the game is never reloaded, and that the scores are written back
+        verifyNoInteractions(gameRepository);
+        verify(gameService, times(1)).persist(fsm.getLiveGame(), FSMState.ANSWER);
+
+        // The scheduled stage is timed
+        assertEquals(1, metrics.getScheduleSkew().count());
+        assertEquals(1, metrics.getStageTimer(FSMState.LEADERBOARD).count());
+        assertEquals(0, metrics.getStageTimer(FSMState.QUESTION).count());
     }
 
     @Test
@@ -0,0 +1,221 @@
+package server.services.fsm;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static server.utils.TestHelpers.getUUID;
+
+import commons.entities.game.GameStatus;
+import commons.entities.game.PowerUp;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import server.database.entities.User;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.game.NormalGame;
+import server.database.entities.game.configuration.NormalGameConfiguration;
+import server.database.repositories.game.GamePlayerRepository;
+import server.database.repositories.game.GamePlayerScoreRepository.PlayerPowerUp;
+import server.database.repositories.game.GamePlayerScoreRepository.PlayerScore;
+import server.database.repositories.game.GameRepository;
+import server.database.repositories.game.GameStateRepository.GameState;
+
+@ExtendWith(MockitoExtension.class)
+class LiveGameTest {
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GamePlayerRepository gamePlayerRepository;
+
+    private NormalGame game;
+    private GamePlayer joePlayer;
+    private GamePlayer susannePlayer;
+    private LiveGame liveGame;
+
+    @BeforeEach
+    void setUp() {
+        User joe = new User("joe", "joe@doe.com", "stinkywinky");
+        joe.setId(getUUID(0));
+        joePlayer = new GamePlayer(joe);
+        joePlayer.setId(getUUID(100));
+
+        User susanne = new User("Susanne", "susanne@louisiane.com", "stinkymonkey");
+        susanne.setId(getUUID(1));
+        susannePlayer = new GamePlayer(susanne);
+        susannePlayer.setId(getUUID(101));
+
+        game = new NormalGame();
+        game.setId(getUUID(3));
+        game.setConfiguration(new NormalGameConfiguration());
+        game.add(joePlayer);
+        game.add(susannePlayer);
+        game.setStatus(GameStatus.ONGOING);
+
+        liveGame = new LiveGame(game);
+    }
+
+    @Test
+    void flushClean() {
+        assertFalse(liveGame.isDirty());
+        liveGame.flush(gameRepository, gamePlayerRepository);
+
+        // Nothing changed, so nothing should be written
+        verifyNoInteractions(gameRepository, gamePlayerRepository);
+    }
+
+    @Test
+    void flushGame() {
+        game.setCurrentQuestionNumber(0);
+        game.setAcceptingAnswers(true);
+        assertTrue(liveGame.isDirty());
+
+        liveGame.flush(gameRepository, gamePlayerRepository);
+
+        // Only the progress of the game is written
+        verify(gameRepository, times(1)).updateState(new GameState(game.getId(), GameStatus.ONGOING, 0, true));
+        verifyNoMoreInteractions(gameRepository);
+        verifyNoInteractions(gamePlayerRepository);
+        assertFalse(liveGame.isDirty());
+    }
+
+    @Test
+    void flushPlayers() {
+        susannePlayer.setScore(100);
+        susannePlayer.setStreak(1);
+        assertTrue(liveGame.isDirty());
+
+        liveGame.flush(gameRepository, gamePlayerRepository);
+
+        // Only the player whose score changed is written
+        verify(gamePlayerRepository, times(1))
+                .updateScores(List.of(new PlayerScore(susannePlayer.getId(), 100, 1, false)));
+        verifyNoInteractions(gameRepository);
+        assertFalse(liveGame.isDirty());
+
+        // A second flush has nothing to write
+        liveGame.flush(gameRepository, gamePlayerRepository);
+        verifyNoMoreInteractions(gamePlayerRepository);
+    }
+
+    @Test
+    void flushAbandoned() {
+        joePlayer.setAbandoned(true);
+
+        liveGame.flush(gameRepository, gamePlayerRepository);
+
+        verify(gamePlayerRepository, times(1))
+                .updateScores(List.of(new PlayerScore(joePlayer.getId(), 0, 0, true)));
+        assertFalse(liveGame.isDirty());
+    }
+
+    @Test
+    void flushQuestionCycle() {
+        // Question stage: the next question is opened
+        liveGame.startQuestion();
+        game.setCurrentQuestionNumber(0);
+        game.setAcceptingAnswers(true);
+        liveGame.flush(gameRepository, gamePlayerRepository);
+
+        // Answer stage: the answers are closed as the scores change
+        joePlayer.setScore(80);
+        joePlayer.setStreak(1);
+        game.setAcceptingAnswers(false);
+        liveGame.flush(gameRepository, gamePlayerRepository);
+
+        // Verify that each stage writes its progress, and the scores go through the batch
+        verify(gameRepository, times(1)).updateState(new GameState(game.getId(), GameStatus.ONGOING, 0, true));
+        verify(gameRepository, times(1)).updateState(new GameState(game.getId(), GameStatus.ONGOING, 0, false));
+        verify(gamePlayerRepository, times(1))
+                .updateScores(List.of(new PlayerScore(joePlayer.getId(), 80, 1, false)));
+        verify(gameRepository, never()).save(any());
+        assertFalse(liveGame.isDirty());
+    }
+
+    @Test
+    void flushPowerUps() {
+        joePlayer.getUserPowerUps().put(PowerUp.DoublePoints, 2);
+        assertTrue(liveGame.isDirty());
+
+        liveGame.flush(gameRepository, gamePlayerRepository);
+
+        // Only the new power-up is inserted, without touching the scores
+        verify(gamePlayerRepository, times(1))
+                .insertPowerUps(List.of(new PlayerPowerUp(joePlayer.getId(), PowerUp.DoublePoints, 2)));
+        verifyNoMoreInteractions(gamePlayerRepository);
+        verifyNoInteractions(gameRepository);
+        assertFalse(liveGame.isDirty());
+    }
+
+    @Test
+    void powerUpsInsertedOnce() {
+        joePlayer.getUserPowerUps().put(PowerUp.HalveTime, 1);
+        LiveGame.Changes older = liveGame.capture().orElseThrow();
+        susannePlayer.getUserPowerUps().put(PowerUp.HalveTime, 1);
+        LiveGame.Changes newer = liveGame.capture().orElseThrow();
+
+        // The later changes also contain the power-up of the earlier ones, which is already recorded
+        liveGame.write(older, gameRepository, gamePlayerRepository);
+        liveGame.write(newer, gameRepository, gamePlayerRepository);
+
+        verify(gamePlayerRepository, times(1))
+                .insertPowerUps(List.of(new PlayerPowerUp(joePlayer.getId(), PowerUp.HalveTime, 1)));
+        verify(gamePlayerRepository, times(1))
+                .insertPowerUps(List.of(new PlayerPowerUp(susannePlayer.getId(), PowerUp.HalveTime, 1)));
+        verifyNoMoreInteractions(gamePlayerRepository);
+        assertFalse(liveGame.isDirty());
+    }
+
+    @Test
+    void changesAfterCapture() {
+        joePlayer.setScore(50);
+        LiveGame.Changes changes = liveGame.capture().orElseThrow();
+
+        // The game keeps changing while the changes are written
+        joePlayer.setScore(70);
+        liveGame.write(changes, gameRepository, gamePlayerRepository);
+
+        // Verify that the captured value is written, and the later one is still pending
+        verify(gamePlayerRepository, times(1))
+                .updateScores(List.of(new PlayerScore(joePlayer.getId(), 50, 0, false)));
+        assertTrue(liveGame.isDirty());
+        liveGame.flush(gameRepository, gamePlayerRepository);
+        verify(gamePlayerRepository, times(1))
+                .updateScores(List.of(new PlayerScore(joePlayer.getId(), 70, 0, false)));
+        assertFalse(liveGame.isDirty());
+    }
+
+    @Test
+    void outdatedChangesSkipped() {
+        joePlayer.setScore(50);
+        LiveGame.Changes older = liveGame.capture().orElseThrow();
+        joePlayer.setScore(70);
+        LiveGame.Changes newer = liveGame.capture().orElseThrow();
+
+        // The writes run out of order
+        liveGame.write(newer, gameRepository, gamePlayerRepository);
+        liveGame.write(older, gameRepository, gamePlayerRepository);
+
+        // Verify that the older changes do not overwrite the newer ones
+        verify(gamePlayerRepository, times(1))
+                .updateScores(List.of(new PlayerScore(joePlayer.getId(), 70, 0, false)));
+        verifyNoMoreInteractions(gamePlayerRepository);
+        assertFalse(liveGame.isDirty());
+    }
+
+    @Test
+    void scoreDelta() {
+        // Nothing is known before the first question
+        assertTrue(liveGame.getScoreDelta(joePlayer).isEmpty());
+
+        joePlayer.setScore(100);
+        liveGame.startQuestion();
+        joePlayer.setScore(250);
+
+        assertEquals(Optional.of(150), liveGame.getScoreDelta(joePlayer));
+        assertEquals(Optional.of(0), liveGame.getScoreDelta(susannePlayer));
+    }
+}
@@ -0,0 +1,111 @@
+package server.services.leaderboard;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static server.utils.TestHelpers.getUUID;
+
+import commons.entities.game.GamePlayerDTO;
+import commons.entities.game.LeaderboardDeltaDTO;
+import commons.entities.game.LeaderboardEntryDTO;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.database.entities.User;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.game.NormalGame;
+import server.database.entities.game.configuration.NormalGameConfiguration;
+
+class GameLeaderboardTest {
+    private GamePlayer joe;
+    private GamePlayer susanne;
+    private GamePlayer james;
+
+    private GameLeaderboard leaderboard;
+
+    @BeforeEach
+    void init() {
+        NormalGame game = new NormalGame();
+        game.setId(getUUID(3));
+        game.setConfiguration(new NormalGameConfiguration(3, Duration.ofSeconds(13), 3, 2, 2f, 100, -10, 75));
+        joe = addPlayer(game, "joe", 0);
+        susanne = addPlayer(game, "susanne", 1);
+        james = addPlayer(game, "james", 2);
+        leaderboard = new GameLeaderboard(game);
+    }
+
+    private GamePlayer addPlayer(NormalGame game, String name, int id) {
+        User user = new User(name, name + "@doe.com", "stinkywinky");
+        user.setId(getUUID(id));
+        GamePlayer player = new GamePlayer(user);
+        player.setId(getUUID(100 + id));
+        game.add(player);
+        return player;
+    }
+
+    @Test
+    void firstUpdateListsEveryone() {
+        LeaderboardDeltaDTO delta = leaderboard.update();
+
+        assertEquals(1, delta.getVersion());
+        assertEquals(3, delta.getEntries().size());
+        assertEquals(List.of(1, 2, 3), delta.getEntries().stream()
+                .map(LeaderboardEntryDTO::getRank).collect(Collectors.toList()));
+    }
+
+    @Test
+    void onlyChangesAreListed() {
+        leaderboard.update();
+
+        // Nothing changed
+        LeaderboardDeltaDTO delta = leaderboard.update();
+        assertEquals(1, delta.getVersion());
+        assertTrue(delta.getEntries().isEmpty());
+
+        // The last player overtakes everyone else
+        UUID lastId = leaderboard.getStandings().get(2).getId();
+        GamePlayer last = List.of(joe, susanne, james).stream()
+                .filter(player -> player.getId().equals(lastId))
+                .findFirst().orElseThrow();
+        last.setScore(100);
+        last.setStreak(1);
+        delta = leaderboard.update();
+
+        assertEquals(2, delta.getVersion());
+        assertEquals(3, delta.getEntries().size());
+        assertEquals(new LeaderboardEntryDTO(last.getId(), 1, 100, 1), delta.getEntries().get(0));
+        assertEquals(last.getId(), leaderboard.getStandings().get(0).getId());
+    }
+
+    @Test
+    void scoreChangeWithoutOvertaking() {
+        joe.setScore(300);
+        susanne.setScore(200);
+        james.setScore(100);
+        leaderboard.update();
+
+        joe.setScore(350);
+        LeaderboardDeltaDTO delta = leaderboard.update();
+
+        assertEquals(List.of(new LeaderboardEntryDTO(joe.getId(), 1, 350, 0)), delta.getEntries());
+    }
+
+    @Test
+    void abandonedPlayersAreDropped() {
+        joe.setScore(300);
+        susanne.setScore(200);
+        james.setScore(100);
+        leaderboard.update();
+
+        joe.setAbandoned(true);
+        LeaderboardDeltaDTO delta = leaderboard.update();
+
+        assertEquals(List.of(
+                new LeaderboardEntryDTO(susanne.getId(), 1, 200, 0),
+                new LeaderboardEntryDTO(james.getId(), 2, 100, 0),
+                new LeaderboardEntryDTO(joe.getId(), 0, 300, 0)), delta.getEntries());
+        assertEquals(List.of(susanne.getId(), james.getId()), leaderboard.getStandings().stream()
+                .map(GamePlayerDTO::getId).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,132 @@
+package server.services.leaderboard;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static server.utils.TestHelpers.getUUID;
+
+import commons.entities.auth.RankedUserDTO;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import server.database.entities.User;
+import server.database.repositories.UserRepository;
+import server.services.leaderboard.GlobalLeaderboard.Board;
+import server.services.leaderboard.GlobalLeaderboard.Cursor;
+
+@ExtendWith(MockitoExtension.class)
+class GlobalLeaderboardTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private GlobalLeaderboard globalLeaderboard;
+
+    private List<User> users;
+
+    private User getUser(int id, int gamesWon, int score) {
+        User user = new User("user" + id, "email" + id, "password" + id, getUUID(id), score, gamesWon,
+                new HashSet<>());
+        user.setId(getUUID(id));
+        return user;
+    }
+
+    private List<Integer> ranks(List<RankedUserDTO> page) {
+        return page.stream().map(RankedUserDTO::getRank).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void init() {
+        users = List.of(
+                getUser(1, 5, 100),
+                getUser(2, 4, 300),
+                getUser(3, 3, 200),
+                getUser(4, 2, 500),
+                getUser(5, 1, 400));
+        when(userRepository.findAll()).thenReturn(users);
+        globalLeaderboard.rebuild();
+    }
+
+    @Test
+    void rank() {
+        assertEquals(4, globalLeaderboard.getRank(Board.SCORE, getUUID(3)).orElseThrow().getRank());
+        assertEquals(3, globalLeaderboard.getRank(Board.GAMES_WON, getUUID(3)).orElseThrow().getRank());
+        assertEquals(1, globalLeaderboard.getRank(Board.GAMES_WON, getUUID(1)).orElseThrow().getRank());
+    }
+
+    @Test
+    void rankOfUnknownUser() {
+        when(userRepository.findById(getUUID(9))).thenReturn(Optional.empty());
+
+        assertTrue(globalLeaderboard.getRank(Board.SCORE, getUUID(9)).isEmpty());
+    }
+
+    @Test
+    void rankOfNewUser() {
+        User user = getUser(6, 0, 250);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertEquals(4, globalLeaderboard.getRank(Board.SCORE, user.getId()).orElseThrow().getRank());
+        assertEquals(5, globalLeaderboard.getRank(Board.SCORE, getUUID(3)).orElseThrow().getRank());
+    }
+
+    @Test
+    void keysetPages() {
+        List<RankedUserDTO> first = globalLeaderboard.getTop(Board.SCORE, null, 2);
+        assertEquals(List.of(getUUID(4), getUUID(5)),
+                first.stream().map(RankedUserDTO::getId).collect(Collectors.toList()));
+        assertEquals(List.of(1, 2), ranks(first));
+
+        // A user overtaking the page boundary is not repeated
+        User overtaking = getUser(1, 5, 450);
+        globalLeaderboard.update(overtaking);
+        List<RankedUserDTO> second = globalLeaderboard.getTop(Board.SCORE, new Cursor(400, getUUID(5)), 2);
+        assertEquals(List.of(getUUID(2), getUUID(3)),
+                second.stream().map(RankedUserDTO::getId).collect(Collectors.toList()));
+        assertEquals(List.of(4, 5), ranks(second));
+    }
+
+    @Test
+    void keysetPagesCursorMoved() {
+        // The last user of the first page drops to the bottom before the next page is requested
+        globalLeaderboard.update(getUser(5, 1, 50));
+        List<RankedUserDTO> second = globalLeaderboard.getTop(Board.SCORE, new Cursor(400, getUUID(5)), 2);
+
+        // Verify that the page resumes from where the client stopped, not from where the user is now
+        assertEquals(List.of(getUUID(2), getUUID(3)),
+                second.stream().map(RankedUserDTO::getId).collect(Collectors.toList()));
+        assertEquals(List.of(2, 3), ranks(second));
+    }
+
+    @Test
+    void parseCursor() {
+        Cursor cursor = new Cursor(400, getUUID(5));
+        assertEquals(cursor, Cursor.parse(cursor.toString()));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.parse("400"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.parse("top:" + getUUID(5)));
+    }
+
+    @Test
+    void around() {
+        assertEquals(List.of(2, 3, 4), ranks(globalLeaderboard.getAround(Board.SCORE, getUUID(2), 3).orElseThrow()));
+        assertEquals(List.of(1, 2, 3), ranks(globalLeaderboard.getAround(Board.SCORE, getUUID(4), 3).orElseThrow()));
+        assertEquals(List.of(3, 4, 5), ranks(globalLeaderboard.getAround(Board.SCORE, getUUID(1), 3).orElseThrow()));
+    }
+
+    @Test
+    void update() {
+        User user = getUser(1, 5, 1000);
+        globalLeaderboard.update(user);
+
+        RankedUserDTO rank = globalLeaderboard.getRank(Board.SCORE, user.getId()).orElseThrow();
+        assertEquals(1, rank.getRank());
+        assertEquals(1000, rank.getScore());
+        assertEquals(5, globalLeaderboard.getTop(Board.SCORE, null, 10).size());
+    }
+}
@@ -0,0 +1,91 @@
+package server.services.leaderboard;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static server.utils.TestHelpers.getUUID;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RankTreeTest {
+    private RankTree tree;
+
+    @BeforeEach
+    void init() {
+        tree = new RankTree();
+    }
+
+    @Test
+    void rankedByValueThenId() {
+        tree.insert(getUUID(1), 10);
+        tree.insert(getUUID(2), 30);
+        tree.insert(getUUID(3), 10);
+        tree.insert(getUUID(0), 10);
+
+        assertEquals(4, tree.size());
+        assertEquals(List.of(getUUID(2), getUUID(0), getUUID(1), getUUID(3)), tree.range(0, 10));
+        assertEquals(0, tree.countBefore(getUUID(2), 30));
+        assertEquals(2, tree.countBefore(getUUID(1), 10));
+    }
+
+    @Test
+    void countBeforeMissingUser() {
+        tree.insert(getUUID(1), 10);
+        tree.insert(getUUID(2), 30);
+
+        assertEquals(1, tree.countBefore(getUUID(3), 20));
+        assertEquals(2, tree.countBefore(getUUID(3), 0));
+    }
+
+    @Test
+    void removeAndRange() {
+        tree.insert(getUUID(1), 10);
+        tree.insert(getUUID(2), 20);
+        tree.insert(getUUID(3), 30);
+        tree.remove(getUUID(2), 20);
+
+        assertEquals(List.of(getUUID(3), getUUID(1)), tree.range(0, 10));
+        assertEquals(List.of(getUUID(1)), tree.range(1, 10));
+        assertTrue(tree.range(5, 10).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(2));
+    }
+
+    @Test
+    void matchesSortedList() {
+        Random random = new Random(42);
+        Map<UUID, Integer> values = new HashMap<>();
+
+        // Insert, move and remove users at random
+        for (int step = 0; step < 2000; step++) {
+            UUID id = getUUID(random.nextInt(300));
+            Integer previous = values.remove(id);
+            if (previous != null) {
+                tree.remove(id, previous);
+            }
+            if (random.nextInt(4) != 0) {
+                int value = random.nextInt(50);
+                values.put(id, value);
+                tree.insert(id, value);
+            }
+        }
+
+        List<UUID> expected = values.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<UUID, Integer> entry) -> -entry.getValue())
+                        .thenComparing(entry -> entry.getKey()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        assertEquals(expected, tree.range(0, expected.size()));
+        for (int index = 0; index < expected.size(); index++) {
+            UUID id = expected.get(index);
+            assertEquals(index, tree.countBefore(id, values.get(id)));
+        }
+        assertEquals(new ArrayList<>(expected.subList(10, 20)), tree.range(10, 10));
+    }
+}
@@ -0,0 +1,111 @@
+package server.services.question;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static server.utils.TestHelpers.getUUID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import server.database.entities.question.Activity;
+import server.database.repositories.question.ActivityRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityIndexTest {
+    @Mock
+    private ActivityRepository activityRepository;
+
+    private ActivityIndex activityIndex;
+    private List<Activity> activities;
+    private final Random random = new Random(42);
+
+    private static Activity getActivity(int id, long cost) {
+        Activity activity = new Activity("Doing activity " + id);
+        activity.setId(getUUID(id));
+        activity.setCost(cost);
+        return activity;
+    }
+
+    @BeforeEach
+    void setUp() {
+        activities = new ArrayList<>(List.of(
+                getActivity(0, 5),
+                getActivity(1, 12),
+                getActivity(2, 25),
+                getActivity(3, 38),
+                getActivity(4, 41),
+                getActivity(5, 300)));
+        activityIndex = new ActivityIndex(activityRepository);
+    }
+
+    @Test
+    void loadOnce() {
+        when(activityRepository.findQuestionAcceptable()).thenReturn(activities);
+
+        assertEquals(6, activityIndex.getSnapshot().size());
+        assertEquals(6, activityIndex.getSnapshot().size());
+
+        // The activities are only read from the database once
+        verify(activityRepository, times(1)).findQuestionAcceptable();
+    }
+
+    @Test
+    void nearest() {
+        when(activityRepository.findQuestionAcceptable()).thenReturn(activities);
+        ActivityIndex.Snapshot snapshot = activityIndex.getSnapshot();
+
+        assertEquals(activities.get(1), snapshot.nearest(activities.get(0)));
+        assertEquals(activities.get(4), snapshot.nearest(activities.get(3)));
+        assertEquals(activities.get(4), snapshot.nearest(activities.get(5)));
+    }
+
+    @Test
+    void options() {
+        when(activityRepository.findQuestionAcceptable()).thenReturn(activities);
+        ActivityIndex.Snapshot snapshot = activityIndex.getSnapshot();
+
+        // Options have the order of magnitude of the answer, with distinct leading digits
+        Set<Activity> options = snapshot.options(activities.get(1), 4, random);
+        assertEquals(4, options.size());
+        assertTrue(options.contains(activities.get(1)));
+        assertEquals(4, options.stream().map(a -> a.getCost() / 10).collect(Collectors.toSet()).size());
+        assertTrue(options.stream().allMatch(a -> a.getCost() >= 10 && a.getCost() < 100));
+
+        // Not enough activities of the same order of magnitude
+        assertNull(snapshot.options(activities.get(5), 4, random));
+    }
+
+    @Test
+    void putAndRemove() {
+        when(activityRepository.findQuestionAcceptable()).thenReturn(activities);
+        activityIndex.getSnapshot();
+
+        // A new activity is indexed, an unacceptable one is not
+        Activity added = getActivity(6, 7);
+        Activity question = getActivity(7, 8);
+        question.setDescription("Doing what?");
+        activityIndex.putAll(List.of(added, question));
+        assertEquals(7, activityIndex.getSnapshot().size());
+        assertEquals(added, activityIndex.getSnapshot().nearest(activities.get(0)));
+
+        // Abandoned activities are dropped
+        activityIndex.remove(added.getId());
+        assertEquals(6, activityIndex.getSnapshot().size());
+        verify(activityRepository, times(1)).findQuestionAcceptable();
+    }
+
+    @Test
+    void putBeforeLoad() {
+        activityIndex.put(getActivity(6, 7));
+
+        // Nothing is loaded until the index is used
+        verifyNoInteractions(activityRepository);
+    }
+}
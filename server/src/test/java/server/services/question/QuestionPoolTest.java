@@ -0,0 +1,134 @@
+package server.services.question;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import server.configuration.QuestionGenerationConfiguration;
+import server.database.entities.question.EstimateQuestion;
+import server.database.entities.question.MCQuestion;
+import server.database.entities.question.Question;
+import server.services.QuestionService;
+import server.utils.QuestionType;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionPoolTest {
+    @Mock
+    private QuestionService questionService;
+
+    @Mock
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    private QuestionGenerationConfiguration config;
+    private SimpleMeterRegistry registry;
+    private QuestionPool questionPool;
+    private QuestionType mc;
+    private QuestionType estimate;
+
+    @BeforeEach
+    void setUp() {
+        config = new QuestionGenerationConfiguration();
+        mc = config.getEnabledQuestionTypes()[0];
+        estimate = config.getEnabledQuestionTypes()[3];
+        config.setEnabledQuestionTypes(new QuestionType[] {mc, estimate});
+        config.setPoolSize(3);
+        registry = new SimpleMeterRegistry();
+        questionPool = new QuestionPool(questionService, config, taskScheduler, registry);
+
+        // Generate the requested amount of questions of the requested kind
+        lenient().when(questionService.provideQuestions(any(QuestionType.class), anyInt()))
+                .thenAnswer((Answer<List<Question>>) invocation -> {
+                    QuestionType kind = invocation.getArgument(0);
+                    int count = invocation.getArgument(1);
+                    return IntStream.range(0, count)
+                            .mapToObj(idx -> kind == mc ? new MCQuestion() : new EstimateQuestion())
+                            .collect(Collectors.toList());
+                });
+    }
+
+    private double misses(QuestionType kind) {
+        return registry.get("quiz_question_pool_misses").tag("type", kind.toString()).counter().count();
+    }
+
+    @Test
+    void refill() {
+        questionPool.refill();
+
+        assertEquals(3, questionPool.depth(mc));
+        assertEquals(3, questionPool.depth(estimate));
+        assertEquals(3, registry.get("quiz_question_pool_depth").tag("type", mc.toString()).gauge().value());
+
+        // A full pool is not refilled
+        questionPool.refill();
+        verify(questionService, times(1)).provideQuestions(mc, 3);
+        verify(questionService, times(1)).provideQuestions(estimate, 3);
+    }
+
+    @Test
+    void takeFromPool() {
+        questionPool.refill();
+        when(questionService.pickQuestionTypes(3)).thenReturn(List.of(mc, estimate, mc));
+
+        List<Question> questions = questionPool.take(3);
+
+        assertEquals(3, questions.size());
+        assertTrue(questions.get(0) instanceof MCQuestion);
+        assertTrue(questions.get(1) instanceof EstimateQuestion);
+        assertTrue(questions.get(2) instanceof MCQuestion);
+        assertEquals(1, questionPool.depth(mc));
+        assertEquals(2, questionPool.depth(estimate));
+        assertEquals(0, misses(mc));
+
+        // The pool is refilled in the background
+        verify(taskScheduler).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofSeconds(30)));
+        verify(taskScheduler).execute(any(Runnable.class));
+    }
+
+    @Test
+    void takeMiss() {
+        when(questionService.pickQuestionTypes(4)).thenReturn(List.of(mc, estimate, mc, mc));
+
+        List<Question> questions = questionPool.take(4);
+
+        // The empty pools are bypassed, and the misses are counted
+        assertEquals(4, questions.size());
+        assertTrue(questions.stream().noneMatch(q -> q == null));
+        assertTrue(questions.get(1) instanceof EstimateQuestion);
+        assertEquals(3, misses(mc));
+        assertEquals(1, misses(estimate));
+        verify(questionService).provideQuestions(mc, 3);
+        verify(questionService).provideQuestions(estimate, 1);
+    }
+
+    @Test
+    void refillFailure() {
+        when(questionService.provideQuestions(mc, 3)).thenThrow(new IllegalStateException("Not enough activities"));
+
+        // The other kinds are still refilled
+        questionPool.refill();
+        assertEquals(0, questionPool.depth(mc));
+        assertEquals(3, questionPool.depth(estimate));
+    }
+
+    @Test
+    void disabled() {
+        config.setPoolSize(0);
+        List<Question> generated = new ArrayList<>(List.of(new MCQuestion(), new EstimateQuestion()));
+        when(questionService.provideQuestions(2)).thenReturn(generated);
+
+        assertEquals(generated, questionPool.take(2));
+        verifyNoInteractions(taskScheduler);
+    }
+}
@@ -0,0 +1,141 @@
+package server.services.settlement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static server.utils.TestHelpers.getUUID;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import server.database.entities.User;
+import server.database.entities.game.GamePlayer;
+import server.database.entities.game.NormalGame;
+import server.database.entities.game.configuration.NormalGameConfiguration;
+import server.database.repositories.UserRepository;
+import server.database.repositories.UserStatsRepository.UserStats;
+import server.services.leaderboard.GlobalLeaderboard;
+
+@ExtendWith(MockitoExtension.class)
+class GameSettlementTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private GlobalLeaderboard globalLeaderboard;
+
+    @Mock
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    private SimpleMeterRegistry registry;
+    private GameSettlement gameSettlement;
+    private NormalGame game;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        gameSettlement = new GameSettlement(userRepository, globalLeaderboard, taskScheduler, registry);
+
+        game = new NormalGame();
+        game.setId(getUUID(3));
+        game.setConfiguration(new NormalGameConfiguration(3, Duration.ofSeconds(13), 4, 2, 2f, 100, -10, 75));
+        addPlayer(0, 100, "2022-03-01T00:00:00");
+        addPlayer(1, 300, "2022-03-02T00:00:00");
+        addPlayer(2, 200, "2022-03-03T00:00:00");
+    }
+
+    private GamePlayer addPlayer(int id, int score, String joinDate) {
+        User user = new User("user" + id, "user" + id + "@doe.com", "stinkywinky");
+        user.setId(getUUID(id));
+        GamePlayer player = new GamePlayer(user);
+        player.setId(getUUID(100 + id));
+        player.setScore(score);
+        player.setJoinDate(LocalDateTime.parse(joinDate));
+        game.add(player);
+        return player;
+    }
+
+    private Runnable captureExecuted() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).execute(task.capture());
+        return task.getValue();
+    }
+
+    @Test
+    void resultsRankedByScore() {
+        assertEquals(List.of(
+                new UserStats(getUUID(1), 300, 1),
+                new UserStats(getUUID(2), 200, 0),
+                new UserStats(getUUID(0), 100, 0)), GameSettlement.getResults(game));
+    }
+
+    @Test
+    void resultsSkipAbandonedPlayers() {
+        game.getPlayers().get(getUUID(1)).setAbandoned(true);
+
+        assertEquals(List.of(
+                new UserStats(getUUID(2), 200, 1),
+                new UserStats(getUUID(0), 100, 0)), GameSettlement.getResults(game));
+    }
+
+    @Test
+    void tieWonByEarliestPlayer() {
+        addPlayer(3, 300, "2022-03-01T12:00:00");
+
+        assertEquals(new UserStats(getUUID(3), 300, 1), GameSettlement.getResults(game).get(0));
+        assertEquals(new UserStats(getUUID(1), 300, 0), GameSettlement.getResults(game).get(1));
+    }
+
+    @Test
+    void settleInBackground() {
+        UserStats totals = new UserStats(getUUID(1), 500, 4);
+        when(userRepository.applyResults(GameSettlement.getResults(game))).thenReturn(List.of(totals));
+
+        gameSettlement.settle(game);
+        verifyNoInteractions(userRepository);
+        captureExecuted().run();
+
+        verify(globalLeaderboard).update(totals);
+        assertEquals(1, registry.get("quiz_settlement_latency").timer().count());
+    }
+
+    @Test
+    void retryFailedWrite() {
+        when(userRepository.applyResults(any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"))
+                .thenReturn(List.of());
+
+        gameSettlement.settle(game);
+        captureExecuted().run();
+
+        // The retry is scheduled, and succeeds
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(retry.capture(), any(Instant.class));
+        retry.getValue().run();
+
+        verify(userRepository, times(2)).applyResults(any());
+        assertEquals(1, registry.get("quiz_settlement_latency").timer().count());
+        assertEquals(0, registry.get("quiz_settlement_failures").counter().count());
+    }
+
+    @Test
+    void giveUpAfterMaxAttempts() {
+        when(userRepository.applyResults(any())).thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        gameSettlement.apply(game.getId(), GameSettlement.getResults(game), GameSettlement.MAX_ATTEMPTS, 0);
+
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+        verifyNoInteractions(globalLeaderboard);
+        assertEquals(1, registry.get("quiz_settlement_failures").counter().count());
+    }
+}
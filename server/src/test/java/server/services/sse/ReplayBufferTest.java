@@ -0,0 +1,67 @@
+package server.services.sse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static server.utils.TestHelpers.getUUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.entities.messages.SSEMessage;
+import commons.entities.messages.SSEMessageType;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.utils.SSE;
+
+class ReplayBufferTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final UUID joe = getUUID(0);
+    private final UUID susanne = getUUID(1);
+
+    private ReplayBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ReplayBuffer(3);
+    }
+
+    private SerializedEvent append(SSEMessageType type, Set<UUID> recipients) {
+        return buffer.append(sequence -> SSE.serialize(mapper, new SSEMessage(type), "game:" + sequence),
+                recipients);
+    }
+
+    @Test
+    void appendAssignsIds() {
+        SerializedEvent first = append(SSEMessageType.START_QUESTION, Set.of(joe));
+        SerializedEvent second = append(SSEMessageType.STOP_QUESTION, Set.of(joe));
+
+        assertEquals(2, buffer.getSequence());
+        assertTrue(first.build().iterator().next().getData().toString().startsWith("id:game:1\n"));
+        assertTrue(second.build().iterator().next().getData().toString().startsWith("id:game:2\n"));
+    }
+
+    @Test
+    void sinceFiltersRecipients() {
+        SerializedEvent first = append(SSEMessageType.START_QUESTION, Set.of(joe, susanne));
+        append(SSEMessageType.PLAYER_LEFT, Set.of(susanne));
+        SerializedEvent third = append(SSEMessageType.STOP_QUESTION, Set.of(joe, susanne));
+
+        assertEquals(List.of(first, third), buffer.since(joe, 0));
+        assertEquals(List.of(third), buffer.since(joe, 1));
+        assertEquals(List.of(), buffer.since(joe, 3));
+    }
+
+    @Test
+    void sinceAfterWrap() {
+        for (int i = 0; i < 5; i++) {
+            append(SSEMessageType.START_QUESTION, Set.of(joe));
+        }
+
+        // Only the last three events are kept
+        assertEquals(3, buffer.since(joe, 0).size());
+        assertFalse(buffer.covers(1));
+        assertTrue(buffer.covers(2));
+        assertEquals(1, buffer.since(joe, 4).size());
+    }
+}
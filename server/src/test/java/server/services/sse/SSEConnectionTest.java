@@ -0,0 +1,198 @@
+package server.services.sse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static server.utils.TestHelpers.getUUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.entities.messages.SSEMessage;
+import commons.entities.messages.SSEMessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server.configuration.SSEConfiguration;
+import server.utils.SSE;
+
+class SSEConnectionTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private SimpleMeterRegistry registry;
+    private SSEMetrics metrics;
+    private SSEConfiguration configuration;
+    private SseEmitter emitter;
+
+    /**
+     * Writer tasks are collected instead of being executed, so that events stay queued.
+     */
+    private List<Runnable> writerTasks;
+    private AtomicReference<SSEConnection> evicted;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new SSEMetrics(registry);
+        configuration = new SSEConfiguration();
+        configuration.setQueueCapacity(4);
+        configuration.setHighWaterMark(2);
+        emitter = Mockito.spy(new SseEmitter());
+        writerTasks = new ArrayList<>();
+        evicted = new AtomicReference<>();
+    }
+
+    private SSEConnection connect() {
+        return new SSEConnection(getUUID(1), emitter, configuration, writerTasks::add, metrics, evicted::set);
+    }
+
+    private SerializedEvent event(SSEMessageType type) {
+        return SSE.serialize(mapper, new SSEMessage(type));
+    }
+
+    @Test
+    void coalesce() {
+        SSEConnection connection = connect();
+        assertTrue(connection.enqueue(event(SSEMessageType.LOBBY_MODIFIED)));
+        assertTrue(connection.enqueue(event(SSEMessageType.START_QUESTION)));
+        assertTrue(connection.enqueue(event(SSEMessageType.LOBBY_MODIFIED)));
+        assertTrue(connection.enqueue(event(SSEMessageType.LOBBY_MODIFIED)));
+
+        // Only the latest LOBBY_MODIFIED is kept
+        assertEquals(2, connection.size());
+        assertEquals(2.0, metrics.getCoalesced().count());
+    }
+
+    @Test
+    void dropWhenCongested() {
+        SSEConnection connection = connect();
+        assertTrue(connection.enqueue(event(SSEMessageType.START_QUESTION)));
+        assertTrue(connection.enqueue(event(SSEMessageType.STOP_QUESTION)));
+
+        // Above the high-water mark, droppable events are discarded, but the others are still queued
+        assertFalse(connection.enqueue(event(SSEMessageType.REACTION)));
+        assertTrue(connection.enqueue(event(SSEMessageType.SHOW_LEADERBOARD)));
+        assertEquals(3, connection.size());
+        assertEquals(1.0, metrics.getDropped().count());
+    }
+
+    @Test
+    void dropWhenFull() {
+        SSEConnection connection = connect();
+        for (int i = 0; i < configuration.getQueueCapacity(); i++) {
+            assertTrue(connection.enqueue(event(SSEMessageType.START_QUESTION)));
+        }
+        assertFalse(connection.enqueue(event(SSEMessageType.GAME_END)));
+        assertEquals(1.0, metrics.getDropped().count());
+    }
+
+    @Test
+    void evictWhenLagging() throws InterruptedException {
+        configuration.setLagBudget(Duration.ofMillis(1));
+        SSEConnection connection = connect();
+        assertTrue(connection.enqueue(event(SSEMessageType.START_QUESTION)));
+        Thread.sleep(10);
+
+        // The first event waited for longer than the budget, so the connection is evicted
+        assertTrue(connection.isLagging());
+        assertFalse(connection.enqueue(event(SSEMessageType.STOP_QUESTION)));
+        assertEquals(connection, evicted.get());
+        assertEquals(0, connection.size());
+        assertEquals(1.0, metrics.getEvicted().count());
+
+        // The writer completes the emitter
+        writerTasks.forEach(Runnable::run);
+        verify(emitter, times(1)).complete();
+    }
+
+    @Test
+    void evictWhenSendBlocks() throws IOException, InterruptedException {
+        configuration.setLagBudget(Duration.ofMillis(1));
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            unblock.await();
+            return null;
+        }).when(emitter).send(any());
+        SSEConnection connection = connect();
+        assertTrue(connection.enqueue(event(SSEMessageType.START_QUESTION)));
+
+        // The writer blocks on a client which stopped reading
+        Thread writer = new Thread(writerTasks.get(0));
+        writer.start();
+        sending.await();
+        Thread.sleep(10);
+
+        // The event being written is no longer queued, but still counts toward the lag
+        assertEquals(0, connection.size());
+        assertTrue(connection.isWriting());
+        assertTrue(connection.isLagging());
+        assertFalse(connection.enqueue(event(SSEMessageType.STOP_QUESTION)));
+        assertEquals(connection, evicted.get());
+
+        // The emitter is completed once the write returns
+        unblock.countDown();
+        writer.join(1000);
+        assertFalse(connection.isWriting());
+        verify(emitter, times(1)).complete();
+    }
+
+    @Test
+    void abandonStalledWrite() throws IOException, InterruptedException {
+        configuration.setWriteTimeout(Duration.ofMillis(1));
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            unblock.await();
+            return null;
+        }).when(emitter).send(any());
+        SSEConnection connection = connect();
+        assertTrue(connection.enqueue(event(SSEMessageType.START_QUESTION)));
+        assertTrue(connection.enqueue(event(SSEMessageType.STOP_QUESTION)));
+        assertFalse(connection.isStalled());
+
+        Thread writer = new Thread(writerTasks.get(0));
+        writer.start();
+        sending.await();
+        Thread.sleep(10);
+
+        // The write takes longer than the timeout, so the connection is abandoned
+        assertTrue(connection.isStalled());
+        connection.abandon();
+        assertEquals(connection, evicted.get());
+        assertEquals(0, connection.size());
+        assertEquals(1.0, metrics.getEvicted().count());
+
+        // The emitter is completed with an error once the write returns, without writing the other event
+        unblock.countDown();
+        writer.join(1000);
+        assertFalse(connection.isStalled());
+        verify(emitter, times(1)).send(any());
+        verify(emitter, times(1)).completeWithError(any());
+        verify(emitter, never()).complete();
+    }
+
+    @Test
+    void drainRecordsLag() throws IOException {
+        SSEConnection connection = connect();
+        assertTrue(connection.enqueue(event(SSEMessageType.START_QUESTION)));
+        assertTrue(connection.enqueue(event(SSEMessageType.STOP_QUESTION)));
+
+        // Only one writer is scheduled for the connection
+        assertEquals(1, writerTasks.size());
+        writerTasks.get(0).run();
+
+        verify(emitter, times(2)).send(any());
+        assertEquals(0, connection.size());
+        assertEquals(2, connection.getLagTimer().count());
+        assertEquals(2.0, metrics.getSent().count());
+    }
+}
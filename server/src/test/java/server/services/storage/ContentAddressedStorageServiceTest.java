@@ -0,0 +1,157 @@
+package server.services.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static server.utils.TestHelpers.getUUID;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import server.configuration.FileSystemStorageConfiguration;
+import server.configuration.ResourceConfiguration;
+import server.exceptions.ResourceNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class ContentAddressedStorageServiceTest {
+    @Mock
+    private FileSystemStorageConfiguration fileStorageConfiguration;
+
+    @Mock
+    private ResourceConfiguration resourceConfiguration;
+
+    @InjectMocks
+    private ContentAddressedStorageService storageService;
+
+    @TempDir
+    Path tmpDir;
+
+    private Path uploadDir;
+
+    private InputStream stringToInputStream(String text) {
+        return new ByteArrayInputStream(text.getBytes());
+    }
+
+    private long countBlobs() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir.resolve(ContentAddressedStorageService.BLOBS_DIR))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        uploadDir = tmpDir.resolve("upload-dir");
+        lenient().when(fileStorageConfiguration.getUploadDirPath()).thenReturn(uploadDir);
+        lenient().when(resourceConfiguration.getBaseUri())
+                .thenReturn(URI.create("http://localhost:8080/api/resource/"));
+
+        storageService.init();
+    }
+
+    @Test
+    void store() throws IOException {
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(1));
+
+        // Verify that the content is stored under its digest
+        ResourceMetadata metadata = storageService.getMetadata(getUUID(1));
+        assertEquals(13, metadata.getSize());
+        Path blob = storageService.load(getUUID(1));
+        assertTrue(blob.startsWith(uploadDir.resolve(ContentAddressedStorageService.BLOBS_DIR)));
+        assertEquals(metadata.getHash(), blob.getFileName().toString());
+        assertEquals("Hello, world!", Files.readString(blob));
+        assertEquals(13, storageService.loadAsResource(getUUID(1)).contentLength());
+    }
+
+    @Test
+    void storeDeduplicates() throws IOException {
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(1));
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(2));
+        storageService.store(stringToInputStream("Something else"), getUUID(3));
+
+        // Verify that identical content is stored once
+        assertEquals(3, storageService.loadAll().count());
+        assertEquals(2, storageService.getBlobCount());
+        assertEquals(2, countBlobs());
+        assertEquals(storageService.load(getUUID(1)), storageService.load(getUUID(2)));
+    }
+
+    @Test
+    void storeReplaces() throws IOException {
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(1));
+        storageService.store(stringToInputStream("Something else"), getUUID(1));
+
+        // Verify that the replaced content is released
+        assertEquals(1, storageService.getBlobCount());
+        assertEquals(1, countBlobs());
+        assertEquals("Something else", Files.readString(storageService.load(getUUID(1))));
+    }
+
+    @Test
+    void delete() throws IOException {
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(1));
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(2));
+
+        // Verify that the content is kept while a resource refers to it
+        assertTrue(storageService.delete(getUUID(1)));
+        assertEquals(1, countBlobs());
+        assertThrows(ResourceNotFoundException.class, () -> storageService.getMetadata(getUUID(1)));
+        assertEquals("Hello, world!", Files.readString(storageService.load(getUUID(2))));
+
+        // Verify that the content is deleted with the last reference
+        assertTrue(storageService.delete(getUUID(2)));
+        assertEquals(0, countBlobs());
+        assertFalse(storageService.delete(getUUID(2)));
+    }
+
+    @Test
+    void initLoadsReferences() {
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(1));
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(2));
+
+        // Verify that a new instance sees the stored resources
+        ContentAddressedStorageService restarted = new ContentAddressedStorageService();
+        ReflectionTestUtils.setField(restarted, "fsConfiguration", fileStorageConfiguration);
+        restarted.init();
+        assertEquals(2, restarted.loadAll().count());
+        assertEquals(1, restarted.getBlobCount());
+        assertEquals(storageService.getMetadata(getUUID(2)), restarted.getMetadata(getUUID(2)));
+    }
+
+    @Test
+    void legacyResource() throws IOException {
+        Files.writeString(uploadDir.resolve(getUUID(1).toString()), "Hello, world!");
+
+        // Verify that resources of the previous layout are moved in on first access
+        assertEquals(13, storageService.getMetadata(getUUID(1)).getSize());
+        assertTrue(Files.notExists(uploadDir.resolve(getUUID(1).toString())));
+        assertEquals("Hello, world!", Files.readString(storageService.load(getUUID(1))));
+    }
+
+    @Test
+    void loadNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> storageService.getMetadata(getUUID(1)));
+        assertThrows(ResourceNotFoundException.class, () -> storageService.loadAsResource(getUUID(1)));
+        assertTrue(Files.notExists(storageService.load(getUUID(1))));
+    }
+
+    @Test
+    void deleteAll() {
+        storageService.store(stringToInputStream("Hello, world!"), getUUID(1));
+        storageService.deleteAll();
+
+        // Verify that the upload directory does not exist
+        assertTrue(Files.notExists(uploadDir));
+        assertEquals(0, storageService.loadAll().count());
+    }
+}
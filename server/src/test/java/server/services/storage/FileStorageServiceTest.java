@@ -4,8 +4,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.lenient;
 import static server.utils.TestHelpers.getUUID;
 
+import com.google.common.hash.Hashing;
 import java.io.*;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -137,6 +139,45 @@ class FileStorageServiceTest {
         assertEquals(1, fileStorageService.loadAll().count());
     }
 
+    @Test
+    void getMetadata() {
+        fileStorageService.store(stringToInputStream("GIF89a"), getUUID(1));
+
+        // Verify that the metadata is computed on store
+        ResourceMetadata metadata = fileStorageService.getMetadata(getUUID(1));
+        assertEquals("image/gif", metadata.getContentType());
+        assertEquals(6, metadata.getSize());
+        assertEquals(Hashing.sha256().hashString("GIF89a", StandardCharsets.UTF_8).toString(), metadata.getHash());
+        assertEquals("\"" + metadata.getHash() + "\"", metadata.getETag());
+    }
+
+    @Test
+    void getMetadataUnknownType() {
+        fileStorageService.store(stringToInputStream("Hello, world!"), getUUID(1));
+
+        // Verify that unknown content falls back to a binary type
+        assertEquals("application/octet-stream", fileStorageService.getMetadata(getUUID(1)).getContentType());
+    }
+
+    @Test
+    void getMetadataLegacy() throws IOException {
+        writeToFile(Paths.get(fileStorageConfiguration.getUploadDir(),
+                getUUID(1).toString()).toString(), "Hello World!");
+
+        // Verify that the metadata of files stored without it is computed
+        ResourceMetadata metadata = fileStorageService.getMetadata(getUUID(1));
+        assertEquals(12, metadata.getSize());
+        assertEquals(Hashing.sha256().hashString("Hello World!", StandardCharsets.UTF_8).toString(),
+                metadata.getHash());
+        // Verify that the sidecar file is not listed
+        assertEquals(1, fileStorageService.loadAll().count());
+    }
+
+    @Test
+    void getMetadataNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> fileStorageService.getMetadata(getUUID(2)));
+    }
+
     @Test
     void getURI() {
         fileStorageService.store(stringToInputStream("Hello, world!"), getUUID(1));
@@ -0,0 +1,148 @@
+package server.services.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static server.utils.TestHelpers.getUUID;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import server.configuration.ResourceConfiguration;
+import server.exceptions.ResourceNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class ImageDerivativeServiceTest {
+    @Mock
+    private StorageService storageService;
+
+    @Spy
+    private ResourceConfiguration resourceConfiguration = new ResourceConfiguration();
+
+    @InjectMocks
+    private ImageDerivativeService imageDerivativeService;
+
+    @TempDir
+    Path tmpDir;
+
+    private Path original;
+    private UUID derivativeId;
+
+    @BeforeEach
+    void setUp() {
+        original = tmpDir.resolve(getUUID(1).toString());
+        derivativeId = ImageDerivativeService.getDerivativeId(getUUID(1), 40);
+    }
+
+    private void stubLoad() {
+        when(storageService.load(getUUID(1))).thenReturn(original);
+        when(storageService.load(derivativeId)).thenReturn(tmpDir.resolve(derivativeId.toString()));
+    }
+
+    private void writeImage(int width, int height) throws IOException {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+    }
+
+    @Test
+    void getDerivative() throws IOException {
+        writeImage(400, 200);
+        stubLoad();
+
+        // Verify that the derivative is generated and stored
+        assertEquals(derivativeId, imageDerivativeService.getDerivative(getUUID(1), 40));
+        ArgumentCaptor<InputStream> stream = ArgumentCaptor.forClass(InputStream.class);
+        verify(storageService).store(stream.capture(), eq(derivativeId));
+        BufferedImage derivative = ImageIO.read(stream.getValue());
+        assertEquals(40, derivative.getWidth());
+        assertEquals(20, derivative.getHeight());
+
+        // Verify that it is only generated once
+        assertEquals(derivativeId, imageDerivativeService.getDerivative(getUUID(1), 40));
+        verify(storageService, times(1)).store(any(), any());
+    }
+
+    @Test
+    void getDerivativeStored() throws IOException {
+        Path derivative = tmpDir.resolve(derivativeId.toString());
+        Files.writeString(derivative, "stored");
+        when(storageService.load(derivativeId)).thenReturn(derivative);
+
+        // Verify that derivatives stored before are reused
+        assertEquals(derivativeId, imageDerivativeService.getDerivative(getUUID(1), 40));
+        verify(storageService, never()).store(any(), any());
+    }
+
+    @Test
+    void getDerivativeSmallImage() throws IOException {
+        writeImage(30, 30);
+        stubLoad();
+
+        // Verify that images which already fit are served as they are
+        assertEquals(getUUID(1), imageDerivativeService.getDerivative(getUUID(1), 40));
+        verify(storageService, never()).store(any(), any());
+    }
+
+    @Test
+    void getDerivativeNotAnImage() throws IOException {
+        Files.writeString(original, "Hello World!");
+        stubLoad();
+
+        // Verify that other resources are served as they are
+        assertEquals(getUUID(1), imageDerivativeService.getDerivative(getUUID(1), 40));
+        verify(storageService, never()).store(any(), any());
+    }
+
+    @Test
+    void delete() throws IOException {
+        writeImage(400, 200);
+        stubLoad();
+        assertEquals(derivativeId, imageDerivativeService.getDerivative(getUUID(1), 40));
+
+        // Verify that the derivatives of every size are deleted
+        imageDerivativeService.delete(getUUID(1));
+        for (int size : resourceConfiguration.getImageSizes()) {
+            verify(storageService).delete(ImageDerivativeService.getDerivativeId(getUUID(1), size));
+        }
+
+        // Verify that the deleted derivative is no longer served, but generated again
+        assertEquals(derivativeId, imageDerivativeService.getDerivative(getUUID(1), 40));
+        verify(storageService, times(2)).store(any(), eq(derivativeId));
+    }
+
+    @Test
+    void getDerivativeNotFound() {
+        stubLoad();
+
+        assertThrows(ResourceNotFoundException.class, () -> imageDerivativeService.getDerivative(getUUID(1), 40));
+    }
+
+    @Test
+    void getDerivativeUnsupportedSize() {
+        assertThrows(IllegalArgumentException.class, () -> imageDerivativeService.getDerivative(getUUID(1), 41));
+    }
+
+    @Test
+    void scale() {
+        BufferedImage scaled = ImageDerivativeService.scale(new BufferedImage(1000, 3000, BufferedImage.TYPE_INT_RGB),
+                64);
+        assertEquals(21, scaled.getWidth());
+        assertEquals(64, scaled.getHeight());
+    }
+}